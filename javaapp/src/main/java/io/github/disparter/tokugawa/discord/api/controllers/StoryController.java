@@ -8,6 +8,7 @@ import io.github.disparter.tokugawa.discord.api.dtos.ProgressDto;
 import io.github.disparter.tokugawa.discord.core.models.Chapter;
 import io.github.disparter.tokugawa.discord.core.models.Event;
 import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.services.ChapterDefinition;
 import io.github.disparter.tokugawa.discord.core.services.EventService;
 import io.github.disparter.tokugawa.discord.core.services.NarrativeService;
 import io.github.disparter.tokugawa.discord.core.services.ProgressService;
@@ -132,6 +133,43 @@ public class StoryController {
         }
     }
 
+    /**
+     * Get a chapter template personalized for a player.
+     *
+     * @param templateId the template ID, such as chapters.romance_route
+     * @param playerId the player ID
+     * @param npcId the NPC the chapter is about, if any
+     * @return the personalized chapter
+     */
+    @Operation(summary = "Get a template chapter", description = "Returns a chapter template filled in for a player")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Template chapter created successfully",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponseDto.class))),
+        @ApiResponse(responseCode = "200", description = "Failed to create template chapter (with error message)",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ApiResponseDto.class)))
+    })
+    @GetMapping("/templates/{templateId}")
+    public ResponseEntity<ApiResponseDto<ChapterDefinition>> getTemplateChapter(
+            @Parameter(description = "ID of the chapter template", required = true)
+            @PathVariable String templateId,
+            @Parameter(description = "ID of the player", required = true)
+            @RequestParam Long playerId,
+            @Parameter(description = "ID of the NPC the chapter is about")
+            @RequestParam(required = false) Long npcId) {
+
+        try {
+            ChapterDefinition chapter = narrativeService.getTemplateChapter(templateId, playerId, npcId);
+            if (chapter == null) {
+                return ResponseEntity.ok(ApiResponseDto.error("Player or NPC not found"));
+            }
+            return ResponseEntity.ok(ApiResponseDto.success(chapter));
+        } catch (Exception e) {
+            return ResponseEntity.ok(ApiResponseDto.error("Failed to create template chapter: " + e.getMessage()));
+        }
+    }
+
     /**
      * Make a choice in a chapter.
      *
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -42,8 +43,8 @@ public class ProgressDto {
         dto.setPlayerId(progress.getPlayer() != null ? progress.getPlayer().getId() : null);
         dto.setCurrentArc(progress.getCurrentArc());
         dto.setCurrentChapter(progress.getCurrentChapterId());
-        dto.setCompletedChapters(progress.getCompletedChapters());
-        dto.setCompletedArcs(progress.getCompletedArcs());
+        dto.setCompletedChapters(new ArrayList<>(progress.getCompletedChapters()));
+        dto.setCompletedArcs(new ArrayList<>(progress.getCompletedArcs()));
         dto.setChoices(progress.getChoices());
         dto.setTriggeredEvents(progress.getTriggeredEvents());
         dto.setCompletionPercentage(completionPercentage);
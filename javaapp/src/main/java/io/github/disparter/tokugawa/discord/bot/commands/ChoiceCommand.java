@@ -6,6 +6,7 @@ import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
 import io.github.disparter.tokugawa.discord.core.models.Chapter;
 import io.github.disparter.tokugawa.discord.core.models.Player;
 import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.services.DialogueRenderer;
 import io.github.disparter.tokugawa.discord.core.services.NarrativeService;
 import io.github.disparter.tokugawa.discord.core.services.PlayerService;
 import io.github.disparter.tokugawa.discord.core.services.ProgressService;
@@ -15,7 +16,6 @@ import reactor.core.publisher.Mono;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.List;
 
 /**
  * Command for making choices in the narrative.
@@ -27,12 +27,15 @@ public class ChoiceCommand implements SlashCommand {
     private final NarrativeService narrativeService;
     private final PlayerService playerService;
     private final ProgressService progressService;
+    private final DialogueRenderer dialogueRenderer;
 
     @Autowired
-    public ChoiceCommand(NarrativeService narrativeService, PlayerService playerService, ProgressService progressService) {
+    public ChoiceCommand(NarrativeService narrativeService, PlayerService playerService, ProgressService progressService,
+                         DialogueRenderer dialogueRenderer) {
         this.narrativeService = narrativeService;
         this.playerService = playerService;
         this.progressService = progressService;
+        this.dialogueRenderer = dialogueRenderer;
     }
 
     @Override
@@ -91,51 +94,31 @@ public class ChoiceCommand implements SlashCommand {
                                 .withEphemeral(true);
                     }
 
-                    // Get the updated progress
-                    Progress updatedProgress = (Progress) result.get("progress");
-
                     // Get the current chapter
-                    Chapter chapter = narrativeService.findChapterById(Long.valueOf(updatedProgress.getCurrentChapterId()));
+                    String currentChapterId = (String) result.get("current_chapter_id");
+                    Chapter chapter = narrativeService.findChapterById(Long.valueOf(currentChapterId));
                     if (chapter == null) {
                         return event.reply()
                                 .withContent("Erro ao obter o capítulo atual.")
                                 .withEphemeral(true);
                     }
 
-                    // Get the next dialogue
-                    int nextDialogueIndex = updatedProgress.getCurrentDialogueIndex();
-                    String nextDialogue = "...";
-                    List<String> dialogues = chapter.getDialogues();
-
-                    if (dialogues != null && !dialogues.isEmpty() && nextDialogueIndex < dialogues.size()) {
-                        nextDialogue = dialogues.get(nextDialogueIndex);
-                    }
-
                     // Check if we need to move to the next chapter
                     if (result.containsKey("next_chapter")) {
                         Chapter nextChapter = (Chapter) result.get("next_chapter");
 
-                        StringBuilder response = new StringBuilder("**Escolha processada!**\n\n")
-                                .append("Você avançou para o próximo capítulo: **")
-                                .append(nextChapter.getTitle())
-                                .append("**\n\n");
-
-                        // Get the first dialogue of the next chapter
-                        if (nextChapter.getDialogues() != null && !nextChapter.getDialogues().isEmpty()) {
-                            response.append(nextChapter.getDialogues().get(0));
-                        }
-
                         return event.reply()
-                                .withContent(response.toString())
+                                .withContent("**Escolha processada!**\n\nVocê avançou para o próximo capítulo: **"
+                                        + nextChapter.getTitle() + "**")
+                                .withEmbeds(dialogueRenderer.render(nextChapter, 0))
                                 .withEphemeral(false);
                     }
 
                     // Display the next dialogue
-                    StringBuilder response = new StringBuilder("**Escolha processada!**\n\n")
-                            .append(nextDialogue);
-
+                    int nextDialogueIndex = (Integer) result.get("next_dialogue_index");
                     return event.reply()
-                            .withContent(response.toString())
+                            .withContent("**Escolha processada!**")
+                            .withEmbeds(dialogueRenderer.render(chapter, nextDialogueIndex))
                             .withEphemeral(false);
                 });
     }
@@ -10,6 +10,7 @@ import io.github.disparter.tokugawa.discord.core.models.Player;
 import io.github.disparter.tokugawa.discord.core.models.NPC;
 import io.github.disparter.tokugawa.discord.core.models.Technique;
 import io.github.disparter.tokugawa.discord.core.services.DuelService;
+import io.github.disparter.tokugawa.discord.core.services.MatchmakingService;
 import io.github.disparter.tokugawa.discord.core.services.PlayerService;
 import io.github.disparter.tokugawa.discord.core.services.NPCService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,12 +31,15 @@ public class DuelCommand implements SlashCommand {
     private final PlayerService playerService;
     private final NPCService npcService;
     private final DuelService duelService;
+    private final MatchmakingService matchmakingService;
 
     @Autowired
-    public DuelCommand(PlayerService playerService, NPCService npcService, DuelService duelService) {
+    public DuelCommand(PlayerService playerService, NPCService npcService, DuelService duelService,
+                       MatchmakingService matchmakingService) {
         this.playerService = playerService;
         this.npcService = npcService;
         this.duelService = duelService;
+        this.matchmakingService = matchmakingService;
     }
 
     @Override
@@ -66,6 +70,10 @@ public class DuelCommand implements SlashCommand {
                     return handleCancelDuel(event, player);
                 case "techniques":
                     return handleViewTechniques(event, player);
+                case "queue":
+                    return handleJoinQueue(event, player);
+                case "leave_queue":
+                    return handleLeaveQueue(event, player);
                 default:
                     return event.reply()
                             .withEphemeral(true)
@@ -79,14 +87,21 @@ public class DuelCommand implements SlashCommand {
     }
 
     private Mono<Void> handleChallenge(ChatInputInteractionEvent event, Player player) {
-        // Get the NPC ID from the command options
+        // Get the opponent or the NPC ID from the command options
+        Optional<ApplicationCommandInteractionOptionValue> opponentOption = event.getOption("opponent")
+                .flatMap(ApplicationCommandInteractionOption::getValue);
+
+        if (opponentOption.isPresent()) {
+            return handlePvpChallenge(event, player, opponentOption.get().asSnowflake().asString());
+        }
+
         Optional<ApplicationCommandInteractionOptionValue> npcIdOption = event.getOption("npc_id")
                 .flatMap(ApplicationCommandInteractionOption::getValue);
 
         if (npcIdOption.isEmpty()) {
             return event.reply()
                     .withEphemeral(true)
-                    .withContent("Please specify an NPC to challenge.");
+                    .withContent("Please specify an NPC or a player to challenge.");
         }
 
         try {
@@ -125,6 +140,44 @@ public class DuelCommand implements SlashCommand {
         }
     }
 
+    private Mono<Void> handlePvpChallenge(ChatInputInteractionEvent event, Player player, String opponentDiscordId) {
+        Player opponent;
+        try {
+            opponent = playerService.findByDiscordId(opponentDiscordId);
+        } catch (IllegalArgumentException e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("That player has not registered yet.");
+        }
+
+        try {
+            // Initiate the duel
+            Map<String, Object> duelState = duelService.initiatePvpDuel(player.getId(), opponent.getId());
+
+            // Create an embed with the duel information, shown to both players
+            EmbedCreateSpec embed = EmbedCreateSpec.builder()
+                    .color(Color.BLUE)
+                    .title("Duel Initiated")
+                    .description(player.getName() + " has challenged " + opponent.getName() + " to a duel!")
+                    .addField("Duel ID", (String) duelState.get("duelId"), false)
+                    .addField(player.getName() + " Health", duelState.get("playerHealth").toString(), true)
+                    .addField(opponent.getName() + " Health", duelState.get("npcHealth").toString(), true)
+                    .addField("Round", duelState.get("round").toString(), false)
+                    .footer("Both players use /duel use_technique; the round is played once both have chosen.", null)
+                    .build();
+
+            return event.reply().withEmbeds(embed);
+        } catch (IllegalArgumentException e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Could not start the duel: " + e.getMessage());
+        } catch (Exception e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Error initiating duel: " + e.getMessage());
+        }
+    }
+
     private Mono<Void> handleUseTechnique(ChatInputInteractionEvent event, Player player) {
         // Get the duel ID and technique ID from the command options
         Optional<ApplicationCommandInteractionOptionValue> duelIdOption = event.getOption("duel_id")
@@ -145,7 +198,11 @@ public class DuelCommand implements SlashCommand {
             Long techniqueId = Long.parseLong(techniqueIdOption.get().asString());
 
             // Process the technique selection
-            Map<String, Object> duelState = duelService.processTechniqueSelection(duelId, techniqueId);
+            Map<String, Object> duelState = duelService.processTechniqueSelection(duelId, player.getId(), techniqueId);
+
+            if (Boolean.TRUE.equals(duelState.get("pvp"))) {
+                return replyToPvpRound(event, duelState);
+            }
 
             // Create an embed with the updated duel information
             EmbedCreateSpec.Builder embedBuilder = EmbedCreateSpec.builder()
@@ -188,6 +245,44 @@ public class DuelCommand implements SlashCommand {
         }
     }
 
+    /**
+     * Replies to a technique chosen in a player-versus-player duel: privately while the opponent
+     * has not chosen, otherwise with a single update of the round for both players.
+     */
+    private Mono<Void> replyToPvpRound(ChatInputInteractionEvent event, Map<String, Object> duelState) {
+        String playerName = (String) duelState.get("playerName");
+        String opponentName = (String) duelState.get("npcName");
+
+        if (Boolean.TRUE.equals(duelState.get("waiting"))) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Technique chosen for round " + duelState.get("round")
+                            + ". The round is played once your opponent has chosen.");
+        }
+
+        EmbedCreateSpec.Builder embedBuilder = EmbedCreateSpec.builder()
+                .color(Color.BLUE)
+                .title("Duel Update: " + playerName + " vs " + opponentName)
+                .addField("Duel ID", (String) duelState.get("duelId"), false)
+                .addField(playerName + " Health", duelState.get("playerHealth").toString(), true)
+                .addField(opponentName + " Health", duelState.get("npcHealth").toString(), true)
+                .addField(playerName + " Mana", duelState.get("playerMana").toString(), true)
+                .addField(opponentName + " Mana", duelState.get("npcMana").toString(), true)
+                .addField("Round", duelState.get("round").toString(), false)
+                .addField("Log", (String) duelState.get("log"), false);
+
+        if ("COMPLETED".equals(duelState.get("status"))) {
+            boolean playerWon = (boolean) duelState.get("playerWon");
+            embedBuilder.description((playerWon ? playerName : opponentName) + " won the duel!")
+                    .color(Color.GREEN);
+        } else {
+            embedBuilder.description("The duel continues!")
+                    .footer("Both players use /duel use_technique to choose their next technique.", null);
+        }
+
+        return event.reply().withEmbeds(embedBuilder.build());
+    }
+
     private Mono<Void> handleViewDuel(ChatInputInteractionEvent event, Player player) {
         // Get the duel ID from the command options
         Optional<ApplicationCommandInteractionOptionValue> duelIdOption = event.getOption("duel_id")
@@ -297,6 +392,58 @@ public class DuelCommand implements SlashCommand {
         }
     }
 
+    private Mono<Void> handleJoinQueue(ChatInputInteractionEvent event, Player player) {
+        try {
+            Map<String, Object> result = matchmakingService.joinQueue(player.getId());
+
+            if (!Boolean.TRUE.equals(result.get("matched"))) {
+                return event.reply()
+                        .withEphemeral(true)
+                        .withContent("You joined the duel queue with a rating of " + result.get("rating")
+                                + ". Players waiting: " + result.get("queueSize")
+                                + ". You will be challenged by the next player close to your rating.");
+            }
+
+            // Create an embed with the duel information, shown to both players
+            EmbedCreateSpec embed = EmbedCreateSpec.builder()
+                    .color(Color.BLUE)
+                    .title("Match Found")
+                    .description(result.get("playerName") + " (" + result.get("opponentRating") + ") will duel "
+                            + result.get("npcName") + " (" + result.get("rating") + ")!")
+                    .addField("Duel ID", (String) result.get("duelId"), false)
+                    .addField(result.get("playerName") + " Health", result.get("playerHealth").toString(), true)
+                    .addField(result.get("npcName") + " Health", result.get("npcHealth").toString(), true)
+                    .addField("Round", result.get("round").toString(), false)
+                    .footer("Both players use /duel use_technique; the round is played once both have chosen.", null)
+                    .build();
+
+            // Mention the player who was waiting, since they did not send this command
+            String challengerUserId = (String) result.get("challengerUserId");
+            if (challengerUserId == null) {
+                return event.reply().withEmbeds(embed);
+            }
+            return event.reply()
+                    .withContent("<@" + challengerUserId + ">")
+                    .withEmbeds(embed);
+        } catch (IllegalStateException e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Could not join the duel queue: " + e.getMessage());
+        } catch (Exception e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Error joining the duel queue: " + e.getMessage());
+        }
+    }
+
+    private Mono<Void> handleLeaveQueue(ChatInputInteractionEvent event, Player player) {
+        boolean left = matchmakingService.leaveQueue(player.getId());
+
+        return event.reply()
+                .withEphemeral(true)
+                .withContent(left ? "You left the duel queue." : "You are not in the duel queue.");
+    }
+
     private Mono<Void> handleViewTechniques(ChatInputInteractionEvent event, Player player) {
         try {
             // Get the player's techniques
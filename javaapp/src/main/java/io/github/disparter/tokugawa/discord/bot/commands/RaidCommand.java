@@ -0,0 +1,124 @@
+package io.github.disparter.tokugawa.discord.bot.commands;
+
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.object.command.ApplicationCommandInteractionOption;
+import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
+import discord4j.core.object.entity.User;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.rest.util.Color;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.services.PlayerService;
+import io.github.disparter.tokugawa.discord.core.services.RaidService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Command for raiding bosses together with other players.
+ */
+@Component
+public class RaidCommand implements SlashCommand {
+
+    private final PlayerService playerService;
+    private final RaidService raidService;
+
+    @Autowired
+    public RaidCommand(PlayerService playerService, RaidService raidService) {
+        this.playerService = playerService;
+        this.raidService = raidService;
+    }
+
+    @Override
+    public String getName() {
+        return "raid";
+    }
+
+    @Override
+    public Mono<Void> execute(ChatInputInteractionEvent event) {
+        // Get the Discord user
+        User user = event.getInteraction().getUser();
+
+        Player player;
+        try {
+            player = playerService.findByDiscordId(user.getId().asString());
+        } catch (IllegalArgumentException e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("You need to register first. Use /register to create your character.");
+        }
+
+        // Get the subcommand and the boss's villain ID
+        String subcommand = event.getOptions().get(0).getName();
+        Optional<ApplicationCommandInteractionOptionValue> villainIdOption = event.getOption("villain_id")
+                .flatMap(ApplicationCommandInteractionOption::getValue);
+
+        if (villainIdOption.isEmpty()) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Please specify the boss to raid.");
+        }
+
+        try {
+            Long villainId = Long.parseLong(villainIdOption.get().asString());
+
+            switch (subcommand) {
+                case "attack":
+                    return handleAttack(event, player, villainId);
+                case "status":
+                    return handleStatus(event, villainId);
+                default:
+                    return event.reply()
+                            .withEphemeral(true)
+                            .withContent("Unknown subcommand: " + subcommand);
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Could not raid the boss: " + e.getMessage());
+        } catch (Exception e) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("Error raiding the boss: " + e.getMessage());
+        }
+    }
+
+    private Mono<Void> handleAttack(ChatInputInteractionEvent event, Player player, Long villainId) {
+        Map<String, Object> result = raidService.attack(villainId, player.getId());
+
+        if (!Boolean.TRUE.equals(result.get("killingBlow"))) {
+            return event.reply()
+                    .withEphemeral(true)
+                    .withContent("You dealt " + result.get("damage") + " damage to " + result.get("villainName")
+                            + ". Health: " + result.get("health") + "/" + result.get("maxHealth"));
+        }
+
+        // Announce the defeat to everyone
+        EmbedCreateSpec embed = EmbedCreateSpec.builder()
+                .color(Color.GREEN)
+                .title("Boss Defeated")
+                .description(player.getName() + " dealt the killing blow to " + result.get("villainName") + "!")
+                .addField("Attackers", result.get("attackers").toString(), true)
+                .addField("Your Rewards", result.get("rewards").toString(), true)
+                .footer("Rewards are shared by damage dealt.", null)
+                .build();
+
+        return event.reply().withEmbeds(embed);
+    }
+
+    private Mono<Void> handleStatus(ChatInputInteractionEvent event, Long villainId) {
+        Map<String, Object> status = raidService.getRaidStatus(villainId);
+
+        EmbedCreateSpec embed = EmbedCreateSpec.builder()
+                .color(Color.RED)
+                .title("Raid on " + status.get("villainName"))
+                .addField("Health", status.get("health") + "/" + status.get("maxHealth"), true)
+                .addField("Attackers", status.get("attackers").toString(), true)
+                .addField("Hits", status.get("hits").toString(), true)
+                .build();
+
+        return event.reply().withEmbeds(embed);
+    }
+}
@@ -6,6 +6,7 @@ import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
 import io.github.disparter.tokugawa.discord.core.models.Chapter;
 import io.github.disparter.tokugawa.discord.core.models.Player;
 import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.services.DialogueRenderer;
 import io.github.disparter.tokugawa.discord.core.services.NarrativeService;
 import io.github.disparter.tokugawa.discord.core.services.PlayerService;
 import io.github.disparter.tokugawa.discord.core.services.ProgressService;
@@ -25,12 +26,15 @@ public class StoryCommand implements SlashCommand {
     private final NarrativeService narrativeService;
     private final PlayerService playerService;
     private final ProgressService progressService;
+    private final DialogueRenderer dialogueRenderer;
 
     @Autowired
-    public StoryCommand(NarrativeService narrativeService, PlayerService playerService, ProgressService progressService) {
+    public StoryCommand(NarrativeService narrativeService, PlayerService playerService, ProgressService progressService,
+                        DialogueRenderer dialogueRenderer) {
         this.narrativeService = narrativeService;
         this.playerService = playerService;
         this.progressService = progressService;
+        this.dialogueRenderer = dialogueRenderer;
     }
 
     @Override
@@ -112,18 +116,8 @@ public class StoryCommand implements SlashCommand {
         }
 
         // Display the first dialogue
-        String firstDialogue = "...";
-        if (chapter.getDialogues() != null && !chapter.getDialogues().isEmpty()) {
-            firstDialogue = chapter.getDialogues().get(0);
-        }
-
-        StringBuilder response = new StringBuilder("**")
-                .append(chapter.getTitle())
-                .append("**\n\n")
-                .append(firstDialogue);
-
         return event.reply()
-                .withContent(response.toString())
+                .withEmbeds(dialogueRenderer.render(chapter, 0))
                 .withEphemeral(false);
     }
 }
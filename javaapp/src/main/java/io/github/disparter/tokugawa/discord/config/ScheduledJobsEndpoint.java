@@ -0,0 +1,49 @@
+package io.github.disparter.tokugawa.discord.config;
+
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor;
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor.JobRun;
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor.JobSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing the scheduled job summaries at {@code /actuator/scheduledjobs}
+ * and the run history of a job at {@code /actuator/scheduledjobs/{job}}.
+ */
+@Component
+@Endpoint(id = "scheduledjobs")
+public class ScheduledJobsEndpoint {
+
+    private final ScheduledJobMonitor scheduledJobMonitor;
+
+    @Autowired
+    public ScheduledJobsEndpoint(ScheduledJobMonitor scheduledJobMonitor) {
+        this.scheduledJobMonitor = scheduledJobMonitor;
+    }
+
+    /**
+     * Gets the summary of every scheduled job.
+     *
+     * @return the job summaries
+     */
+    @ReadOperation
+    public List<JobSummary> jobs() {
+        return scheduledJobMonitor.getJobs();
+    }
+
+    /**
+     * Gets the recent runs of a scheduled job.
+     *
+     * @param job the job name, e.g. {@code EventsManager.handleDailyEvents}
+     * @return the runs, most recent first
+     */
+    @ReadOperation
+    public List<JobRun> history(@Selector String job) {
+        return scheduledJobMonitor.getHistory(job);
+    }
+}
@@ -1,12 +1,24 @@
 package io.github.disparter.tokugawa.discord.config;
 
+import io.github.disparter.tokugawa.discord.utils.GameClock;
+import io.github.disparter.tokugawa.discord.utils.GameTimeTaskScheduler;
+import io.github.disparter.tokugawa.discord.utils.MonitoredTaskScheduler;
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 /**
  * Configuration class for scheduling tasks.
  * This enables the @Scheduled annotations in the application.
@@ -17,19 +29,75 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 public class SchedulingConfig {
 
 
+    /**
+     * Creates the game clock used for every game timestamp and schedule.
+     * With a speed above 1 or a start date, game time runs accelerated from that date.
+     *
+     * @param speed how many game seconds pass per real second
+     * @param start the game date to start from (ISO local date-time), or empty for the current date
+     * @return The game clock
+     */
+    @Bean
+    public GameClock gameClock(@Value("${tokugawa.clock.speed:1}") long speed,
+                               @Value("${tokugawa.clock.start:}") String start) {
+        ZoneId zone = ZoneId.systemDefault();
+        if (speed == 1 && start.isBlank()) {
+            return GameClock.system(zone);
+        }
+
+        Instant gameStart = start.isBlank() ? Instant.now() : LocalDateTime.parse(start).atZone(zone).toInstant();
+        log.warn("Game clock running accelerated: speed {}x, starting at {}", speed, gameStart);
+        return GameClock.accelerated(Clock.system(zone), gameStart, speed);
+    }
+
+    /**
+     * Creates the monitor that instruments every scheduled job.
+     *
+     * @param meterRegistry The meter registry
+     * @param gameClock The game clock
+     * @param historySize The number of runs kept per job
+     * @return The scheduled job monitor
+     */
+    @Bean
+    public ScheduledJobMonitor scheduledJobMonitor(MeterRegistry meterRegistry, GameClock gameClock,
+                                                   @Value("${tokugawa.scheduling.history-size:50}") int historySize) {
+        return new ScheduledJobMonitor(meterRegistry, gameClock, historySize);
+    }
+
     /**
      * Creates a task scheduler for scheduled tasks.
+     * Every task runs through the job monitor. When the game clock is accelerated, triggers and
+     * periods are evaluated in game time.
      *
+     * @param gameClock The game clock
+     * @param scheduledJobMonitor The scheduled job monitor
+     * @param meterRegistry The meter registry
+     * @param poolSize The number of scheduler threads
      * @return The task scheduler
      */
     @Bean
-    public TaskScheduler taskScheduler() {
+    public TaskScheduler taskScheduler(GameClock gameClock, ScheduledJobMonitor scheduledJobMonitor,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${tokugawa.scheduling.pool-size:5}") int poolSize) {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(5); // Set an appropriate pool size
+        scheduler.setPoolSize(poolSize);
         scheduler.setThreadNamePrefix("event-scheduler-");
         scheduler.setErrorHandler(throwable -> {
             log.error("Error in scheduled task: {}", throwable.getMessage(), throwable);
         });
-        return scheduler;
+        scheduler.initialize();
+
+        Gauge.builder("tokugawa.scheduler.active", scheduler, ThreadPoolTaskScheduler::getActiveCount)
+                .description("Scheduler threads currently running a task")
+                .register(meterRegistry);
+        Gauge.builder("tokugawa.scheduler.queued", scheduler,
+                        s -> s.getScheduledThreadPoolExecutor().getQueue().size())
+                .description("Tasks waiting in the scheduler queue")
+                .register(meterRegistry);
+
+        TaskScheduler gameTimeScheduler = gameClock.isAccelerated()
+                ? new GameTimeTaskScheduler(scheduler, gameClock)
+                : scheduler;
+        return new MonitoredTaskScheduler(gameTimeScheduler, scheduledJobMonitor);
     }
 }
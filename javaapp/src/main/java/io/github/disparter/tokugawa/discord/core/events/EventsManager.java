@@ -2,9 +2,14 @@ package io.github.disparter.tokugawa.discord.core.events;
 
 import lombok.extern.slf4j.Slf4j;
 import io.github.disparter.tokugawa.discord.bot.DiscordBot;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+import io.github.disparter.tokugawa.discord.core.services.DeadlineService;
 import io.github.disparter.tokugawa.discord.core.services.PlayerService;
+import io.github.disparter.tokugawa.discord.core.services.PvpDuelCompletedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -12,6 +17,7 @@ import reactor.core.publisher.Mono;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.time.Clock;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
@@ -27,6 +33,8 @@ public class EventsManager {
     private final DiscordBot discordBot;
     private final PlayerService playerService;
     private final TaskScheduler taskScheduler;
+    private final DeadlineService deadlineService;
+    private final Clock clock;
     
     private final DailyEvents dailyEvents;
     private final WeeklyEvents weeklyEvents;
@@ -44,19 +52,25 @@ public class EventsManager {
      * @param discordBot The Discord bot instance
      * @param playerService The player service
      * @param taskScheduler The task scheduler
+     * @param deadlineService The deadline service
+     * @param clock The game clock
      */
     @Autowired
     public EventsManager(DiscordBot discordBot, 
                          PlayerService playerService,
-                         TaskScheduler taskScheduler) {
+                         TaskScheduler taskScheduler,
+                         DeadlineService deadlineService,
+                         Clock clock) {
         this.discordBot = discordBot;
         this.playerService = playerService;
         this.taskScheduler = taskScheduler;
+        this.deadlineService = deadlineService;
+        this.clock = clock;
         
         // Initialize event handlers
         this.dailyEvents = new DailyEvents(discordBot, playerService, eventsChannelId);
-        this.weeklyEvents = new WeeklyEvents(discordBot, playerService, eventsChannelId);
-        this.specialEvents = new SpecialEvents(discordBot, playerService, eventsChannelId);
+        this.weeklyEvents = new WeeklyEvents(discordBot, playerService, deadlineService, clock, eventsChannelId);
+        this.specialEvents = new SpecialEvents(discordBot, playerService, deadlineService, clock, eventsChannelId);
     }
     
     /**
@@ -65,6 +79,10 @@ public class EventsManager {
      */
     @PostConstruct
     public void init() {
+        // End tournaments and special events exactly when their deadline expires
+        deadlineService.registerHandler(DeadlineType.TOURNAMENT_END, targetId -> checkForEndingEvents());
+        deadlineService.registerHandler(DeadlineType.SPECIAL_EVENT_END, targetId -> checkForEndingEvents());
+
         start();
     }
     
@@ -205,11 +223,31 @@ public class EventsManager {
         }
     }
     
+    /**
+     * Score a finished player-versus-player duel in the weekly tournament.
+     *
+     * @param event The duel result
+     */
+    @EventListener
+    public void onPvpDuelCompleted(PvpDuelCompletedEvent event) {
+        try {
+            Player winner = playerService.findById(event.getWinnerId());
+            Player loser = playerService.findById(event.getLoserId());
+
+            weeklyEvents.recordTournamentDuel(winner.getUserId(), loser.getUserId())
+                    .subscribe(
+                            null,
+                            e -> log.error("Error scoring tournament duel: {}", e.getMessage(), e)
+                    );
+        } catch (Exception e) {
+            log.error("Error scoring duel {}: {}", event.getDuelId(), e.getMessage(), e);
+        }
+    }
+    
     /**
      * Check for ending events.
-     * This method is scheduled to run every hour.
+     * This method is invoked by the deadline service when a tournament or special event expires.
      */
-    @Scheduled(cron = "0 0 * * * *") // Run every hour
     public void checkForEndingEvents() {
         if (!isRunning) {
             return;
@@ -7,10 +7,13 @@ import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.core.spec.MessageCreateSpec;
 import discord4j.rest.util.Color;
 import io.github.disparter.tokugawa.discord.bot.DiscordBot;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+import io.github.disparter.tokugawa.discord.core.services.DeadlineService;
 import io.github.disparter.tokugawa.discord.core.services.PlayerService;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,7 +28,14 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class SpecialEvents extends BaseEvent {
 
+    /**
+     * Target ID used for the special event deadline; only one runs at a time.
+     */
+    public static final String SPECIAL_EVENT_TARGET = "special";
+
     private final PlayerService playerService;
+    private final DeadlineService deadlineService;
+    private final Clock clock;
     private Map<String, Object> currentEvent = null;
     private Map<String, Map<String, Object>> eventParticipants = new ConcurrentHashMap<>();
     private LocalDateTime eventEndTime = null;
@@ -35,11 +45,16 @@ public class SpecialEvents extends BaseEvent {
      *
      * @param discordBot The Discord bot instance
      * @param playerService The player service
+     * @param deadlineService The deadline service used to end the event on time
+     * @param clock The game clock
      * @param channelId The channel ID for announcements (optional)
      */
-    public SpecialEvents(DiscordBot discordBot, PlayerService playerService, Long channelId) {
+    public SpecialEvents(DiscordBot discordBot, PlayerService playerService,
+                         DeadlineService deadlineService, Clock clock, Long channelId) {
         super(discordBot, channelId);
         this.playerService = playerService;
+        this.deadlineService = deadlineService;
+        this.clock = clock;
     }
 
     /**
@@ -62,7 +77,7 @@ public class SpecialEvents extends BaseEvent {
             switch (eventType) {
                 case "seasonal":
                     // Determine current season
-                    int month = LocalDateTime.now().getMonthValue();
+                    int month = LocalDateTime.now(clock).getMonthValue();
                     String season;
                     if (month >= 3 && month <= 5) {
                         season = "Primavera";
@@ -108,13 +123,14 @@ public class SpecialEvents extends BaseEvent {
             }
 
             eventData.put("type", eventType);
-            eventData.put("start_time", LocalDateTime.now());
-            eventData.put("end_time", LocalDateTime.now().plusDays((int) eventData.get("duration_days")));
+            eventData.put("start_time", LocalDateTime.now(clock));
+            eventData.put("end_time", LocalDateTime.now(clock).plusDays((int) eventData.get("duration_days")));
 
             // Set event data
             currentEvent = eventData;
             eventParticipants.clear();
             eventEndTime = (LocalDateTime) eventData.get("end_time");
+            deadlineService.schedule(DeadlineType.SPECIAL_EVENT_END, SPECIAL_EVENT_TARGET, eventEndTime);
 
             // Announce event
             return sendSpecialEventAnnouncement()
@@ -208,7 +224,7 @@ public class SpecialEvents extends BaseEvent {
         Map<String, Object> participantData = new HashMap<>();
         participantData.put("username", username);
         participantData.put("score", 0);
-        participantData.put("join_time", LocalDateTime.now());
+        participantData.put("join_time", LocalDateTime.now(clock));
 
         eventParticipants.put(userId, participantData);
         log.info("Player {} registered for the special event", username);
@@ -300,6 +316,7 @@ public class SpecialEvents extends BaseEvent {
         }
 
         // Reset event data
+        deadlineService.cancel(DeadlineType.SPECIAL_EVENT_END, SPECIAL_EVENT_TARGET);
         currentEvent = null;
         eventParticipants.clear();
         eventEndTime = null;
@@ -314,7 +331,7 @@ public class SpecialEvents extends BaseEvent {
      * @return A Mono that completes when the check is done
      */
     public Mono<Void> checkForEndingSpecialEvent() {
-        if (currentEvent != null && eventEndTime != null && LocalDateTime.now().isAfter(eventEndTime)) {
+        if (currentEvent != null && eventEndTime != null && !LocalDateTime.now(clock).isBefore(eventEndTime)) {
             log.info("Special event has ended, processing results");
             return endSpecialEvent();
         }
@@ -333,7 +350,7 @@ public class SpecialEvents extends BaseEvent {
         }
 
         // Check for seasonal events
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
         int month = now.getMonthValue();
         int day = now.getDayOfMonth();
 
@@ -7,10 +7,13 @@ import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.core.spec.MessageCreateSpec;
 import discord4j.rest.util.Color;
 import io.github.disparter.tokugawa.discord.bot.DiscordBot;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+import io.github.disparter.tokugawa.discord.core.services.DeadlineService;
 import io.github.disparter.tokugawa.discord.core.services.PlayerService;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,7 +28,19 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class WeeklyEvents extends BaseEvent {
 
+    /**
+     * Target ID used for the tournament deadline; only one runs at a time.
+     */
+    public static final String TOURNAMENT_TARGET = "weekly";
+
+    /**
+     * Score awarded for winning a duel against another participant.
+     */
+    public static final int DUEL_WIN_SCORE = 3;
+
     private final PlayerService playerService;
+    private final DeadlineService deadlineService;
+    private final Clock clock;
     private Map<String, Object> currentTournament = null;
     private Map<String, Map<String, Object>> tournamentParticipants = new ConcurrentHashMap<>();
     private LocalDateTime tournamentEndTime = null;
@@ -35,11 +50,16 @@ public class WeeklyEvents extends BaseEvent {
      *
      * @param discordBot The Discord bot instance
      * @param playerService The player service
+     * @param deadlineService The deadline service used to end the tournament on time
+     * @param clock The game clock
      * @param channelId The channel ID for announcements (optional)
      */
-    public WeeklyEvents(DiscordBot discordBot, PlayerService playerService, Long channelId) {
+    public WeeklyEvents(DiscordBot discordBot, PlayerService playerService,
+                        DeadlineService deadlineService, Clock clock, Long channelId) {
         super(discordBot, channelId);
         this.playerService = playerService;
+        this.deadlineService = deadlineService;
+        this.clock = clock;
     }
 
     /**
@@ -72,13 +92,14 @@ public class WeeklyEvents extends BaseEvent {
             Map<String, Object> tournamentData = new HashMap<>();
             tournamentData.put("name", tournamentType);
             tournamentData.put("description", "Participe do " + tournamentType + " e ganhe pontos para sua turma!");
-            tournamentData.put("start_time", LocalDateTime.now());
-            tournamentData.put("end_time", LocalDateTime.now().plusDays(7));
+            tournamentData.put("start_time", LocalDateTime.now(clock));
+            tournamentData.put("end_time", LocalDateTime.now(clock).plusDays(7));
 
             // Set tournament data
             currentTournament = tournamentData;
             tournamentParticipants.clear();
             tournamentEndTime = (LocalDateTime) tournamentData.get("end_time");
+            deadlineService.schedule(DeadlineType.TOURNAMENT_END, TOURNAMENT_TARGET, tournamentEndTime);
 
             // Announce tournament
             return sendTournamentAnnouncement()
@@ -171,7 +192,7 @@ public class WeeklyEvents extends BaseEvent {
         Map<String, Object> participantData = new HashMap<>();
         participantData.put("username", username);
         participantData.put("score", 0);
-        participantData.put("join_time", LocalDateTime.now());
+        participantData.put("join_time", LocalDateTime.now(clock));
 
         tournamentParticipants.put(userId, participantData);
         log.info("Player {} registered for the tournament", username);
@@ -207,6 +228,23 @@ public class WeeklyEvents extends BaseEvent {
         return Mono.empty();
     }
 
+    /**
+     * Score a player-versus-player duel. Only duels between two participants count.
+     *
+     * @param winnerUserId The user ID of the player who won
+     * @param loserUserId The user ID of the player who lost
+     * @return A Mono that completes when the score is updated
+     */
+    public Mono<Void> recordTournamentDuel(String winnerUserId, String loserUserId) {
+        if (currentTournament == null
+                || !tournamentParticipants.containsKey(winnerUserId)
+                || !tournamentParticipants.containsKey(loserUserId)) {
+            return Mono.empty();
+        }
+
+        return updateTournamentScore(winnerUserId, DUEL_WIN_SCORE);
+    }
+
     /**
      * End the current tournament.
      *
@@ -268,6 +306,7 @@ public class WeeklyEvents extends BaseEvent {
                 .build();
 
         // Reset tournament data
+        deadlineService.cancel(DeadlineType.TOURNAMENT_END, TOURNAMENT_TARGET);
         currentTournament = null;
         tournamentParticipants.clear();
         tournamentEndTime = null;
@@ -282,7 +321,7 @@ public class WeeklyEvents extends BaseEvent {
      * @return A Mono that completes when the check is done
      */
     public Mono<Void> checkForEndingTournament() {
-        if (currentTournament != null && tournamentEndTime != null && LocalDateTime.now().isAfter(tournamentEndTime)) {
+        if (currentTournament != null && tournamentEndTime != null && !LocalDateTime.now(clock).isBefore(tournamentEndTime)) {
             log.info("Tournament has ended, processing results");
             return endTournament();
         }
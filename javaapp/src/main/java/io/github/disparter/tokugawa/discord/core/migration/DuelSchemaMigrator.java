@@ -0,0 +1,49 @@
+package io.github.disparter.tokugawa.discord.core.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration of the duel table for player-versus-player duels, which have an opponent instead of
+ * an NPC.
+ * Schema updates never relax a column, so a database created while the duel's NPC was required
+ * keeps its NOT NULL constraint on npc_id until this drops it. It runs at every startup and
+ * only alters the column while it is still NOT NULL, so it is a no-op after the first run.
+ */
+@Component
+@Slf4j
+public class DuelSchemaMigrator implements CommandLineRunner {
+
+    private static final String NPC_COLUMN_NULLABLE = "SELECT is_nullable FROM information_schema.columns "
+            + "WHERE LOWER(table_schema) = LOWER(CURRENT_SCHEMA) AND LOWER(table_name) = 'duel' "
+            + "AND LOWER(column_name) = 'npc_id'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    @Autowired
+    public DuelSchemaMigrator(
+            JdbcTemplate jdbcTemplate,
+            @Value("${tokugawa.duels.migrate-schema:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!jdbcTemplate.queryForList(NPC_COLUMN_NULLABLE, String.class).contains("NO")) {
+            return;
+        }
+
+        log.info("Dropping the NOT NULL constraint of duel.npc_id for player-versus-player duels");
+        jdbcTemplate.execute("ALTER TABLE duel ALTER COLUMN npc_id DROP NOT NULL");
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.disparter.tokugawa.discord.core.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.github.disparter.tokugawa.discord.core.services.ChapterLoader;
+import io.github.disparter.tokugawa.discord.core.services.NarrativeBundle;
+import io.github.disparter.tokugawa.discord.core.services.NarrativeValidator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Build-time compiler of the story mode narrative, run by the {@code compileNarrative} Gradle task.
+ * It loads the narrative directory and archive with the same {@link ChapterLoader} rules as the
+ * application, validates the result with the {@link NarrativeValidator} and writes a
+ * {@link NarrativeBundle}.
+ * <p>
+ * Errors listed in the validation baseline are known gaps in the content and are reported as
+ * warnings; any other error fails the build. Baseline entries that no longer occur are reported
+ * so they can be removed.
+ */
+@Slf4j
+public final class NarrativeBundleCompiler {
+
+    private NarrativeBundleCompiler() {
+    }
+
+    /**
+     * Compiles the narrative.
+     *
+     * @param args the data directory, the narrative directory, the narrative archive, the
+     *             validation baseline and the bundle file to write
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5) {
+            System.err.println("Usage: NarrativeBundleCompiler <data directory> <narrative directory> "
+                    + "<narrative archive> <validation baseline> <bundle>");
+            System.exit(2);
+        }
+
+        List<String> errors = compile(args[0], Paths.get(args[1]), Paths.get(args[2]), Paths.get(args[3]),
+                Paths.get(args[4]));
+        if (!errors.isEmpty()) {
+            errors.forEach(error -> System.err.println("ERROR: " + error));
+            System.err.println(errors.size() + " narrative validation errors, see above. Fix the content or, "
+                    + "for a known gap, add the error to " + args[3]);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Loads, validates and writes the narrative.
+     *
+     * @param dataDirectory the data directory, normally empty at build time
+     * @param narrativeDirectory the story mode narrative directory
+     * @param narrativeArchive the narrative archive
+     * @param baselineFile the file listing known validation errors, one per line
+     * @param bundleFile the bundle to write
+     * @return the validation errors not in the baseline; the bundle is only written if there are none
+     */
+    public static List<String> compile(String dataDirectory, Path narrativeDirectory, Path narrativeArchive,
+                                       Path baselineFile, Path bundleFile) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ChapterLoader chapterLoader = new ChapterLoader(null, objectMapper, dataDirectory,
+                "file:" + narrativeDirectory.toAbsolutePath(), "file:" + narrativeArchive.toAbsolutePath(), "");
+        Map<String, Chapter> chapters = chapterLoader.readChapters();
+
+        Set<String> errors = new LinkedHashSet<>(chapterLoader.getLoadErrors());
+        errors.addAll(new NarrativeValidator(chapterLoader, objectMapper).validateNarrative(chapters));
+
+        Set<String> baseline = new LinkedHashSet<>();
+        if (Files.exists(baselineFile)) {
+            for (String line : Files.readAllLines(baselineFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    baseline.add(line.trim());
+                }
+            }
+        }
+
+        List<String> newErrors = new ArrayList<>();
+        for (String error : errors) {
+            if (baseline.contains(error)) {
+                log.warn("Known narrative issue: {}", error);
+            } else {
+                newErrors.add(error);
+            }
+        }
+        for (String entry : baseline) {
+            if (!errors.contains(entry)) {
+                log.info("Baseline entry no longer occurs and can be removed: {}", entry);
+            }
+        }
+        if (!newErrors.isEmpty()) {
+            return newErrors;
+        }
+
+        Files.createDirectories(bundleFile.toAbsolutePath().getParent());
+        try (OutputStream output = Files.newOutputStream(bundleFile)) {
+            NarrativeBundle.write(chapters.values(), output);
+        }
+        log.info("Compiled {} chapters into {} ({} bytes)", chapters.size(), bundleFile, Files.size(bundleFile));
+        return newErrors;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.disparter.tokugawa.discord.core.migration;
+
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Migration of completed chapters and arcs from the legacy collection tables to the completion
+ * bitsets on {@link Progress}.
+ * It runs at every startup and only touches records that still have legacy rows, which are
+ * removed once copied, so it is a no-op after the first run.
+ */
+@Component
+@Slf4j
+public class ProgressCompletionMigrator implements CommandLineRunner {
+
+    private final ProgressRepository progressRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    @Autowired
+    public ProgressCompletionMigrator(
+            ProgressRepository progressRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${tokugawa.progress.migrate-completion:true}") boolean enabled) {
+        this.progressRepository = progressRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<Long> progressIds = new LinkedHashSet<>(progressRepository.findIdsWithLegacyCompletedChapters());
+        progressIds.addAll(progressRepository.findIdsWithLegacyCompletedArcs());
+        if (progressIds.isEmpty()) {
+            return;
+        }
+
+        log.info("Migrating completed chapters and arcs of {} progress records to bitsets", progressIds.size());
+        for (Long progressId : progressIds) {
+            transactionTemplate.executeWithoutResult(status -> migrate(progressId));
+        }
+        log.info("Completion migration finished");
+    }
+
+    /**
+     * Copies the legacy completions of a progress record into its bitsets and clears them.
+     *
+     * @param progressId the progress ID
+     */
+    void migrate(Long progressId) {
+        progressRepository.findById(progressId).ifPresent(progress -> {
+            progress.getCompletedChapters().addAll(progress.getLegacyCompletedChapters());
+            progress.getCompletedArcs().addAll(progress.getLegacyCompletedArcs());
+            progress.getLegacyCompletedChapters().clear();
+            progress.getLegacyCompletedArcs().clear();
+            progressRepository.save(progress);
+        });
+    }
+}
@@ -0,0 +1,327 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only log of the actions of a duel, stored as compact binary entries.
+ * Each entry is a header byte (entry type, actor and critical flag) followed by the round, the
+ * technique ID, the damage and the mana cost as unsigned varints, so a typical entry takes five
+ * bytes. Appending never rewrites earlier entries, and the entries of the latest round can be
+ * read without decoding the whole log; the text is only rendered when it is shown.
+ * <p>
+ * A log has a single writer. Readers on other threads can copy the bytes appended so far with
+ * {@link #toByteArray(int, int)}.
+ * <p>
+ * Two logs are equal when they hold the same entries, so Hibernate's dirty check only writes the
+ * log of a loaded duel when it changed.
+ */
+public class CombatLog {
+
+    /**
+     * Type of a combat log entry.
+     */
+    public enum EntryType {
+        START,
+        TECHNIQUE,
+        BASIC_ATTACK,
+        VICTORY,
+        DAMAGE_OVER_TIME
+    }
+
+    /**
+     * Side of the duel that acted. For a victory, the winner; for damage over time, the side
+     * that took it.
+     */
+    public enum Actor {
+        PLAYER,
+        NPC
+    }
+
+    /**
+     * A decoded combat log entry.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Entry {
+        private int round;
+        private EntryType type;
+        private Actor actor;
+        private Long techniqueId;
+        private int damage;
+        private boolean critical;
+        private int manaCost;
+    }
+
+    private static final int TYPE_MASK = 0x07;
+    private static final int NPC_FLAG = 0x08;
+    private static final int CRITICAL_FLAG = 0x10;
+
+    /**
+     * Upper bound of the encoded size of an entry: the header and four varints.
+     */
+    private static final int MAX_ENTRY_SIZE = 1 + 5 + 10 + 5 + 5;
+
+    private volatile byte[] bytes = new byte[64];
+    private volatile int length;
+    private int lastRound = -1;
+    private int lastRoundOffset;
+
+    /**
+     * Decodes a log stored with {@link #toByteArray()}.
+     *
+     * @param encoded the stored entries, or null for an empty log
+     * @return the log
+     */
+    public static CombatLog fromByteArray(byte[] encoded) {
+        CombatLog log = new CombatLog();
+        if (encoded != null) {
+            log.appendEncoded(encoded);
+        }
+        return log;
+    }
+
+    /**
+     * Appends an entry.
+     *
+     * @param round the round
+     * @param type the entry type
+     * @param actor the side that acted
+     * @param techniqueId the technique used, or null
+     * @param damage the damage dealt
+     * @param critical whether the hit was critical
+     * @param manaCost the mana spent
+     */
+    public void append(int round, EntryType type, Actor actor, Long techniqueId, int damage, boolean critical,
+                       int manaCost) {
+        if (round < 0 || damage < 0 || manaCost < 0 || (techniqueId != null && techniqueId < 0)) {
+            throw new IllegalArgumentException("Combat log values must not be negative");
+        }
+
+        int offset = length;
+        byte[] target = ensureCapacity(offset + MAX_ENTRY_SIZE);
+        int position = offset;
+        target[position++] = (byte) (type.ordinal()
+                | (actor == Actor.NPC ? NPC_FLAG : 0)
+                | (critical ? CRITICAL_FLAG : 0));
+        position = writeVarint(target, position, round);
+        position = writeVarint(target, position, techniqueId != null ? techniqueId + 1 : 0);
+        position = writeVarint(target, position, damage);
+        position = writeVarint(target, position, manaCost);
+
+        if (round != lastRound) {
+            lastRound = round;
+            lastRoundOffset = offset;
+        }
+        length = position;
+    }
+
+    /**
+     * Appends entries encoded by another log.
+     *
+     * @param encoded the entries, from {@link #toByteArray(int, int)}
+     * @throws IllegalArgumentException if the bytes do not hold whole entries
+     */
+    public void appendEncoded(byte[] encoded) {
+        Reader reader = new Reader(encoded, 0, encoded.length);
+        int offset = length;
+        int round = lastRound;
+        int roundOffset = lastRoundOffset;
+        while (reader.hasNext()) {
+            int entryOffset = reader.position;
+            Entry entry = reader.next();
+            if (entry.getRound() != round) {
+                round = entry.getRound();
+                roundOffset = offset + entryOffset;
+            }
+        }
+
+        byte[] target = ensureCapacity(offset + encoded.length);
+        System.arraycopy(encoded, 0, target, offset, encoded.length);
+        lastRound = round;
+        lastRoundOffset = roundOffset;
+        length = offset + encoded.length;
+    }
+
+    /**
+     * Drops the entries from the given encoded length on, to replay a journal over the log.
+     *
+     * @param newLength the encoded length to keep, at an entry boundary
+     */
+    public void truncate(int newLength) {
+        if (newLength < 0 || newLength > length) {
+            throw new IllegalArgumentException("Invalid combat log length: " + newLength);
+        }
+        byte[] kept = Arrays.copyOf(bytes, newLength);
+        length = 0;
+        lastRound = -1;
+        lastRoundOffset = 0;
+        appendEncoded(kept);
+    }
+
+    /**
+     * Gets the encoded length of the log, the offset at which the next entry is appended.
+     *
+     * @return the length in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Checks whether the log has no entry.
+     *
+     * @return true if the log is empty
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Decodes every entry.
+     *
+     * @return the entries, oldest first
+     */
+    public List<Entry> entries() {
+        return decode(0, length);
+    }
+
+    /**
+     * Decodes the entries of the latest round.
+     *
+     * @return the entries, oldest first
+     */
+    public List<Entry> lastRound() {
+        return decode(lastRoundOffset, length);
+    }
+
+    /**
+     * Encodes the log.
+     *
+     * @return the stored entries
+     */
+    public byte[] toByteArray() {
+        return toByteArray(0, length);
+    }
+
+    /**
+     * Copies the encoded entries between two lengths returned by {@link #length()}.
+     * Safe to call while the log is appended to, as the copied bytes never change.
+     *
+     * @param from the start offset
+     * @param to the end offset
+     * @return the stored entries
+     */
+    public byte[] toByteArray(int from, int to) {
+        int available = length;
+        if (from < 0 || to < from || to > available) {
+            throw new IllegalArgumentException("Invalid combat log range: " + from + ".." + to);
+        }
+        return Arrays.copyOfRange(bytes, from, to);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CombatLog other)) {
+            return false;
+        }
+        int thisLength = length;
+        int otherLength = other.length;
+        return Arrays.equals(bytes, 0, thisLength, other.bytes, 0, otherLength);
+    }
+
+    @Override
+    public int hashCode() {
+        int end = length;
+        byte[] current = bytes;
+        int hash = 1;
+        for (int i = 0; i < end; i++) {
+            hash = 31 * hash + current[i];
+        }
+        return hash;
+    }
+
+    private List<Entry> decode(int from, int to) {
+        Reader reader = new Reader(bytes, from, to);
+        List<Entry> entries = new ArrayList<>();
+        while (reader.hasNext()) {
+            entries.add(reader.next());
+        }
+        return entries;
+    }
+
+    private byte[] ensureCapacity(int capacity) {
+        byte[] current = bytes;
+        if (capacity <= current.length) {
+            return current;
+        }
+        byte[] grown = Arrays.copyOf(current, Math.max(capacity, current.length * 2));
+        bytes = grown;
+        return grown;
+    }
+
+    private static int writeVarint(byte[] target, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Sequential decoder over a range of encoded entries.
+     */
+    private static class Reader {
+        private final byte[] source;
+        private final int end;
+        private int position;
+
+        Reader(byte[] source, int from, int to) {
+            this.source = source;
+            this.position = from;
+            this.end = to;
+        }
+
+        boolean hasNext() {
+            return position < end;
+        }
+
+        Entry next() {
+            int header = source[position++] & 0xFF;
+            int typeOrdinal = header & TYPE_MASK;
+            if (typeOrdinal >= EntryType.values().length) {
+                throw new IllegalArgumentException("Invalid combat log entry type: " + typeOrdinal);
+            }
+            int round = (int) readVarint();
+            long technique = readVarint();
+            int damage = (int) readVarint();
+            int manaCost = (int) readVarint();
+            return new Entry(round, EntryType.values()[typeOrdinal],
+                    (header & NPC_FLAG) != 0 ? Actor.NPC : Actor.PLAYER,
+                    technique != 0 ? technique - 1 : null, damage, (header & CRITICAL_FLAG) != 0, manaCost);
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= end) {
+                    throw new IllegalArgumentException("Truncated combat log entry");
+                }
+                byte current = source[position++];
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed combat log varint");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a duel's combat log as its encoded entries.
+ */
+@Converter
+public class CombatLogConverter implements AttributeConverter<CombatLog, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(CombatLog attribute) {
+        return attribute != null ? attribute.toByteArray() : null;
+    }
+
+    @Override
+    public CombatLog convertToEntityAttribute(byte[] dbData) {
+        return CombatLog.fromByteArray(dbData);
+    }
+}
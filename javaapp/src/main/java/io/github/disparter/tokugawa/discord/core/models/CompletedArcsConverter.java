@@ -0,0 +1,31 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import io.github.disparter.tokugawa.discord.core.services.ContentOrdinals;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Stores completed arcs as a bitset over the application's arc ordinals.
+ * Hibernate creates the converter through the Spring context, which provides the ordinals.
+ */
+@Converter
+public class CompletedArcsConverter implements AttributeConverter<CompletionSet, byte[]> {
+
+    private final ContentOrdinals contentOrdinals;
+
+    @Autowired
+    public CompletedArcsConverter(ContentOrdinals contentOrdinals) {
+        this.contentOrdinals = contentOrdinals;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(CompletionSet attribute) {
+        return attribute != null ? attribute.toByteArray(contentOrdinals.getArcs()) : null;
+    }
+
+    @Override
+    public CompletionSet convertToEntityAttribute(byte[] dbData) {
+        return CompletionSet.fromByteArray(contentOrdinals.getArcs(), dbData);
+    }
+}
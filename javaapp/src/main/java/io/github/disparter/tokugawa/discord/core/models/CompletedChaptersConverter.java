@@ -0,0 +1,31 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import io.github.disparter.tokugawa.discord.core.services.ContentOrdinals;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Stores completed chapters as a bitset over the application's chapter ordinals.
+ * Hibernate creates the converter through the Spring context, which provides the ordinals.
+ */
+@Converter
+public class CompletedChaptersConverter implements AttributeConverter<CompletionSet, byte[]> {
+
+    private final ContentOrdinals contentOrdinals;
+
+    @Autowired
+    public CompletedChaptersConverter(ContentOrdinals contentOrdinals) {
+        this.contentOrdinals = contentOrdinals;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(CompletionSet attribute) {
+        return attribute != null ? attribute.toByteArray(contentOrdinals.getChapters()) : null;
+    }
+
+    @Override
+    public CompletionSet convertToEntityAttribute(byte[] dbData) {
+        return CompletionSet.fromByteArray(contentOrdinals.getChapters(), dbData);
+    }
+}
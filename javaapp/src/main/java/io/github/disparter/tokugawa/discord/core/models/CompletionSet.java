@@ -0,0 +1,180 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of completed content IDs stored as a bitset over {@link OrdinalDictionary} ordinals.
+ * Membership checks are constant time, and 500 completed chapters fit in a few dozen bytes.
+ * A set created outside the database uses ordinals of its own until it is stored over the
+ * application's dictionary with {@link #toByteArray(OrdinalDictionary)}.
+ */
+public class CompletionSet extends AbstractSet<String> {
+
+    private final OrdinalDictionary dictionary;
+    private final BitSet bits;
+
+    public CompletionSet(OrdinalDictionary dictionary) {
+        this(dictionary, new BitSet());
+    }
+
+    private CompletionSet(OrdinalDictionary dictionary, BitSet bits) {
+        this.dictionary = dictionary;
+        this.bits = bits;
+    }
+
+    /**
+     * Creates an empty set of completed chapters, with ordinals of its own.
+     *
+     * @return the set
+     */
+    public static CompletionSet chapters() {
+        return new CompletionSet(new OrdinalDictionary(OrdinalDictionary.CHAPTER));
+    }
+
+    /**
+     * Creates an empty set of completed arcs, with ordinals of its own.
+     *
+     * @return the set
+     */
+    public static CompletionSet arcs() {
+        return new CompletionSet(new OrdinalDictionary(OrdinalDictionary.ARC));
+    }
+
+    /**
+     * Creates a set holding the given IDs.
+     *
+     * @param dictionary the ordinals of the IDs
+     * @param keys the IDs
+     * @return the set
+     */
+    public static CompletionSet of(OrdinalDictionary dictionary, Collection<String> keys) {
+        CompletionSet set = new CompletionSet(dictionary);
+        if (keys != null) {
+            set.addAll(keys);
+        }
+        return set;
+    }
+
+    /**
+     * Decodes a set stored with {@link #toByteArray()}.
+     *
+     * @param dictionary the ordinals of the IDs
+     * @param bytes the stored bits, or null for an empty set
+     * @return the set
+     */
+    public static CompletionSet fromByteArray(OrdinalDictionary dictionary, byte[] bytes) {
+        return new CompletionSet(dictionary, bytes != null ? BitSet.valueOf(bytes) : new BitSet());
+    }
+
+    /**
+     * Encodes the set, little-endian: bit {@code n % 8} of byte {@code n / 8} is ordinal n.
+     *
+     * @return the stored bits
+     */
+    public byte[] toByteArray() {
+        return bits.toByteArray();
+    }
+
+    /**
+     * Encodes the set over the ordinals of a dictionary, assigning the ones it lacks.
+     *
+     * @param target the dictionary to store the set over
+     * @return the stored bits
+     */
+    public byte[] toByteArray(OrdinalDictionary target) {
+        if (target == dictionary) {
+            return toByteArray();
+        }
+        BitSet encoded = new BitSet();
+        for (String key : this) {
+            encoded.set(target.ordinalOf(key));
+        }
+        return encoded.toByteArray();
+    }
+
+    /**
+     * Checks whether a stored set contains an ordinal, without decoding it.
+     *
+     * @param bytes the stored bits
+     * @param ordinal the ordinal
+     * @return true if the bit is set
+     */
+    public static boolean contains(byte[] bytes, int ordinal) {
+        int index = ordinal >> 3;
+        return bytes != null && ordinal >= 0 && index < bytes.length && (bytes[index] & (1 << (ordinal & 7))) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        int ordinal = dictionary.find((String) o);
+        return ordinal >= 0 && bits.get(ordinal);
+    }
+
+    @Override
+    public boolean add(String key) {
+        int ordinal = dictionary.ordinalOf(key);
+        if (bits.get(ordinal)) {
+            return false;
+        }
+        bits.set(ordinal);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+        bits.clear(dictionary.find((String) o));
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        bits.clear();
+    }
+
+    @Override
+    public int size() {
+        return bits.cardinality();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int next = bits.nextSetBit(0);
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = bits.nextSetBit(next + 1);
+                return dictionary.keyOf(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                bits.clear(last);
+                last = -1;
+            }
+        };
+    }
+}
@@ -57,6 +57,9 @@ public class Consequence {
     @Column(nullable = false)
     private boolean active;
 
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "consequence_effects", joinColumns = @JoinColumn(name = "consequence_id"))
     private List<String> effects = new ArrayList<>();
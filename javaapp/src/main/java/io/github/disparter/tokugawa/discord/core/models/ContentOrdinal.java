@@ -0,0 +1,41 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Entity recording the dense ordinal assigned to a chapter or arc ID.
+ * Ordinals are never reassigned, because completion bitsets stored on {@link Progress} refer to
+ * them.
+ */
+@Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"kind", "content_key"}),
+        @UniqueConstraint(columnNames = {"kind", "ordinal"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentOrdinal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String kind;
+
+    @Column(nullable = false)
+    private String contentKey;
+
+    @Column(nullable = false)
+    private Integer ordinal;
+}
@@ -7,10 +7,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ElementCollection;
-import jakarta.persistence.CollectionTable;
-import jakarta.persistence.MapKeyColumn;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Temporal;
@@ -20,11 +17,11 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.util.Date;
-import java.util.Map;
-import java.util.HashMap;
 
 /**
- * Entity representing a duel between a player and an NPC.
+ * Entity representing a duel between a player and an NPC, or between two players.
+ * In a player-versus-player duel, the opponent takes the place of the NPC: the NPC health, mana
+ * and last technique columns hold the opponent's.
  */
 @Entity
 @Data
@@ -44,9 +41,13 @@ public class Duel {
     private Player player;
 
     @ManyToOne
-    @JoinColumn(name = "npc_id", nullable = false)
+    @JoinColumn(name = "npc_id")
     private NPC npc;
 
+    @ManyToOne
+    @JoinColumn(name = "opponent_id")
+    private Player opponent;
+
     @Enumerated(EnumType.STRING)
     private DuelStatus status = DuelStatus.INITIATED;
 
@@ -74,11 +75,9 @@ public class Duel {
 
     private Boolean playerWon;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "duel_logs", joinColumns = @JoinColumn(name = "duel_id"))
-    @MapKeyColumn(name = "round")
-    @Column(name = "log", columnDefinition = "TEXT")
-    private Map<Integer, String> logs = new HashMap<>();
+    @Convert(converter = CombatLogConverter.class)
+    @Column(name = "combat_log", length = 65536)
+    private CombatLog combatLog = new CombatLog();
 
     /**
      * Enum representing the status of a duel.
@@ -11,6 +11,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 
 /**
@@ -53,7 +54,17 @@ public class GameCalendar {
          * @return the current season
          */
         public static Season getCurrentSeason() {
-            LocalDateTime now = LocalDateTime.now();
+            return getCurrentSeason(Clock.systemDefaultZone());
+        }
+
+        /**
+         * Gets the current season based on the date of the given clock.
+         *
+         * @param clock the game clock
+         * @return the current season
+         */
+        public static Season getCurrentSeason(Clock clock) {
+            LocalDateTime now = LocalDateTime.now(clock);
             int month = now.getMonthValue();
 
             if (month >= 3 && month <= 5) {
@@ -88,4 +99,29 @@ public class GameCalendar {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Enum representing the fixed-date holidays of the game calendar.
+     */
+    public enum Holiday {
+        NEW_YEAR(1, 1),
+        HALLOWEEN(10, 31),
+        CHRISTMAS(12, 25);
+
+        private final int month;
+        private final int day;
+
+        Holiday(int month, int day) {
+            this.month = month;
+            this.day = day;
+        }
+
+        public int getMonth() {
+            return month;
+        }
+
+        public int getDay() {
+            return day;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense ordinals for content IDs, used to store completion as a bitset.
+ * IDs get the next free ordinal the first time they are seen, and an assignment listener can
+ * persist each new ordinal before it is used.
+ */
+public class OrdinalDictionary {
+
+    /**
+     * Kind of the ordinals of chapter IDs.
+     */
+    public static final String CHAPTER = "chapter";
+
+    /**
+     * Kind of the ordinals of arc IDs.
+     */
+    public static final String ARC = "arc";
+
+    /**
+     * Called when a new ordinal is assigned, before it is handed out.
+     */
+    @FunctionalInterface
+    public interface AssignmentListener {
+        void assigned(String kind, String key, int ordinal);
+    }
+
+    private final String kind;
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private volatile AssignmentListener listener;
+
+    public OrdinalDictionary(String kind) {
+        this.kind = kind;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setListener(AssignmentListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the ordinal of an ID, assigning the next free one if needed.
+     *
+     * @param key the content ID
+     * @return the ordinal
+     */
+    public int ordinalOf(String key) {
+        Integer ordinal = ordinals.get(key);
+        return ordinal != null ? ordinal : assign(key);
+    }
+
+    private synchronized int assign(String key) {
+        Integer existing = ordinals.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = keys.size();
+        AssignmentListener current = listener;
+        if (current != null) {
+            current.assigned(kind, key, ordinal);
+        }
+        keys.add(key);
+        ordinals.put(key, ordinal);
+        return ordinal;
+    }
+
+    /**
+     * Gets the ordinal of an ID without assigning one.
+     *
+     * @param key the content ID
+     * @return the ordinal, or -1 if the ID has none
+     */
+    public int find(String key) {
+        Integer ordinal = ordinals.get(key);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Gets the ID of an ordinal.
+     *
+     * @param ordinal the ordinal
+     * @return the content ID, or null if the ordinal is not assigned
+     */
+    public synchronized String keyOf(int ordinal) {
+        return ordinal >= 0 && ordinal < keys.size() ? keys.get(ordinal) : null;
+    }
+
+    /**
+     * Restores a persisted ordinal.
+     *
+     * @param key the content ID
+     * @param ordinal the ordinal it was assigned
+     */
+    public synchronized void restore(String key, int ordinal) {
+        while (keys.size() <= ordinal) {
+            keys.add(null);
+        }
+        keys.set(ordinal, key);
+        ordinals.put(key, ordinal);
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+}
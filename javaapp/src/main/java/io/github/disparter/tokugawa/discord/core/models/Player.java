@@ -54,6 +54,10 @@ public class Player {
     private Integer currency = 0;
     private Integer powerPoints = 0;
 
+    // Elo rating used to pair players in the duel matchmaking queue
+    @Column(columnDefinition = "integer default 1200")
+    private Integer rating = 1200;
+
     @ManyToOne
     @JoinColumn(name = "current_location_id")
     private Location currentLocation;
@@ -5,6 +5,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.JoinColumn;
@@ -14,7 +15,10 @@ import jakarta.persistence.Lob;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -22,6 +26,9 @@ import java.util.HashMap;
 
 /**
  * Entity representing a player's story progress in the game.
+ * Completed chapters and arcs are stored as bitsets over {@link OrdinalDictionary} ordinals. The
+ * legacy completion tables are only read to migrate players who completed content before the
+ * bitsets were introduced.
  */
 @Entity
 @Data
@@ -42,13 +49,33 @@ public class Progress {
 
     private Integer currentDialogueIndex = 0;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    /**
+     * Version of the last reading session change saved to this progress, so a journaled change
+     * is never applied twice.
+     */
+    private Long readingVersion = 0L;
+
+    @Convert(converter = CompletedChaptersConverter.class)
+    @Column(name = "completed_chapter_bits", length = 8192)
+    private CompletionSet completedChapters = CompletionSet.chapters();
+
+    @Convert(converter = CompletedArcsConverter.class)
+    @Column(name = "completed_arc_bits", length = 8192)
+    private CompletionSet completedArcs = CompletionSet.arcs();
+
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "completed_chapters", joinColumns = @JoinColumn(name = "progress_id"))
-    private List<String> completedChapters = new ArrayList<>();
+    @Column(name = "completed_chapters")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<String> legacyCompletedChapters = new ArrayList<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "completed_arcs", joinColumns = @JoinColumn(name = "progress_id"))
-    private List<String> completedArcs = new ArrayList<>();
+    @Column(name = "completed_arcs")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<String> legacyCompletedArcs = new ArrayList<>();
 
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "story_choices", joinColumns = @JoinColumn(name = "progress_id"))
@@ -69,4 +96,24 @@ public class Progress {
     @CollectionTable(name = "faction_reputations", joinColumns = @JoinColumn(name = "progress_id"))
     @Column(name = "reputation_value")
     private Map<String, Integer> factionReputations = new HashMap<>();
+
+    /**
+     * Replaces the completed chapters.
+     *
+     * @param completedChapters the completed chapter IDs
+     */
+    public void setCompletedChapters(Collection<String> completedChapters) {
+        this.completedChapters = CompletionSet.of(new OrdinalDictionary(OrdinalDictionary.CHAPTER),
+                completedChapters);
+    }
+
+    /**
+     * Replaces the completed arcs.
+     *
+     * @param completedArcs the completed arc IDs
+     */
+    public void setCompletedArcs(Collection<String> completedArcs) {
+        this.completedArcs = CompletionSet.of(new OrdinalDictionary(OrdinalDictionary.ARC),
+                completedArcs);
+    }
 }
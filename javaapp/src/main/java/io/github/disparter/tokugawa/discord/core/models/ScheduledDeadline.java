@@ -0,0 +1,53 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Column;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.EnumType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a pending game deadline.
+ * Rows are kept only while the deadline is pending, so they can be restored into the in-memory
+ * timing wheel after a restart.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledDeadline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String deadlineKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeadlineType type;
+
+    @Column(nullable = false)
+    private String targetId;
+
+    @Column(nullable = false)
+    private LocalDateTime fireAt;
+
+    /**
+     * Enum representing the kind of deadline.
+     */
+    public enum DeadlineType {
+        TOURNAMENT_END,
+        SPECIAL_EVENT_END,
+        DUEL_TURN_TIMEOUT,
+        CONSEQUENCE_EXPIRY
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.CollectionTable;
@@ -29,6 +31,7 @@ import java.util.HashSet;
  * Entity representing a villain in the game.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_villain_type_active", columnList = "type, active"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
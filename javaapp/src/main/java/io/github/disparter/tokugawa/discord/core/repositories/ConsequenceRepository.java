@@ -2,7 +2,9 @@ package io.github.disparter.tokugawa.discord.core.repositories;
 
 import io.github.disparter.tokugawa.discord.core.models.Consequence;
 import io.github.disparter.tokugawa.discord.core.models.Consequence.ConsequenceType;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -103,4 +105,17 @@ public interface ConsequenceRepository extends CrudRepository<Consequence, Long>
      * @return the count of consequences
      */
     long countByChapterIdAndSceneId(String chapterId, String sceneId);
+
+    /**
+     * Counts, in one query, the consequences of a scene and those with a given choice.
+     *
+     * @param chapterId the chapter ID
+     * @param sceneId the scene ID
+     * @param choiceMade the choice that was made
+     * @return one row with the total count and the count of the choice
+     */
+    @Query("SELECT COUNT(c), COALESCE(SUM(CASE WHEN c.choiceMade = :choiceMade THEN 1 ELSE 0 END), 0) "
+            + "FROM Consequence c WHERE c.chapterId = :chapterId AND c.sceneId = :sceneId")
+    List<Object[]> countChoices(@Param("chapterId") String chapterId, @Param("sceneId") String sceneId,
+                                @Param("choiceMade") String choiceMade);
 }
@@ -0,0 +1,12 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.ContentOrdinal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the ordinals assigned to chapter and arc IDs.
+ */
+@Repository
+public interface ContentOrdinalRepository extends JpaRepository<ContentOrdinal, Long> {
+}
@@ -30,6 +30,14 @@ public interface DuelRepository extends CrudRepository<Duel, Long> {
      */
     List<Duel> findByPlayerAndStatusNot(Player player, Duel.DuelStatus status);
 
+    /**
+     * Find all active player-versus-player duels in which a player was challenged.
+     *
+     * @param opponent the challenged player
+     * @return a list of active duels
+     */
+    List<Duel> findByOpponentAndStatusNot(Player opponent, Duel.DuelStatus status);
+
     /**
      * Find all completed duels for a player.
      *
@@ -14,7 +14,7 @@ import java.util.Optional;
  * Repository for Progress entity operations.
  */
 @Repository
-public interface ProgressRepository extends JpaRepository<Progress, Long> {
+public interface ProgressRepository extends JpaRepository<Progress, Long>, ProgressRepositoryCustom {
 
     /**
      * Find progress by player.
@@ -50,22 +50,20 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
     List<Progress> findByCurrentChapterId(String currentChapterId);
 
     /**
-     * Find progress by completed chapter.
+     * Find the IDs of progress records that still have completions in the legacy tables.
      *
-     * @param chapterId the chapter ID
-     * @return the list of progress that have completed the specified chapter
+     * @return the progress IDs
      */
-    @Query("SELECT p FROM Progress p JOIN p.completedChapters c WHERE c = :chapterId")
-    List<Progress> findByCompletedChaptersContains(@Param("chapterId") String chapterId);
+    @Query("SELECT DISTINCT p.id FROM Progress p JOIN p.legacyCompletedChapters c")
+    List<Long> findIdsWithLegacyCompletedChapters();
 
     /**
-     * Find progress by completed arc.
+     * Find the IDs of progress records that still have completed arcs in the legacy table.
      *
-     * @param arcId the arc ID
-     * @return the list of progress that have completed the specified arc
+     * @return the progress IDs
      */
-    @Query("SELECT p FROM Progress p JOIN p.completedArcs a WHERE a = :arcId")
-    List<Progress> findByCompletedArcsContains(@Param("arcId") String arcId);
+    @Query("SELECT DISTINCT p.id FROM Progress p JOIN p.legacyCompletedArcs a")
+    List<Long> findIdsWithLegacyCompletedArcs();
 
     /**
      * Find progress by triggered event.
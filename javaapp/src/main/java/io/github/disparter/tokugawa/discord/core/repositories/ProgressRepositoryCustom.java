@@ -0,0 +1,29 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+
+import java.util.List;
+
+/**
+ * Custom queries over the completion bitsets of progress records.
+ */
+public interface ProgressRepositoryCustom {
+
+    /**
+     * Find progress by completed chapter.
+     * The bit is tested in SQL, so only the matching records are read, then loaded by ID.
+     *
+     * @param chapterId the chapter ID
+     * @return the list of progress that have completed the specified chapter
+     */
+    List<Progress> findByCompletedChaptersContains(String chapterId);
+
+    /**
+     * Find progress by completed arc.
+     * The bit is tested in SQL, so only the matching records are read, then loaded by ID.
+     *
+     * @param arcId the arc ID
+     * @return the list of progress that have completed the specified arc
+     */
+    List<Progress> findByCompletedArcsContains(String arcId);
+}
@@ -0,0 +1,85 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.services.ContentOrdinals;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * JDBC implementation of the completion queries.
+ * The bit of the ordinal is tested in SQL on the raw column, so only the IDs of the matching
+ * records are read and then loaded as entities.
+ */
+public class ProgressRepositoryImpl implements ProgressRepositoryCustom {
+
+    // Bytes are 0-based for get_byte; records too short to hold the byte never match
+    private static final String POSTGRESQL_BIT_TEST =
+            "CASE WHEN octet_length(%1$s) > ? THEN (get_byte(%1$s, ?) & ?) <> 0 ELSE FALSE END";
+
+    // H2, used by the dev profile, has no get_byte but masks binary strings; bytes are 1-based
+    private static final String H2_BIT_TEST =
+            "CASE WHEN octet_length(%1$s) > ? THEN BITAND(SUBSTRING(%1$s FROM ? FOR 1), ?) <> X'00' ELSE FALSE END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentOrdinals contentOrdinals;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean h2;
+
+    @Autowired
+    public ProgressRepositoryImpl(JdbcTemplate jdbcTemplate, ContentOrdinals contentOrdinals) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentOrdinals = contentOrdinals;
+    }
+
+    @Override
+    public List<Progress> findByCompletedChaptersContains(String chapterId) {
+        return findByCompletion("completed_chapter_bits", contentOrdinals.getChapters().find(chapterId));
+    }
+
+    @Override
+    public List<Progress> findByCompletedArcsContains(String arcId) {
+        return findByCompletion("completed_arc_bits", contentOrdinals.getArcs().find(arcId));
+    }
+
+    private List<Progress> findByCompletion(String column, int ordinal) {
+        if (ordinal < 0) {
+            return List.of();
+        }
+
+        // Make sure pending completions are written before going around Hibernate
+        entityManager.flush();
+
+        int index = ordinal >> 3;
+        int mask = 1 << (ordinal & 7);
+        List<Long> ids = isH2()
+                ? jdbcTemplate.queryForList("SELECT id FROM progress WHERE " + H2_BIT_TEST.formatted(column),
+                        Long.class, index, index + 1, new byte[]{(byte) mask})
+                : jdbcTemplate.queryForList("SELECT id FROM progress WHERE " + POSTGRESQL_BIT_TEST.formatted(column),
+                        Long.class, index, index, mask);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.createQuery("SELECT p FROM Progress p WHERE p.id IN :ids", Progress.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    private boolean isH2() {
+        Boolean current = h2;
+        if (current == null) {
+            current = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "H2".equals(connection.getMetaData().getDatabaseProductName()));
+            h2 = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repository for pending game deadlines.
+ */
+@Repository
+public interface ScheduledDeadlineRepository extends JpaRepository<ScheduledDeadline, Long> {
+
+    /**
+     * Find a pending deadline by its key.
+     *
+     * @param deadlineKey the deadline key
+     * @return the deadline if found
+     */
+    Optional<ScheduledDeadline> findByDeadlineKey(String deadlineKey);
+
+    /**
+     * Delete a pending deadline by its key.
+     *
+     * @param deadlineKey the deadline key
+     * @return the number of deleted rows
+     */
+    @Transactional
+    long deleteByDeadlineKey(String deadlineKey);
+}
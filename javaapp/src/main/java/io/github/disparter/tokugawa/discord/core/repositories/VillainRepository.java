@@ -3,7 +3,11 @@ package io.github.disparter.tokugawa.discord.core.repositories;
 import io.github.disparter.tokugawa.discord.core.models.Villain;
 import io.github.disparter.tokugawa.discord.core.models.Villain.VillainType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,7 +16,7 @@ import java.util.Optional;
  * Repository for managing villain data.
  */
 @Repository
-public interface VillainRepository extends JpaRepository<Villain, Long> {
+public interface VillainRepository extends JpaRepository<Villain, Long>, VillainRepositoryCustom {
 
     /**
      * Find a villain by its name.
@@ -59,4 +63,37 @@ public interface VillainRepository extends JpaRepository<Villain, Long> {
      * @return a list of active villains with minions
      */
     List<Villain> findByActiveTrueAndMinionIdsIsNotEmpty();
-}
\ No newline at end of file
+
+    /**
+     * Find the IDs of the inactive villains of a specific type that can be spawned.
+     * Only the IDs are selected, so the villains' collections are not loaded.
+     *
+     * @param type the villain type
+     * @return the IDs of the inactive villains of the specified type
+     */
+    @Query("SELECT v.id FROM Villain v WHERE v.type = :type AND v.active = false")
+    List<Long> findInactiveIdsByType(@Param("type") VillainType type);
+
+    /**
+     * Update the health of an active villain without loading it, such as to checkpoint a raid.
+     *
+     * @param id the villain ID
+     * @param health the villain's health
+     * @return the number of villains updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Villain v SET v.health = :health WHERE v.id = :id AND v.active = true")
+    int updateHealth(@Param("id") Long id, @Param("health") int health);
+
+    /**
+     * Defeat an active villain without loading it: deactivate it and set its health to zero.
+     * Only one caller can deactivate a villain, so its rewards are paid once.
+     *
+     * @param id the villain ID
+     * @return the number of villains deactivated, zero if the villain was no longer active
+     */
+    @Modifying
+    @Query("UPDATE Villain v SET v.active = false, v.health = 0 WHERE v.id = :id AND v.active = true")
+    int deactivateIfActive(@Param("id") Long id);
+}
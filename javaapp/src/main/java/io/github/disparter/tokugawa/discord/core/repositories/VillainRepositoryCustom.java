@@ -0,0 +1,22 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.Villain;
+
+import java.util.List;
+
+/**
+ * Custom bulk operations for villains that bypass per-entity persistence.
+ */
+public interface VillainRepositoryCustom {
+
+    /**
+     * Inserts minions for a master villain in bulk and links them to the master.
+     * The minions are written with a single multi-row insert and the links with a single batch,
+     * without loading or rewriting the master's collections.
+     *
+     * @param master the master villain
+     * @param minions the new minions (must not have IDs yet)
+     * @return the minions with their generated IDs set
+     */
+    List<Villain> insertMinions(Villain master, List<Villain> minions);
+}
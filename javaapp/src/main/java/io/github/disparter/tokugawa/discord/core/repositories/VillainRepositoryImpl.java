@@ -0,0 +1,98 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.Villain;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of the custom villain operations.
+ */
+public class VillainRepositoryImpl implements VillainRepositoryCustom {
+
+    /**
+     * Columns of the villain table written for each minion, in parameter order: every mapped
+     * column but the generated ID. VillainRepositoryImplTest checks them against the schema.
+     */
+    static final List<String> INSERT_COLUMNS = List.of("name", "description", "level", "health", "max_health",
+            "mana", "max_mana", "power", "defense", "type", "active", "spawn_location", "spawn_condition",
+            "defeat_condition");
+    private static final String INSERT_MINIONS =
+            "INSERT INTO villain (" + String.join(", ", INSERT_COLUMNS) + ") VALUES ";
+    private static final String VALUES_ROW =
+            "(" + String.join(", ", Collections.nCopies(INSERT_COLUMNS.size(), "?")) + ")";
+    private static final String INSERT_MINION_LINK = "INSERT INTO villain_minions (villain_id, minion_ids) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public VillainRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Villain> insertMinions(Villain master, List<Villain> minions) {
+        if (minions.isEmpty()) {
+            return minions;
+        }
+
+        // Make sure pending changes to the master are written before going around Hibernate
+        entityManager.flush();
+
+        StringBuilder sql = new StringBuilder(INSERT_MINIONS);
+        for (int i = 0; i < minions.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(VALUES_ROW);
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(), new String[]{"id"});
+            int index = 1;
+            for (Villain minion : minions) {
+                statement.setString(index++, minion.getName());
+                statement.setString(index++, minion.getDescription());
+                statement.setObject(index++, minion.getLevel());
+                statement.setObject(index++, minion.getHealth());
+                statement.setObject(index++, minion.getMaxHealth());
+                statement.setObject(index++, minion.getMana());
+                statement.setObject(index++, minion.getMaxMana());
+                statement.setObject(index++, minion.getPower());
+                statement.setObject(index++, minion.getDefense());
+                statement.setString(index++, minion.getType() != null ? minion.getType().name() : null);
+                statement.setObject(index++, minion.getActive());
+                statement.setString(index++, minion.getSpawnLocation());
+                statement.setString(index++, minion.getSpawnCondition());
+                statement.setString(index++, minion.getDefeatCondition());
+            }
+            return statement;
+        }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < minions.size(); i++) {
+            minions.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_MINION_LINK, minions, minions.size(), (statement, minion) -> {
+            statement.setLong(1, master.getId());
+            statement.setLong(2, minion.getId());
+        });
+
+        // The master's minion list was changed behind Hibernate's back; reload it on next access
+        if (entityManager.contains(master)) {
+            entityManager.detach(master);
+        }
+
+        return minions;
+    }
+}
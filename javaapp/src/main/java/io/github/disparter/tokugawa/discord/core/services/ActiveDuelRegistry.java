@@ -0,0 +1,352 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.disparter.tokugawa.discord.core.models.CombatLog;
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+import io.github.disparter.tokugawa.discord.core.repositories.DuelRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active duels, held in memory between their start and their end.
+ * A turn only changes the duel's {@link DuelState}; the {@link Duel} row is written when the duel
+ * is created and when it ends. Every turn appends the new state of the duel to a journal file,
+ * with the combat log entries added since the previous turn, which is replayed at startup, so a
+ * crash loses no turn: the last journaled state of each unfinished duel is saved to its row and
+ * its turn timeout is scheduled again.
+ * <p>
+ * The journal only holds unfinished duels: it is cleared when no duel is active and rewritten
+ * with the latest state and whole combat log of each active duel on a fixed interval.
+ */
+@Component
+@Slf4j
+public class ActiveDuelRegistry implements CommandLineRunner {
+
+    private final DuelRepository duelRepository;
+    private final TechniqueRepository techniqueRepository;
+    private final DeadlineService deadlineService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readTemplate;
+    private final Clock clock;
+
+    private final Map<String, DuelState> duels = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the journal and the journaled entries, which are appended to from every duel.
+     * Never held while taking a duel's lock, as turns take this lock while holding theirs.
+     */
+    private final Object journalLock = new Object();
+    private final JsonLinesJournal journal;
+
+    /**
+     * The latest journal entry of each active duel, from which the journal is compacted.
+     */
+    private final Map<String, ObjectNode> journaled = new HashMap<>();
+
+    @Autowired
+    public ActiveDuelRegistry(
+            DuelRepository duelRepository,
+            TechniqueRepository techniqueRepository,
+            DeadlineService deadlineService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            Clock clock,
+            @Value("${tokugawa.duels.journal:data/duels.journal}") String journalFile) {
+        this.duelRepository = duelRepository;
+        this.techniqueRepository = techniqueRepository;
+        this.deadlineService = deadlineService;
+        this.objectMapper = objectMapper;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+        this.clock = clock;
+        this.journal = new JsonLinesJournal(Paths.get(journalFile), objectMapper, "duel");
+    }
+
+    /**
+     * Replays the journal left by a previous run.
+     * Runs before the deadline wheel starts ticking, so the restored turn timeouts replace the
+     * persisted ones before they can fire.
+     */
+    @Override
+    public void run(String... args) throws IOException {
+        replayJournal();
+    }
+
+    /**
+     * Registers a new duel and journals its initial state.
+     *
+     * @param state the duel state
+     */
+    public void open(DuelState state) {
+        duels.put(state.getDuelId(), state);
+        journal(state);
+    }
+
+    /**
+     * Gets the state of a duel, loading it from its row if it is not in memory, such as after
+     * a restart.
+     *
+     * @param duelId the duel ID
+     * @return the state
+     * @throws IllegalArgumentException if the duel does not exist
+     */
+    public DuelState get(String duelId) {
+        DuelState state = duels.get(duelId);
+        if (state != null) {
+            return state;
+        }
+
+        DuelState loaded = readTemplate.execute(status -> duelRepository.findByDuelId(duelId)
+                .map(DuelState::of)
+                .orElse(null));
+        if (loaded == null) {
+            throw new IllegalArgumentException("Duel not found with ID: " + duelId);
+        }
+        if (loaded.isFinished()) {
+            return loaded;
+        }
+        DuelState existing = duels.putIfAbsent(duelId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Journals the state of a duel after a turn, with the combat log entries added since the
+     * previous call.
+     * Called by the thread playing the duel's turn, while no other thread can change its state.
+     *
+     * @param state the duel state
+     */
+    public void journal(DuelState state) {
+        CombatLog combatLog = state.getCombatLog();
+        int from = state.getJournaledLength();
+        int to = combatLog.length();
+        ObjectNode entry = entry(state);
+        entry.put("from", from);
+        entry.put("length", to);
+        entry.put("log", Base64.getEncoder().encodeToString(combatLog.toByteArray(from, to)));
+        state.setJournaledLength(to);
+        synchronized (journalLock) {
+            journaled.put(state.getDuelId(), entry);
+            journal.append(entry);
+        }
+    }
+
+    /**
+     * Writes the state of a duel to its row, in the caller's transaction.
+     *
+     * @param state the duel state
+     * @return the saved duel
+     * @throws IllegalArgumentException if the duel does not exist
+     */
+    public Duel save(DuelState state) {
+        Duel duel = duelRepository.findByDuelId(state.getDuelId())
+                .orElseThrow(() -> new IllegalArgumentException("Duel not found with ID: " + state.getDuelId()));
+        state.applyTo(duel);
+        if (state.getPlayerLastTechniqueId() != null) {
+            duel.setPlayerLastTechnique(techniqueRepository.findById(state.getPlayerLastTechniqueId()).orElse(null));
+        }
+        if (state.getNpcLastTechniqueId() != null) {
+            duel.setNpcLastTechnique(techniqueRepository.findById(state.getNpcLastTechniqueId()).orElse(null));
+        }
+        return duelRepository.save(duel);
+    }
+
+    /**
+     * Removes a duel that ended and was saved.
+     * The journal is cleared once no duel is active.
+     *
+     * @param duelId the duel ID
+     */
+    public void close(String duelId) {
+        duels.remove(duelId);
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put("duel", duelId);
+        entry.put("closed", true);
+        synchronized (journalLock) {
+            journaled.remove(duelId);
+            journal.append(entry);
+            if (duels.isEmpty()) {
+                journal.truncate();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of duels in memory.
+     *
+     * @return the active duel count
+     */
+    public int getActiveCount() {
+        return duels.size();
+    }
+
+    /**
+     * Rewrites the journal with the latest state of each active duel, so it does not grow with
+     * every turn of long duels.
+     */
+    @Scheduled(fixedDelayString = "${tokugawa.duels.journal-compaction-millis:300000}")
+    public void compactJournal() {
+        synchronized (journalLock) {
+            journal.rewrite(journaled.values().stream().map(this::compacted).toList());
+        }
+    }
+
+    /**
+     * Closes the journal. Active duels stay journaled and are restored on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    private ObjectNode entry(DuelState state) {
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put("duel", state.getDuelId());
+        entry.put("status", state.getStatus().name());
+        entry.put("round", state.getRound());
+        entry.put("ph", state.getPlayerHealth());
+        entry.put("nh", state.getNpcHealth());
+        entry.put("pm", state.getPlayerMana());
+        entry.put("nm", state.getNpcMana());
+        if (state.getPlayerLastTechniqueId() != null) {
+            entry.put("pt", state.getPlayerLastTechniqueId());
+        }
+        if (state.getNpcLastTechniqueId() != null) {
+            entry.put("nt", state.getNpcLastTechniqueId());
+        }
+        entry.put("ps", state.getPlayerShield());
+        entry.put("ns", state.getNpcShield());
+        entry.put("pdd", state.getPlayerDotDamage());
+        entry.put("pdt", state.getPlayerDotTurns());
+        entry.put("ndd", state.getNpcDotDamage());
+        entry.put("ndt", state.getNpcDotTurns());
+        entry.put("deadline", state.getTurnDeadline());
+        return entry;
+    }
+
+    /**
+     * Replaces the combat log entries of a journal entry with the whole log up to the same
+     * length. The journaled part of a log never changes, so it is read without the duel's lock.
+     */
+    private ObjectNode compacted(ObjectNode latest) {
+        DuelState state = duels.get(latest.path("duel").asText());
+        if (state == null) {
+            return latest;
+        }
+        ObjectNode entry = latest.deepCopy();
+        entry.put("from", 0);
+        entry.put("log", Base64.getEncoder().encodeToString(
+                state.getCombatLog().toByteArray(0, latest.path("length").asInt())));
+        return entry;
+    }
+
+    /**
+     * Saves the last journaled state of every duel that did not end before the previous run
+     * stopped, and schedules its turn timeout again.
+     */
+    void replayJournal() throws IOException {
+        Map<String, List<JsonNode>> unfinished = new LinkedHashMap<>();
+        for (JsonNode entry : journal.read()) {
+            String duelId = entry.path("duel").asText();
+            if (entry.path("closed").asBoolean(false)) {
+                unfinished.remove(duelId);
+            } else {
+                unfinished.computeIfAbsent(duelId, id -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        int restored = 0;
+        for (Map.Entry<String, List<JsonNode>> duel : unfinished.entrySet()) {
+            try {
+                restore(duel.getKey(), duel.getValue());
+                restored++;
+            } catch (Exception e) {
+                log.error("Error restoring duel {} from the journal: {}", duel.getKey(), e.getMessage(), e);
+            }
+        }
+
+        journal.delete();
+        if (restored > 0) {
+            log.info("Restored {} active duels from the journal", restored);
+        }
+    }
+
+    private void restore(String duelId, List<JsonNode> entries) {
+        JsonNode last = entries.get(entries.size() - 1);
+        writeTemplate.executeWithoutResult(status -> {
+            DuelState state = duelRepository.findByDuelId(duelId).map(DuelState::of).orElse(null);
+            if (state == null || state.isFinished()) {
+                return;
+            }
+            state.setStatus(Duel.DuelStatus.valueOf(last.path("status").asText()));
+            state.setRound(last.path("round").asInt());
+            state.setPlayerHealth(last.path("ph").asInt());
+            state.setNpcHealth(last.path("nh").asInt());
+            state.setPlayerMana(last.path("pm").asInt());
+            state.setNpcMana(last.path("nm").asInt());
+            if (last.hasNonNull("pt")) {
+                state.setPlayerLastTechniqueId(last.path("pt").asLong());
+            }
+            if (last.hasNonNull("nt")) {
+                state.setNpcLastTechniqueId(last.path("nt").asLong());
+            }
+            state.setPlayerShield(last.path("ps").asInt());
+            state.setNpcShield(last.path("ns").asInt());
+            state.setPlayerDotDamage(last.path("pdd").asInt());
+            state.setPlayerDotTurns(last.path("pdt").asInt());
+            state.setNpcDotDamage(last.path("ndd").asInt());
+            state.setNpcDotTurns(last.path("ndt").asInt());
+            state.setTurnDeadline(last.path("deadline").asLong());
+            // Techniques submitted in an unfinished player-versus-player round are not journaled
+            state.getPvpTurn().set(PvpTurn.open(state.getRound()));
+            CombatLog combatLog = state.getCombatLog();
+            for (JsonNode entry : entries) {
+                int from = entry.path("from").asInt();
+                if (from <= combatLog.length()) {
+                    combatLog.truncate(from);
+                    combatLog.appendEncoded(Base64.getDecoder().decode(entry.path("log").asText()));
+                }
+            }
+            save(state);
+            // Shields and damage over time are not stored on the row, so the restored state is kept
+            duels.put(duelId, state);
+        });
+
+        long deadline = last.path("deadline").asLong();
+        if (deadline > 0) {
+            deadlineService.schedule(DeadlineType.DUEL_TURN_TIMEOUT, duelId,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(deadline), clock.getZone()));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidation counter of a load-on-first-use cache.
+ * A value loaded while the cache is invalidated may have been read before the change that
+ * caused the invalidation, so it is not kept: the loader puts it, then discards it if the
+ * generation moved since the load started. Putting before checking means an invalidation is
+ * either seen by the check or removes the value itself.
+ */
+final class CacheGeneration {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Gets the current generation, before a value is loaded.
+     *
+     * @return the generation
+     */
+    long current() {
+        return generation.get();
+    }
+
+    /**
+     * Starts a new generation, before the cached values are removed.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Removes a value just put in a cache if the cache was invalidated since it was loaded.
+     *
+     * @param cache the cache
+     * @param key the value's key
+     * @param value the value
+     * @param loadedGeneration the generation the load started in
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    <K, V> void discardIfStale(Map<K, V> cache, K key, V value, long loadedGeneration) {
+        if (generation.get() != loadedGeneration) {
+            cache.remove(key, value);
+        }
+    }
+}
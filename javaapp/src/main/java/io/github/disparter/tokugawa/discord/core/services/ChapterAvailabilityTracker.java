@@ -0,0 +1,114 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the set of chapters available to each player up to date.
+ * The set is computed once from the {@link ChapterDependencyGraph} and then maintained
+ * incrementally: completing a chapter only re-evaluates the chapters that depend on it. A player's
+ * set is recomputed when the chapters are reloaded or when their completed chapters no longer
+ * match what was tracked. Players are tracked up to a limit, dropping the least recently used.
+ */
+@Component
+@Slf4j
+public class ChapterAvailabilityTracker {
+
+    private final ChapterLoader chapterLoader;
+    private final Map<Long, PlayerAvailability> players;
+
+    @Autowired
+    public ChapterAvailabilityTracker(
+            ChapterLoader chapterLoader,
+            @Value("${tokugawa.narrative.availability-cache-size:10000}") int maxPlayers) {
+        this.chapterLoader = chapterLoader;
+        this.players = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PlayerAvailability> eldest) {
+                return size() > maxPlayers;
+            }
+        });
+    }
+
+    /**
+     * Gets the chapters available to a player.
+     *
+     * @param playerId the player ID
+     * @param completedChapters the chapters the player has completed
+     * @return the available chapter IDs
+     */
+    public List<String> getAvailableChapters(Long playerId, Collection<String> completedChapters) {
+        ChapterDependencyGraph graph = chapterLoader.getDependencyGraph();
+        PlayerAvailability availability = players.get(playerId);
+        if (availability == null || !availability.isCurrent(graph, completedChapters)) {
+            availability = new PlayerAvailability(graph, completedChapters);
+            players.put(playerId, availability);
+        }
+        return availability.available();
+    }
+
+    /**
+     * Records that a player completed a chapter and re-evaluates the chapters that depend on it.
+     *
+     * @param playerId the player ID
+     * @param chapterId the completed chapter ID
+     */
+    public void chapterCompleted(Long playerId, String chapterId) {
+        PlayerAvailability availability = players.get(playerId);
+        if (availability != null) {
+            availability.complete(chapterId);
+        }
+    }
+
+    /**
+     * Completed and available chapters of one player for one version of the chapters.
+     * Stat thresholds are evaluated without player stats, as for the story progress passed to
+     * {@link ChapterLoader#getAvailableChapters(Map)}.
+     */
+    private static final class PlayerAvailability {
+        private final ChapterDependencyGraph graph;
+        private final Set<String> completed;
+        private final Set<String> available;
+
+        private PlayerAvailability(ChapterDependencyGraph graph, Collection<String> completedChapters) {
+            this.graph = graph;
+            this.completed = new HashSet<>(completedChapters);
+            this.available = graph.computeAvailable(completed, Map.of());
+        }
+
+        private synchronized boolean isCurrent(ChapterDependencyGraph currentGraph,
+                                               Collection<String> completedChapters) {
+            return graph == currentGraph && completed.size() == completedChapters.size();
+        }
+
+        private synchronized List<String> available() {
+            return new ArrayList<>(available);
+        }
+
+        private synchronized void complete(String chapterId) {
+            if (!completed.add(chapterId)) {
+                return;
+            }
+            available.remove(chapterId);
+            if (completed.size() == 1) {
+                graph.getNewPlayerChapters().forEach(available::remove);
+            }
+            for (String dependent : graph.getDependents(chapterId)) {
+                if (graph.isAvailable(dependent, completed, Map.of())) {
+                    available.add(dependent);
+                }
+            }
+        }
+    }
+}
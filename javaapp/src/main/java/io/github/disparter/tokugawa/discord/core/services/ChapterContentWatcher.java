@@ -0,0 +1,195 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hot reload of narrative content.
+ * Watches the directories the {@link ChapterLoader} read chapters from, re-parses the files that
+ * changed, validates the affected part of the narrative and publishes the new chapters without a
+ * restart. A reload that introduces validation errors is rejected and the current content is kept.
+ */
+@Component
+@Slf4j
+public class ChapterContentWatcher {
+
+    private final ChapterLoader chapterLoader;
+    private final NarrativeValidator narrativeValidator;
+    private final ChapterGraphCache chapterGraphCache;
+    private final boolean enabled;
+    private final long debounceMillis;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    @Autowired
+    public ChapterContentWatcher(
+            ChapterLoader chapterLoader,
+            NarrativeValidator narrativeValidator,
+            ChapterGraphCache chapterGraphCache,
+            @Value("${tokugawa.narrative.hot-reload:false}") boolean enabled,
+            @Value("${tokugawa.narrative.hot-reload-debounce-millis:250}") long debounceMillis) {
+        this.chapterLoader = chapterLoader;
+        this.narrativeValidator = narrativeValidator;
+        this.chapterGraphCache = chapterGraphCache;
+        this.enabled = enabled;
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Starts watching the chapter directories, loading the chapters first if needed.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (chapterLoader.getVersion() == 0) {
+            chapterLoader.loadChapters();
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : chapterLoader.getWatchedDirectories()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            log.info("Watching chapter directory {}", directory);
+        }
+
+        watchThread = new Thread(this::watch, "chapter-content-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stops watching the chapter directories.
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changedFiles = new LinkedHashSet<>();
+                boolean overflow = collectEvents(watchService.take(), changedFiles);
+
+                // Editors write a file in several steps, so wait until the directory is quiet
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collectEvents(key, changedFiles);
+                }
+
+                if (overflow) {
+                    log.warn("Chapter watch events were lost, reloading all chapters");
+                    reloadAll();
+                } else if (!changedFiles.isEmpty()) {
+                    reload(changedFiles);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private boolean collectEvents(WatchKey key, Set<Path> changedFiles) {
+        boolean overflow = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else {
+                changedFiles.add(directory.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    /**
+     * Reloads changed chapter files.
+     * Only the changed chapters and the chapters that link to them are validated, and the reload
+     * is rejected if it adds errors that the current content does not have.
+     *
+     * @param changedFiles the files that were created, modified or deleted
+     * @return true if the new content was published
+     */
+    public boolean reload(Collection<Path> changedFiles) {
+        return reload(() -> chapterLoader.prepareReload(changedFiles), changedFiles.size() + " changed files");
+    }
+
+    /**
+     * Reloads every chapter, when changes to the watched files were missed.
+     * The whole narrative is validated, and the reload is rejected if it adds errors that the
+     * current content does not have.
+     *
+     * @return true if the new content was published
+     */
+    public boolean reloadAll() {
+        return reload(chapterLoader::prepareFullReload, "all chapters");
+    }
+
+    /**
+     * Validates a reload and publishes it if it adds no errors.
+     *
+     * @param preparation prepares the reload
+     * @param description what is reloaded, for log messages
+     * @return true if the new content was published
+     */
+    private boolean reload(Supplier<ChapterLoader.ChapterReload> preparation, String description) {
+        try {
+            long start = System.nanoTime();
+            ChapterLoader.ChapterReload reload = preparation.get();
+            if (reload.isEmpty()) {
+                return false;
+            }
+
+            List<String> errors = new ArrayList<>(narrativeValidator.validateChapters(
+                    reload.getAffectedChapterIds(), reload.getChapters()));
+            errors.removeAll(narrativeValidator.validateChapters(
+                    reload.getAffectedChapterIds(), reload.getBaseChapters()));
+            if (!errors.isEmpty()) {
+                log.error("Rejected chapter reload of {}: {}", reload.getChangedChapterIds(), errors);
+                return false;
+            }
+
+            if (!chapterLoader.publish(reload)) {
+                return false;
+            }
+            reload.getChangedChapterIds().forEach(chapterGraphCache::invalidate);
+            reload.getRemovedChapterIds().forEach(chapterGraphCache::invalidate);
+            log.info("Reloaded {} in {} ms (version {})", description,
+                    (System.nanoTime() - start) / 1_000_000, reload.getVersion());
+            return true;
+        } catch (Exception e) {
+            log.error("Error reloading {}: {}", description, e.getMessage(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Typed form of a chapter JSON file, as read by the {@link ChapterLoader}.
+ * Choices, scenes, dialogues and requirements keep their JSON structure and are stored on the
+ * chapter as JSON strings.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChapterDefinition {
+
+    @JsonProperty("chapter_id")
+    private String chapterId;
+
+    private String id;
+
+    private String title;
+
+    private String description;
+
+    private String type;
+
+    /**
+     * Either a numeric phase or, in the story mode content, the name of the arc.
+     */
+    private JsonNode phase;
+
+    @JsonProperty("arc_id")
+    private String arcId;
+
+    @JsonProperty("completion_exp")
+    private Integer completionExp;
+
+    @JsonProperty("completion_tusd")
+    private Integer completionTusd;
+
+    @JsonProperty("next_chapter")
+    private String nextChapter;
+
+    private JsonNode rewards;
+
+    private JsonNode requirements;
+
+    private List<JsonNode> choices;
+
+    private List<JsonNode> scenes;
+
+    private List<JsonNode> dialogues;
+}
@@ -0,0 +1,289 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chapter requirements compiled into a dependency graph.
+ * Each chapter's JSON requirements are parsed once into the chapters it depends on and typed stat
+ * thresholds, and every chapter knows its dependents, so completing a chapter only needs to
+ * re-evaluate the chapters that depend on it.
+ */
+@Slf4j
+public final class ChapterDependencyGraph {
+
+    /**
+     * Graph with no chapters.
+     */
+    public static final ChapterDependencyGraph EMPTY = new ChapterDependencyGraph(0, Map.of(), Map.of(), Map.of());
+
+    private final long version;
+    private final Map<String, Chapter> chapters;
+    private final Map<String, ChapterRequirements> requirements;
+    private final Map<String, List<String>> dependents;
+    private final List<String> newPlayerChapters;
+
+    private ChapterDependencyGraph(long version, Map<String, Chapter> chapters,
+                                   Map<String, ChapterRequirements> requirements,
+                                   Map<String, List<String>> dependents) {
+        this.version = version;
+        this.chapters = chapters;
+        this.requirements = requirements;
+        this.dependents = dependents;
+        List<String> newPlayer = new ArrayList<>();
+        for (Map.Entry<String, ChapterRequirements> entry : requirements.entrySet()) {
+            if (entry.getValue().isNewPlayerOnly()) {
+                newPlayer.add(entry.getKey());
+            }
+        }
+        this.newPlayerChapters = Collections.unmodifiableList(newPlayer);
+    }
+
+    /**
+     * Builds the graph of a set of chapters.
+     * Requirements of chapters that are unchanged since the previous graph are reused instead of
+     * being parsed again.
+     *
+     * @param version the version of the chapters
+     * @param chapters the chapters, by ID
+     * @param previous the previous graph, or null
+     * @param objectMapper the mapper used to parse the requirements
+     * @return the graph
+     */
+    public static ChapterDependencyGraph build(long version, Map<String, Chapter> chapters,
+                                               ChapterDependencyGraph previous, ObjectMapper objectMapper) {
+        Map<String, ChapterRequirements> requirements = new LinkedHashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (Map.Entry<String, Chapter> entry : chapters.entrySet()) {
+            String chapterId = entry.getKey();
+            ChapterRequirements compiled = previous != null && previous.chapters.get(chapterId) == entry.getValue()
+                    ? previous.requirements.get(chapterId)
+                    : ChapterRequirements.compile(chapterId, entry.getValue().getRequirements(), objectMapper);
+            requirements.put(chapterId, compiled);
+            for (String requiredChapter : compiled.getRequiredChapters()) {
+                dependents.computeIfAbsent(requiredChapter, id -> new ArrayList<>()).add(chapterId);
+            }
+        }
+
+        ChapterDependencyGraph graph = new ChapterDependencyGraph(version, chapters,
+                Collections.unmodifiableMap(requirements), Collections.unmodifiableMap(dependents));
+        Set<String> cyclic = graph.findCycles();
+        if (!cyclic.isEmpty()) {
+            log.warn("Chapters with circular requirements can never become available: {}", cyclic);
+        }
+        return graph;
+    }
+
+    /**
+     * Finds the chapters that depend on themselves, directly or through other chapters.
+     *
+     * @return the IDs of the chapters on or behind a cycle
+     */
+    Set<String> findCycles() {
+        Map<String, Integer> pending = new HashMap<>();
+        Deque<String> ready = new ArrayDeque<>();
+        for (Map.Entry<String, ChapterRequirements> entry : requirements.entrySet()) {
+            int count = 0;
+            for (String requiredChapter : entry.getValue().getRequiredChapters()) {
+                if (requirements.containsKey(requiredChapter)) {
+                    count++;
+                }
+            }
+            pending.put(entry.getKey(), count);
+            if (count == 0) {
+                ready.add(entry.getKey());
+            }
+        }
+
+        while (!ready.isEmpty()) {
+            String chapterId = ready.poll();
+            pending.remove(chapterId);
+            for (String dependent : dependents.getOrDefault(chapterId, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return new LinkedHashSet<>(pending.keySet());
+    }
+
+    /**
+     * Computes every chapter available to a player.
+     *
+     * @param completedChapters the chapters the player has completed
+     * @param stats the player's stats
+     * @return the available chapter IDs, in load order
+     */
+    public Set<String> computeAvailable(Set<String> completedChapters, Map<String, Integer> stats) {
+        Set<String> available = new LinkedHashSet<>();
+        for (String chapterId : requirements.keySet()) {
+            if (isAvailable(chapterId, completedChapters, stats)) {
+                available.add(chapterId);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Checks whether a chapter is available to a player.
+     *
+     * @param chapterId the chapter ID
+     * @param completedChapters the chapters the player has completed
+     * @param stats the player's stats
+     * @return true if the chapter exists, is not completed and its requirements are met
+     */
+    public boolean isAvailable(String chapterId, Set<String> completedChapters, Map<String, Integer> stats) {
+        ChapterRequirements chapterRequirements = requirements.get(chapterId);
+        return chapterRequirements != null && !completedChapters.contains(chapterId)
+                && chapterRequirements.isSatisfied(completedChapters, stats);
+    }
+
+    /**
+     * Gets the chapters that require a chapter.
+     *
+     * @param chapterId the chapter ID
+     * @return the IDs of the dependent chapters
+     */
+    public List<String> getDependents(String chapterId) {
+        return dependents.getOrDefault(chapterId, List.of());
+    }
+
+    /**
+     * Gets the chapters only available to players who have not completed any chapter.
+     *
+     * @return the chapter IDs
+     */
+    public List<String> getNewPlayerChapters() {
+        return newPlayerChapters;
+    }
+
+    public ChapterRequirements getRequirements(String chapterId) {
+        return requirements.get(chapterId);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Requirements of a chapter.
+     */
+    public static final class ChapterRequirements {
+        private static final ChapterRequirements NONE =
+                new ChapterRequirements(new String[0], false, new String[0], new int[0], false);
+        private static final ChapterRequirements UNSATISFIABLE =
+                new ChapterRequirements(new String[0], false, new String[0], new int[0], true);
+
+        private final String[] requiredChapters;
+        private final boolean newPlayerOnly;
+        private final String[] statNames;
+        private final int[] statMinimums;
+        private final boolean unsatisfiable;
+
+        private ChapterRequirements(String[] requiredChapters, boolean newPlayerOnly, String[] statNames,
+                                    int[] statMinimums, boolean unsatisfiable) {
+            this.requiredChapters = requiredChapters;
+            this.newPlayerOnly = newPlayerOnly;
+            this.statNames = statNames;
+            this.statMinimums = statMinimums;
+            this.unsatisfiable = unsatisfiable;
+        }
+
+        /**
+         * Compiles the JSON requirements of a chapter.
+         * "chapters" and "previous_chapter" name required chapters, "stats" holds minimum stat
+         * values and "is_new_player" limits the chapter to players with no completed chapters.
+         * A chapter whose requirements cannot be parsed is never available.
+         *
+         * @param chapterId the chapter ID, for logging
+         * @param requirementJson the chapter's requirement strings
+         * @param objectMapper the mapper used to parse them
+         * @return the compiled requirements
+         */
+        static ChapterRequirements compile(String chapterId, List<String> requirementJson,
+                                           ObjectMapper objectMapper) {
+            if (requirementJson == null || requirementJson.isEmpty()) {
+                return NONE;
+            }
+
+            Set<String> chapters = new LinkedHashSet<>();
+            Map<String, Integer> stats = new LinkedHashMap<>();
+            boolean newPlayerOnly = false;
+            try {
+                for (String requirement : requirementJson) {
+                    if (!requirement.startsWith("{")) {
+                        // Legacy format support has been removed - all data should use JSON format
+                        continue;
+                    }
+                    JsonNode node = objectMapper.readTree(requirement);
+                    newPlayerOnly |= node.path("is_new_player").asBoolean(false);
+                    node.path("stats").fields().forEachRemaining(
+                            stat -> stats.merge(stat.getKey(), stat.getValue().asInt(), Math::max));
+                    node.path("chapters").forEach(required -> chapters.add(required.asText()));
+                    JsonNode previousChapter = node.path("previous_chapter");
+                    if (previousChapter.isTextual()) {
+                        chapters.add(previousChapter.asText());
+                    } else if (previousChapter.isArray()) {
+                        previousChapter.forEach(required -> chapters.add(required.asText()));
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error compiling requirements of chapter {}: {}", chapterId, e.getMessage(), e);
+                return UNSATISFIABLE;
+            }
+
+            String[] statNames = stats.keySet().toArray(new String[0]);
+            int[] statMinimums = new int[statNames.length];
+            for (int i = 0; i < statNames.length; i++) {
+                statMinimums[i] = stats.get(statNames[i]);
+            }
+            return new ChapterRequirements(chapters.toArray(new String[0]), newPlayerOnly, statNames, statMinimums,
+                    false);
+        }
+
+        /**
+         * Checks the requirements against a player's progress and stats.
+         *
+         * @param completedChapters the chapters the player has completed
+         * @param stats the player's stats, missing stats count as 0
+         * @return true if every requirement is met
+         */
+        public boolean isSatisfied(Set<String> completedChapters, Map<String, Integer> stats) {
+            if (unsatisfiable || (newPlayerOnly && !completedChapters.isEmpty())) {
+                return false;
+            }
+            for (String requiredChapter : requiredChapters) {
+                if (!completedChapters.contains(requiredChapter)) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < statNames.length; i++) {
+                if (stats.getOrDefault(statNames[i], 0) < statMinimums[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public List<String> getRequiredChapters() {
+            return List.of(requiredChapters);
+        }
+
+        public boolean isNewPlayerOnly() {
+            return newPlayerOnly;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.github.disparter.tokugawa.discord.core.repositories.ChapterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of compiled chapter graphs, keyed by chapter ID.
+ * A chapter is loaded and compiled the first time it is needed and reused until the cache is
+ * invalidated.
+ */
+@Component
+@Slf4j
+public class ChapterGraphCache {
+
+    private final ChapterRepository chapterRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CompiledChapter> compiledChapters = new ConcurrentHashMap<>();
+    private final CacheGeneration generation = new CacheGeneration();
+
+    @Autowired
+    public ChapterGraphCache(ChapterRepository chapterRepository, ObjectMapper objectMapper) {
+        this.chapterRepository = chapterRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Gets the compiled graph of a chapter, compiling it on first use.
+     *
+     * @param chapterId the chapter ID
+     * @return the compiled chapter, or empty if the chapter does not exist
+     */
+    public Optional<CompiledChapter> getCompiledChapter(String chapterId) {
+        CompiledChapter compiled = compiledChapters.get(chapterId);
+        if (compiled != null) {
+            return Optional.of(compiled);
+        }
+
+        long loadedGeneration = generation.current();
+        Optional<Chapter> chapter = chapterRepository.findByChapterId(chapterId);
+        return chapter.map(loaded -> {
+            CompiledChapter result = compile(loaded);
+            generation.discardIfStale(compiledChapters, chapterId, result, loadedGeneration);
+            return result;
+        });
+    }
+
+    /**
+     * Compiles a chapter and caches the result.
+     *
+     * @param chapter the chapter
+     * @return the compiled chapter
+     */
+    public CompiledChapter compile(Chapter chapter) {
+        CompiledChapter compiled = CompiledChapter.compile(chapter, objectMapper);
+        compiledChapters.put(chapter.getChapterId(), compiled);
+        log.debug("Compiled chapter {} with {} dialogues", chapter.getChapterId(), compiled.getDialogueCount());
+        return compiled;
+    }
+
+    /**
+     * Removes a chapter from the cache so it is recompiled on next use.
+     *
+     * @param chapterId the chapter ID
+     */
+    public void invalidate(String chapterId) {
+        generation.invalidate();
+        compiledChapters.remove(chapterId);
+    }
+
+    /**
+     * Removes every chapter from the cache.
+     */
+    public void invalidateAll() {
+        generation.invalidate();
+        compiledChapters.clear();
+    }
+}
@@ -1,59 +1,182 @@
 package io.github.disparter.tokugawa.discord.core.services;
 
 import lombok.extern.slf4j.Slf4j;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.github.disparter.tokugawa.discord.core.models.Chapter;
 import io.github.disparter.tokugawa.discord.core.repositories.ChapterRepository;
+import io.github.disparter.tokugawa.discord.utils.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * Service for loading chapter data from JSON files.
  * This is a migration of the Python FileChapterLoader class.
+ * Chapters are read from the data directory, from the story mode narrative shipped on the
+ * classpath and from the narrative archive. Files are parsed in parallel, straight into typed
+ * {@link ChapterDefinition}s with a streaming parser.
+ * <p>
+ * Loaded chapters are published as an immutable snapshot. Chapters read from directories on the
+ * file system can be reloaded file by file with {@link #prepareReload(Collection)} and
+ * {@link #publish(ChapterReload)}, which swaps in a new snapshot atomically, so a reader always
+ * sees one consistent version of the content. The database mirrors the snapshot: a snapshot is
+ * only published once its chapters are saved and the chapters it no longer has are deleted.
+ * <p>
+ * When the narrative is read from the classpath, the {@link NarrativeBundle} compiled from it at
+ * build time is read instead of the classpath narrative and the archive. The bundle is
+ * memory-mapped when it is a file on the file system.
  */
 @Service
 @Slf4j
 public class ChapterLoader {
 
+    /**
+     * Narrative subdirectories that contain chapters.
+     */
+    private static final Set<String> NARRATIVE_CATEGORIES = Set.of("chapters", "club", "romance", "academic");
 
     private final ChapterRepository chapterRepository;
     private final ObjectMapper objectMapper;
+    private final ObjectReader definitionReader;
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
     private final String dataDirectory;
-    private final Map<String, Chapter> chapters = new HashMap<>();
+    private final String narrativeLocation;
+    private final String narrativeArchive;
+    private final String narrativeBundle;
+    private final List<String> loadErrors = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Path, DirectoryRule> watchedDirectories = new ConcurrentHashMap<>();
+    private volatile ChapterSnapshot snapshot = ChapterSnapshot.EMPTY;
+    /**
+     * The last snapshot saved to the database, published once its transaction commits.
+     * Guarded by this loader.
+     */
+    private ChapterSnapshot saved = ChapterSnapshot.EMPTY;
 
     @Autowired
     public ChapterLoader(
             ChapterRepository chapterRepository,
             ObjectMapper objectMapper,
-            @Value("${tokugawa.data.directory:data}") String dataDirectory) {
+            @Value("${tokugawa.data.directory:data}") String dataDirectory,
+            @Value("${tokugawa.narrative.location:classpath:data/story_mode/narrative}") String narrativeLocation,
+            @Value("${tokugawa.narrative.archive:classpath:data/story_mode/narrative.zip}") String narrativeArchive,
+            @Value("${tokugawa.narrative.bundle:classpath:data/story_mode/narrative.bundle}") String narrativeBundle) {
         this.chapterRepository = chapterRepository;
         this.objectMapper = objectMapper;
+        this.definitionReader = objectMapper.readerFor(ChapterDefinition.class);
         this.dataDirectory = dataDirectory;
+        this.narrativeLocation = narrativeLocation;
+        this.narrativeArchive = narrativeArchive;
+        this.narrativeBundle = narrativeBundle;
+    }
+
+    /**
+     * Load all chapters.
+     * Sources are read in order and the first source that defines a chapter ID wins: the main and
+     * club directories under the data directory, then the narrative bundle or the classpath
+     * narrative, then the archive.
+     * The chapters replace the ones in the database, and are published once they are saved.
+     */
+    @Transactional
+    public synchronized void loadChapters() {
+        long start = System.nanoTime();
+        Map<String, Chapter> loaded = new LinkedHashMap<>();
+        Map<Path, String> fileChapters = new HashMap<>();
+        readSources(loaded, fileChapters, true);
+
+        Map<String, Set<String>> referrers = new HashMap<>();
+        for (Chapter chapter : loaded.values()) {
+            addReferences(referrers, chapter);
+        }
+        long version = saved.version + 1;
+        ChapterSnapshot candidate = new ChapterSnapshot(version, loaded, fileChapters, referrers,
+                ChapterDependencyGraph.build(version, loaded, null, objectMapper));
+        log.info("Loaded {} chapters in {} ms (version {})", loaded.size(), (System.nanoTime() - start) / 1_000_000,
+                version);
+
+        Map<String, Chapter> existing = new HashMap<>();
+        for (Chapter chapter : chapterRepository.findAll()) {
+            existing.put(chapter.getChapterId(), chapter);
+        }
+        Set<String> removed = new HashSet<>(existing.keySet());
+        removed.removeAll(loaded.keySet());
+        if (loaded.isEmpty()) {
+            // Nothing could be read, keep the chapters already in the database
+            removed.clear();
+        }
+        saveChaptersToDatabase(loaded.values(), existing, removed);
+        publishAfterCommit(candidate);
+    }
+
+    /**
+     * Reads the chapters of every source from their JSON files, without the narrative bundle and
+     * without publishing or saving them. Used to compile and validate the narrative.
+     *
+     * @return the chapters, by ID, in load order
+     */
+    public synchronized Map<String, Chapter> readChapters() {
+        Map<String, Chapter> loaded = new LinkedHashMap<>();
+        readSources(loaded, new HashMap<>(), false);
+        return loaded;
     }
 
     /**
-     * Load all chapters from JSON files in the data directory.
-     * This method scans the narrative/chapters directory and club directories for chapter files.
+     * Gets the errors of the last load: files that could not be parsed and chapters missing
+     * required fields.
+     *
+     * @return the error messages
      */
-    public void loadChapters() {
+    public List<String> getLoadErrors() {
+        synchronized (loadErrors) {
+            return new ArrayList<>(loadErrors);
+        }
+    }
+
+    private void readSources(Map<String, Chapter> loaded, Map<Path, String> fileChapters, boolean useBundle) {
+        watchedDirectories.clear();
+        loadErrors.clear();
+
         // Load main story chapters
         Path mainChapterDir = Paths.get(dataDirectory, "narrative", "chapters");
         if (!Files.exists(mainChapterDir)) {
             log.warn("Main chapter directory not found: {}", mainChapterDir);
         } else {
-            loadChaptersFromDirectory(mainChapterDir, "");
+            loadSource(mainChapterDir.toString(), () -> loadDirectory(mainChapterDir, new DirectoryRule("", false)),
+                    loaded, fileChapters);
         }
 
         // Load club chapters
@@ -64,89 +187,457 @@ public class ChapterLoader {
             try (Stream<Path> clubDirs = Files.list(clubChapterDir)) {
                 clubDirs.filter(Files::isDirectory).forEach(clubDir -> {
                     String clubId = clubDir.getFileName().toString();
-                    loadChaptersFromDirectory(clubDir, "club_" + clubId + "_");
+                    DirectoryRule rule = new DirectoryRule("club_" + clubId + "_", false);
+                    loadSource(clubDir.toString(), () -> loadDirectory(clubDir, rule), loaded, fileChapters);
                 });
             } catch (IOException e) {
                 log.error("Error listing club directories: {}", e.getMessage(), e);
             }
         }
 
-        // Save all loaded chapters to the database
-        saveChaptersToDatabase();
+        // Load the story mode narrative and its archive, or the bundle compiled from them
+        boolean bundled = useBundle && narrativeLocation.startsWith("classpath:")
+                && narrativeBundle != null && !narrativeBundle.isEmpty()
+                && loadSource(narrativeBundle, this::loadNarrativeBundle, loaded, fileChapters) > 0;
+        if (!bundled) {
+            loadSource(narrativeLocation, this::loadNarrativeResources, loaded, fileChapters);
+            loadSource(narrativeArchive, this::loadNarrativeArchive, loaded, fileChapters);
+        }
+    }
+
+    /**
+     * Gets the version of the current chapter snapshot.
+     *
+     * @return the version, 0 if no chapters have been loaded yet
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Gets the file system directories chapters were loaded from.
+     *
+     * @return the directories that can be watched for changes
+     */
+    public Set<Path> getWatchedDirectories() {
+        return new HashSet<>(watchedDirectories.keySet());
     }
 
     /**
-     * Load chapters from a specific directory.
+     * Re-parses changed chapter files on top of the current snapshot, without publishing it.
+     * Only the given files are parsed. A deleted file removes its chapter, and a file that can no
+     * longer be parsed keeps its last good version.
+     *
+     * @param changedFiles the files that were created, modified or deleted
+     * @return the reload, with the candidate snapshot and the chapters it affects
+     */
+    public ChapterReload prepareReload(Collection<Path> changedFiles) {
+        ChapterSnapshot base = snapshot;
+        Map<String, Chapter> chapters = new LinkedHashMap<>(base.chapters);
+        Map<Path, String> fileChapters = new HashMap<>(base.fileChapters);
+        Map<String, Set<String>> referrers = new HashMap<>(base.referrers);
+        Set<String> changed = new LinkedHashSet<>();
+        Set<String> removed = new LinkedHashSet<>();
+
+        List<ChapterFile> files = new ArrayList<>();
+        for (Path path : changedFiles) {
+            Path file = path.toAbsolutePath().normalize();
+            DirectoryRule rule = watchedDirectories.get(file.getParent());
+            if (rule == null || !file.toString().endsWith(".json")) {
+                continue;
+            }
+            if (Files.exists(file)) {
+                files.add(fileFor(file, rule));
+            } else {
+                String chapterId = fileChapters.remove(file);
+                if (chapterId != null && chapters.remove(chapterId) != null) {
+                    removeReferences(referrers, base.chapters.get(chapterId));
+                    removed.add(chapterId);
+                }
+            }
+        }
+
+        for (ParsedChapter parsed : parseAll(files)) {
+            String chapterId = parsed.chapter.getChapterId();
+            String previousId = fileChapters.get(parsed.file.path);
+            if (!chapterId.equals(previousId) && chapters.containsKey(chapterId)) {
+                log.warn("Chapter {} from {} is already defined by another source, skipping", chapterId,
+                        parsed.file.name);
+                continue;
+            }
+            if (previousId != null && !previousId.equals(chapterId) && chapters.remove(previousId) != null) {
+                removeReferences(referrers, base.chapters.get(previousId));
+                removed.add(previousId);
+            }
+            Chapter previous = chapters.put(chapterId, parsed.chapter);
+            if (previous != null) {
+                removeReferences(referrers, previous);
+            }
+            addReferences(referrers, parsed.chapter);
+            fileChapters.put(parsed.file.path, chapterId);
+            changed.add(chapterId);
+            removed.remove(chapterId);
+        }
+
+        // The affected subgraph is every changed chapter and every chapter that links to one
+        Set<String> affected = new LinkedHashSet<>(changed);
+        for (String chapterId : changed) {
+            affected.addAll(referrers.getOrDefault(chapterId, Set.of()));
+        }
+        for (String chapterId : removed) {
+            affected.addAll(referrers.getOrDefault(chapterId, Set.of()));
+        }
+        affected.retainAll(chapters.keySet());
+
+        ChapterSnapshot candidate = new ChapterSnapshot(base.version + 1, chapters, fileChapters, referrers,
+                ChapterDependencyGraph.build(base.version + 1, chapters, base.dependencyGraph, objectMapper));
+        return new ChapterReload(base, candidate, changed, removed, affected);
+    }
+
+    /**
+     * Re-reads every chapter source on top of the current snapshot, without publishing it.
+     * Used when changes to the watched files were missed, so every chapter counts as changed and
+     * affected.
+     *
+     * @return the reload, with the candidate snapshot and every chapter
+     */
+    public synchronized ChapterReload prepareFullReload() {
+        ChapterSnapshot base = snapshot;
+        Map<String, Chapter> chapters = new LinkedHashMap<>();
+        Map<Path, String> fileChapters = new HashMap<>();
+        readSources(chapters, fileChapters, true);
+
+        Map<String, Set<String>> referrers = new HashMap<>();
+        for (Chapter chapter : chapters.values()) {
+            addReferences(referrers, chapter);
+        }
+        Set<String> removed = new LinkedHashSet<>(base.chapters.keySet());
+        removed.removeAll(chapters.keySet());
+
+        long version = base.version + 1;
+        ChapterSnapshot candidate = new ChapterSnapshot(version, chapters, fileChapters, referrers,
+                ChapterDependencyGraph.build(version, chapters, null, objectMapper));
+        return new ChapterReload(base, candidate, new LinkedHashSet<>(chapters.keySet()), removed,
+                new LinkedHashSet<>(chapters.keySet()));
+    }
+
+    /**
+     * Saves the changed chapters of a prepared reload, deletes its removed chapters and publishes
+     * it as the current snapshot once the transaction commits.
+     *
+     * @param reload the reload
+     * @return true if it was saved, false if the snapshot changed since it was prepared
+     */
+    @Transactional
+    public synchronized boolean publish(ChapterReload reload) {
+        if (saved != reload.base) {
+            log.warn("Discarding chapter reload prepared on version {}, current version is {}",
+                    reload.base.version, saved.version);
+            return false;
+        }
+
+        Set<String> chapterIds = new LinkedHashSet<>(reload.changedChapterIds);
+        chapterIds.addAll(reload.removedChapterIds);
+        Map<String, Chapter> existing = new HashMap<>();
+        for (String chapterId : chapterIds) {
+            chapterRepository.findByChapterId(chapterId).ifPresent(chapter -> existing.put(chapterId, chapter));
+        }
+        List<Chapter> changedChapters = new ArrayList<>();
+        for (String chapterId : reload.changedChapterIds) {
+            changedChapters.add(reload.candidate.chapters.get(chapterId));
+        }
+        saveChaptersToDatabase(changedChapters, existing, reload.removedChapterIds);
+
+        publishAfterCommit(reload.candidate);
+        log.info("Saved chapter version {}: {} changed, {} removed", reload.candidate.version,
+                reload.changedChapterIds.size(), reload.removedChapterIds.size());
+        return true;
+    }
+
+    /**
+     * Publishes a saved snapshot once the transaction commits. Called with this loader locked.
+     */
+    private void publishAfterCommit(ChapterSnapshot candidate) {
+        saved = candidate;
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                if (candidate.version > snapshot.version) {
+                    snapshot = candidate;
+                }
+            }
+        }, () -> {
+            synchronized (this) {
+                if (saved == candidate) {
+                    saved = snapshot;
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the chapters of one source and adds the ones not loaded yet.
+     *
+     * @param sourceName the source name, for logging
+     * @param source loads the chapters of the source
+     * @param loaded the chapters loaded so far
+     * @param fileChapters the chapter IDs loaded so far from file system files
+     * @return the number of chapters the source contained, 0 if it could not be read
+     */
+    private int loadSource(String sourceName, ChapterSource source, Map<String, Chapter> loaded,
+                           Map<Path, String> fileChapters) {
+        long start = System.nanoTime();
+        try {
+            List<ParsedChapter> parsed = source.load();
+
+            int added = 0;
+            for (ParsedChapter parsedChapter : parsed) {
+                Chapter chapter = parsedChapter.chapter;
+                if (loaded.putIfAbsent(chapter.getChapterId(), chapter) == null) {
+                    added++;
+                    if (parsedChapter.file.path != null) {
+                        fileChapters.put(parsedChapter.file.path, chapter.getChapterId());
+                    }
+                } else {
+                    log.debug("Chapter {} from {} already loaded, skipping", chapter.getChapterId(), sourceName);
+                }
+            }
+
+            log.info("Loaded {} chapters ({} new) from {} in {} ms", parsed.size(), added, sourceName,
+                    (System.nanoTime() - start) / 1_000_000);
+            return parsed.size();
+        } catch (Exception e) {
+            log.error("Error loading chapters from {}: {}", sourceName, e.getMessage(), e);
+            loadErrors.add(String.format("Error loading chapters from %s: %s", sourceName, e.getMessage()));
+            return 0;
+        }
+    }
+
+    /**
+     * Parses chapter files in parallel.
+     *
+     * @param files the chapter files
+     * @return the chapters that could be parsed
+     */
+    private List<ParsedChapter> parseAll(List<ChapterFile> files) {
+        return files.parallelStream()
+                .map(file -> {
+                    Chapter chapter = parseChapterFile(file);
+                    return chapter != null ? new ParsedChapter(file, chapter) : null;
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Loads the JSON files of a directory and registers the directory for watching.
      *
      * @param directory the directory to load chapters from
-     * @param prefix the prefix to add to chapter IDs
-     */
-    private void loadChaptersFromDirectory(Path directory, String prefix) {
-        try (Stream<Path> files = Files.list(directory)) {
-            files.filter(path -> path.toString().endsWith(".json"))
-                 .forEach(path -> {
-                     try {
-                         String filename = path.getFileName().toString();
-                         String chapterId = prefix + filename.replace(".json", "");
-
-                         try {
-                             // Read the JSON file
-                             Map<String, Object> chapterData = objectMapper.readValue(path.toFile(), Map.class);
-
-                             // Add chapter ID to the data
-                             chapterData.put("chapter_id", chapterId);
-
-                             // Create chapter from data
-                             Chapter chapter = createChapter(chapterData);
-
-                             if (chapter != null) {
-                                 chapters.put(chapterId, chapter);
-                                 log.info("Loaded chapter: {}", chapterId);
-                             } else {
-                                 log.error("Failed to create chapter {}", chapterId);
-                             }
-                         } catch (Exception e) {
-                             // Log the error but continue processing other files
-                             log.error("Error loading chapter {}: {}", path.getFileName(), e.getMessage(), e);
-                         }
-                     } catch (Exception e) {
-                         // This catches any exceptions that might occur when getting the file name
-                         log.error("Error processing file: {}", e.getMessage(), e);
-                     }
-                 });
-        } catch (IOException e) {
-            log.error("Error listing files in directory {}: {}", directory, e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Create a Chapter entity from chapter data.
+     * @param rule how chapter IDs are derived for the directory
+     * @return the chapters
+     */
+    private List<ParsedChapter> loadDirectory(Path directory, DirectoryRule rule) throws IOException {
+        Path normalized = directory.toAbsolutePath().normalize();
+        watchedDirectories.put(normalized, rule);
+        try (Stream<Path> files = Files.list(normalized)) {
+            return parseAll(files.filter(path -> path.toString().endsWith(".json"))
+                    .map(path -> fileFor(path, rule))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private static ChapterFile fileFor(Path path, DirectoryRule rule) {
+        String defaultId = (rule.prefix != null ? rule.prefix : "") + baseName(path.getFileName().toString());
+        return new ChapterFile(path.toString(), path, defaultId, rule.useDeclaredId, () -> Files.newInputStream(path));
+    }
+
+    /**
+     * Loads the chapters of the narrative location, which may be a directory or inside a jar.
+     * Category directories on the file system are registered for watching.
+     *
+     * @return the chapters
+     */
+    private List<ParsedChapter> loadNarrativeResources() throws IOException {
+        Resource root = resourceResolver.getResource(narrativeLocation);
+        if (!root.exists()) {
+            log.warn("Narrative location not found: {}", narrativeLocation);
+            return List.of();
+        }
+
+        List<ChapterFile> files = new ArrayList<>();
+        for (Resource resource : resourceResolver.getResources(narrativeLocation + "/*/*.json")) {
+            String path = resource.getURL().getPath();
+            String[] segments = path.split("/");
+            if (segments.length < 2 || !NARRATIVE_CATEGORIES.contains(segments[segments.length - 2])) {
+                continue;
+            }
+            if (resource.isFile()) {
+                Path file = resource.getFile().toPath().toAbsolutePath().normalize();
+                DirectoryRule rule = new DirectoryRule(null, true);
+                watchedDirectories.putIfAbsent(file.getParent(), rule);
+                files.add(fileFor(file, rule));
+            } else {
+                files.add(new ChapterFile(path, null, baseName(segments[segments.length - 1]), true,
+                        resource::getInputStream));
+            }
+        }
+        return parseAll(files);
+    }
+
+    /**
+     * Loads the chapters of the narrative archive without extracting it.
+     * An archive on the file system is opened as a zip file system and read in place; an archive
+     * packaged inside the application jar is streamed entry by entry.
+     *
+     * @return the chapters
+     */
+    private List<ParsedChapter> loadNarrativeArchive() throws IOException {
+        Resource archive = resourceResolver.getResource(narrativeArchive);
+        if (!archive.exists()) {
+            log.warn("Narrative archive not found: {}", narrativeArchive);
+            return List.of();
+        }
+
+        if (archive.isFile()) {
+            try (FileSystem zipFileSystem = FileSystems.newFileSystem(archive.getFile().toPath());
+                 Stream<Path> paths = Files.walk(zipFileSystem.getPath("/"))) {
+                List<ChapterFile> files = paths
+                        .filter(path -> isNarrativeChapter(path.toString()))
+                        .map(path -> new ChapterFile(narrativeArchive + "!" + path, null,
+                                baseName(path.getFileName().toString()), true, () -> Files.newInputStream(path)))
+                        .collect(Collectors.toList());
+                return parseAll(files);
+            }
+        }
+
+        List<ChapterFile> files = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory() && isNarrativeChapter(entry.getName())) {
+                    byte[] content = zip.readAllBytes();
+                    String fileName = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                    files.add(new ChapterFile(narrativeArchive + "!" + entry.getName(), null, baseName(fileName), true,
+                            () -> new ByteArrayInputStream(content)));
+                }
+            }
+        }
+        return parseAll(files);
+    }
+
+    /**
+     * Loads the chapters of the compiled narrative bundle.
+     * A bundle on the file system is memory-mapped; a bundle packaged inside the application jar
+     * is read into memory.
+     *
+     * @return the chapters, or none if there is no bundle
+     */
+    private List<ParsedChapter> loadNarrativeBundle() throws IOException {
+        Resource bundle = resourceResolver.getResource(narrativeBundle);
+        if (!bundle.exists()) {
+            log.debug("Narrative bundle not found: {}", narrativeBundle);
+            return List.of();
+        }
+
+        ByteBuffer content;
+        if (bundle.isFile()) {
+            try (FileChannel channel = FileChannel.open(bundle.getFile().toPath(), StandardOpenOption.READ)) {
+                content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        } else {
+            try (InputStream input = bundle.getInputStream()) {
+                content = ByteBuffer.wrap(input.readAllBytes());
+            }
+        }
+
+        List<ParsedChapter> parsed = new ArrayList<>();
+        for (Chapter chapter : NarrativeBundle.read(content)) {
+            ChapterFile file = new ChapterFile(narrativeBundle + "!" + chapter.getChapterId(), null,
+                    chapter.getChapterId(), true, null);
+            parsed.add(new ParsedChapter(file, chapter));
+        }
+        return parsed;
+    }
+
+    private static boolean isNarrativeChapter(String entryName) {
+        String[] segments = entryName.split("/");
+        return entryName.endsWith(".json") && segments.length >= 2
+                && NARRATIVE_CATEGORIES.contains(segments[segments.length - 2]);
+    }
+
+    private static String baseName(String fileName) {
+        return fileName.endsWith(".json") ? fileName.substring(0, fileName.length() - 5) : fileName;
+    }
+
+    /**
+     * Parses a chapter file with a streaming parser.
+     *
+     * @param file the chapter file
+     * @return the chapter, or null if the file could not be parsed
+     */
+    private Chapter parseChapterFile(ChapterFile file) {
+        try (InputStream input = file.opener.open()) {
+            ChapterDefinition definition;
+            try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+                definition = definitionReader.readValue(parser);
+            }
+
+            String chapterId = file.defaultId;
+            if (file.useDeclaredId) {
+                if (definition.getChapterId() != null) {
+                    chapterId = definition.getChapterId();
+                } else if (definition.getId() != null) {
+                    chapterId = definition.getId();
+                }
+            }
+
+            Chapter chapter = createChapter(definition, chapterId);
+            if (chapter != null) {
+                log.debug("Loaded chapter: {}", chapterId);
+            } else {
+                log.error("Failed to create chapter {}", chapterId);
+            }
+            return chapter;
+        } catch (Exception e) {
+            // Log the error but continue processing other files
+            log.error("Error loading chapter {}: {}", file.name, e.getMessage(), e);
+            loadErrors.add(String.format("Error loading chapter %s: %s", file.name, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Create a Chapter entity from a chapter definition.
      *
-     * @param chapterData the chapter data from JSON
+     * @param definition the chapter definition
+     * @param chapterId the chapter ID
      * @return the created Chapter entity, or null if creation failed
      */
-    private Chapter createChapter(Map<String, Object> chapterData) {
+    private Chapter createChapter(ChapterDefinition definition, String chapterId) {
         try {
             // Validate required fields
-            List<String> requiredFields = List.of("title", "description");
-            List<String> missingFields = requiredFields.stream()
-                    .filter(field -> !chapterData.containsKey(field))
-                    .collect(Collectors.toList());
+            List<String> missingFields = new ArrayList<>();
+            if (definition.getTitle() == null) {
+                missingFields.add("title");
+            }
+            if (definition.getDescription() == null) {
+                missingFields.add("description");
+            }
 
             if (!missingFields.isEmpty()) {
-                log.error("Chapter {} is missing required fields: {}", 
-                        chapterData.get("chapter_id"), String.join(", ", missingFields));
+                log.error("Chapter {} is missing required fields: {}", chapterId, String.join(", ", missingFields));
+                loadErrors.add(String.format("Chapter %s is missing required fields: %s", chapterId,
+                        String.join(", ", missingFields)));
                 return null;
             }
 
             // Create chapter entity
             Chapter chapter = new Chapter();
-            chapter.setChapterId((String) chapterData.get("chapter_id"));
-            chapter.setTitle((String) chapterData.get("title"));
-            chapter.setDescription((String) chapterData.get("description"));
+            chapter.setChapterId(chapterId);
+            chapter.setTitle(definition.getTitle());
+            chapter.setDescription(definition.getDescription());
 
             // Set chapter type
-            String type = (String) chapterData.getOrDefault("type", "story");
+            String type = definition.getType() != null ? definition.getType() : "story";
             switch (type.toLowerCase()) {
                 case "story":
                     chapter.setType(Chapter.ChapterType.STORY);
@@ -163,94 +654,181 @@ public class ChapterLoader {
             }
 
             // Set other properties
-            if (chapterData.containsKey("phase")) {
-                chapter.setPhase(((Number) chapterData.get("phase")).intValue());
+            JsonNode phase = definition.getPhase();
+            if (phase != null && phase.isNumber()) {
+                chapter.setPhase(phase.intValue());
+            } else if (phase != null && phase.isTextual() && definition.getArcId() == null) {
+                chapter.setArcId(phase.asText());
+            }
+            if (definition.getArcId() != null) {
+                chapter.setArcId(definition.getArcId());
             }
 
-            if (chapterData.containsKey("completion_exp")) {
-                chapter.setCompletionExp(((Number) chapterData.get("completion_exp")).intValue());
+            if (definition.getCompletionExp() != null) {
+                chapter.setCompletionExp(definition.getCompletionExp());
+            } else if (definition.getRewards() != null && definition.getRewards().path("experience").isNumber()) {
+                chapter.setCompletionExp(definition.getRewards().path("experience").intValue());
             }
 
-            if (chapterData.containsKey("completion_tusd")) {
-                chapter.setCompletionReward(((Number) chapterData.get("completion_tusd")).intValue());
+            if (definition.getCompletionTusd() != null) {
+                chapter.setCompletionReward(definition.getCompletionTusd());
             }
 
-            if (chapterData.containsKey("next_chapter")) {
-                chapter.setNextChapterId((String) chapterData.get("next_chapter"));
+            if (definition.getNextChapter() != null) {
+                chapter.setNextChapterId(definition.getNextChapter());
             }
 
-            // Store choices
-            if (chapterData.containsKey("choices")) {
-                List<String> choices = new ArrayList<>();
-                Object choicesObj = chapterData.get("choices");
-                if (choicesObj instanceof List) {
-                    for (Object choice : (List) choicesObj) {
-                        if (choice instanceof String) {
-                            choices.add((String) choice);
-                        } else if (choice instanceof Map) {
-                            // For complex choice objects, store as JSON string
-                            choices.add(objectMapper.writeValueAsString(choice));
-                        }
-                    }
-                }
-                chapter.setChoices(choices);
-            }
-
-            // Store scenes
-            if (chapterData.containsKey("scenes")) {
-                List<String> scenes = new ArrayList<>();
-                Object scenesObj = chapterData.get("scenes");
-                if (scenesObj instanceof List) {
-                    for (Object scene : (List) scenesObj) {
-                        if (scene instanceof Map) {
-                            // Store scene as JSON string
-                            scenes.add(objectMapper.writeValueAsString(scene));
-                        }
-                    }
-                }
-                chapter.setScenes(scenes);
-            }
-
-            // Store dialogues
-            if (chapterData.containsKey("dialogues")) {
-                List<String> dialogues = new ArrayList<>();
-                Object dialoguesObj = chapterData.get("dialogues");
-                if (dialoguesObj instanceof List) {
-                    for (Object dialogue : (List) dialoguesObj) {
-                        if (dialogue instanceof String) {
-                            dialogues.add((String) dialogue);
-                        } else if (dialogue instanceof Map) {
-                            // For complex dialogue objects, store as JSON string
-                            dialogues.add(objectMapper.writeValueAsString(dialogue));
-                        }
-                    }
-                }
-                chapter.setDialogues(dialogues);
+            // Store choices, scenes, dialogues and requirements as JSON strings
+            if (definition.getChoices() != null) {
+                chapter.setChoices(toJsonStrings(definition.getChoices(), true));
+            }
+
+            if (definition.getScenes() != null) {
+                chapter.setScenes(toJsonStrings(definition.getScenes(), false));
+            }
+
+            if (definition.getDialogues() != null) {
+                chapter.setDialogues(toJsonStrings(definition.getDialogues(), true));
+            }
+
+            JsonNode requirements = definition.getRequirements();
+            if (requirements != null && requirements.isObject() && !requirements.isEmpty()) {
+                chapter.setRequirements(new ArrayList<>(List.of(objectMapper.writeValueAsString(requirements))));
             }
 
             return chapter;
         } catch (Exception e) {
-            log.error("Error creating chapter {}: {}", 
-                    chapterData.get("chapter_id"), e.getMessage(), e);
+            log.error("Error creating chapter {}: {}", chapterId, e.getMessage(), e);
+            loadErrors.add(String.format("Error creating chapter %s: %s", chapterId, e.getMessage()));
             return null;
         }
     }
 
     /**
-     * Save all loaded chapters to the database.
+     * Converts JSON nodes to the strings stored on a chapter.
+     *
+     * @param nodes the nodes
+     * @param allowText whether plain text nodes are kept as they are
+     * @return text nodes as their text and objects as JSON strings
      */
-    private void saveChaptersToDatabase() {
-        try {
-            // Always call saveAll, even if the collection is empty
-            chapterRepository.saveAll(chapters.values());
+    private List<String> toJsonStrings(List<JsonNode> nodes, boolean allowText) throws IOException {
+        List<String> values = new ArrayList<>();
+        for (JsonNode node : nodes) {
+            if (allowText && node.isTextual()) {
+                values.add(node.asText());
+            } else if (node.isObject()) {
+                values.add(objectMapper.writeValueAsString(node));
+            }
+        }
+        return values;
+    }
 
-            if (!chapters.isEmpty()) {
-                log.info("Saved {} chapters to database", chapters.size());
+    /**
+     * Collects the chapters a chapter links to through its next chapter and its choices.
+     *
+     * @param chapter the chapter
+     * @return the linked chapter IDs
+     */
+    private Set<String> referencedChapters(Chapter chapter) {
+        Set<String> references = new HashSet<>();
+        if (chapter.getNextChapterId() != null && !chapter.getNextChapterId().isEmpty()) {
+            references.add(chapter.getNextChapterId());
+        }
+        List<String> nodes = new ArrayList<>();
+        if (chapter.getChoices() != null) {
+            nodes.addAll(chapter.getChoices());
+        }
+        if (chapter.getDialogues() != null) {
+            nodes.addAll(chapter.getDialogues());
+        }
+        for (String node : nodes) {
+            if (!node.startsWith("{")) {
+                continue;
+            }
+            try {
+                collectReferences(objectMapper.readTree(node), references);
+            } catch (IOException e) {
+                // Reported by the NarrativeValidator
+            }
+        }
+        return references;
+    }
+
+    private static void collectReferences(JsonNode node, Set<String> references) {
+        if (node.isObject()) {
+            node.fields().forEachRemaining(field -> {
+                if (field.getKey().equals("next_chapter") && field.getValue().isTextual()) {
+                    references.add(field.getValue().asText());
+                } else if (field.getKey().equals("conditional_next_chapter") && field.getValue().isObject()) {
+                    field.getValue().forEach(target -> {
+                        if (target.isTextual() && !target.asText().isEmpty()) {
+                            references.add(target.asText());
+                        }
+                    });
+                } else {
+                    collectReferences(field.getValue(), references);
+                }
+            });
+        } else if (node.isArray()) {
+            node.forEach(element -> collectReferences(element, references));
+        }
+    }
+
+    private void addReferences(Map<String, Set<String>> referrers, Chapter chapter) {
+        for (String target : referencedChapters(chapter)) {
+            Set<String> sources = new HashSet<>(referrers.getOrDefault(target, Set.of()));
+            sources.add(chapter.getChapterId());
+            referrers.put(target, sources);
+        }
+    }
+
+    private void removeReferences(Map<String, Set<String>> referrers, Chapter chapter) {
+        if (chapter == null) {
+            return;
+        }
+        for (String target : referencedChapters(chapter)) {
+            Set<String> sources = new HashSet<>(referrers.getOrDefault(target, Set.of()));
+            sources.remove(chapter.getChapterId());
+            if (sources.isEmpty()) {
+                referrers.remove(target);
             } else {
-                log.warn("No chapters to save to database");
+                referrers.put(target, sources);
             }
-        } catch (Exception e) {
-            log.error("Error saving chapters to database: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Save chapters to the database, over the rows with the same chapter IDs, and delete the rows
+     * of removed chapters.
+     *
+     * @param chapters the chapters to save
+     * @param existing the rows already in the database, by chapter ID
+     * @param removedChapterIds the IDs of the chapters to delete
+     */
+    private void saveChaptersToDatabase(Collection<Chapter> chapters, Map<String, Chapter> existing,
+                                        Collection<String> removedChapterIds) {
+        for (Chapter chapter : chapters) {
+            Chapter row = existing.get(chapter.getChapterId());
+            if (row != null) {
+                chapter.setId(row.getId());
+            }
+        }
+        // Always call saveAll, even if the collection is empty
+        chapterRepository.saveAll(chapters);
+
+        if (!chapters.isEmpty()) {
+            log.info("Saved {} chapters to database", chapters.size());
+        } else {
+            log.warn("No chapters to save to database");
+        }
+
+        List<Chapter> removed = removedChapterIds.stream()
+                .map(existing::get)
+                .filter(Objects::nonNull)
+                .toList();
+        if (!removed.isEmpty()) {
+            chapterRepository.deleteAll(removed);
+            log.info("Deleted {} removed chapters from database", removed.size());
         }
     }
 
@@ -261,7 +839,7 @@ public class ChapterLoader {
      * @return the chapter, or null if not found
      */
     public Chapter getChapter(String chapterId) {
-        return chapters.get(chapterId);
+        return snapshot.chapters.get(chapterId);
     }
 
     /**
@@ -270,7 +848,16 @@ public class ChapterLoader {
      * @return a map of chapter IDs to chapters
      */
     public Map<String, Chapter> getAllChapters() {
-        return new HashMap<>(chapters);
+        return new HashMap<>(snapshot.chapters);
+    }
+
+    /**
+     * Gets the dependency graph of the current chapters.
+     *
+     * @return the compiled chapter requirements
+     */
+    public ChapterDependencyGraph getDependencyGraph() {
+        return snapshot.dependencyGraph;
     }
 
     /**
@@ -280,87 +867,165 @@ public class ChapterLoader {
      * @return a list of available chapter IDs
      */
     public List<String> getAvailableChapters(Map<String, Object> playerData) {
-        List<String> availableChapters = new ArrayList<>();
+        Map<String, Object> storyProgress = (Map<String, Object>) playerData.getOrDefault("story_progress", new HashMap<>());
+        List<String> completedChapters = (List<String>) storyProgress.getOrDefault("completed_chapters", new ArrayList<>());
 
-        for (Map.Entry<String, Chapter> entry : chapters.entrySet()) {
-            if (isChapterAvailable(entry.getValue(), playerData)) {
-                availableChapters.add(entry.getKey());
+        Map<String, Integer> stats = new HashMap<>();
+        Map<String, Object> playerStats = (Map<String, Object>) playerData.getOrDefault("attributes", new HashMap<>());
+        for (Map.Entry<String, Object> entry : playerStats.entrySet()) {
+            if (entry.getValue() instanceof Number) {
+                stats.put(entry.getKey(), ((Number) entry.getValue()).intValue());
             }
         }
 
-        return availableChapters;
+        return new ArrayList<>(snapshot.dependencyGraph.computeAvailable(new HashSet<>(completedChapters), stats));
     }
 
     /**
-     * Check if a chapter is available to a player.
-     *
-     * @param chapter the chapter to check
-     * @param playerData the player's data
-     * @return true if the chapter is available, false otherwise
+     * A chapter reload prepared on top of a snapshot.
      */
-    private boolean isChapterAvailable(Chapter chapter, Map<String, Object> playerData) {
-        // Get completed chapters
-        Map<String, Object> storyProgress = (Map<String, Object>) playerData.getOrDefault("story_progress", new HashMap<>());
-        List<String> completedChapters = (List<String>) storyProgress.getOrDefault("completed_chapters", new ArrayList<>());
+    public static final class ChapterReload {
+        private final ChapterSnapshot base;
+        private final ChapterSnapshot candidate;
+        private final Set<String> changedChapterIds;
+        private final Set<String> removedChapterIds;
+        private final Set<String> affectedChapterIds;
 
-        // Check if the chapter is already completed
-        if (completedChapters.contains(chapter.getChapterId())) {
-            return false;
+        private ChapterReload(ChapterSnapshot base, ChapterSnapshot candidate, Set<String> changedChapterIds,
+                              Set<String> removedChapterIds, Set<String> affectedChapterIds) {
+            this.base = base;
+            this.candidate = candidate;
+            this.changedChapterIds = Collections.unmodifiableSet(changedChapterIds);
+            this.removedChapterIds = Collections.unmodifiableSet(removedChapterIds);
+            this.affectedChapterIds = Collections.unmodifiableSet(affectedChapterIds);
         }
 
-        // Check chapter requirements
-        List<String> requirementsList = chapter.getRequirements();
-        if (requirementsList == null || requirementsList.isEmpty()) {
-            return true;
+        public long getVersion() {
+            return candidate.version;
         }
 
-        try {
-            // Parse requirements - they could be in different formats
-            for (String requirementStr : requirementsList) {
-                // If it's a JSON string, parse it
-                if (requirementStr.startsWith("{")) {
-                    Map<String, Object> requirementMap = objectMapper.readValue(requirementStr, Map.class);
-
-                    // Check if this is a new player requirement
-                    if (Boolean.TRUE.equals(requirementMap.get("is_new_player"))) {
-                        if (!completedChapters.isEmpty()) {
-                            return false;
-                        }
-                    }
+        /**
+         * Gets the chapters of the snapshot the reload was prepared on.
+         *
+         * @return the current chapters, by ID
+         */
+        public Map<String, Chapter> getBaseChapters() {
+            return base.chapters;
+        }
 
-                    // Check player stats requirements
-                    if (requirementMap.containsKey("stats")) {
-                        Map<String, Object> statsRequirements = (Map<String, Object>) requirementMap.get("stats");
-                        Map<String, Object> playerStats = (Map<String, Object>) playerData.getOrDefault("attributes", new HashMap<>());
+        /**
+         * Gets the chapters of the reloaded snapshot.
+         *
+         * @return the reloaded chapters, by ID
+         */
+        public Map<String, Chapter> getChapters() {
+            return candidate.chapters;
+        }
 
-                        for (Map.Entry<String, Object> entry : statsRequirements.entrySet()) {
-                            String stat = entry.getKey();
-                            int requiredValue = ((Number) entry.getValue()).intValue();
-                            int playerValue = playerStats.containsKey(stat) ? ((Number) playerStats.get(stat)).intValue() : 0;
+        public Set<String> getChangedChapterIds() {
+            return changedChapterIds;
+        }
 
-                            if (playerValue < requiredValue) {
-                                return false;
-                            }
-                        }
-                    }
+        public Set<String> getRemovedChapterIds() {
+            return removedChapterIds;
+        }
 
-                    // Check completed chapters requirements
-                    if (requirementMap.containsKey("chapters")) {
-                        List<String> requiredChapters = (List<String>) requirementMap.get("chapters");
-                        for (String requiredChapter : requiredChapters) {
-                            if (!completedChapters.contains(requiredChapter)) {
-                                return false;
-                            }
-                        }
-                    }
-                }
-                // Legacy format support has been removed - all data should use JSON format
-            }
+        /**
+         * Gets the chapters to validate: the changed chapters and those that link to a changed or
+         * removed chapter.
+         *
+         * @return the affected chapter IDs
+         */
+        public Set<String> getAffectedChapterIds() {
+            return affectedChapterIds;
+        }
 
-            return true;
-        } catch (Exception e) {
-            log.error("Error checking chapter requirements: {}", e.getMessage(), e);
-            return false;
+        public boolean isEmpty() {
+            return changedChapterIds.isEmpty() && removedChapterIds.isEmpty();
+        }
+    }
+
+    /**
+     * Immutable version of the loaded chapters.
+     */
+    private static final class ChapterSnapshot {
+        private static final ChapterSnapshot EMPTY =
+                new ChapterSnapshot(0, Map.of(), Map.of(), Map.of(), ChapterDependencyGraph.EMPTY);
+
+        private final long version;
+        private final Map<String, Chapter> chapters;
+        private final Map<Path, String> fileChapters;
+        private final Map<String, Set<String>> referrers;
+        private final ChapterDependencyGraph dependencyGraph;
+
+        private ChapterSnapshot(long version, Map<String, Chapter> chapters, Map<Path, String> fileChapters,
+                                Map<String, Set<String>> referrers, ChapterDependencyGraph dependencyGraph) {
+            this.version = version;
+            this.chapters = Collections.unmodifiableMap(chapters);
+            this.fileChapters = Collections.unmodifiableMap(fileChapters);
+            this.referrers = Collections.unmodifiableMap(referrers);
+            this.dependencyGraph = dependencyGraph;
+        }
+    }
+
+    /**
+     * How the chapter IDs of a watched directory are derived.
+     */
+    private static final class DirectoryRule {
+        private final String prefix;
+        private final boolean useDeclaredId;
+
+        private DirectoryRule(String prefix, boolean useDeclaredId) {
+            this.prefix = prefix;
+            this.useDeclaredId = useDeclaredId;
+        }
+    }
+
+    /**
+     * A parsed chapter and the file it came from.
+     */
+    private static final class ParsedChapter {
+        private final ChapterFile file;
+        private final Chapter chapter;
+
+        private ParsedChapter(ChapterFile file, Chapter chapter) {
+            this.file = file;
+            this.chapter = chapter;
+        }
+    }
+
+    /**
+     * Loads the chapters of a source.
+     */
+    @FunctionalInterface
+    private interface ChapterSource {
+        List<ParsedChapter> load() throws IOException;
+    }
+
+    /**
+     * Opens the content of a chapter file.
+     */
+    @FunctionalInterface
+    private interface ContentOpener {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * A chapter file of a source.
+     */
+    private static final class ChapterFile {
+        private final String name;
+        private final Path path;
+        private final String defaultId;
+        private final boolean useDeclaredId;
+        private final ContentOpener opener;
+
+        private ChapterFile(String name, Path path, String defaultId, boolean useDeclaredId, ContentOpener opener) {
+            this.name = name;
+            this.path = path;
+            this.defaultId = defaultId;
+            this.useDeclaredId = useDeclaredId;
+            this.opener = opener;
         }
     }
 }
@@ -0,0 +1,89 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.CombatLog;
+import io.github.disparter.tokugawa.discord.core.models.Technique;
+import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders combat log entries as the text shown to players.
+ * Entries only hold technique IDs, so technique names are looked up when a log is rendered.
+ */
+@Component
+public class CombatLogRenderer {
+
+    private final TechniqueRepository techniqueRepository;
+
+    @Autowired
+    public CombatLogRenderer(TechniqueRepository techniqueRepository) {
+        this.techniqueRepository = techniqueRepository;
+    }
+
+    /**
+     * Renders the entries of the latest round of a duel.
+     *
+     * @param combatLog the combat log
+     * @param playerName the player's name
+     * @param npcName the NPC's name
+     * @return the text, one line per entry, or null if the log is empty
+     */
+    public String renderLastRound(CombatLog combatLog, String playerName, String npcName) {
+        return render(combatLog.lastRound(), playerName, npcName);
+    }
+
+    /**
+     * Renders combat log entries.
+     *
+     * @param entries the entries
+     * @param playerName the player's name
+     * @param npcName the NPC's name
+     * @return the text, one line per entry, or null if there is no entry
+     */
+    public String render(List<CombatLog.Entry> entries, String playerName, String npcName) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, String> techniqueNames = new HashMap<>();
+        StringBuilder text = new StringBuilder();
+        for (CombatLog.Entry entry : entries) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            String actor = entry.getActor() == CombatLog.Actor.PLAYER ? playerName : npcName;
+            switch (entry.getType()) {
+                case START:
+                    text.append("Duel initiated between ").append(playerName).append(" and ").append(npcName)
+                            .append('.');
+                    break;
+                case TECHNIQUE:
+                    String technique = techniqueNames.computeIfAbsent(entry.getTechniqueId(), id ->
+                            techniqueRepository.findById(id).map(Technique::getName).orElse("an unknown technique"));
+                    text.append(actor).append(" used ").append(technique).append(" and dealt ")
+                            .append(entry.getDamage()).append(" damage.");
+                    if (entry.isCritical()) {
+                        text.append(" Critical hit!");
+                    }
+                    break;
+                case BASIC_ATTACK:
+                    text.append(actor).append(" used a basic attack and dealt ").append(entry.getDamage())
+                            .append(" damage.");
+                    break;
+                case DAMAGE_OVER_TIME:
+                    text.append(actor).append(" took ").append(entry.getDamage()).append(" damage over time.");
+                    break;
+                case VICTORY:
+                    text.append(entry.getActor() == CombatLog.Actor.PLAYER
+                            ? playerName + " has defeated " + npcName + "!"
+                            : playerName + " has been defeated by " + npcName + "!");
+                    break;
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Player;
+
+import java.util.Map;
+
+/**
+ * Primitive combat stats of a duel participant, read once when the duel starts so that damage
+ * resolution never looks up the stat map.
+ */
+public final class CombatStats {
+
+    /**
+     * Stats of a participant without stats, such as an NPC.
+     */
+    public static final CombatStats NONE = new CombatStats(0, 0, 0, 0);
+
+    /**
+     * Combat stats, in the order used by {@link #get(int)}.
+     */
+    public static final int POWER = 0;
+    public static final int DEXTERITY = 1;
+    public static final int INTELLECT = 2;
+    public static final int CHARISMA = 3;
+
+    private static final String[] STAT_NAMES = {"power_stat", "dexterity", "intellect", "charisma"};
+
+    private final int[] values;
+
+    public CombatStats(int power, int dexterity, int intellect, int charisma) {
+        this.values = new int[]{power, dexterity, intellect, charisma};
+    }
+
+    /**
+     * Reads the combat stats of a player.
+     *
+     * @param player the player
+     * @return the stats, zero for stats the player does not have
+     */
+    public static CombatStats of(Player player) {
+        Map<String, Integer> stats = player.getStats();
+        if (stats == null || stats.isEmpty()) {
+            return NONE;
+        }
+        return new CombatStats(stat(stats, POWER), stat(stats, DEXTERITY), stat(stats, INTELLECT),
+                stat(stats, CHARISMA));
+    }
+
+    /**
+     * Finds the index of a stat by its name in the player's stats.
+     *
+     * @param name the stat name, such as {@code power_stat}
+     * @return the index, or -1 if it is not a combat stat
+     */
+    public static int indexOf(String name) {
+        for (int i = 0; i < STAT_NAMES.length; i++) {
+            if (STAT_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets a stat by index.
+     *
+     * @param stat the stat index, such as {@link #POWER}
+     * @return the value
+     */
+    public int get(int stat) {
+        return values[stat];
+    }
+
+    public int getPower() {
+        return values[POWER];
+    }
+
+    public int getDexterity() {
+        return values[DEXTERITY];
+    }
+
+    public int getIntellect() {
+        return values[INTELLECT];
+    }
+
+    public int getCharisma() {
+        return values[CHARISMA];
+    }
+
+    private static int stat(Map<String, Integer> stats, int stat) {
+        Integer value = stats.get(STAT_NAMES[stat]);
+        return value != null ? value : 0;
+    }
+}
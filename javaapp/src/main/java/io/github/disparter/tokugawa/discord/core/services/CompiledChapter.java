@@ -0,0 +1,374 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, typed form of a chapter's dialogue graph.
+ * The JSON stored in the chapter's dialogues, choices and scenes is parsed once, when the chapter
+ * is compiled, into dialogue nodes with their choice edges and a scene-id index, so processing a
+ * choice needs no JSON parsing.
+ */
+@Slf4j
+public final class CompiledChapter {
+
+    private final Long id;
+    private final String chapterId;
+    private final String title;
+    private final String nextChapterId;
+    private final Integer completionExp;
+    private final Integer completionReward;
+    private final int dialogueCount;
+    private final List<List<ChoiceEdge>> dialogueChoices;
+    private final List<ChoiceEdge> chapterChoices;
+    private final Map<String, Integer> sceneIndex;
+
+    private CompiledChapter(Chapter chapter, List<List<ChoiceEdge>> dialogueChoices,
+                            List<ChoiceEdge> chapterChoices, Map<String, Integer> sceneIndex) {
+        this.id = chapter.getId();
+        this.chapterId = chapter.getChapterId();
+        this.title = chapter.getTitle();
+        this.nextChapterId = chapter.getNextChapterId();
+        this.completionExp = chapter.getCompletionExp();
+        this.completionReward = chapter.getCompletionReward();
+        this.dialogueCount = dialogueChoices.size();
+        this.dialogueChoices = dialogueChoices;
+        this.chapterChoices = chapterChoices;
+        this.sceneIndex = sceneIndex;
+    }
+
+    /**
+     * Compiles a chapter.
+     * Dialogues that cannot be parsed, or that have no choices of their own, fall back to the
+     * chapter's choices.
+     *
+     * @param chapter the chapter
+     * @param objectMapper the mapper used to parse the stored JSON
+     * @return the compiled chapter
+     */
+    public static CompiledChapter compile(Chapter chapter, ObjectMapper objectMapper) {
+        List<ChoiceEdge> chapterChoices = compileChoices(chapter.getChoices(), objectMapper);
+
+        List<List<ChoiceEdge>> dialogueChoices = new ArrayList<>();
+        List<String> dialogues = chapter.getDialogues() != null ? chapter.getDialogues() : List.of();
+        for (String dialogueJson : dialogues) {
+            List<ChoiceEdge> choices = chapterChoices;
+            try {
+                Map<String, Object> dialogueData = objectMapper.readValue(dialogueJson, Map.class);
+                Object dialogueChoiceList = dialogueData != null ? dialogueData.get("choices") : null;
+                if (dialogueChoiceList instanceof List) {
+                    List<String> rawChoices = new ArrayList<>();
+                    for (Object choice : (List<?>) dialogueChoiceList) {
+                        if (choice instanceof String) {
+                            rawChoices.add((String) choice);
+                        } else if (choice instanceof Map) {
+                            rawChoices.add(objectMapper.writeValueAsString(choice));
+                        }
+                    }
+                    choices = compileChoices(rawChoices, objectMapper);
+                }
+            } catch (Exception e) {
+                log.error("Error parsing dialogue JSON in chapter {}: {}", chapter.getChapterId(), e.getMessage(), e);
+            }
+            dialogueChoices.add(choices);
+        }
+
+        Map<String, Integer> sceneIndex = new HashMap<>();
+        List<String> scenes = chapter.getScenes() != null ? chapter.getScenes() : List.of();
+        for (int i = 0; i < scenes.size(); i++) {
+            try {
+                Map<String, Object> sceneData = objectMapper.readValue(scenes.get(i), Map.class);
+                Object sceneId = sceneData != null ? sceneData.get("scene_id") : null;
+                if (sceneId instanceof String) {
+                    sceneIndex.putIfAbsent((String) sceneId, i);
+                }
+            } catch (Exception e) {
+                log.error("Error parsing scene JSON in chapter {}: {}", chapter.getChapterId(), e.getMessage(), e);
+            }
+        }
+
+        return new CompiledChapter(chapter, Collections.unmodifiableList(dialogueChoices), chapterChoices,
+                Collections.unmodifiableMap(sceneIndex));
+    }
+
+    private static List<ChoiceEdge> compileChoices(List<String> rawChoices, ObjectMapper objectMapper) {
+        if (rawChoices == null) {
+            return List.of();
+        }
+        List<ChoiceEdge> edges = new ArrayList<>(rawChoices.size());
+        for (String choice : rawChoices) {
+            edges.add(ChoiceEdge.compile(choice, objectMapper));
+        }
+        return Collections.unmodifiableList(edges);
+    }
+
+    /**
+     * Gets the choices offered at a dialogue.
+     *
+     * @param dialogueIndex the dialogue index
+     * @return the dialogue's choices, or the chapter's choices when past the last dialogue
+     */
+    public List<ChoiceEdge> getChoices(int dialogueIndex) {
+        if (dialogueIndex >= 0 && dialogueIndex < dialogueCount) {
+            return dialogueChoices.get(dialogueIndex);
+        }
+        return chapterChoices;
+    }
+
+    /**
+     * Gets the index of a scene.
+     *
+     * @param sceneId the scene ID
+     * @return the index of the first scene with that ID, or null if there is none
+     */
+    public Integer getSceneIndex(String sceneId) {
+        return sceneIndex.get(sceneId);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getChapterId() {
+        return chapterId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getNextChapterId() {
+        return nextChapterId;
+    }
+
+    public Integer getCompletionExp() {
+        return completionExp;
+    }
+
+    public Integer getCompletionReward() {
+        return completionReward;
+    }
+
+    public int getDialogueCount() {
+        return dialogueCount;
+    }
+
+    /**
+     * A choice and where it leads.
+     */
+    public static final class ChoiceEdge {
+        private final String text;
+        private final boolean valid;
+        private final Integer nextDialogue;
+        private final String nextScene;
+        private final String nextChapter;
+        private final boolean completeChapter;
+        private final ChoiceEffects effects;
+
+        private ChoiceEdge(String text, boolean valid, Integer nextDialogue, String nextScene, String nextChapter,
+                           boolean completeChapter, ChoiceEffects effects) {
+            this.text = text;
+            this.valid = valid;
+            this.nextDialogue = nextDialogue;
+            this.nextScene = nextScene;
+            this.nextChapter = nextChapter;
+            this.completeChapter = completeChapter;
+            this.effects = effects;
+        }
+
+        private static ChoiceEdge compile(String choice, ObjectMapper objectMapper) {
+            if (!choice.startsWith("{")) {
+                // A plain string choice simply moves on to the next dialogue
+                return new ChoiceEdge(choice, true, null, null, null, false, null);
+            }
+
+            try {
+                Map<String, Object> choiceData = objectMapper.readValue(choice, Map.class);
+                if (choiceData == null) {
+                    return new ChoiceEdge(choice, false, null, null, null, false, null);
+                }
+                String text = choiceData.containsKey("text") ? (String) choiceData.get("text") : choice;
+                Integer nextDialogue = choiceData.containsKey("next_dialogue")
+                        ? ((Number) choiceData.get("next_dialogue")).intValue() : null;
+                boolean completeChapter = Boolean.TRUE.equals(choiceData.get("complete_chapter"));
+                ChoiceEffects effects = choiceData.containsKey("effects")
+                        ? ChoiceEffects.compile((Map<String, Object>) choiceData.get("effects")) : null;
+                return new ChoiceEdge(text, true, nextDialogue, (String) choiceData.get("next_scene"),
+                        (String) choiceData.get("next_chapter"), completeChapter, effects);
+            } catch (Exception e) {
+                log.error("Error parsing choice JSON: {}", e.getMessage(), e);
+                return new ChoiceEdge(choice, false, null, null, null, false, null);
+            }
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Checks whether the choice could be parsed.
+         *
+         * @return false if the stored choice JSON is malformed
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * Gets the dialogue this choice leads to.
+         *
+         * @return the dialogue index, or null to move on to the next dialogue
+         */
+        public Integer getNextDialogue() {
+            return nextDialogue;
+        }
+
+        public String getNextScene() {
+            return nextScene;
+        }
+
+        public String getNextChapter() {
+            return nextChapter;
+        }
+
+        public boolean isCompleteChapter() {
+            return completeChapter;
+        }
+
+        /**
+         * Gets the effects of this choice.
+         *
+         * @return the effects, or null if the choice has none
+         */
+        public ChoiceEffects getEffects() {
+            return effects;
+        }
+    }
+
+    /**
+     * Effects applied when a choice is made.
+     */
+    public static final class ChoiceEffects {
+        private final int strength;
+        private final int intelligence;
+        private final int charisma;
+        private final int agility;
+        private final Map<String, Integer> relationships;
+        private final Map<String, Integer> factionReputation;
+        private final int currency;
+        private final int experience;
+        private final List<String> descriptions;
+
+        private ChoiceEffects(int[] attributes, Map<String, Integer> relationships,
+                              Map<String, Integer> factionReputation, int currency, int experience,
+                              List<String> descriptions) {
+            this.strength = attributes[0];
+            this.intelligence = attributes[1];
+            this.charisma = attributes[2];
+            this.agility = attributes[3];
+            this.relationships = relationships;
+            this.factionReputation = factionReputation;
+            this.currency = currency;
+            this.experience = experience;
+            this.descriptions = descriptions;
+        }
+
+        private static ChoiceEffects compile(Map<String, Object> effects) {
+            int[] attributes = new int[4];
+            if (effects.containsKey("attributes")) {
+                Map<String, Object> changes = (Map<String, Object>) effects.get("attributes");
+                for (Map.Entry<String, Object> entry : changes.entrySet()) {
+                    int change = ((Number) entry.getValue()).intValue();
+                    switch (entry.getKey()) {
+                        case "strength":
+                            attributes[0] += change;
+                            break;
+                        case "intelligence":
+                            attributes[1] += change;
+                            break;
+                        case "charisma":
+                            attributes[2] += change;
+                            break;
+                        case "agility":
+                            attributes[3] += change;
+                            break;
+                        default:
+                            log.warn("Unknown attribute: {}", entry.getKey());
+                    }
+                }
+            }
+
+            List<String> descriptions = new ArrayList<>();
+            for (Map.Entry<String, Object> entry : effects.entrySet()) {
+                descriptions.add(entry.getKey() + ":" + entry.getValue());
+            }
+
+            return new ChoiceEffects(attributes,
+                    toIntMap(effects.get("relationships")),
+                    toIntMap(effects.get("faction_reputation")),
+                    effects.containsKey("currency") ? ((Number) effects.get("currency")).intValue() : 0,
+                    effects.containsKey("experience") ? ((Number) effects.get("experience")).intValue() : 0,
+                    Collections.unmodifiableList(descriptions));
+        }
+
+        private static Map<String, Integer> toIntMap(Object value) {
+            if (value == null) {
+                return Map.of();
+            }
+            Map<String, Integer> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                result.put(entry.getKey(), ((Number) entry.getValue()).intValue());
+            }
+            return Collections.unmodifiableMap(result);
+        }
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public int getIntelligence() {
+            return intelligence;
+        }
+
+        public int getCharisma() {
+            return charisma;
+        }
+
+        public int getAgility() {
+            return agility;
+        }
+
+        public Map<String, Integer> getRelationships() {
+            return relationships;
+        }
+
+        public Map<String, Integer> getFactionReputation() {
+            return factionReputation;
+        }
+
+        public int getCurrency() {
+            return currency;
+        }
+
+        public int getExperience() {
+            return experience;
+        }
+
+        /**
+         * Gets the effects as "key:value" strings, as recorded on the decision's consequence.
+         *
+         * @return the effect descriptions
+         */
+        public List<String> getDescriptions() {
+            return descriptions;
+        }
+    }
+}
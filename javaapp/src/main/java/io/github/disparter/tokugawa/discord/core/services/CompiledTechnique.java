@@ -0,0 +1,224 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Technique;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable, typed form of a technique's effects.
+ * The effect map of the technique is compiled once into parallel arrays of effect types, values
+ * and parameters, ordered by the stage at which they apply, so resolving a hit is a loop over
+ * primitives with no map lookups, string comparisons or allocations.
+ * <p>
+ * Effect keys:
+ * <ul>
+ *     <li>{@code damage_boost}: flat damage added to the hit</li>
+ *     <li>{@code <stat>_scaling}: percentage of an attacker stat added to the hit, for
+ *     {@code power_stat}, {@code dexterity}, {@code intellect} and {@code charisma}</li>
+ *     <li>{@code critical_chance}: percent chance to double the hit</li>
+ *     <li>{@code dot_damage} and {@code dot_turns}: damage dealt to the defender at the end of
+ *     each of the next rounds (three when {@code dot_turns} is missing)</li>
+ *     <li>{@code shield}: damage the attacker's shield absorbs before health</li>
+ * </ul>
+ * The defender's dexterity reduces every hit by one point per ten dexterity.
+ */
+@Slf4j
+public final class CompiledTechnique {
+
+    /**
+     * Effect types, in the order in which they apply.
+     */
+    public enum EffectType {
+        DAMAGE_BOOST,
+        STAT_SCALING,
+        CRITICAL_CHANCE,
+        DAMAGE_OVER_TIME,
+        SHIELD
+    }
+
+    private static final String SCALING_SUFFIX = "_scaling";
+    private static final int DEFAULT_DOT_TURNS = 3;
+    private static final long CRITICAL_BIT = 1L << 32;
+
+    private final Long id;
+    private final String name;
+    private final int manaCost;
+    private final int baseDamage;
+    private final EffectType[] effectTypes;
+    private final int[] effectValues;
+    private final int[] effectParameters;
+
+    private CompiledTechnique(Technique technique, EffectType[] effectTypes, int[] effectValues,
+                              int[] effectParameters) {
+        this.id = technique.getId();
+        this.name = technique.getName();
+        this.manaCost = technique.getManaCost() != null ? technique.getManaCost() : 0;
+        this.baseDamage = technique.getBaseDamage() != null ? technique.getBaseDamage() : 0;
+        this.effectTypes = effectTypes;
+        this.effectValues = effectValues;
+        this.effectParameters = effectParameters;
+    }
+
+    /**
+     * Compiles a technique. Unknown effect keys are ignored.
+     *
+     * @param technique the technique
+     * @return the compiled technique
+     */
+    public static CompiledTechnique compile(Technique technique) {
+        Map<String, Integer> effects = technique.getEffects();
+        List<int[]> compiled = new ArrayList<>();
+        if (effects != null) {
+            for (Map.Entry<String, Integer> effect : effects.entrySet()) {
+                String key = effect.getKey();
+                int value = effect.getValue() != null ? effect.getValue() : 0;
+                int scaledStat = key.endsWith(SCALING_SUFFIX)
+                        ? CombatStats.indexOf(key.substring(0, key.length() - SCALING_SUFFIX.length()))
+                        : -1;
+                if (key.equals("damage_boost")) {
+                    compiled.add(new int[]{EffectType.DAMAGE_BOOST.ordinal(), value, 0});
+                } else if (key.equals("critical_chance")) {
+                    compiled.add(new int[]{EffectType.CRITICAL_CHANCE.ordinal(), value, 0});
+                } else if (key.equals("dot_damage")) {
+                    Integer turns = effects.get("dot_turns");
+                    compiled.add(new int[]{EffectType.DAMAGE_OVER_TIME.ordinal(), value,
+                            turns != null ? turns : DEFAULT_DOT_TURNS});
+                } else if (key.equals("shield")) {
+                    compiled.add(new int[]{EffectType.SHIELD.ordinal(), value, 0});
+                } else if (scaledStat >= 0) {
+                    compiled.add(new int[]{EffectType.STAT_SCALING.ordinal(), value, scaledStat});
+                } else if (!key.equals("dot_turns")) {
+                    log.debug("Ignoring unknown effect {} of technique {}", key, technique.getName());
+                }
+            }
+        }
+        compiled.sort(Comparator.comparingInt(effect -> effect[0]));
+
+        EffectType[] types = new EffectType[compiled.size()];
+        int[] values = new int[compiled.size()];
+        int[] parameters = new int[compiled.size()];
+        for (int i = 0; i < compiled.size(); i++) {
+            types[i] = EffectType.values()[compiled.get(i)[0]];
+            values[i] = compiled.get(i)[1];
+            parameters[i] = compiled.get(i)[2];
+        }
+        return new CompiledTechnique(technique, types, values, parameters);
+    }
+
+    /**
+     * Resolves a hit of this technique in a duel and applies it: the damage, absorbed by the
+     * defender's shield, the damage over time on the defender and the attacker's shield.
+     * Mana is left to the caller.
+     *
+     * @param duel the duel
+     * @param byPlayer true if the player attacks, false if the NPC does
+     * @param random the source of randomness
+     * @return the hit, read with {@link #damageOf(long)} and {@link #isCritical(long)}
+     */
+    public long apply(DuelState duel, boolean byPlayer, RandomGenerator random) {
+        CombatStats attacker = byPlayer ? duel.getPlayerStats() : duel.getNpcStats();
+        CombatStats defender = byPlayer ? duel.getNpcStats() : duel.getPlayerStats();
+
+        // Base damage with some randomness, -2 to +2
+        int damage = baseDamage + random.nextInt(5) - 2;
+        boolean critical = false;
+
+        for (int i = 0; i < effectTypes.length; i++) {
+            int value = effectValues[i];
+            switch (effectTypes[i]) {
+                case DAMAGE_BOOST:
+                    damage += value;
+                    break;
+                case STAT_SCALING:
+                    damage += attacker.get(effectParameters[i]) * value / 100;
+                    break;
+                case CRITICAL_CHANCE:
+                    if (random.nextInt(100) < value) {
+                        damage *= 2;
+                        critical = true;
+                    }
+                    break;
+                case DAMAGE_OVER_TIME:
+                    if (byPlayer) {
+                        duel.setNpcDotDamage(value);
+                        duel.setNpcDotTurns(effectParameters[i]);
+                    } else {
+                        duel.setPlayerDotDamage(value);
+                        duel.setPlayerDotTurns(effectParameters[i]);
+                    }
+                    break;
+                case SHIELD:
+                    if (byPlayer) {
+                        duel.setPlayerShield(duel.getPlayerShield() + value);
+                    } else {
+                        duel.setNpcShield(duel.getNpcShield() + value);
+                    }
+                    break;
+            }
+        }
+
+        damage = Math.max(1, damage - defender.getDexterity() / 10); // Minimum 1 damage
+        int dealt = byPlayer ? duel.hitNpc(damage) : duel.hitPlayer(damage);
+        return dealt | (critical ? CRITICAL_BIT : 0);
+    }
+
+    /**
+     * Gets the damage of a hit returned by {@link #apply(DuelState, boolean, RandomGenerator)}.
+     *
+     * @param hit the hit
+     * @return the damage that got through the defender's shield
+     */
+    public static int damageOf(long hit) {
+        return (int) hit;
+    }
+
+    /**
+     * Checks whether a hit returned by {@link #apply(DuelState, boolean, RandomGenerator)} was critical.
+     *
+     * @param hit the hit
+     * @return true if the damage was doubled
+     */
+    public static boolean isCritical(long hit) {
+        return (hit & CRITICAL_BIT) != 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getManaCost() {
+        return manaCost;
+    }
+
+    public int getBaseDamage() {
+        return baseDamage;
+    }
+
+    /**
+     * Gets the number of compiled effects.
+     *
+     * @return the effect count
+     */
+    public int getEffectCount() {
+        return effectTypes.length;
+    }
+
+    /**
+     * Gets the type of a compiled effect.
+     *
+     * @param index the effect index, in application order
+     * @return the effect type
+     */
+    public EffectType getEffectType(int index) {
+        return effectTypes[index];
+    }
+}
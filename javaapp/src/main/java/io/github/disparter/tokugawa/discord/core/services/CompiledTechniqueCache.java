@@ -0,0 +1,91 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Technique;
+import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of compiled techniques, keyed by technique ID.
+ * A technique is compiled the first time it is used in a duel and reused until it changes.
+ */
+@Component
+@Slf4j
+public class CompiledTechniqueCache {
+
+    private final TechniqueRepository techniqueRepository;
+    private final Map<Long, CompiledTechnique> compiledTechniques = new ConcurrentHashMap<>();
+    private final CacheGeneration generation = new CacheGeneration();
+
+    @Autowired
+    public CompiledTechniqueCache(TechniqueRepository techniqueRepository) {
+        this.techniqueRepository = techniqueRepository;
+    }
+
+    /**
+     * Gets a compiled technique, loading and compiling it on first use.
+     *
+     * @param techniqueId the technique's database ID
+     * @return the compiled technique, or empty if the technique does not exist
+     */
+    public Optional<CompiledTechnique> getCompiledTechnique(Long techniqueId) {
+        CompiledTechnique compiled = compiledTechniques.get(techniqueId);
+        if (compiled != null) {
+            return Optional.of(compiled);
+        }
+
+        long loadedGeneration = generation.current();
+        return techniqueRepository.findById(techniqueId).map(loaded -> {
+            CompiledTechnique result = compile(loaded);
+            generation.discardIfStale(compiledTechniques, techniqueId, result, loadedGeneration);
+            return result;
+        });
+    }
+
+    /**
+     * Gets the compiled form of a loaded technique, compiling it if it is not cached.
+     *
+     * @param technique the technique
+     * @return the compiled technique
+     */
+    public CompiledTechnique get(Technique technique) {
+        CompiledTechnique compiled = compiledTechniques.get(technique.getId());
+        return compiled != null ? compiled : compile(technique);
+    }
+
+    /**
+     * Compiles a technique and caches the result.
+     *
+     * @param technique the technique
+     * @return the compiled technique
+     */
+    public CompiledTechnique compile(Technique technique) {
+        CompiledTechnique compiled = CompiledTechnique.compile(technique);
+        compiledTechniques.put(technique.getId(), compiled);
+        log.debug("Compiled technique {} with {} effects", technique.getName(), compiled.getEffectCount());
+        return compiled;
+    }
+
+    /**
+     * Removes a technique from the cache so it is recompiled on next use.
+     *
+     * @param techniqueId the technique's database ID
+     */
+    public void invalidate(Long techniqueId) {
+        generation.invalidate();
+        compiledTechniques.remove(techniqueId);
+    }
+
+    /**
+     * Removes every technique from the cache.
+     */
+    public void invalidateAll() {
+        generation.invalidate();
+        compiledTechniques.clear();
+    }
+}
@@ -116,6 +116,28 @@ public interface ConsequenceService {
                                   String description, ConsequenceType type, List<String> effects, 
                                   List<String> relatedChoices, List<Long> affectedNpcs);
 
+    /**
+     * Tracks a decision of an already loaded player.
+     * Used when the caller has the player in hand, so it is not loaded again.
+     *
+     * @param player the player
+     * @param chapterId the chapter ID
+     * @param sceneId the scene ID
+     * @param choiceMade the choice that was made
+     * @param decisionContext the context of the decision
+     * @param name the consequence name
+     * @param description the consequence description
+     * @param type the consequence type
+     * @param effects the effects of the consequence
+     * @param relatedChoices the related choices
+     * @param affectedNpcs the affected NPCs
+     * @return the created consequence
+     */
+    Consequence trackPlayerDecision(Player player, String chapterId, String sceneId,
+                                  String choiceMade, String decisionContext, String name,
+                                  String description, ConsequenceType type, List<String> effects,
+                                  List<String> relatedChoices, List<Long> affectedNpcs);
+
     /**
      * Gets the percentage of players who made the same choice.
      * 
@@ -3,12 +3,17 @@ package io.github.disparter.tokugawa.discord.core.services;
 import io.github.disparter.tokugawa.discord.core.models.Consequence;
 import io.github.disparter.tokugawa.discord.core.models.Consequence.ConsequenceType;
 import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
 import io.github.disparter.tokugawa.discord.core.repositories.ConsequenceRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,15 +26,63 @@ import java.util.stream.Collectors;
  * Implementation of the ConsequenceService interface.
  */
 @Service
+@Slf4j
 public class ConsequenceServiceImpl implements ConsequenceService {
 
     private final ConsequenceRepository consequenceRepository;
     private final PlayerRepository playerRepository;
+    private final DeadlineService deadlineService;
+    private final long shortTermDays;
+    private final Clock clock;
 
     @Autowired
-    public ConsequenceServiceImpl(ConsequenceRepository consequenceRepository, PlayerRepository playerRepository) {
+    public ConsequenceServiceImpl(ConsequenceRepository consequenceRepository, PlayerRepository playerRepository,
+                                  DeadlineService deadlineService,
+                                  @Value("${tokugawa.consequences.short-term-days:7}") long shortTermDays,
+                                  Clock clock) {
         this.consequenceRepository = consequenceRepository;
         this.playerRepository = playerRepository;
+        this.deadlineService = deadlineService;
+        this.shortTermDays = shortTermDays;
+        this.clock = clock;
+    }
+
+    /**
+     * Registers the handler that deactivates short-term consequences when they expire.
+     */
+    @PostConstruct
+    public void registerExpiryHandler() {
+        deadlineService.registerHandler(DeadlineType.CONSEQUENCE_EXPIRY, this::expireConsequence);
+    }
+
+    private void expireConsequence(String consequenceId) {
+        consequenceRepository.findById(Long.parseLong(consequenceId))
+                .filter(Consequence::isActive)
+                .ifPresent(consequence -> {
+                    consequence.setActive(false);
+                    consequenceRepository.save(consequence);
+                    log.info("Short-term consequence {} expired", consequence.getConsequenceId());
+                });
+    }
+
+    /**
+     * Saves a consequence and, if it is short-term, schedules its expiry.
+     *
+     * @param consequence the consequence to save
+     * @return the saved consequence
+     */
+    private Consequence saveAndScheduleExpiry(Consequence consequence) {
+        if (consequence.getType() == ConsequenceType.SHORT_TERM && consequence.getExpiresAt() == null) {
+            consequence.setExpiresAt(consequence.getCreatedAt().plusDays(shortTermDays));
+        }
+
+        Consequence saved = consequenceRepository.save(consequence);
+
+        if (saved.getExpiresAt() != null && saved.isActive()) {
+            deadlineService.schedule(DeadlineType.CONSEQUENCE_EXPIRY, String.valueOf(saved.getId()), saved.getExpiresAt());
+        }
+
+        return saved;
     }
 
     @Override
@@ -46,7 +99,7 @@ public class ConsequenceServiceImpl implements ConsequenceService {
         consequence.setDescription(description);
         consequence.setType(type);
         consequence.setPlayer(player);
-        consequence.setCreatedAt(LocalDateTime.now());
+        consequence.setCreatedAt(LocalDateTime.now(clock));
         consequence.setActive(true);
 
         if (effects != null) {
@@ -61,7 +114,7 @@ public class ConsequenceServiceImpl implements ConsequenceService {
             consequence.setAffectedNpcs(new ArrayList<>(affectedNpcs));
         }
 
-        return consequenceRepository.save(consequence);
+        return saveAndScheduleExpiry(consequence);
     }
 
     @Override
@@ -96,6 +149,7 @@ public class ConsequenceServiceImpl implements ConsequenceService {
                 .orElseThrow(() -> new IllegalArgumentException("Consequence not found with ID: " + consequenceId));
 
         consequence.setActive(false);
+        deadlineService.cancel(DeadlineType.CONSEQUENCE_EXPIRY, String.valueOf(consequenceId));
         return consequenceRepository.save(consequence);
     }
 
@@ -232,13 +286,23 @@ public class ConsequenceServiceImpl implements ConsequenceService {
         Player player = playerRepository.findById(playerId)
                 .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
 
+        return trackPlayerDecision(player, chapterId, sceneId, choiceMade, decisionContext, name, description, type,
+                effects, relatedChoices, affectedNpcs);
+    }
+
+    @Override
+    @Transactional
+    public Consequence trackPlayerDecision(Player player, String chapterId, String sceneId,
+                                         String choiceMade, String decisionContext, String name,
+                                         String description, ConsequenceType type, List<String> effects,
+                                         List<String> relatedChoices, List<Long> affectedNpcs) {
         Consequence consequence = new Consequence();
         consequence.setConsequenceId("consequence_" + UUID.randomUUID().toString().substring(0, 8));
         consequence.setName(name);
         consequence.setDescription(description);
         consequence.setType(type);
         consequence.setPlayer(player);
-        consequence.setCreatedAt(LocalDateTime.now());
+        consequence.setCreatedAt(LocalDateTime.now(clock));
         consequence.setActive(true);
         consequence.setChapterId(chapterId);
         consequence.setSceneId(sceneId);
@@ -261,13 +325,17 @@ public class ConsequenceServiceImpl implements ConsequenceService {
         double percentage = getCommunityChoicePercentage(chapterId, sceneId, choiceMade);
         consequence.setCommunityChoicePercentage(percentage);
 
-        return consequenceRepository.save(consequence);
+        return saveAndScheduleExpiry(consequence);
     }
 
     @Override
     public double getCommunityChoicePercentage(String chapterId, String sceneId, String choiceMade) {
-        long choiceCount = consequenceRepository.countByChapterIdAndSceneIdAndChoiceMade(chapterId, sceneId, choiceMade);
-        long totalCount = consequenceRepository.countByChapterIdAndSceneId(chapterId, sceneId);
+        List<Object[]> counts = consequenceRepository.countChoices(chapterId, sceneId, choiceMade);
+        if (counts == null || counts.isEmpty()) {
+            return 0.0;
+        }
+        long totalCount = ((Number) counts.get(0)[0]).longValue();
+        long choiceCount = ((Number) counts.get(0)[1]).longValue();
 
         if (totalCount == 0) {
             return 0.0;
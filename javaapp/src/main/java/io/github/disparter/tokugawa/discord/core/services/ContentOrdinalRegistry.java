@@ -0,0 +1,68 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.github.disparter.tokugawa.discord.core.models.ContentOrdinal;
+import io.github.disparter.tokugawa.discord.core.repositories.ChapterRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.ContentOrdinalRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the chapter and arc ordinals used by completion bitsets in sync with the database.
+ * Persisted ordinals are restored at startup and every chapter and arc in the catalog gets one.
+ * New ordinals are written in their own transaction before they are used, so a bitset never
+ * refers to an ordinal that was not stored.
+ */
+@Component
+@Slf4j
+public class ContentOrdinalRegistry {
+
+    private final ContentOrdinals contentOrdinals;
+    private final ContentOrdinalRepository contentOrdinalRepository;
+    private final ChapterRepository chapterRepository;
+    private final TransactionTemplate requiresNew;
+
+    @Autowired
+    public ContentOrdinalRegistry(ContentOrdinals contentOrdinals,
+                                  ContentOrdinalRepository contentOrdinalRepository,
+                                  ChapterRepository chapterRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.contentOrdinals = contentOrdinals;
+        this.contentOrdinalRepository = contentOrdinalRepository;
+        this.chapterRepository = chapterRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Restores the persisted ordinals and assigns ordinals to the chapter catalog.
+     */
+    @PostConstruct
+    public void initialize() {
+        for (ContentOrdinal ordinal : contentOrdinalRepository.findAll()) {
+            contentOrdinals.get(ordinal.getKind()).restore(ordinal.getContentKey(), ordinal.getOrdinal());
+        }
+
+        contentOrdinals.getChapters().setListener(this::persist);
+        contentOrdinals.getArcs().setListener(this::persist);
+
+        for (Chapter chapter : chapterRepository.findAll()) {
+            contentOrdinals.getChapters().ordinalOf(chapter.getChapterId());
+            if (chapter.getArcId() != null) {
+                contentOrdinals.getArcs().ordinalOf(chapter.getArcId());
+            }
+        }
+        log.info("Content ordinals ready: {} chapters, {} arcs",
+                contentOrdinals.getChapters().size(), contentOrdinals.getArcs().size());
+    }
+
+    private void persist(String kind, String key, int ordinal) {
+        requiresNew.executeWithoutResult(status ->
+                contentOrdinalRepository.save(new ContentOrdinal(null, kind, key, ordinal)));
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.OrdinalDictionary;
+import org.springframework.stereotype.Component;
+
+/**
+ * The chapter and arc ordinals that completion bitsets are stored over.
+ * The dictionaries belong to the application context, so each context, such as a test's, starts
+ * from its own ordinals. {@link ContentOrdinalRegistry} keeps them in sync with the database.
+ */
+@Component
+public class ContentOrdinals {
+
+    private final OrdinalDictionary chapters = new OrdinalDictionary(OrdinalDictionary.CHAPTER);
+    private final OrdinalDictionary arcs = new OrdinalDictionary(OrdinalDictionary.ARC);
+
+    /**
+     * Gets the ordinals of chapter IDs.
+     *
+     * @return the chapter dictionary
+     */
+    public OrdinalDictionary getChapters() {
+        return chapters;
+    }
+
+    /**
+     * Gets the ordinals of arc IDs.
+     *
+     * @return the arc dictionary
+     */
+    public OrdinalDictionary getArcs() {
+        return arcs;
+    }
+
+    /**
+     * Gets a dictionary by its kind.
+     *
+     * @param kind the kind, {@link OrdinalDictionary#CHAPTER} or {@link OrdinalDictionary#ARC}
+     * @return the dictionary
+     * @throws IllegalArgumentException if the kind is unknown
+     */
+    public OrdinalDictionary get(String kind) {
+        if (OrdinalDictionary.ARC.equals(kind)) {
+            return arcs;
+        }
+        if (OrdinalDictionary.CHAPTER.equals(kind)) {
+            return chapters;
+        }
+        throw new IllegalArgumentException("Unknown content ordinal kind: " + kind);
+    }
+}
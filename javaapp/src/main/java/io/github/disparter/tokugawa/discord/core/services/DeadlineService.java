@@ -0,0 +1,67 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Service interface for scheduling game deadlines (tournament end, special event end,
+ * duel turn timeouts, consequence expiry) with second-level accuracy.
+ */
+public interface DeadlineService {
+
+    /**
+     * Schedules a deadline, replacing any pending deadline for the same type and target.
+     *
+     * @param type the deadline type
+     * @param targetId the identifier of the object the deadline belongs to
+     * @param fireAt when the deadline expires
+     */
+    void schedule(DeadlineType type, String targetId, LocalDateTime fireAt);
+
+    /**
+     * Moves a deadline in memory only, without touching its persisted copy.
+     * For deadlines that move often and whose owner journals the new time itself: after a
+     * restart the persisted, earlier time is restored unless the owner schedules it again.
+     *
+     * @param type the deadline type
+     * @param targetId the identifier of the object the deadline belongs to
+     * @param fireAt when the deadline expires
+     */
+    void reschedule(DeadlineType type, String targetId, LocalDateTime fireAt);
+
+    /**
+     * Cancels a pending deadline.
+     *
+     * @param type the deadline type
+     * @param targetId the identifier of the object the deadline belongs to
+     * @return true if a pending deadline was cancelled, false otherwise
+     */
+    boolean cancel(DeadlineType type, String targetId);
+
+    /**
+     * Gets the time a pending deadline expires.
+     *
+     * @param type the deadline type
+     * @param targetId the identifier of the object the deadline belongs to
+     * @return the expiry time if the deadline is pending
+     */
+    Optional<LocalDateTime> getDeadline(DeadlineType type, String targetId);
+
+    /**
+     * Registers the handler invoked with the target ID when a deadline of the given type expires.
+     *
+     * @param type the deadline type
+     * @param handler the handler
+     */
+    void registerHandler(DeadlineType type, Consumer<String> handler);
+
+    /**
+     * Gets the number of pending deadlines.
+     *
+     * @return the pending deadline count
+     */
+    int getPendingCount();
+}
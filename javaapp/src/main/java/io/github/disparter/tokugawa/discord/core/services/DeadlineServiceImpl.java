@@ -0,0 +1,212 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+import io.github.disparter.tokugawa.discord.core.repositories.ScheduledDeadlineRepository;
+import io.github.disparter.tokugawa.discord.utils.AfterCommit;
+import io.github.disparter.tokugawa.discord.utils.HashedTimingWheel;
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the DeadlineService interface.
+ * Pending deadlines live in a hashed timing wheel that is advanced once per tick, and are mirrored
+ * in the database so they survive restarts. A deadline joins the wheel once the transaction that
+ * saved it commits, and its row is only deleted once its handler succeeds; a failed handler is
+ * retried after a delay.
+ */
+@Service
+@Slf4j
+public class DeadlineServiceImpl implements DeadlineService {
+
+    private final ScheduledDeadlineRepository scheduledDeadlineRepository;
+    private final TaskScheduler taskScheduler;
+    private final long tickMillis;
+    private final long retryDelayMillis;
+    private final Clock clock;
+    private final HashedTimingWheel<String> wheel;
+    private final Map<DeadlineType, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> ticker;
+
+    @Autowired
+    public DeadlineServiceImpl(
+            ScheduledDeadlineRepository scheduledDeadlineRepository,
+            TaskScheduler taskScheduler,
+            @Value("${tokugawa.deadlines.tick-millis:1000}") long tickMillis,
+            @Value("${tokugawa.deadlines.wheel-size:512}") int wheelSize,
+            @Value("${tokugawa.deadlines.retry-delay-millis:60000}") long retryDelayMillis,
+            Clock clock) {
+        this.scheduledDeadlineRepository = scheduledDeadlineRepository;
+        this.taskScheduler = taskScheduler;
+        this.tickMillis = tickMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.clock = clock;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, clock.millis());
+    }
+
+    /**
+     * Restores the pending deadlines persisted before the last shutdown.
+     * Deadlines that expired while the application was down fire on the first tick.
+     */
+    @PostConstruct
+    public void restorePendingDeadlines() {
+        try {
+            List<ScheduledDeadline> pending = scheduledDeadlineRepository.findAll();
+            for (ScheduledDeadline deadline : pending) {
+                wheel.schedule(deadline.getDeadlineKey(), toEpochMillis(deadline.getFireAt()));
+            }
+            log.info("Restored {} pending deadlines", pending.size());
+        } catch (Exception e) {
+            log.error("Error restoring pending deadlines: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Starts advancing the wheel once the application is ready, so that every handler
+     * has been registered before restored deadlines fire.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startTicking() {
+        if (ticker == null) {
+            ticker = taskScheduler.scheduleAtFixedRate(
+                    ScheduledJobMonitor.named("DeadlineService.tick", this::tick), Duration.ofMillis(tickMillis));
+            log.info("Started deadline wheel with a tick of {} ms", tickMillis);
+        }
+    }
+
+    /**
+     * Stops advancing the wheel. Pending deadlines stay persisted.
+     */
+    @PreDestroy
+    public void stopTicking() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    /**
+     * Advances the wheel to the current time and dispatches the expired deadlines.
+     */
+    void tick() {
+        for (String key : wheel.advance(clock.millis())) {
+            fire(key);
+        }
+    }
+
+    private void fire(String key) {
+        int separator = key.indexOf(':');
+        DeadlineType type = DeadlineType.valueOf(key.substring(0, separator));
+        String targetId = key.substring(separator + 1);
+
+        Consumer<String> handler = handlers.get(type);
+        if (handler == null) {
+            log.warn("No handler registered for deadline type {}, dropping deadline for {}", type, targetId);
+            deleteFired(key);
+            return;
+        }
+
+        try {
+            handler.accept(targetId);
+            log.debug("Fired {} deadline for {}", type, targetId);
+        } catch (Exception e) {
+            // The row is kept, so the retry also survives a restart
+            log.error("Error handling {} deadline for {}, retrying in {} ms: {}", type, targetId, retryDelayMillis,
+                    e.getMessage(), e);
+            wheel.schedule(key, clock.millis() + retryDelayMillis);
+            return;
+        }
+
+        // A handler that scheduled the deadline again keeps its row
+        if (wheel.getDeadline(key) == null) {
+            deleteFired(key);
+        }
+    }
+
+    private void deleteFired(String key) {
+        try {
+            scheduledDeadlineRepository.deleteByDeadlineKey(key);
+        } catch (Exception e) {
+            log.error("Error removing fired deadline {}: {}", key, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void schedule(DeadlineType type, String targetId, LocalDateTime fireAt) {
+        String key = toKey(type, targetId);
+
+        ScheduledDeadline deadline = scheduledDeadlineRepository.findByDeadlineKey(key)
+                .orElseGet(ScheduledDeadline::new);
+        deadline.setDeadlineKey(key);
+        deadline.setType(type);
+        deadline.setTargetId(targetId);
+        deadline.setFireAt(fireAt);
+        scheduledDeadlineRepository.save(deadline);
+
+        long fireAtMillis = toEpochMillis(fireAt);
+        AfterCommit.run(() -> wheel.schedule(key, fireAtMillis));
+    }
+
+    @Override
+    public void reschedule(DeadlineType type, String targetId, LocalDateTime fireAt) {
+        wheel.schedule(toKey(type, targetId), toEpochMillis(fireAt));
+    }
+
+    @Override
+    @Transactional
+    public boolean cancel(DeadlineType type, String targetId) {
+        String key = toKey(type, targetId);
+        boolean cancelled = wheel.cancel(key);
+        scheduledDeadlineRepository.deleteByDeadlineKey(key);
+        return cancelled;
+    }
+
+    @Override
+    public Optional<LocalDateTime> getDeadline(DeadlineType type, String targetId) {
+        Long deadline = wheel.getDeadline(toKey(type, targetId));
+        if (deadline == null) {
+            return Optional.empty();
+        }
+        return Optional.of(LocalDateTime.ofInstant(Instant.ofEpochMilli(deadline), clock.getZone()));
+    }
+
+    @Override
+    public void registerHandler(DeadlineType type, Consumer<String> handler) {
+        handlers.put(type, handler);
+    }
+
+    @Override
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    private String toKey(DeadlineType type, String targetId) {
+        return type.name() + ":" + targetId;
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,268 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.rest.util.Color;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders the dialogues of a chapter into ready-to-send Discord embeds.
+ * A dialogue is rendered once, with its speaker, text, background image and numbered choices, and
+ * kept in a bounded least-recently-used cache keyed by chapter, narrative version and dialogue
+ * index, so every player reading the same dialogue gets the same message without parsing or asset
+ * lookups. Cache hits, misses, evictions and size are published as metrics.
+ */
+@Component
+@Slf4j
+public class DialogueRenderer {
+
+    private static final String CACHE_NAME = "narrative.dialogues";
+
+    private final AssetService assetService;
+    private final ObjectMapper objectMapper;
+    private final ChapterLoader chapterLoader;
+    private final int cacheSize;
+
+    private final Map<DialogueKey, RenderedDialogue> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public DialogueRenderer(AssetService assetService, ObjectMapper objectMapper, ChapterLoader chapterLoader,
+                            MeterRegistry meterRegistry,
+                            @Value("${tokugawa.narrative.render-cache-size:2048}") int cacheSize) {
+        this.assetService = assetService;
+        this.objectMapper = objectMapper;
+        this.chapterLoader = chapterLoader;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DialogueKey, RenderedDialogue> eldest) {
+                if (size() > DialogueRenderer.this.cacheSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Dialogues served from the render cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Dialogues rendered because they were not cached")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .description("Rendered dialogues evicted from the cache")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, DialogueRenderer::getCacheSize)
+                .tag("cache", CACHE_NAME)
+                .description("Rendered dialogues in the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets the message for a dialogue of a chapter, rendering it on first use.
+     * A cached message is only reused if the chapter's title and the dialogue are unchanged, so a
+     * chapter edited without a version change is still rendered afresh.
+     *
+     * @param chapter the chapter
+     * @param dialogueIndex the dialogue index; past the last dialogue, the chapter's choices are shown
+     * @return the message
+     */
+    public EmbedCreateSpec render(Chapter chapter, int dialogueIndex) {
+        List<String> dialogues = chapter.getDialogues() != null ? chapter.getDialogues() : List.of();
+        String source = dialogueIndex >= 0 && dialogueIndex < dialogues.size() ? dialogues.get(dialogueIndex) : null;
+        DialogueKey key = new DialogueKey(chapter.getChapterId(), chapterLoader.getVersion(), dialogueIndex);
+
+        synchronized (cache) {
+            RenderedDialogue cached = cache.get(key);
+            if (cached != null && cached.matches(chapter.getTitle(), source)) {
+                hits.increment();
+                return cached.message;
+            }
+        }
+
+        misses.increment();
+        EmbedCreateSpec message = renderDialogue(chapter, source, dialogueIndex);
+        synchronized (cache) {
+            cache.put(key, new RenderedDialogue(chapter.getTitle(), source, message));
+        }
+        return message;
+    }
+
+    /**
+     * Removes every rendered dialogue from the cache.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Gets the number of rendered dialogues in the cache.
+     *
+     * @return the cache size
+     */
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private EmbedCreateSpec renderDialogue(Chapter chapter, String source, int dialogueIndex) {
+        String speaker = null;
+        String text = "...";
+        String background = null;
+        List<String> choices = choiceTexts(chapter.getChoices());
+
+        if (source != null && source.startsWith("{")) {
+            try {
+                JsonNode dialogue = objectMapper.readTree(source);
+                speaker = dialogue.path("speaker").isTextual() ? dialogue.path("speaker").asText() : null;
+                text = dialogue.path("text").isTextual() ? dialogue.path("text").asText() : text;
+                background = dialogue.path("background").isTextual() ? dialogue.path("background").asText() : null;
+                if (dialogue.path("choices").isArray()) {
+                    choices = new ArrayList<>();
+                    for (JsonNode choice : dialogue.path("choices")) {
+                        choices.add(choice.isTextual() ? choice.asText() : choice.path("text").asText());
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error parsing dialogue {} of chapter {}: {}", dialogueIndex, chapter.getChapterId(),
+                        e.getMessage(), e);
+            }
+        } else if (source != null) {
+            text = source;
+        }
+
+        EmbedCreateSpec.Builder builder = EmbedCreateSpec.builder()
+                .color(Color.BLUE)
+                .title(chapter.getTitle())
+                .description(speaker != null ? "**" + speaker + ":** " + text : text);
+
+        String imageUrl = backgroundImageUrl(background);
+        if (imageUrl != null) {
+            builder.image(imageUrl);
+        }
+
+        if (!choices.isEmpty()) {
+            StringBuilder choiceList = new StringBuilder();
+            for (int i = 0; i < choices.size(); i++) {
+                choiceList.append("**").append(i).append(".** ").append(choices.get(i)).append("\n");
+            }
+            builder.addField("Escolhas", choiceList.toString(), false)
+                    .footer("Use /escolha [indice] para escolher.", null);
+        }
+        return builder.build();
+    }
+
+    private List<String> choiceTexts(List<String> rawChoices) {
+        List<String> texts = new ArrayList<>();
+        if (rawChoices == null) {
+            return texts;
+        }
+        for (String choice : rawChoices) {
+            if (!choice.startsWith("{")) {
+                texts.add(choice);
+                continue;
+            }
+            try {
+                JsonNode choiceData = objectMapper.readTree(choice);
+                texts.add(choiceData.path("text").isTextual() ? choiceData.path("text").asText() : choice);
+            } catch (Exception e) {
+                texts.add(choice);
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Resolves a background to an image URL Discord can fetch.
+     * Assets are only served from a web URL when a base URL is configured, so local files are skipped.
+     */
+    private String backgroundImageUrl(String background) {
+        if (background == null || background.isEmpty()) {
+            return null;
+        }
+        int extension = background.lastIndexOf('.');
+        URL url = assetService.getBackgroundImageUrl(extension > 0 ? background.substring(0, extension) : background);
+        if (url == null || !url.getProtocol().startsWith("http")) {
+            return null;
+        }
+        return url.toString();
+    }
+
+    /**
+     * Identifies a dialogue of a chapter in a narrative version.
+     */
+    private static final class DialogueKey {
+        private final String chapterId;
+        private final long version;
+        private final int dialogueIndex;
+
+        private DialogueKey(String chapterId, long version, int dialogueIndex) {
+            this.chapterId = chapterId;
+            this.version = version;
+            this.dialogueIndex = dialogueIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DialogueKey)) {
+                return false;
+            }
+            DialogueKey other = (DialogueKey) o;
+            return version == other.version && dialogueIndex == other.dialogueIndex
+                    && Objects.equals(chapterId, other.chapterId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chapterId, version, dialogueIndex);
+        }
+    }
+
+    /**
+     * A rendered dialogue and the content it was rendered from.
+     */
+    private static final class RenderedDialogue {
+        private final String title;
+        private final String source;
+        private final EmbedCreateSpec message;
+
+        private RenderedDialogue(String title, String source, EmbedCreateSpec message) {
+            this.title = title;
+            this.source = source;
+            this.message = message;
+        }
+
+        private boolean matches(String title, String source) {
+            return Objects.equals(this.title, title) && Objects.equals(this.source, source);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.CombatLog;
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Rules of duel turns and rounds, shared by {@link DuelServiceImpl} and the duel balance simulator.
+ * A turn only changes the {@link DuelState} and, when the state has one, appends to its combat
+ * log, so it allocates nothing and can be replayed millions of times.
+ */
+public final class DuelRules {
+
+    /**
+     * Mana a participant can hold.
+     */
+    public static final int MAX_MANA = 100;
+
+    /**
+     * Mana both participants regain at the end of a round.
+     */
+    public static final int MANA_REGENERATION = 10;
+
+    /**
+     * A basic attack deals {@code BASIC_ATTACK_DAMAGE} plus a random amount below
+     * {@code BASIC_ATTACK_VARIANCE}.
+     */
+    public static final int BASIC_ATTACK_DAMAGE = 5;
+    public static final int BASIC_ATTACK_VARIANCE = 5;
+
+    /**
+     * Result of a turn.
+     */
+    public enum Outcome {
+        CONTINUE,
+        PLAYER_WON,
+        NPC_WON
+    }
+
+    private DuelRules() {
+    }
+
+    /**
+     * Plays the player's half of a round. The caller checks that the player can afford the
+     * technique.
+     *
+     * @param duel the duel state
+     * @param technique the technique the player uses
+     * @param random the source of randomness
+     * @return {@link Outcome#PLAYER_WON} if the NPC is defeated, otherwise {@link Outcome#CONTINUE}
+     *         with the duel waiting for the NPC
+     */
+    public static Outcome playerTurn(DuelState duel, CompiledTechnique technique, RandomGenerator random) {
+        if (strike(duel, true, technique, random)) {
+            return Outcome.PLAYER_WON;
+        }
+        duel.setStatus(Duel.DuelStatus.NPC_TURN);
+        return Outcome.CONTINUE;
+    }
+
+    /**
+     * Plays the NPC's half of a round and ends the round: damage over time ticks, both
+     * participants regain mana and the duel waits for the player again.
+     * The NPC takes the action of its precomputed policy for the state of the duel: a technique,
+     * or a basic attack when the policy calls for one or the NPC cannot afford the technique.
+     *
+     * @param duel the duel state
+     * @param policy the policy of the NPC's techniques
+     * @param random the source of randomness
+     * @return the outcome of the round
+     */
+    public static Outcome npcTurn(DuelState duel, NpcPolicy policy, RandomGenerator random) {
+        CombatLog combatLog = duel.getCombatLog();
+        CompiledTechnique technique = policy.choose(duel);
+
+        if (technique == null || duel.getNpcMana() < technique.getManaCost()) {
+            int damage = duel.hitPlayer(BASIC_ATTACK_DAMAGE + random.nextInt(BASIC_ATTACK_VARIANCE)); // 5-9 damage
+            if (combatLog != null) {
+                combatLog.append(duel.getRound(), CombatLog.EntryType.BASIC_ATTACK, CombatLog.Actor.NPC, null,
+                        damage, false, 0);
+            }
+        } else {
+            strike(duel, false, technique, random);
+        }
+
+        if (duel.getPlayerHealth() <= 0) {
+            return Outcome.NPC_WON;
+        }
+        return endRound(duel);
+    }
+
+    /**
+     * Plays a round of a player-versus-player duel, where both sides chose a technique at the
+     * same time, and ends it. The side with the higher dexterity strikes first, the player on a
+     * tie, so the result does not depend on the order in which the techniques were submitted;
+     * a side defeated by the first strike does not strike back. The caller checks that both
+     * sides can afford their technique.
+     *
+     * @param duel the duel state, with the opponent on the NPC side
+     * @param playerTechnique the technique of the player who started the duel
+     * @param npcTechnique the technique of the opponent
+     * @param random the source of randomness
+     * @return the outcome of the round
+     */
+    public static Outcome simultaneousRound(DuelState duel, CompiledTechnique playerTechnique,
+                                            CompiledTechnique npcTechnique, RandomGenerator random) {
+        boolean playerFirst = duel.getPlayerStats().getDexterity() >= duel.getNpcStats().getDexterity();
+        if (strike(duel, playerFirst, playerFirst ? playerTechnique : npcTechnique, random)) {
+            return playerFirst ? Outcome.PLAYER_WON : Outcome.NPC_WON;
+        }
+        if (strike(duel, !playerFirst, playerFirst ? npcTechnique : playerTechnique, random)) {
+            return playerFirst ? Outcome.NPC_WON : Outcome.PLAYER_WON;
+        }
+        return endRound(duel);
+    }
+
+    /**
+     * Applies a technique, spends its mana and logs the hit.
+     *
+     * @return true if the defender is defeated
+     */
+    private static boolean strike(DuelState duel, boolean byPlayer, CompiledTechnique technique,
+                                  RandomGenerator random) {
+        long hit = technique.apply(duel, byPlayer, random);
+        if (byPlayer) {
+            duel.setPlayerMana(duel.getPlayerMana() - technique.getManaCost());
+            duel.setPlayerLastTechniqueId(technique.getId());
+        } else {
+            duel.setNpcMana(duel.getNpcMana() - technique.getManaCost());
+            duel.setNpcLastTechniqueId(technique.getId());
+        }
+
+        CombatLog combatLog = duel.getCombatLog();
+        if (combatLog != null) {
+            combatLog.append(duel.getRound(), CombatLog.EntryType.TECHNIQUE,
+                    byPlayer ? CombatLog.Actor.PLAYER : CombatLog.Actor.NPC, technique.getId(),
+                    CompiledTechnique.damageOf(hit), CompiledTechnique.isCritical(hit), technique.getManaCost());
+        }
+        return (byPlayer ? duel.getNpcHealth() : duel.getPlayerHealth()) <= 0;
+    }
+
+    /**
+     * Ends a round: damage over time ticks, both sides regain mana and the duel waits for the
+     * player again.
+     */
+    private static Outcome endRound(DuelState duel) {
+        CombatLog combatLog = duel.getCombatLog();
+
+        // Apply damage over time at the end of the round
+        if (duel.getNpcDotTurns() > 0) {
+            duel.setNpcDotTurns(duel.getNpcDotTurns() - 1);
+            duel.setNpcHealth(Math.max(0, duel.getNpcHealth() - duel.getNpcDotDamage()));
+            if (combatLog != null) {
+                combatLog.append(duel.getRound(), CombatLog.EntryType.DAMAGE_OVER_TIME, CombatLog.Actor.NPC, null,
+                        duel.getNpcDotDamage(), false, 0);
+            }
+            if (duel.getNpcHealth() <= 0) {
+                return Outcome.PLAYER_WON;
+            }
+        }
+        if (duel.getPlayerDotTurns() > 0) {
+            duel.setPlayerDotTurns(duel.getPlayerDotTurns() - 1);
+            duel.setPlayerHealth(Math.max(0, duel.getPlayerHealth() - duel.getPlayerDotDamage()));
+            if (combatLog != null) {
+                combatLog.append(duel.getRound(), CombatLog.EntryType.DAMAGE_OVER_TIME, CombatLog.Actor.PLAYER,
+                        null, duel.getPlayerDotDamage(), false, 0);
+            }
+            if (duel.getPlayerHealth() <= 0) {
+                return Outcome.NPC_WON;
+            }
+        }
+
+        // Increment round and switch back to player's turn; in PvP both players choose at once
+        duel.setRound(duel.getRound() + 1);
+        if (!duel.isPvp()) {
+            duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+        }
+
+        // Regenerate some mana for both player and NPC
+        duel.setPlayerMana(Math.min(MAX_MANA, duel.getPlayerMana() + MANA_REGENERATION));
+        duel.setNpcMana(Math.min(MAX_MANA, duel.getNpcMana() + MANA_REGENERATION));
+        return Outcome.CONTINUE;
+    }
+}
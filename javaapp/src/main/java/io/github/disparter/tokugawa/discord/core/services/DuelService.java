@@ -21,6 +21,28 @@ public interface DuelService {
      */
     Map<String, Object> initiateDuel(Long playerId, Long npcId);
 
+    /**
+     * Initiates a duel between two players. Each round, both players choose a technique at the
+     * same time and the round is played once both have chosen.
+     *
+     * @param challengerId the ID of the player starting the duel
+     * @param opponentId the ID of the challenged player
+     * @return a map containing the initial duel state
+     */
+    Map<String, Object> initiatePvpDuel(Long challengerId, Long opponentId);
+
+    /**
+     * Processes a player's technique selection in a duel against an NPC or another player.
+     * In a player-versus-player duel, the first player to choose in a round gets a state with
+     * {@code waiting} set, and the second gets the result of the round.
+     *
+     * @param duelId the duel ID
+     * @param playerId the ID of the player choosing the technique
+     * @param techniqueId the technique ID
+     * @return a map containing the updated duel state
+     */
+    Map<String, Object> processTechniqueSelection(String duelId, Long playerId, Long techniqueId);
+
     /**
      * Processes a player's technique selection in a duel.
      *
@@ -87,4 +109,14 @@ public interface DuelService {
      * @return true if the duel was successfully canceled, false otherwise
      */
     boolean cancelDuel(String duelId);
+
+    /**
+     * Ends an active duel with a player's defeat, such as when they let their turn time out.
+     * Their opponent wins and the duel's result and bets are processed as for any other defeat.
+     *
+     * @param duelId the duel ID
+     * @param playerId the ID of the player forfeiting
+     * @return true if the duel was forfeited, false if it already ended or its round is being played
+     */
+    boolean forfeitDuel(String duelId, Long playerId);
 }
\ No newline at end of file
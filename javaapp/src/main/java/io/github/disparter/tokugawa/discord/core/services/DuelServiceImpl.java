@@ -1,26 +1,36 @@
 package io.github.disparter.tokugawa.discord.core.services;
 
+import io.github.disparter.tokugawa.discord.core.models.CombatLog;
 import io.github.disparter.tokugawa.discord.core.models.Duel;
 import io.github.disparter.tokugawa.discord.core.models.Player;
 import io.github.disparter.tokugawa.discord.core.models.NPC;
 import io.github.disparter.tokugawa.discord.core.models.Technique;
 import io.github.disparter.tokugawa.discord.core.models.Bet.BetType;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
 import io.github.disparter.tokugawa.discord.core.repositories.DuelRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
 import io.github.disparter.tokugawa.discord.core.services.BettingService;
+import io.github.disparter.tokugawa.discord.utils.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the DuelService interface.
@@ -36,6 +46,14 @@ public class DuelServiceImpl implements DuelService {
     private final NarrativeService narrativeService;
     private final RelationshipService relationshipService;
     private final BettingService bettingService;
+    private final DeadlineService deadlineService;
+    private final ActiveDuelRegistry activeDuelRegistry;
+    private final CombatLogRenderer combatLogRenderer;
+    private final CompiledTechniqueCache compiledTechniqueCache;
+    private final TechniqueLoadoutCache techniqueLoadoutCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long turnTimeoutMinutes;
+    private final Clock clock;
 
     private final Random random = new Random();
 
@@ -48,7 +66,15 @@ public class DuelServiceImpl implements DuelService {
             PlayerService playerService,
             NarrativeService narrativeService,
             RelationshipService relationshipService,
-            BettingService bettingService) {
+            BettingService bettingService,
+            DeadlineService deadlineService,
+            ActiveDuelRegistry activeDuelRegistry,
+            CombatLogRenderer combatLogRenderer,
+            CompiledTechniqueCache compiledTechniqueCache,
+            TechniqueLoadoutCache techniqueLoadoutCache,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${tokugawa.duels.turn-timeout-minutes:10}") long turnTimeoutMinutes,
+            Clock clock) {
         this.duelRepository = duelRepository;
         this.playerRepository = playerRepository;
         this.npcRepository = npcRepository;
@@ -57,6 +83,23 @@ public class DuelServiceImpl implements DuelService {
         this.narrativeService = narrativeService;
         this.relationshipService = relationshipService;
         this.bettingService = bettingService;
+        this.deadlineService = deadlineService;
+        this.activeDuelRegistry = activeDuelRegistry;
+        this.combatLogRenderer = combatLogRenderer;
+        this.compiledTechniqueCache = compiledTechniqueCache;
+        this.techniqueLoadoutCache = techniqueLoadoutCache;
+        this.eventPublisher = eventPublisher;
+        this.turnTimeoutMinutes = turnTimeoutMinutes;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the time at which the turn starting now times out.
+     *
+     * @return the turn deadline
+     */
+    private LocalDateTime nextTurnDeadline() {
+        return LocalDateTime.now(clock).plusMinutes(turnTimeoutMinutes);
     }
 
     @Override
@@ -74,14 +117,19 @@ public class DuelServiceImpl implements DuelService {
         duel.setPlayer(player);
         duel.setNpc(npc);
         duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
-        duel.setStartTime(new Date());
+        duel.setStartTime(Date.from(clock.instant()));
+
+        // Add initial log
+        duel.getCombatLog().append(duel.getRound(), CombatLog.EntryType.START, CombatLog.Actor.PLAYER, null, 0, false, 0);
 
-        // Save the duel
+        // Save the duel; turns are played in memory until it ends
         duel = duelRepository.save(duel);
+        LocalDateTime deadline = nextTurnDeadline();
+        deadlineService.schedule(DeadlineType.DUEL_TURN_TIMEOUT, duel.getDuelId(), deadline);
 
-        // Add initial log
-        duel.getLogs().put(1, "Duel initiated between " + player.getName() + " and " + npc.getName() + ".");
-        duelRepository.save(duel);
+        DuelState state = DuelState.of(duel);
+        state.setTurnDeadline(deadline.atZone(clock.getZone()).toInstant().toEpochMilli());
+        activeDuelRegistry.open(state);
 
         // Return the initial duel state
         Map<String, Object> result = new HashMap<>();
@@ -94,7 +142,7 @@ public class DuelServiceImpl implements DuelService {
         result.put("npcMana", duel.getNpcMana());
         result.put("round", duel.getRound());
         result.put("status", duel.getStatus().name());
-        result.put("log", duel.getLogs().get(1));
+        result.put("log", combatLogRenderer.renderLastRound(duel.getCombatLog(), player.getName(), npc.getName()));
         result.put("playerTechniques", getPlayerTechniques(playerId));
 
         return result;
@@ -102,148 +150,234 @@ public class DuelServiceImpl implements DuelService {
 
     @Override
     @Transactional
-    public Map<String, Object> processTechniqueSelection(String duelId, Long techniqueId) {
-        Duel duel = duelRepository.findByDuelId(duelId)
-                .orElseThrow(() -> new IllegalArgumentException("Duel not found with ID: " + duelId));
+    public Map<String, Object> initiatePvpDuel(Long challengerId, Long opponentId) {
+        if (challengerId.equals(opponentId)) {
+            throw new IllegalArgumentException("A player cannot duel themselves");
+        }
+
+        Player challenger = playerRepository.findById(challengerId)
+                .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + challengerId));
+
+        Player opponent = playerRepository.findById(opponentId)
+                .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + opponentId));
+
+        // Create a new duel, with the opponent on the NPC side
+        Duel duel = new Duel();
+        duel.setDuelId(UUID.randomUUID().toString());
+        duel.setPlayer(challenger);
+        duel.setOpponent(opponent);
+        duel.setStatus(Duel.DuelStatus.IN_PROGRESS);
+        duel.setStartTime(Date.from(clock.instant()));
 
-        if (duel.getStatus() == Duel.DuelStatus.COMPLETED || duel.getStatus() == Duel.DuelStatus.CANCELED) {
-            throw new IllegalStateException("Duel is already completed or canceled");
+        // Add initial log
+        duel.getCombatLog().append(duel.getRound(), CombatLog.EntryType.START, CombatLog.Actor.PLAYER, null, 0, false, 0);
+
+        // Save the duel; rounds are played in memory until it ends
+        duel = duelRepository.save(duel);
+        LocalDateTime deadline = nextTurnDeadline();
+        deadlineService.schedule(DeadlineType.DUEL_TURN_TIMEOUT, duel.getDuelId(), deadline);
+
+        DuelState state = DuelState.of(duel);
+        state.setTurnDeadline(deadline.atZone(clock.getZone()).toInstant().toEpochMilli());
+        activeDuelRegistry.open(state);
+
+        return getDuelState(state);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> processTechniqueSelection(String duelId, Long playerId, Long techniqueId) {
+        DuelState duel = activeDuelRegistry.get(duelId);
+        if (duel.isPvp()) {
+            return submitPvpTechnique(duel, playerId, techniqueId);
+        }
+        if (!playerId.equals(duel.getPlayerId())) {
+            throw new IllegalArgumentException("Player " + playerId + " is not part of duel " + duelId);
         }
+        return processTechniqueSelection(duelId, techniqueId);
+    }
 
-        Technique technique = techniqueRepository.findById(techniqueId)
+    /**
+     * Submits a player's technique for the current round of a player-versus-player duel.
+     * The round's {@link PvpTurn} is replaced by compare-and-set, without locking the duel: the
+     * submission that completes the round plays it, and the other player's call returns at once.
+     */
+    private Map<String, Object> submitPvpTechnique(DuelState duel, Long playerId, Long techniqueId) {
+        boolean challenger;
+        if (playerId.equals(duel.getPlayerId())) {
+            challenger = true;
+        } else if (playerId.equals(duel.getOpponentId())) {
+            challenger = false;
+        } else {
+            throw new IllegalArgumentException("Player " + playerId + " is not part of duel " + duel.getDuelId());
+        }
+        if (!techniqueLoadoutCache.getPlayerLoadout(playerId).contains(techniqueId)) {
+            throw new IllegalArgumentException("Player " + playerId + " does not know technique " + techniqueId);
+        }
+
+        CompiledTechnique technique = compiledTechniqueCache.getCompiledTechnique(techniqueId)
                 .orElseThrow(() -> new IllegalArgumentException("Technique not found with ID: " + techniqueId));
 
-        // Process player's turn
-        if (duel.getStatus() == Duel.DuelStatus.PLAYER_TURN) {
-            // Check if player has enough mana
-            if (duel.getPlayerMana() < technique.getManaCost()) {
-                throw new IllegalStateException("Not enough mana to use this technique");
+        AtomicReference<PvpTurn> turns = duel.getPvpTurn();
+        while (true) {
+            PvpTurn turn = turns.get();
+            if (turn.getPhase() == PvpTurn.Phase.FINISHED) {
+                throw new IllegalStateException("Duel is already completed or canceled");
+            }
+            if (turn.getPhase() == PvpTurn.Phase.RESOLVING || turn.hasSubmitted(challenger)) {
+                throw new IllegalStateException("You have already chosen a technique this round");
             }
 
-            // Apply technique effects
-            int damage = calculateDamage(technique, duel.getPlayer(), duel.getNpc());
-            duel.setNpcHealth(Math.max(0, duel.getNpcHealth() - damage));
-            duel.setPlayerMana(duel.getPlayerMana() - technique.getManaCost());
-            duel.setPlayerLastTechnique(technique);
+            // The mana only changes when the round is played, which needs this submission
+            int mana = challenger ? duel.getPlayerMana() : duel.getNpcMana();
+            if (mana < technique.getManaCost()) {
+                throw new IllegalStateException("Not enough mana to use this technique");
+            }
 
-            // Add log
-            String log = duel.getPlayer().getName() + " used " + technique.getName() + " and dealt " + damage + " damage.";
-            duel.getLogs().put(duel.getRound(), log);
+            PvpTurn submitted = turn.submit(challenger, technique);
+            if (turns.compareAndSet(turn, submitted)) {
+                if (submitted.getPhase() == PvpTurn.Phase.RESOLVING) {
+                    return playPvpRound(duel, submitted);
+                }
+
+                // The opponent may be playing the round already, so the state is not read
+                Map<String, Object> result = new HashMap<>();
+                result.put("duelId", duel.getDuelId());
+                result.put("playerName", duel.getPlayerName());
+                result.put("npcName", duel.getNpcName());
+                result.put("round", submitted.getRound());
+                result.put("pvp", true);
+                result.put("waiting", true);
+                return result;
+            }
+        }
+    }
 
-            // Check if NPC is defeated
-            if (duel.getNpcHealth() <= 0) {
-                return endDuel(duel, true);
+    /**
+     * Plays a round of a player-versus-player duel. Only the thread that moved the round to
+     * {@link PvpTurn.Phase#RESOLVING} gets here, so it changes the state alone, and the next
+     * round only opens once the state is journaled or saved.
+     */
+    private Map<String, Object> playPvpRound(DuelState duel, PvpTurn turn) {
+        try {
+            DuelRules.Outcome outcome = DuelRules.simultaneousRound(duel, turn.getChallengerTechnique(),
+                    turn.getOpponentTechnique(), ThreadLocalRandom.current());
+            if (outcome != DuelRules.Outcome.CONTINUE) {
+                finishDuel(duel, outcome == DuelRules.Outcome.PLAYER_WON);
+                return completeDuel(duel);
             }
 
-            // Switch to NPC's turn
-            duel.setStatus(Duel.DuelStatus.NPC_TURN);
-            duelRepository.save(duel);
+            // Restart the turn timer in memory; the journal carries it across restarts
+            LocalDateTime deadline = nextTurnDeadline();
+            deadlineService.reschedule(DeadlineType.DUEL_TURN_TIMEOUT, duel.getDuelId(), deadline);
+            duel.setTurnDeadline(deadline.atZone(clock.getZone()).toInstant().toEpochMilli());
+            activeDuelRegistry.journal(duel);
 
-            // Process NPC's turn automatically
-            return processNPCTurn(duel);
-        } else {
-            throw new IllegalStateException("It's not the player's turn");
+            return getDuelState(duel);
+        } finally {
+            duel.getPvpTurn().set(duel.isFinished() ? PvpTurn.FINISHED : PvpTurn.open(duel.getRound()));
         }
     }
 
-    private Map<String, Object> processNPCTurn(Duel duel) {
-        // Get NPC's techniques
-        List<Technique> npcTechniques = getNPCTechniques(duel.getNpc().getId());
+    @Override
+    @Transactional
+    public Map<String, Object> processTechniqueSelection(String duelId, Long techniqueId) {
+        DuelState duel = activeDuelRegistry.get(duelId);
+        if (duel.isPvp()) {
+            throw new IllegalStateException("Player-versus-player duels need the player choosing the technique");
+        }
+
+        CompiledTechnique technique = compiledTechniqueCache.getCompiledTechnique(techniqueId)
+                .orElseThrow(() -> new IllegalArgumentException("Technique not found with ID: " + techniqueId));
+        // Get NPC's policy, solved once per loadout, before the duel is locked: it may be solving
+        NpcPolicy npcPolicy = techniqueLoadoutCache.getNpcLoadout(duel.getNpcId()).policy();
 
-        if (npcTechniques.isEmpty()) {
-            // NPC has no techniques, use a basic attack
-            int damage = 5 + random.nextInt(5); // 5-10 damage
-            duel.setPlayerHealth(Math.max(0, duel.getPlayerHealth() - damage));
+        synchronized (duel) {
+            if (duel.isFinished()) {
+                throw new IllegalStateException("Duel is already completed or canceled");
+            }
 
-            // Add log
-            String log = duel.getNpc().getName() + " used a basic attack and dealt " + damage + " damage.";
-            duel.getLogs().put(duel.getRound(), duel.getLogs().get(duel.getRound()) + "\n" + log);
-        } else {
-            // Select a random technique
-            Technique npcTechnique = npcTechniques.get(random.nextInt(npcTechniques.size()));
-
-            // Check if NPC has enough mana
-            if (duel.getNpcMana() < npcTechnique.getManaCost()) {
-                // Not enough mana, use a basic attack
-                int damage = 5 + random.nextInt(5); // 5-10 damage
-                duel.setPlayerHealth(Math.max(0, duel.getPlayerHealth() - damage));
-
-                // Add log
-                String log = duel.getNpc().getName() + " used a basic attack and dealt " + damage + " damage.";
-                duel.getLogs().put(duel.getRound(), duel.getLogs().get(duel.getRound()) + "\n" + log);
+            // Process player's turn
+            if (duel.getStatus() == Duel.DuelStatus.PLAYER_TURN) {
+                // Check if player has enough mana
+                if (duel.getPlayerMana() < technique.getManaCost()) {
+                    throw new IllegalStateException("Not enough mana to use this technique");
+                }
+
+                // Apply technique effects and check if NPC is defeated
+                if (DuelRules.playerTurn(duel, technique, random) == DuelRules.Outcome.PLAYER_WON) {
+                    finishDuel(duel, true);
+                } else {
+                    // Process NPC's turn automatically
+                    Map<String, Object> state = processNPCTurn(duel, npcPolicy);
+                    if (state != null) {
+                        return state;
+                    }
+                }
             } else {
-                // Apply technique effects
-                int damage = calculateDamage(npcTechnique, duel.getNpc(), duel.getPlayer());
-                duel.setPlayerHealth(Math.max(0, duel.getPlayerHealth() - damage));
-                duel.setNpcMana(duel.getNpcMana() - npcTechnique.getManaCost());
-                duel.setNpcLastTechnique(npcTechnique);
-
-                // Add log
-                String log = duel.getNpc().getName() + " used " + npcTechnique.getName() + " and dealt " + damage + " damage.";
-                duel.getLogs().put(duel.getRound(), duel.getLogs().get(duel.getRound()) + "\n" + log);
+                throw new IllegalStateException("It's not the player's turn");
             }
         }
+        return completeDuel(duel);
+    }
 
-        // Check if player is defeated
-        if (duel.getPlayerHealth() <= 0) {
-            return endDuel(duel, false);
+    /**
+     * Plays the NPC's turn. Called with the duel locked.
+     *
+     * @return the duel state, or null if the turn finished the duel
+     */
+    private Map<String, Object> processNPCTurn(DuelState duel, NpcPolicy npcPolicy) {
+        // Play the NPC's turn and end the round
+        DuelRules.Outcome outcome = DuelRules.npcTurn(duel, npcPolicy, random);
+        if (outcome != DuelRules.Outcome.CONTINUE) {
+            finishDuel(duel, outcome == DuelRules.Outcome.PLAYER_WON);
+            return null;
         }
 
-        // Increment round and switch back to player's turn
-        duel.setRound(duel.getRound() + 1);
-        duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
-
-        // Regenerate some mana for both player and NPC
-        duel.setPlayerMana(Math.min(100, duel.getPlayerMana() + 10));
-        duel.setNpcMana(Math.min(100, duel.getNpcMana() + 10));
-
-        duelRepository.save(duel);
+        // Restart the turn timer in memory; the journal carries it across restarts
+        LocalDateTime deadline = nextTurnDeadline();
+        deadlineService.reschedule(DeadlineType.DUEL_TURN_TIMEOUT, duel.getDuelId(), deadline);
+        duel.setTurnDeadline(deadline.atZone(clock.getZone()).toInstant().toEpochMilli());
+        activeDuelRegistry.journal(duel);
 
         // Return the updated duel state
         return getDuelState(duel);
     }
 
-    private int calculateDamage(Technique technique, Object attacker, Object defender) {
-        // Base damage from technique
-        int damage = technique.getBaseDamage();
-
-        // Add some randomness
-        damage += random.nextInt(5) - 2; // -2 to +2 damage
-
-        // Apply technique effects
-        for (Map.Entry<String, Integer> effect : technique.getEffects().entrySet()) {
-            switch (effect.getKey()) {
-                case "damage_boost":
-                    damage += effect.getValue();
-                    break;
-                case "critical_chance":
-                    if (random.nextInt(100) < effect.getValue()) {
-                        damage *= 2; // Critical hit
-                    }
-                    break;
-                // Add more effects as needed
-            }
-        }
-
-        return Math.max(1, damage); // Minimum 1 damage
-    }
-
-    private Map<String, Object> endDuel(Duel duel, boolean playerWon) {
+    /**
+     * Records the result of a duel in its state. Called with the duel locked, or by the only
+     * thread playing it; once finished, nothing else changes the state.
+     */
+    private void finishDuel(DuelState duel, boolean playerWon) {
         duel.setStatus(Duel.DuelStatus.COMPLETED);
-        duel.setEndTime(new Date());
+        duel.setEndTime(clock.millis());
         duel.setPlayerWon(playerWon);
 
         // Add final log
-        String log = playerWon ? 
-                duel.getPlayer().getName() + " has defeated " + duel.getNpc().getName() + "!" :
-                duel.getPlayer().getName() + " has been defeated by " + duel.getNpc().getName() + "!";
-        duel.getLogs().put(duel.getRound(), duel.getLogs().get(duel.getRound()) + "\n" + log);
+        duel.getCombatLog().append(duel.getRound(), CombatLog.EntryType.VICTORY,
+                playerWon ? CombatLog.Actor.PLAYER : CombatLog.Actor.NPC, null, 0, false, 0);
+    }
 
-        duelRepository.save(duel);
+    /**
+     * Saves a finished duel and processes its result, without the duel's lock, since the
+     * result updates players, relationships, bets and the narrative.
+     */
+    private Map<String, Object> completeDuel(DuelState duel) {
+        activeDuelRegistry.save(duel);
+        closeAfterCommit(duel.getDuelId());
+        deadlineService.cancel(DeadlineType.DUEL_TURN_TIMEOUT, duel.getDuelId());
 
         // Process duel result
         processDuelResult(duel.getDuelId());
 
+        // Rate PvP duels here, once, since the result is processed again whenever it is viewed
+        if (duel.isPvp()) {
+            Long winnerId = playerWon ? duel.getPlayerId() : duel.getOpponentId();
+            Long loserId = playerWon ? duel.getOpponentId() : duel.getPlayerId();
+            int ratingChange = playerService.updateRatingsFromDuel(winnerId, loserId);
+            eventPublisher.publishEvent(new PvpDuelCompletedEvent(duel.getDuelId(), winnerId, loserId, ratingChange));
+        }
+
         // Return the final duel state
         return getDuelState(duel);
     }
@@ -258,6 +392,10 @@ public class DuelServiceImpl implements DuelService {
             throw new IllegalStateException("Duel is not completed yet");
         }
 
+        if (duel.getOpponent() != null) {
+            return processPvpDuelResult(duel);
+        }
+
         // Update player's reputation based on duel result
         playerService.updateReputationFromDuel(duel.getPlayer().getId(), duel.getPlayerWon());
 
@@ -275,7 +413,7 @@ public class DuelServiceImpl implements DuelService {
         int resolvedBets = bettingService.resolveDuelBets(duelId, duel.getPlayerWon() ? duel.getPlayer().getId() : null);
 
         // Return the final duel state with results
-        Map<String, Object> result = getDuelState(duel);
+        Map<String, Object> result = getDuelState(DuelState.of(duel));
         result.put("reputationChange", duel.getPlayerWon() ? 10 : -5);
         result.put("relationshipChange", duel.getPlayerWon() ? 5 : -2);
         result.put("resolvedBets", resolvedBets);
@@ -283,22 +421,44 @@ public class DuelServiceImpl implements DuelService {
         return result;
     }
 
-    private Map<String, Object> getDuelState(Duel duel) {
+    private Map<String, Object> processPvpDuelResult(Duel duel) {
+        Player winner = duel.getPlayerWon() ? duel.getPlayer() : duel.getOpponent();
+        Player loser = duel.getPlayerWon() ? duel.getOpponent() : duel.getPlayer();
+
+        // Update both players' reputation based on duel result
+        playerService.updateReputationFromDuel(winner.getId(), true);
+        playerService.updateReputationFromDuel(loser.getId(), false);
+
+        // Resolve bets on the duel
+        int resolvedBets = bettingService.resolveDuelBets(duel.getDuelId(), winner.getId());
+
+        // Return the final duel state with results
+        Map<String, Object> result = getDuelState(DuelState.of(duel));
+        result.put("winnerName", winner.getName());
+        result.put("relationshipChange", 0);
+        result.put("reputationChange", duel.getPlayerWon() ? 10 : -5);
+        result.put("resolvedBets", resolvedBets);
+
+        return result;
+    }
+
+    private Map<String, Object> getDuelState(DuelState duel) {
         Map<String, Object> result = new HashMap<>();
         result.put("duelId", duel.getDuelId());
-        result.put("playerName", duel.getPlayer().getName());
-        result.put("npcName", duel.getNpc().getName());
+        result.put("playerName", duel.getPlayerName());
+        result.put("npcName", duel.getNpcName());
         result.put("playerHealth", duel.getPlayerHealth());
         result.put("npcHealth", duel.getNpcHealth());
         result.put("playerMana", duel.getPlayerMana());
         result.put("npcMana", duel.getNpcMana());
         result.put("round", duel.getRound());
         result.put("status", duel.getStatus().name());
-        result.put("log", duel.getLogs().get(duel.getRound()));
+        result.put("pvp", duel.isPvp());
+        result.put("log", combatLogRenderer.renderLastRound(duel.getCombatLog(), duel.getPlayerName(), duel.getNpcName()));
 
         if (duel.getStatus() == Duel.DuelStatus.COMPLETED) {
             result.put("playerWon", duel.getPlayerWon());
-            result.put("duration", (duel.getEndTime().getTime() - duel.getStartTime().getTime()) / 1000); // in seconds
+            result.put("duration", (duel.getEndTime() - duel.getStartTime()) / 1000); // in seconds
         }
 
         return result;
@@ -306,18 +466,12 @@ public class DuelServiceImpl implements DuelService {
 
     @Override
     public List<Technique> getPlayerTechniques(Long playerId) {
-        Player player = playerRepository.findById(playerId)
-                .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
-
-        return techniqueRepository.findByPlayersContaining(player);
+        return techniqueLoadoutCache.getPlayerLoadout(playerId).getTechniques();
     }
 
     @Override
     public List<Technique> getNPCTechniques(Long npcId) {
-        NPC npc = npcRepository.findById(npcId)
-                .orElseThrow(() -> new IllegalArgumentException("NPC not found with ID: " + npcId));
-
-        return techniqueRepository.findByNpcsContaining(npc);
+        return techniqueLoadoutCache.getNpcLoadout(npcId).getTechniques();
     }
 
     @Override
@@ -338,7 +492,9 @@ public class DuelServiceImpl implements DuelService {
         }
 
         player.getKnownTechniques().add(technique);
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        AfterCommit.run(() -> techniqueLoadoutCache.invalidatePlayer(playerId));
+        return saved;
     }
 
     @Override
@@ -355,7 +511,9 @@ public class DuelServiceImpl implements DuelService {
         }
 
         npc.getKnownTechniques().add(technique);
-        return npcRepository.save(npc);
+        NPC saved = npcRepository.save(npc);
+        AfterCommit.run(() -> techniqueLoadoutCache.invalidateNpc(npcId));
+        return saved;
     }
 
     @Override
@@ -363,8 +521,9 @@ public class DuelServiceImpl implements DuelService {
         Player player = playerRepository.findById(playerId)
                 .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
 
-        return duelRepository.findByPlayerAndStatusNot(player, Duel.DuelStatus.COMPLETED)
-                .stream()
+        return Stream.concat(
+                        duelRepository.findByPlayerAndStatusNot(player, Duel.DuelStatus.COMPLETED).stream(),
+                        duelRepository.findByOpponentAndStatusNot(player, Duel.DuelStatus.COMPLETED).stream())
                 .map(Duel::getDuelId)
                 .collect(Collectors.toList());
     }
@@ -372,20 +531,95 @@ public class DuelServiceImpl implements DuelService {
     @Override
     @Transactional
     public boolean cancelDuel(String duelId) {
-        Duel duel = duelRepository.findByDuelId(duelId)
-                .orElseThrow(() -> new IllegalArgumentException("Duel not found with ID: " + duelId));
+        DuelState duel = activeDuelRegistry.get(duelId);
 
-        if (duel.getStatus() == Duel.DuelStatus.COMPLETED) {
-            return false; // Cannot cancel a completed duel
+        if (duel.isPvp()) {
+            if (!finishPvpTurn(duel)) {
+                return false;
+            }
+
+            duel.setStatus(Duel.DuelStatus.CANCELED);
+            duel.setEndTime(clock.millis());
+            activeDuelRegistry.save(duel);
+            closeAfterCommit(duelId);
+            deadlineService.cancel(DeadlineType.DUEL_TURN_TIMEOUT, duelId);
+            bettingService.cancelDuelBets(duelId);
+            return true;
         }
 
-        duel.setStatus(Duel.DuelStatus.CANCELED);
-        duel.setEndTime(new Date());
-        duelRepository.save(duel);
+        synchronized (duel) {
+            if (duel.isFinished()) {
+                return false; // Cannot cancel a completed or already canceled duel
+            }
+
+            duel.setStatus(Duel.DuelStatus.CANCELED);
+            duel.setEndTime(clock.millis());
+        }
+        activeDuelRegistry.save(duel);
+        closeAfterCommit(duelId);
+        deadlineService.cancel(DeadlineType.DUEL_TURN_TIMEOUT, duelId);
 
         // Cancel all bets on this duel
         bettingService.cancelDuelBets(duelId);
 
         return true;
     }
+
+    @Override
+    @Transactional
+    public boolean forfeitDuel(String duelId, Long playerId) {
+        DuelState duel = activeDuelRegistry.get(duelId);
+        boolean challenger;
+        if (playerId.equals(duel.getPlayerId())) {
+            challenger = true;
+        } else if (playerId.equals(duel.getOpponentId())) {
+            challenger = false;
+        } else {
+            throw new IllegalArgumentException("Player " + playerId + " is not part of duel " + duelId);
+        }
+
+        if (duel.isPvp()) {
+            if (!finishPvpTurn(duel)) {
+                return false;
+            }
+            finishDuel(duel, !challenger);
+            completeDuel(duel);
+            return true;
+        }
+
+        synchronized (duel) {
+            if (duel.isFinished()) {
+                return false;
+            }
+            finishDuel(duel, false);
+        }
+        completeDuel(duel);
+        return true;
+    }
+
+    /**
+     * Removes an ended duel from memory once the transaction that saved it commits, so a
+     * rollback leaves it in memory instead of reloading the row as it was before the duel ended.
+     */
+    private void closeAfterCommit(String duelId) {
+        AfterCommit.run(() -> activeDuelRegistry.close(duelId));
+    }
+
+    /**
+     * Finishes the open round of a player-versus-player duel so no submission can play it.
+     * A round being played either ends the duel or restarts the turn timer, so it is left alone.
+     *
+     * @return true if the round was open and is now finished
+     */
+    private boolean finishPvpTurn(DuelState duel) {
+        AtomicReference<PvpTurn> turns = duel.getPvpTurn();
+        PvpTurn turn;
+        do {
+            turn = turns.get();
+            if (turn.getPhase() != PvpTurn.Phase.OPEN) {
+                return false;
+            }
+        } while (!turns.compareAndSet(turn, PvpTurn.FINISHED));
+        return true;
+    }
 }
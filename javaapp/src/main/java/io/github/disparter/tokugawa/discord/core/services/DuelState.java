@@ -0,0 +1,161 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.CombatLog;
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory state of an active duel.
+ * Holds the scalar state of a {@link Duel} with its participants and techniques as IDs, so a
+ * turn can be played without loading or saving the entity. The state is copied back to the
+ * entity when the duel ends. Shields, damage over time and the participants' combat stats only
+ * live for the duration of the duel and are not stored on the entity.
+ * <p>
+ * In a player-versus-player duel, the opponent is on the NPC side: {@code opponentId} is set
+ * instead of {@code npcId}, and the NPC fields hold the opponent's name, stats, health and mana.
+ * Its rounds are driven by the {@link PvpTurn} in {@code pvpTurn}.
+ */
+@Data
+@NoArgsConstructor
+public class DuelState {
+
+    private String duelId;
+    private Long playerId;
+    private Long npcId;
+    private Long opponentId;
+    private String playerName;
+    private String npcName;
+    private Duel.DuelStatus status;
+    private long startTime;
+    private int playerHealth;
+    private int npcHealth;
+    private int playerMana;
+    private int npcMana;
+    private int round;
+    private Long playerLastTechniqueId;
+    private Long npcLastTechniqueId;
+    private CombatStats playerStats = CombatStats.NONE;
+    private CombatStats npcStats = CombatStats.NONE;
+    private int playerShield;
+    private int npcShield;
+    private int playerDotDamage;
+    private int playerDotTurns;
+    private int npcDotDamage;
+    private int npcDotTurns;
+    private long turnDeadline;
+    private long endTime;
+    private Boolean playerWon;
+    private CombatLog combatLog = new CombatLog();
+    private final AtomicReference<PvpTurn> pvpTurn = new AtomicReference<>(PvpTurn.open(1));
+
+    /**
+     * Encoded length of the combat log already written to the journal.
+     */
+    private int journaledLength;
+
+    /**
+     * Creates the state of a duel from its entity.
+     *
+     * @param duel the duel
+     * @return the state
+     */
+    public static DuelState of(Duel duel) {
+        DuelState state = new DuelState();
+        state.duelId = duel.getDuelId();
+        state.playerId = duel.getPlayer().getId();
+        state.playerName = duel.getPlayer().getName();
+        state.playerStats = CombatStats.of(duel.getPlayer());
+        if (duel.getOpponent() != null) {
+            state.opponentId = duel.getOpponent().getId();
+            state.npcName = duel.getOpponent().getName();
+            state.npcStats = CombatStats.of(duel.getOpponent());
+        } else {
+            state.npcId = duel.getNpc().getId();
+            state.npcName = duel.getNpc().getName();
+        }
+        state.status = duel.getStatus();
+        state.startTime = duel.getStartTime() != null ? duel.getStartTime().getTime() : 0;
+        state.playerHealth = duel.getPlayerHealth();
+        state.npcHealth = duel.getNpcHealth();
+        state.playerMana = duel.getPlayerMana();
+        state.npcMana = duel.getNpcMana();
+        state.round = duel.getRound();
+        state.playerLastTechniqueId = duel.getPlayerLastTechnique() != null ? duel.getPlayerLastTechnique().getId() : null;
+        state.npcLastTechniqueId = duel.getNpcLastTechnique() != null ? duel.getNpcLastTechnique().getId() : null;
+        state.endTime = duel.getEndTime() != null ? duel.getEndTime().getTime() : 0;
+        state.playerWon = duel.getPlayerWon();
+        state.combatLog = CombatLog.fromByteArray(duel.getCombatLog().toByteArray());
+        state.pvpTurn.set(state.isFinished() ? PvpTurn.FINISHED : PvpTurn.open(state.round));
+        return state;
+    }
+
+    /**
+     * Copies the scalar state and the combat log to a duel entity.
+     * The last techniques are left to the caller, which has to resolve them.
+     *
+     * @param duel the duel
+     */
+    public void applyTo(Duel duel) {
+        duel.setStatus(status);
+        duel.setPlayerHealth(playerHealth);
+        duel.setNpcHealth(npcHealth);
+        duel.setPlayerMana(playerMana);
+        duel.setNpcMana(npcMana);
+        duel.setRound(round);
+        if (endTime > 0) {
+            duel.setEndTime(new Date(endTime));
+        }
+        duel.setPlayerWon(playerWon);
+        duel.setCombatLog(CombatLog.fromByteArray(combatLog.toByteArray()));
+    }
+
+    /**
+     * Checks whether this is a player-versus-player duel.
+     *
+     * @return true if the opponent is a player
+     */
+    public boolean isPvp() {
+        return opponentId != null;
+    }
+
+    /**
+     * Checks whether the duel has ended.
+     *
+     * @return true if the duel is completed or canceled
+     */
+    public boolean isFinished() {
+        return status == Duel.DuelStatus.COMPLETED || status == Duel.DuelStatus.CANCELED;
+    }
+
+    /**
+     * Deals damage to the player, absorbed first by the player's shield.
+     *
+     * @param damage the damage
+     * @return the damage that got through the shield
+     */
+    public int hitPlayer(int damage) {
+        int absorbed = Math.min(playerShield, damage);
+        playerShield -= absorbed;
+        int dealt = damage - absorbed;
+        playerHealth = Math.max(0, playerHealth - dealt);
+        return dealt;
+    }
+
+    /**
+     * Deals damage to the NPC, absorbed first by the NPC's shield.
+     *
+     * @param damage the damage
+     * @return the damage that got through the shield
+     */
+    public int hitNpc(int damage) {
+        int absorbed = Math.min(npcShield, damage);
+        npcShield -= absorbed;
+        int dealt = damage - absorbed;
+        npcHealth = Math.max(0, npcHealth - dealt);
+        return dealt;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
+
+/**
+ * Ends duels whose turn timed out, when their deadline fires on the {@link DeadlineService} wheel,
+ * so no duel is scanned for idleness.
+ * With forfeiting enabled, the idle player forfeits: the player of a duel against an NPC, or the
+ * player who has not chosen a technique in a player-versus-player round where the other has.
+ * Any other timed-out duel is canceled, which refunds its bets. A duel whose turn was played
+ * after the deadline fired, restarting its timer, is skipped. Reaped duels are counted in the
+ * {@code tokugawa.duels.reaped} metric, by outcome.
+ */
+@Component
+@Slf4j
+public class DuelTurnReaper {
+
+    private final DuelService duelService;
+    private final ActiveDuelRegistry activeDuelRegistry;
+    private final DeadlineService deadlineService;
+    private final Clock clock;
+    private final boolean forfeitOnTimeout;
+    private final Counter forfeited;
+    private final Counter canceled;
+    private final Counter skipped;
+
+    @Autowired
+    public DuelTurnReaper(
+            DuelService duelService,
+            ActiveDuelRegistry activeDuelRegistry,
+            DeadlineService deadlineService,
+            MeterRegistry meterRegistry,
+            Clock clock,
+            @Value("${tokugawa.duels.turn-timeout-forfeit:false}") boolean forfeitOnTimeout) {
+        this.duelService = duelService;
+        this.activeDuelRegistry = activeDuelRegistry;
+        this.deadlineService = deadlineService;
+        this.clock = clock;
+        this.forfeitOnTimeout = forfeitOnTimeout;
+        this.forfeited = counter(meterRegistry, "forfeited");
+        this.canceled = counter(meterRegistry, "canceled");
+        this.skipped = counter(meterRegistry, "skipped");
+        Gauge.builder("tokugawa.duels.active", activeDuelRegistry, ActiveDuelRegistry::getActiveCount)
+                .description("Duels being played in memory")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("tokugawa.duels.reaped")
+                .description("Duels ended because a turn timed out; skipped ones had already ended, were being played "
+                        + "or had a new turn")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the handler of duel turn timeouts.
+     */
+    @PostConstruct
+    public void registerTurnTimeoutHandler() {
+        deadlineService.registerHandler(DeadlineType.DUEL_TURN_TIMEOUT, this::reap);
+    }
+
+    /**
+     * Ends a duel whose turn timed out.
+     *
+     * @param duelId the duel ID
+     */
+    public void reap(String duelId) {
+        DuelState duel;
+        try {
+            duel = activeDuelRegistry.get(duelId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Turn timed out in unknown duel {}", duelId);
+            skipped.increment();
+            return;
+        }
+
+        // A turn played under the lock restarts the timer, so the deadline is read under it too
+        synchronized (duel) {
+            if (duel.getTurnDeadline() > clock.millis()) {
+                log.debug("Turn of duel {} was played before it timed out", duelId);
+                skipped.increment();
+                return;
+            }
+
+            Long idlePlayerId = forfeitOnTimeout ? idlePlayerId(duel) : null;
+            if (idlePlayerId != null && duelService.forfeitDuel(duelId, idlePlayerId)) {
+                log.info("Player {} forfeited duel {} after their turn timed out", idlePlayerId, duelId);
+                forfeited.increment();
+            } else if (duelService.cancelDuel(duelId)) {
+                log.info("Canceled duel {} after its turn timed out", duelId);
+                canceled.increment();
+            } else {
+                skipped.increment();
+            }
+        }
+    }
+
+    /**
+     * Gets the player the duel is waiting for, or null if it is waiting for both players of a
+     * player-versus-player round or for none.
+     */
+    static Long idlePlayerId(DuelState duel) {
+        if (!duel.isPvp()) {
+            return duel.getPlayerId();
+        }
+
+        PvpTurn turn = duel.getPvpTurn().get();
+        if (turn.getPhase() != PvpTurn.Phase.OPEN || turn.hasSubmitted(true) == turn.hasSubmitted(false)) {
+            return null;
+        }
+        return turn.hasSubmitted(true) ? duel.getOpponentId() : duel.getPlayerId();
+    }
+}
@@ -12,10 +12,12 @@ import io.github.disparter.tokugawa.discord.core.repositories.ItemRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import io.github.disparter.tokugawa.discord.utils.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -42,6 +44,7 @@ public class EventServiceImpl implements EventService {
     private final InventoryService inventoryService;
     private final ItemRepository itemRepository;
     private final RomanceRouteConfigService romanceRouteConfigService;
+    private final Clock clock;
     private final Random random = new Random();
 
     @Autowired
@@ -53,7 +56,8 @@ public class EventServiceImpl implements EventService {
                            GameCalendarService gameCalendarService,
                            InventoryService inventoryService,
                            ItemRepository itemRepository,
-                           RomanceRouteConfigService romanceRouteConfigService) {
+                           RomanceRouteConfigService romanceRouteConfigService,
+                           Clock clock) {
         this.eventRepository = eventRepository;
         this.playerRepository = playerRepository;
         this.progressRepository = progressRepository;
@@ -63,6 +67,7 @@ public class EventServiceImpl implements EventService {
         this.inventoryService = inventoryService;
         this.itemRepository = itemRepository;
         this.romanceRouteConfigService = romanceRouteConfigService;
+        this.clock = clock;
     }
 
 
@@ -633,7 +638,7 @@ public class EventServiceImpl implements EventService {
         }
 
         // Record the event in the player's triggered events
-        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now().toString());
+        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now(clock).toString());
 
         progressRepository.save(progress);
 
@@ -659,7 +664,7 @@ public class EventServiceImpl implements EventService {
         }
 
         // Record the event in the player's triggered events
-        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now().toString());
+        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now(clock).toString());
 
         progressRepository.save(progress);
 
@@ -685,7 +690,7 @@ public class EventServiceImpl implements EventService {
         }
 
         // Record the event in the player's triggered events
-        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now().toString());
+        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now(clock).toString());
 
         progressRepository.save(progress);
 
@@ -711,7 +716,7 @@ public class EventServiceImpl implements EventService {
         }
 
         // Record the event in the player's triggered events
-        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now().toString());
+        progress.getTriggeredEvents().put(event.getEventId(), LocalDateTime.now(clock).toString());
 
         progressRepository.save(progress);
 
@@ -739,7 +744,7 @@ public class EventServiceImpl implements EventService {
             // Add the event to completed chapters
             progress.getCompletedChapters().add(event.getEventId());
             // Update the triggered events with completion timestamp
-            progress.getTriggeredEvents().put(event.getEventId() + "_completed", LocalDateTime.now().toString());
+            progress.getTriggeredEvents().put(event.getEventId() + "_completed", LocalDateTime.now(clock).toString());
             progressRepository.save(progress);
         }
 
@@ -861,7 +866,11 @@ public class EventServiceImpl implements EventService {
         }
 
         // Save the event
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        if (saved.getType() == EventType.SEASONAL) {
+            AfterCommit.run(gameCalendarService::refreshSeasonalEvents);
+        }
+        return saved;
     }
 
     @Override
@@ -878,7 +887,11 @@ public class EventServiceImpl implements EventService {
         }
 
         // Save the event
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        if (saved.getType() == EventType.SEASONAL) {
+            AfterCommit.run(gameCalendarService::refreshSeasonalEvents);
+        }
+        return saved;
     }
 
     @Override
@@ -891,6 +904,7 @@ public class EventServiceImpl implements EventService {
 
         // Delete the event
         eventRepository.deleteById(eventId);
+        AfterCommit.run(gameCalendarService::refreshSeasonalEvents);
     }
 
     @Override
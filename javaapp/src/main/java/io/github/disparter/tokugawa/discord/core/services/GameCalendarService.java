@@ -1,9 +1,11 @@
 package io.github.disparter.tokugawa.discord.core.services;
 
 import io.github.disparter.tokugawa.discord.core.models.GameCalendar;
+import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Holiday;
 import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Season;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Service interface for managing the game calendar.
@@ -56,4 +58,24 @@ public interface GameCalendarService {
      * @return the initialized game calendar
      */
     GameCalendar initializeCalendar();
-}
\ No newline at end of file
+
+    /**
+     * Checks if the current date is the given holiday.
+     *
+     * @param holiday the holiday
+     * @return true if today is the holiday, false otherwise
+     */
+    boolean isHoliday(Holiday holiday);
+
+    /**
+     * Gets the IDs of the seasonal events whose date range includes the current date.
+     *
+     * @return the active seasonal event IDs
+     */
+    List<String> getActiveSeasonalEventIds();
+
+    /**
+     * Rebuilds the precomputed day table after seasonal events were created, updated or deleted.
+     */
+    void refreshSeasonalEvents();
+}
@@ -1,39 +1,69 @@
 package io.github.disparter.tokugawa.discord.core.services;
 
+import io.github.disparter.tokugawa.discord.core.models.Event.EventType;
 import io.github.disparter.tokugawa.discord.core.models.GameCalendar;
+import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Holiday;
 import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Season;
+import io.github.disparter.tokugawa.discord.core.repositories.EventRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.GameCalendarRepository;
+import io.github.disparter.tokugawa.discord.utils.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Implementation of the GameCalendarService interface.
+ * The current calendar is held in memory and only refreshed by {@link #advanceCalendar(int)}, once
+ * its transaction commits, and {@link #initializeCalendar()}; season, holiday and date range checks are lookups in a precomputed
+ * {@link GameDayTable}.
  */
 @Service
+@Slf4j
 public class GameCalendarServiceImpl implements GameCalendarService {
 
     private final GameCalendarRepository gameCalendarRepository;
+    private final EventRepository eventRepository;
+    private final Clock clock;
+
+    private volatile GameCalendar currentCalendar;
+    private volatile int currentDayIndex;
+    private volatile GameDayTable dayTable;
 
     @Autowired
-    public GameCalendarServiceImpl(GameCalendarRepository gameCalendarRepository) {
+    public GameCalendarServiceImpl(GameCalendarRepository gameCalendarRepository, EventRepository eventRepository,
+                                   Clock clock) {
         this.gameCalendarRepository = gameCalendarRepository;
+        this.eventRepository = eventRepository;
+        this.clock = clock;
     }
 
     @Override
     public GameCalendar getCurrentCalendar() {
-        GameCalendar calendar = gameCalendarRepository.findTopByOrderByIdDesc();
+        GameCalendar calendar = currentCalendar;
         if (calendar == null) {
-            calendar = initializeCalendar();
+            synchronized (this) {
+                if (currentCalendar == null) {
+                    GameCalendar stored = gameCalendarRepository.findTopByOrderByIdDesc();
+                    if (stored == null) {
+                        initializeCalendar();
+                    } else {
+                        cacheCalendar(stored);
+                    }
+                }
+                calendar = currentCalendar;
+            }
         }
         return calendar;
     }
 
     @Override
     public Season getCurrentSeason() {
-        return getCurrentCalendar().getCurrentSeason();
+        return getDayTable().getSeason(getCurrentDayIndex());
     }
 
     @Override
@@ -44,11 +74,15 @@ public class GameCalendarServiceImpl implements GameCalendarService {
     @Override
     @Transactional
     public GameCalendar advanceCalendar(int days) {
-        GameCalendar calendar = getCurrentCalendar();
+        GameCalendar current = getCurrentCalendar();
+
+        // Work on a copy so readers never see a half-updated cached calendar
+        GameCalendar calendar = new GameCalendar(current.getId(), current.getCurrentDate(),
+                current.getCurrentSeason(), current.getDayOfSeason(), current.getYear());
         LocalDateTime newDate = calendar.getCurrentDate().plusDays(days);
         
         // Update the season if necessary
-        Season newSeason = determineSeason(newDate);
+        Season newSeason = GameDayTable.seasonOf(newDate.getMonthValue());
         if (newSeason != calendar.getCurrentSeason()) {
             calendar.setCurrentSeason(newSeason);
             calendar.setDayOfSeason(1);
@@ -62,41 +96,44 @@ public class GameCalendarServiceImpl implements GameCalendarService {
         }
         
         calendar.setCurrentDate(newDate);
-        return gameCalendarRepository.save(calendar);
+        GameCalendar saved = gameCalendarRepository.save(calendar);
+        AfterCommit.run(() -> cacheCalendar(saved));
+        return saved;
     }
 
     @Override
     public boolean isDateInRange(int startMonth, int startDay, int endMonth, int endDay) {
-        LocalDateTime currentDate = getCurrentDate();
-        int currentMonth = currentDate.getMonthValue();
-        int currentDay = currentDate.getDayOfMonth();
-        
-        // Check if the date range spans across years (e.g., winter events)
-        if (startMonth > endMonth) {
-            // Current date is after start month or before end month
-            return (currentMonth >= startMonth && currentDay >= startDay) || 
-                   (currentMonth <= endMonth && currentDay <= endDay);
-        } else {
-            // Normal date range within the same year
-            if (currentMonth > startMonth && currentMonth < endMonth) {
-                return true;
-            } else if (currentMonth == startMonth && currentMonth == endMonth) {
-                return currentDay >= startDay && currentDay <= endDay;
-            } else if (currentMonth == startMonth) {
-                return currentDay >= startDay;
-            } else if (currentMonth == endMonth) {
-                return currentDay <= endDay;
-            } else {
-                return false;
-            }
+        if (!GameDayTable.isValidDay(startMonth, startDay) || !GameDayTable.isValidDay(endMonth, endDay)) {
+            log.warn("Invalid date range {}/{} to {}/{}", startMonth, startDay, endMonth, endDay);
+            return false;
         }
+        // Ranges with a start after their end wrap around the new year (e.g., winter events)
+        return GameDayTable.isInRange(getCurrentDayIndex(),
+                GameDayTable.dayIndex(startMonth, startDay),
+                GameDayTable.dayIndex(endMonth, endDay));
+    }
+
+    @Override
+    public boolean isHoliday(Holiday holiday) {
+        return getDayTable().isHoliday(getCurrentDayIndex(), holiday);
+    }
+
+    @Override
+    public List<String> getActiveSeasonalEventIds() {
+        return getDayTable().getActiveSeasonalEventIds(getCurrentDayIndex());
+    }
+
+    @Override
+    public void refreshSeasonalEvents() {
+        dayTable = GameDayTable.build(eventRepository.findByType(EventType.SEASONAL));
+        log.info("Rebuilt game day table with {} seasonal events", dayTable.getSeasonalEventIds().size());
     }
 
     @Override
     @Transactional
     public GameCalendar initializeCalendar() {
-        LocalDateTime now = LocalDateTime.now();
-        Season season = determineSeason(now);
+        LocalDateTime now = LocalDateTime.now(clock);
+        Season season = GameDayTable.seasonOf(now.getMonthValue());
         
         GameCalendar calendar = new GameCalendar();
         calendar.setCurrentDate(now);
@@ -104,27 +141,38 @@ public class GameCalendarServiceImpl implements GameCalendarService {
         calendar.setDayOfSeason(calculateDayOfSeason(now, season));
         calendar.setYear(now.getYear());
         
-        return gameCalendarRepository.save(calendar);
+        return cacheCalendar(gameCalendarRepository.save(calendar));
     }
-    
+
     /**
-     * Determines the season based on the given date.
-     * 
-     * @param date the date
-     * @return the season
+     * Makes a calendar the current one.
+     *
+     * @param calendar the calendar
+     * @return the calendar
      */
-    private Season determineSeason(LocalDateTime date) {
-        int month = date.getMonthValue();
-        
-        if (month >= 3 && month <= 5) {
-            return Season.SPRING;
-        } else if (month >= 6 && month <= 8) {
-            return Season.SUMMER;
-        } else if (month >= 9 && month <= 11) {
-            return Season.AUTUMN;
-        } else {
-            return Season.WINTER;
+    private GameCalendar cacheCalendar(GameCalendar calendar) {
+        LocalDateTime date = calendar.getCurrentDate();
+        currentDayIndex = GameDayTable.dayIndex(date.getMonthValue(), date.getDayOfMonth());
+        currentCalendar = calendar;
+        return calendar;
+    }
+
+    private int getCurrentDayIndex() {
+        getCurrentCalendar();
+        return currentDayIndex;
+    }
+
+    private GameDayTable getDayTable() {
+        GameDayTable table = dayTable;
+        if (table == null) {
+            synchronized (this) {
+                if (dayTable == null) {
+                    refreshSeasonalEvents();
+                }
+                table = dayTable;
+            }
         }
+        return table;
     }
     
     /**
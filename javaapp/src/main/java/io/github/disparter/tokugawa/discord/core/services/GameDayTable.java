@@ -0,0 +1,198 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Event;
+import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Holiday;
+import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Season;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Precomputed table with one entry per calendar day (including February 29).
+ * Each entry holds the season, the holiday flags and a bitmask of the seasonal events active on
+ * that day, so calendar checks are plain array lookups.
+ */
+@Slf4j
+public final class GameDayTable {
+
+    /**
+     * Number of entries in the table.
+     */
+    public static final int DAYS = 366;
+
+    private static final Season[] SEASONS = Season.values();
+
+    private final byte[] seasons = new byte[DAYS];
+    private final int[] holidayFlags = new int[DAYS];
+    private final int words;
+    private final long[] seasonalEventMasks;
+    private final List<String> seasonalEventIds;
+
+    private GameDayTable(List<String> seasonalEventIds) {
+        this.seasonalEventIds = Collections.unmodifiableList(seasonalEventIds);
+        this.words = Math.max(1, (seasonalEventIds.size() + 63) / 64);
+        this.seasonalEventMasks = new long[DAYS * words];
+    }
+
+    /**
+     * Builds the table for the given seasonal events.
+     * Events without a complete start and end date are ignored, and so are events with a date
+     * that does not exist, such as April 31, which are logged.
+     *
+     * @param seasonalEvents the seasonal events
+     * @return the day table
+     */
+    public static GameDayTable build(List<Event> seasonalEvents) {
+        List<Event> windows = new ArrayList<>();
+        List<String> eventIds = new ArrayList<>();
+        for (Event event : seasonalEvents) {
+            if (event.getStartMonth() == null || event.getStartDay() == null
+                    || event.getEndMonth() == null || event.getEndDay() == null) {
+                continue;
+            }
+            if (!isValidDay(event.getStartMonth(), event.getStartDay())
+                    || !isValidDay(event.getEndMonth(), event.getEndDay())) {
+                log.warn("Ignoring seasonal event {} with invalid dates {}/{} to {}/{}", event.getEventId(),
+                        event.getStartMonth(), event.getStartDay(), event.getEndMonth(), event.getEndDay());
+                continue;
+            }
+            windows.add(event);
+            eventIds.add(event.getEventId());
+        }
+
+        GameDayTable table = new GameDayTable(eventIds);
+
+        for (int dayIndex = 0; dayIndex < DAYS; dayIndex++) {
+            LocalDate date = LocalDate.ofYearDay(2000, dayIndex + 1);
+            table.seasons[dayIndex] = (byte) seasonOf(date.getMonthValue()).ordinal();
+        }
+
+        for (Holiday holiday : Holiday.values()) {
+            table.holidayFlags[dayIndex(holiday.getMonth(), holiday.getDay())] |= 1 << holiday.ordinal();
+        }
+
+        for (int bit = 0; bit < windows.size(); bit++) {
+            Event event = windows.get(bit);
+            int start = dayIndex(event.getStartMonth(), event.getStartDay());
+            int end = dayIndex(event.getEndMonth(), event.getEndDay());
+            for (int dayIndex = 0; dayIndex < DAYS; dayIndex++) {
+                if (isInRange(dayIndex, start, end)) {
+                    table.seasonalEventMasks[dayIndex * table.words + (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Checks whether a month and day exist in some year, February 29 included.
+     *
+     * @param month the month
+     * @param day the day of the month
+     * @return true if the day exists
+     */
+    public static boolean isValidDay(int month, int day) {
+        return month >= 1 && month <= 12 && day >= 1 && day <= Month.of(month).maxLength();
+    }
+
+    /**
+     * Gets the table index of a month and day.
+     *
+     * @param month the month (1-12)
+     * @param day the day of the month
+     * @return the index, from 0 (January 1) to 365 (December 31)
+     * @throws java.time.DateTimeException if the day does not exist
+     */
+    public static int dayIndex(int month, int day) {
+        return LocalDate.of(2000, month, day).getDayOfYear() - 1;
+    }
+
+    /**
+     * Checks whether a day falls within a range of days, which may wrap around the end of the year.
+     *
+     * @param dayIndex the day to check
+     * @param startIndex the first day of the range
+     * @param endIndex the last day of the range
+     * @return true if the day is within the range
+     */
+    public static boolean isInRange(int dayIndex, int startIndex, int endIndex) {
+        if (startIndex <= endIndex) {
+            return dayIndex >= startIndex && dayIndex <= endIndex;
+        }
+        return dayIndex >= startIndex || dayIndex <= endIndex;
+    }
+
+    /**
+     * Determines the season of a month.
+     *
+     * @param month the month (1-12)
+     * @return the season
+     */
+    public static Season seasonOf(int month) {
+        if (month >= 3 && month <= 5) {
+            return Season.SPRING;
+        } else if (month >= 6 && month <= 8) {
+            return Season.SUMMER;
+        } else if (month >= 9 && month <= 11) {
+            return Season.AUTUMN;
+        } else {
+            return Season.WINTER;
+        }
+    }
+
+    public Season getSeason(int dayIndex) {
+        return SEASONS[seasons[dayIndex]];
+    }
+
+    public int getHolidayFlags(int dayIndex) {
+        return holidayFlags[dayIndex];
+    }
+
+    public boolean isHoliday(int dayIndex, Holiday holiday) {
+        return (holidayFlags[dayIndex] & (1 << holiday.ordinal())) != 0;
+    }
+
+    /**
+     * Checks whether a seasonal event, identified by its bit, is active on a day.
+     *
+     * @param dayIndex the day
+     * @param bit the bit of the event, as given by {@link #getSeasonalEventIds()}
+     * @return true if the event is active
+     */
+    public boolean isSeasonalEventActive(int dayIndex, int bit) {
+        return (seasonalEventMasks[dayIndex * words + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Gets the IDs of the seasonal events active on a day.
+     *
+     * @param dayIndex the day
+     * @return the active event IDs
+     */
+    public List<String> getActiveSeasonalEventIds(int dayIndex) {
+        List<String> active = new ArrayList<>();
+        for (int word = 0; word < words; word++) {
+            long mask = seasonalEventMasks[dayIndex * words + word];
+            while (mask != 0) {
+                int bit = (word << 6) + Long.numberOfTrailingZeros(mask);
+                active.add(seasonalEventIds.get(bit));
+                mask &= mask - 1;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Gets the seasonal event IDs in bit order.
+     *
+     * @return the event IDs
+     */
+    public List<String> getSeasonalEventIds() {
+        return seasonalEventIds;
+    }
+}
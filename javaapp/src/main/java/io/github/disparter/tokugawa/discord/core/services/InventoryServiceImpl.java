@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,15 +27,18 @@ public class InventoryServiceImpl implements InventoryService {
     private final InventoryRepository inventoryRepository;
     private final PlayerRepository playerRepository;
     private final ItemService itemService;
+    private final Clock clock;
 
     @Autowired
     public InventoryServiceImpl(
             InventoryRepository inventoryRepository,
             PlayerRepository playerRepository,
-            ItemService itemService) {
+            ItemService itemService,
+            Clock clock) {
         this.inventoryRepository = inventoryRepository;
         this.playerRepository = playerRepository;
         this.itemService = itemService;
+        this.clock = clock;
     }
 
     @Override
@@ -75,7 +79,7 @@ public class InventoryServiceImpl implements InventoryService {
         items.put(item, currentQuantity + quantity);
 
         // Update the inventory
-        inventory.setLastUpdated(LocalDateTime.now());
+        inventory.setLastUpdated(LocalDateTime.now(clock));
         
         log.info("Added {} x{} to player {}'s inventory", 
                 item.getName(), quantity, player.getUsername());
@@ -111,7 +115,7 @@ public class InventoryServiceImpl implements InventoryService {
         }
 
         // Update the inventory
-        inventory.setLastUpdated(LocalDateTime.now());
+        inventory.setLastUpdated(LocalDateTime.now(clock));
         
         log.info("Removed {} x{} from player {}'s inventory", 
                 item.getName(), quantity, player.getUsername());
@@ -194,8 +198,8 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setPlayer(player);
         inventory.setItems(new HashMap<>());
         inventory.setMaxCapacity(50); // Default capacity
-        inventory.setCreatedAt(LocalDateTime.now());
-        inventory.setLastUpdated(LocalDateTime.now());
+        inventory.setCreatedAt(LocalDateTime.now(clock));
+        inventory.setLastUpdated(LocalDateTime.now(clock));
         
         log.info("Created new inventory for player {}", player.getUsername());
         
@@ -0,0 +1,163 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only journal file of JSON entries, one per line, written ahead of in-memory state that
+ * is saved to the database later and read back at startup.
+ * The file is opened on the first append. Write errors are logged, not thrown, so a failing disk
+ * never fails the change being journaled. Not thread-safe: the owner serializes every call.
+ */
+@Slf4j
+final class JsonLinesJournal {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final String name;
+    private FileChannel channel;
+
+    /**
+     * Creates a journal.
+     *
+     * @param file the journal file
+     * @param objectMapper the mapper of the entries
+     * @param name what the journal holds, for log messages, such as {@code duel}
+     */
+    JsonLinesJournal(Path file, ObjectMapper objectMapper, String name) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.name = name;
+    }
+
+    /**
+     * Appends an entry.
+     *
+     * @param entry the entry
+     */
+    void append(ObjectNode entry) {
+        try {
+            if (channel == null) {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(line(entry));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            log.error("Error writing {} journal: {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Clears the journal, if it was opened.
+     */
+    void truncate() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            log.error("Error clearing {} journal: {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replaces the journal with the given entries, through a temporary file moved over it, so a
+     * crash leaves either the old or the new journal. Does nothing if the journal was not opened.
+     *
+     * @param entries the entries
+     */
+    void rewrite(Collection<ObjectNode> entries) {
+        if (channel == null) {
+            return;
+        }
+        Path rewritten = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(rewritten)) {
+                for (ObjectNode entry : entries) {
+                    output.write(line(entry));
+                }
+            }
+            close();
+            Files.move(rewritten, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Error compacting {} journal: {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Closes the journal file. The next append opens it again.
+     */
+    void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.error("Error closing {} journal: {}", name, e.getMessage(), e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Reads the entries left by a previous run, skipping unreadable lines.
+     *
+     * @return the entries, in journal order; empty if there is no journal
+     * @throws IOException if the file cannot be read
+     */
+    List<JsonNode> read() throws IOException {
+        List<JsonNode> entries = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(objectMapper.readTree(line));
+            } catch (IOException e) {
+                // A crash can leave the last line incomplete
+                log.warn("Skipping unreadable {} journal entry", name);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the journal file, once what it holds is saved.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    private byte[] line(ObjectNode entry) throws IOException {
+        return (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
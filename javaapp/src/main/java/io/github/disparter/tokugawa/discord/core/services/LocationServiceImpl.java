@@ -15,6 +15,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +35,7 @@ public class LocationServiceImpl implements LocationService {
     private final EventRepository eventRepository;
     private final PlayerRepository playerRepository;
     private final InventoryService inventoryService;
+    private final Clock clock;
     private final Random random = new Random();
 
     @Autowired
@@ -42,13 +45,15 @@ public class LocationServiceImpl implements LocationService {
             ItemRepository itemRepository,
             EventRepository eventRepository,
             PlayerRepository playerRepository,
-            InventoryService inventoryService) {
+            InventoryService inventoryService,
+            Clock clock) {
         this.locationRepository = locationRepository;
         this.npcRepository = npcRepository;
         this.itemRepository = itemRepository;
         this.eventRepository = eventRepository;
         this.playerRepository = playerRepository;
         this.inventoryService = inventoryService;
+        this.clock = clock;
     }
 
     @Override
@@ -555,7 +560,7 @@ public class LocationServiceImpl implements LocationService {
      * @return true if the time requirement is met
      */
     private boolean checkTimeRequirement(String timeType, int timeValue) {
-        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
         
         switch (timeType.toLowerCase()) {
             case "hour":
@@ -0,0 +1,207 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Queue of players waiting for a rated duel.
+ * Tickets are grouped in buckets of similar rating, kept sorted by rating, each in arrival order.
+ * A waiting player accepts opponents within a rating window that starts narrow and widens the longer
+ * they wait, up to a maximum, so an arriving player only looks at the buckets within the maximum
+ * window: pairing is one logarithmic lookup plus a scan of a fixed number of buckets, however many
+ * players are waiting. The queue holds a bounded number of tickets and drops those that waited too long.
+ */
+final class MatchmakingQueue {
+
+    /**
+     * A player waiting in the queue.
+     */
+    static final class Ticket {
+        private final Long playerId;
+        private final int rating;
+        private final long enqueuedAt;
+
+        Ticket(Long playerId, int rating, long enqueuedAt) {
+            this.playerId = playerId;
+            this.rating = rating;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        Long getPlayerId() {
+            return playerId;
+        }
+
+        int getRating() {
+            return rating;
+        }
+
+        long getEnqueuedAt() {
+            return enqueuedAt;
+        }
+    }
+
+    private final int bucketWidth;
+    private final int initialWindow;
+    private final int windowGrowthPerMinute;
+    private final int maxWindow;
+    private final int capacity;
+    private final long maxWaitMillis;
+    private final NavigableMap<Integer, ArrayDeque<Ticket>> buckets = new TreeMap<>();
+    private final Map<Long, Ticket> tickets = new HashMap<>();
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param bucketWidth the rating range of a bucket
+     * @param initialWindow the rating difference a player accepts when they join
+     * @param windowGrowthPerMinute how much the window widens for every minute of waiting
+     * @param maxWindow the widest window
+     * @param capacity the maximum number of waiting players
+     * @param maxWaitMillis how long a player waits before their ticket is dropped
+     */
+    MatchmakingQueue(int bucketWidth, int initialWindow, int windowGrowthPerMinute, int maxWindow, int capacity,
+                     long maxWaitMillis) {
+        this.bucketWidth = bucketWidth;
+        this.initialWindow = initialWindow;
+        this.windowGrowthPerMinute = windowGrowthPerMinute;
+        this.maxWindow = maxWindow;
+        this.capacity = capacity;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Pairs a player with the closest-rated waiting player whose window accepts them, or queues them
+     * if there is none.
+     *
+     * @param playerId the player's database ID
+     * @param rating the player's rating
+     * @param now the current time, in epoch milliseconds
+     * @return the ticket of the opponent, removed from the queue, or null if the player was queued
+     * @throws IllegalStateException if the player is already queued or the queue is full
+     */
+    synchronized Ticket pairOrEnqueue(Long playerId, int rating, long now) {
+        if (tickets.containsKey(playerId)) {
+            throw new IllegalStateException("Player is already in the matchmaking queue");
+        }
+
+        Ticket match = findMatch(rating, now);
+        if (match != null) {
+            remove(match);
+            return match;
+        }
+
+        if (tickets.size() >= capacity) {
+            dropExpired(buckets.values().iterator(), now);
+            if (tickets.size() >= capacity) {
+                throw new IllegalStateException("The matchmaking queue is full");
+            }
+        }
+
+        Ticket ticket = new Ticket(playerId, rating, now);
+        buckets.computeIfAbsent(bucket(rating), key -> new ArrayDeque<>()).addLast(ticket);
+        tickets.put(playerId, ticket);
+        return null;
+    }
+
+    /**
+     * Puts back a ticket returned by {@link #pairOrEnqueue} whose duel could not start, keeping its
+     * place and waiting time.
+     *
+     * @param ticket the ticket
+     */
+    synchronized void requeue(Ticket ticket) {
+        if (tickets.putIfAbsent(ticket.getPlayerId(), ticket) == null) {
+            // It was the oldest ticket of its bucket when it was paired
+            buckets.computeIfAbsent(bucket(ticket.getRating()), key -> new ArrayDeque<>()).addFirst(ticket);
+        }
+    }
+
+    /**
+     * Removes a player from the queue.
+     *
+     * @param playerId the player's database ID
+     * @return true if the player was queued
+     */
+    synchronized boolean remove(Long playerId) {
+        Ticket ticket = tickets.get(playerId);
+        if (ticket == null) {
+            return false;
+        }
+        remove(ticket);
+        return true;
+    }
+
+    /**
+     * Gets the number of waiting players, including those whose ticket expired but was not dropped yet.
+     *
+     * @return the number of waiting players
+     */
+    synchronized int size() {
+        return tickets.size();
+    }
+
+    /**
+     * Gets the rating difference a waiting player accepts.
+     *
+     * @param ticket the player's ticket
+     * @param now the current time, in epoch milliseconds
+     * @return the window
+     */
+    int window(Ticket ticket, long now) {
+        long waitedMillis = Math.max(0, now - ticket.getEnqueuedAt());
+        return (int) Math.min(maxWindow, initialWindow + windowGrowthPerMinute * waitedMillis / 60_000);
+    }
+
+    private Ticket findMatch(int rating, long now) {
+        NavigableMap<Integer, ArrayDeque<Ticket>> candidates =
+                buckets.subMap(bucket(rating - maxWindow), true, bucket(rating + maxWindow), true);
+        dropExpired(candidates.values().iterator(), now);
+
+        Ticket best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (ArrayDeque<Ticket> bucket : candidates.values()) {
+            // The oldest ticket of a bucket has its widest window
+            Ticket oldest = bucket.peekFirst();
+            int distance = Math.abs(oldest.getRating() - rating);
+            if (distance <= window(oldest, now) && distance < bestDistance) {
+                best = oldest;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Drops the expired tickets of the given buckets, and the buckets left empty. Tickets are in
+     * arrival order, so the expired ones are at the head of their bucket.
+     */
+    private void dropExpired(Iterator<ArrayDeque<Ticket>> bucketIterator, long now) {
+        while (bucketIterator.hasNext()) {
+            ArrayDeque<Ticket> bucket = bucketIterator.next();
+            while (!bucket.isEmpty() && now - bucket.peekFirst().getEnqueuedAt() > maxWaitMillis) {
+                tickets.remove(bucket.pollFirst().getPlayerId());
+            }
+            if (bucket.isEmpty()) {
+                bucketIterator.remove();
+            }
+        }
+    }
+
+    private void remove(Ticket ticket) {
+        tickets.remove(ticket.getPlayerId());
+        Integer key = bucket(ticket.getRating());
+        ArrayDeque<Ticket> bucket = buckets.get(key);
+        bucket.remove(ticket);
+        if (bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+    private int bucket(int rating) {
+        return Math.floorDiv(rating, bucketWidth);
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import java.util.Map;
+
+/**
+ * Service interface for pairing players of similar rating for player-versus-player duels.
+ */
+public interface MatchmakingService {
+
+    /**
+     * Adds a player to the matchmaking queue, or starts a duel right away against the waiting player
+     * with the closest rating. Waiting players accept wider rating differences the longer they wait.
+     *
+     * @param playerId the player ID
+     * @return a map with {@code matched} set and the initial duel state if a duel started, or with
+     *         {@code matched} unset and the player's {@code rating} and the {@code queueSize} otherwise
+     * @throws IllegalStateException if the player is already queued or the queue is full
+     */
+    Map<String, Object> joinQueue(Long playerId);
+
+    /**
+     * Removes a player from the matchmaking queue.
+     *
+     * @param playerId the player ID
+     * @return true if the player was queued
+     */
+    boolean leaveQueue(Long playerId);
+
+    /**
+     * Gets the number of players waiting for a duel.
+     *
+     * @return the number of waiting players
+     */
+    int getQueueSize();
+}
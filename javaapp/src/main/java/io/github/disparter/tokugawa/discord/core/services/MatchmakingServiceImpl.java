@@ -0,0 +1,88 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of the MatchmakingService interface, backed by a {@link MatchmakingQueue}.
+ * Rated duels feed the weekly tournament through the {@link PvpDuelCompletedEvent}.
+ */
+@Service
+@Slf4j
+public class MatchmakingServiceImpl implements MatchmakingService {
+
+    private final PlayerRepository playerRepository;
+    private final DuelService duelService;
+    private final Clock clock;
+    private final MatchmakingQueue queue;
+
+    @Autowired
+    public MatchmakingServiceImpl(
+            PlayerRepository playerRepository,
+            DuelService duelService,
+            Clock clock,
+            @Value("${tokugawa.matchmaking.bucket-width:50}") int bucketWidth,
+            @Value("${tokugawa.matchmaking.initial-window:100}") int initialWindow,
+            @Value("${tokugawa.matchmaking.window-growth-per-minute:50}") int windowGrowthPerMinute,
+            @Value("${tokugawa.matchmaking.max-window:400}") int maxWindow,
+            @Value("${tokugawa.matchmaking.capacity:10000}") int capacity,
+            @Value("${tokugawa.matchmaking.max-wait-minutes:15}") long maxWaitMinutes) {
+        this.playerRepository = playerRepository;
+        this.duelService = duelService;
+        this.clock = clock;
+        this.queue = new MatchmakingQueue(bucketWidth, initialWindow, windowGrowthPerMinute, maxWindow, capacity,
+                maxWaitMinutes * 60_000);
+    }
+
+    @Override
+    public Map<String, Object> joinQueue(Long playerId) {
+        Player player = playerRepository.findById(playerId)
+                .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
+
+        MatchmakingQueue.Ticket match = queue.pairOrEnqueue(playerId, player.getRating(), clock.millis());
+        if (match == null) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("matched", false);
+            result.put("rating", player.getRating());
+            result.put("queueSize", queue.size());
+            return result;
+        }
+
+        // The player who waited challenges, so both learn about the duel from the new player's reply
+        Map<String, Object> result;
+        try {
+            result = duelService.initiatePvpDuel(match.getPlayerId(), playerId);
+        } catch (RuntimeException e) {
+            queue.requeue(match);
+            throw e;
+        }
+
+        log.info("Matched player {} ({}) with player {} ({})", playerId, player.getRating(),
+                match.getPlayerId(), match.getRating());
+        result.put("matched", true);
+        result.put("rating", player.getRating());
+        result.put("opponentRating", match.getRating());
+        result.put("challengerUserId", playerRepository.findById(match.getPlayerId())
+                .map(Player::getUserId)
+                .orElse(null));
+        return result;
+    }
+
+    @Override
+    public boolean leaveQueue(Long playerId) {
+        return queue.remove(playerId);
+    }
+
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary form of the compiled story mode narrative.
+ * The bundle is written at build time by the narrative compiler and read by the
+ * {@link ChapterLoader} instead of parsing the chapter JSON files.
+ * <p>
+ * Layout, big endian:
+ * <pre>
+ * int    magic ("TKNB")
+ * int    format version
+ * int    string count, then per string: int byte length and UTF-8 bytes
+ * int    chapter count, then per chapter: {@value #RECORD_SIZE} ints
+ * int    reference count, then the string indices of every list
+ * </pre>
+ * A chapter record holds string indices for its ID, title, description, arc and next chapter,
+ * its type ordinal, phase, completion experience and reward, and the offset into the reference
+ * array and the length of its choices, scenes, dialogues and requirements. Absent strings are
+ * stored as -1 and absent numbers as {@link Integer#MIN_VALUE}.
+ */
+public final class NarrativeBundle {
+
+    static final int MAGIC = 0x544B4E42;
+    static final int FORMAT_VERSION = 1;
+    static final int RECORD_SIZE = 14;
+
+    private static final int NONE = -1;
+    private static final int NO_NUMBER = Integer.MIN_VALUE;
+    private static final Chapter.ChapterType[] TYPES = Chapter.ChapterType.values();
+
+    private NarrativeBundle() {
+    }
+
+    /**
+     * Writes chapters as a bundle.
+     *
+     * @param chapters the chapters, in load order
+     * @param output the stream to write to, left open
+     */
+    public static void write(Collection<Chapter> chapters, OutputStream output) throws IOException {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] records = new int[chapters.size() * RECORD_SIZE];
+        List<Integer> references = new ArrayList<>();
+
+        int position = 0;
+        for (Chapter chapter : chapters) {
+            records[position++] = intern(chapter.getChapterId(), stringIndex, strings);
+            records[position++] = intern(chapter.getTitle(), stringIndex, strings);
+            records[position++] = intern(chapter.getDescription(), stringIndex, strings);
+            records[position++] = intern(chapter.getArcId(), stringIndex, strings);
+            records[position++] = intern(chapter.getNextChapterId(), stringIndex, strings);
+            records[position++] = chapter.getType() != null ? chapter.getType().ordinal() : NONE;
+            records[position++] = chapter.getPhase() != null ? chapter.getPhase() : NO_NUMBER;
+            records[position++] = chapter.getCompletionExp() != null ? chapter.getCompletionExp() : NO_NUMBER;
+            records[position++] = chapter.getCompletionReward() != null ? chapter.getCompletionReward() : NO_NUMBER;
+            records[position++] = references.size();
+            for (List<String> list : List.of(listOrEmpty(chapter.getChoices()), listOrEmpty(chapter.getScenes()),
+                    listOrEmpty(chapter.getDialogues()), listOrEmpty(chapter.getRequirements()))) {
+                records[position++] = list.size();
+                for (String value : list) {
+                    references.add(intern(value, stringIndex, strings));
+                }
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+        data.writeInt(chapters.size());
+        for (int value : records) {
+            data.writeInt(value);
+        }
+        data.writeInt(references.size());
+        for (int reference : references) {
+            data.writeInt(reference);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads the chapters of a bundle.
+     *
+     * @param buffer the bundle content, for example a memory-mapped file
+     * @return the chapters, in the order they were written
+     * @throws IllegalArgumentException if the content is not a bundle of this format version
+     */
+    public static List<Chapter> read(ByteBuffer buffer) {
+        ByteBuffer data = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (data.remaining() < 8 || data.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a narrative bundle");
+        }
+        int version = data.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported narrative bundle version: " + version);
+        }
+
+        String[] strings = new String[data.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[data.getInt()];
+            data.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int chapterCount = data.getInt();
+        int[] records = new int[chapterCount * RECORD_SIZE];
+        data.asIntBuffer().get(records);
+        data.position(data.position() + records.length * Integer.BYTES);
+        int[] references = new int[data.getInt()];
+        data.asIntBuffer().get(references);
+
+        List<Chapter> chapters = new ArrayList<>(chapterCount);
+        for (int position = 0; position < records.length; position += RECORD_SIZE) {
+            Chapter chapter = new Chapter();
+            chapter.setChapterId(string(strings, records[position]));
+            chapter.setTitle(string(strings, records[position + 1]));
+            chapter.setDescription(string(strings, records[position + 2]));
+            chapter.setArcId(string(strings, records[position + 3]));
+            chapter.setNextChapterId(string(strings, records[position + 4]));
+            chapter.setType(records[position + 5] != NONE ? TYPES[records[position + 5]] : null);
+            chapter.setPhase(number(records[position + 6]));
+            chapter.setCompletionExp(number(records[position + 7]));
+            chapter.setCompletionReward(number(records[position + 8]));
+
+            int offset = records[position + 9];
+            chapter.setChoices(strings(strings, references, offset, records[position + 10]));
+            offset += records[position + 10];
+            chapter.setScenes(strings(strings, references, offset, records[position + 11]));
+            offset += records[position + 11];
+            chapter.setDialogues(strings(strings, references, offset, records[position + 12]));
+            offset += records[position + 12];
+            chapter.setRequirements(strings(strings, references, offset, records[position + 13]));
+            chapters.add(chapter);
+        }
+        return chapters;
+    }
+
+    private static int intern(String value, Map<String, Integer> stringIndex, List<String> strings) {
+        if (value == null) {
+            return NONE;
+        }
+        return stringIndex.computeIfAbsent(value, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    private static List<String> listOrEmpty(List<String> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static String string(String[] strings, int index) {
+        return index != NONE ? strings[index] : null;
+    }
+
+    private static Integer number(int value) {
+        return value != NO_NUMBER ? value : null;
+    }
+
+    private static List<String> strings(String[] strings, int[] references, int offset, int length) {
+        List<String> values = new ArrayList<>(length);
+        for (int i = offset; i < offset + length; i++) {
+            values.add(strings[references[i]]);
+        }
+        return values;
+    }
+}
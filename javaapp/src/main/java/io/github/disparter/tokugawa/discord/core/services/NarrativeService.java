@@ -79,4 +79,17 @@ public interface NarrativeService {
      * @return true if the progress was updated successfully, false otherwise
      */
     boolean updateProgressFromDuel(Long playerId, Long npcId, Boolean playerWon);
+
+    /**
+     * Get a chapter template personalized for a player, with their name, their club's name,
+     * the NPC they are romancing and the NPC the chapter is about filled in.
+     *
+     * @param templateId the template ID, such as {@code chapters.romance_route}
+     * @param playerId the player ID
+     * @param npcId the NPC the chapter is about, or null
+     * @return the chapter definition, shared with every player with the same values; or null if
+     *         the player or the NPC is not found
+     * @throws IllegalArgumentException if the template does not exist or is not a chapter
+     */
+    ChapterDefinition getTemplateChapter(String templateId, Long playerId, Long npcId);
 }
\ No newline at end of file
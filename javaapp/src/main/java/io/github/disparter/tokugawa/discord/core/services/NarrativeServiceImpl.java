@@ -1,24 +1,32 @@
 package io.github.disparter.tokugawa.discord.core.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.github.disparter.tokugawa.discord.core.models.Club;
 import io.github.disparter.tokugawa.discord.core.models.Consequence;
+import io.github.disparter.tokugawa.discord.core.models.NPC;
 import io.github.disparter.tokugawa.discord.core.models.Player;
 import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.models.Relationship;
 import io.github.disparter.tokugawa.discord.core.repositories.ChapterRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.ClubRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.RelationshipRepository;
+import io.github.disparter.tokugawa.discord.core.services.CompiledChapter.ChoiceEdge;
+import io.github.disparter.tokugawa.discord.core.services.CompiledChapter.ChoiceEffects;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementation of the NarrativeService interface.
@@ -30,35 +38,55 @@ import java.util.Optional;
 public class NarrativeServiceImpl implements NarrativeService {
 
 
+    private static final Set<Relationship.RelationshipStatus> ROMANCE_STATUSES = Set.of(
+            Relationship.RelationshipStatus.CRUSH,
+            Relationship.RelationshipStatus.DATING,
+            Relationship.RelationshipStatus.COMMITTED);
+
     private final ChapterRepository chapterRepository;
     private final PlayerRepository playerRepository;
     private final ProgressRepository progressRepository;
     private final ChapterLoader chapterLoader;
-    private final ObjectMapper objectMapper;
     private final NarrativeValidator narrativeValidator;
     private final ConsequenceService consequenceService;
-    private final PlayerService playerService;
     private final ReputationService reputationService;
+    private final ChapterGraphCache chapterGraphCache;
+    private final ChapterAvailabilityTracker chapterAvailabilityTracker;
+    private final ReadingSessionManager readingSessionManager;
+    private final NarrativeTemplateEngine narrativeTemplateEngine;
+    private final ClubRepository clubRepository;
+    private final NPCRepository npcRepository;
+    private final RelationshipRepository relationshipRepository;
 
     @Autowired
     public NarrativeServiceImpl(ChapterRepository chapterRepository, 
                                PlayerRepository playerRepository,
                                ProgressRepository progressRepository,
                                ChapterLoader chapterLoader,
-                               ObjectMapper objectMapper,
                                NarrativeValidator narrativeValidator,
                                ConsequenceService consequenceService,
-                               PlayerService playerService,
-                               ReputationService reputationService) {
+                               ReputationService reputationService,
+                               ChapterGraphCache chapterGraphCache,
+                               ChapterAvailabilityTracker chapterAvailabilityTracker,
+                               ReadingSessionManager readingSessionManager,
+                               NarrativeTemplateEngine narrativeTemplateEngine,
+                               ClubRepository clubRepository,
+                               NPCRepository npcRepository,
+                               RelationshipRepository relationshipRepository) {
         this.chapterRepository = chapterRepository;
         this.playerRepository = playerRepository;
         this.progressRepository = progressRepository;
         this.chapterLoader = chapterLoader;
-        this.objectMapper = objectMapper;
         this.narrativeValidator = narrativeValidator;
         this.consequenceService = consequenceService;
-        this.playerService = playerService;
         this.reputationService = reputationService;
+        this.chapterGraphCache = chapterGraphCache;
+        this.chapterAvailabilityTracker = chapterAvailabilityTracker;
+        this.readingSessionManager = readingSessionManager;
+        this.narrativeTemplateEngine = narrativeTemplateEngine;
+        this.clubRepository = clubRepository;
+        this.npcRepository = npcRepository;
+        this.relationshipRepository = relationshipRepository;
     }
 
     @Override
@@ -91,14 +119,9 @@ public class NarrativeServiceImpl implements NarrativeService {
             progressRepository.save(progress);
         }
 
-        // Convert player data to map for compatibility with ChapterLoader
-        Map<String, Object> playerData = new HashMap<>();
-        Map<String, Object> storyProgress = new HashMap<>();
-        storyProgress.put("completed_chapters", progress.getCompletedChapters());
-        playerData.put("story_progress", storyProgress);
-
-        // Get available chapters
-        List<String> availableChapterIds = chapterLoader.getAvailableChapters(playerData);
+        // Get available chapters, maintained incrementally as the player completes chapters
+        List<String> availableChapterIds =
+                chapterAvailabilityTracker.getAvailableChapters(playerId, progress.getCompletedChapters());
         List<Chapter> availableChapters = new ArrayList<>();
 
         for (String chapterId : availableChapterIds) {
@@ -130,6 +153,8 @@ public class NarrativeServiceImpl implements NarrativeService {
         if (progress.getId() == null) {
             progress.setPlayer(player);
             progress.setCompletedChapters(new ArrayList<>());
+        } else {
+            readingSessionManager.close(playerId, progress);
         }
 
         // Set current chapter
@@ -161,37 +186,60 @@ public class NarrativeServiceImpl implements NarrativeService {
             log.warn("No progress found for player {}", playerId);
             return null;
         }
+        readingSessionManager.close(playerId, progress);
+
+        applyChapterCompletion(chapter.getChapterId(), chapter.getCompletionExp(), chapter.getCompletionReward(),
+                player, progress);
+
+        // Save changes
+        playerRepository.save(player);
+        progressRepository.save(progress);
 
+        log.info("Completed chapter {} for player {}", chapter.getChapterId(), playerId);
+        return chapter;
+    }
+
+    /**
+     * Marks a chapter as completed and awards its rewards, on the loaded player and progress.
+     * Nothing is saved, so the caller can save the player and progress once.
+     *
+     * @param chapterId the completed chapter ID
+     * @param completionExp the experience awarded, or null
+     * @param completionReward the currency awarded, or null
+     * @param player the player
+     * @param progress the player's progress
+     */
+    private void applyChapterCompletion(String chapterId, Integer completionExp, Integer completionReward,
+                                        Player player, Progress progress) {
         // Add chapter to completed chapters if not already completed
-        if (!progress.getCompletedChapters().contains(chapter.getChapterId())) {
-            progress.getCompletedChapters().add(chapter.getChapterId());
+        if (!progress.getCompletedChapters().contains(chapterId)) {
+            progress.getCompletedChapters().add(chapterId);
+            chapterAvailabilityTracker.chapterCompleted(player.getId(), chapterId);
         }
 
         // Award completion rewards
-        if (chapter.getCompletionExp() != null) {
-            player.setExp(player.getExp() + chapter.getCompletionExp());
+        if (completionExp != null) {
+            player.setExp(player.getExp() + completionExp);
         }
 
-        if (chapter.getCompletionReward() != null) {
-            player.setCurrency(player.getCurrency() + chapter.getCompletionReward());
+        if (completionReward != null) {
+            player.setCurrency(player.getCurrency() + completionReward);
         }
 
         // Clear current chapter if it's the completed one
-        if (chapter.getChapterId().equals(progress.getCurrentChapterId())) {
+        if (chapterId.equals(progress.getCurrentChapterId())) {
             progress.setCurrentChapterId(null);
             progress.setCurrentDialogueIndex(0);
         }
-
-        // Save changes
-        playerRepository.save(player);
-        progressRepository.save(progress);
-
-        log.info("Completed chapter {} for player {}", chapter.getChapterId(), playerId);
-        return chapter;
     }
 
     /**
      * Process a player's choice in the current chapter.
+     * A plain choice that moves to another dialogue of the chapter only advances the player's
+     * reading session, without writing to the database. For any other choice the player and
+     * progress are loaded once, the session is closed into the progress, every effect of the
+     * choice is applied to them in memory and they are saved once, so the whole choice is written
+     * in a single flush.
      *
      * @param playerId the player ID
      * @param choiceIndex the index of the chosen option
@@ -200,6 +248,11 @@ public class NarrativeServiceImpl implements NarrativeService {
     @Override
     @Transactional
     public Map<String, Object> processChoice(Long playerId, int choiceIndex) {
+        Map<String, Object> advanced = advanceReadingSession(playerId, choiceIndex);
+        if (advanced != null) {
+            return advanced;
+        }
+
         Player player = playerRepository.findById(playerId).orElse(null);
         if (player == null) {
             log.warn("Player not found: {}", playerId);
@@ -211,6 +264,7 @@ public class NarrativeServiceImpl implements NarrativeService {
             log.warn("No progress found for player {}", playerId);
             return createErrorResponse("No progress found for player");
         }
+        readingSessionManager.close(playerId, progress);
 
         String currentChapterId = progress.getCurrentChapterId();
         if (currentChapterId == null) {
@@ -218,51 +272,20 @@ public class NarrativeServiceImpl implements NarrativeService {
             return createErrorResponse("No current chapter");
         }
 
-        // Get the current chapter
-        Optional<Chapter> chapterOpt = chapterRepository.findByChapterId(currentChapterId);
+        // Get the compiled graph of the current chapter
+        Optional<CompiledChapter> chapterOpt = chapterGraphCache.getCompiledChapter(currentChapterId);
         if (chapterOpt.isEmpty()) {
             log.warn("Current chapter not found: {}", currentChapterId);
             return createErrorResponse("Current chapter not found");
         }
 
-        Chapter chapter = chapterOpt.get();
+        CompiledChapter chapter = chapterOpt.get();
         int currentDialogueIndex = progress.getCurrentDialogueIndex();
 
-        // Get choices based on the current dialogue index
-        List<String> choices;
-
-        // Check if we should use dialogues or choices
-        List<String> dialogues = chapter.getDialogues();
-        if (dialogues != null && !dialogues.isEmpty() && currentDialogueIndex < dialogues.size()) {
-            // We're in a dialogue, get choices from the current dialogue
-            try {
-                String dialogueJson = dialogues.get(currentDialogueIndex);
-                Map<String, Object> dialogueData = objectMapper.readValue(dialogueJson, Map.class);
-                Object dialogueChoices = dialogueData.get("choices");
-
-                if (dialogueChoices instanceof List) {
-                    choices = new ArrayList<>();
-                    for (Object choice : (List) dialogueChoices) {
-                        if (choice instanceof String) {
-                            choices.add((String) choice);
-                        } else if (choice instanceof Map) {
-                            choices.add(objectMapper.writeValueAsString(choice));
-                        }
-                    }
-                } else {
-                    // No choices in this dialogue, use chapter choices
-                    choices = chapter.getChoices();
-                }
-            } catch (Exception e) {
-                log.error("Error parsing dialogue JSON: {}", e.getMessage(), e);
-                choices = chapter.getChoices();
-            }
-        } else {
-            // No dialogues or past all dialogues, use chapter choices
-            choices = chapter.getChoices();
-        }
+        // Get choices of the current dialogue, or the chapter choices past the last dialogue
+        List<ChoiceEdge> choices = chapter.getChoices(currentDialogueIndex);
 
-        if (choices == null || choices.isEmpty()) {
+        if (choices.isEmpty()) {
             log.warn("No choices available for chapter {} at dialogue index {}", currentChapterId, currentDialogueIndex);
             return createErrorResponse("No choices available");
         }
@@ -273,21 +296,8 @@ public class NarrativeServiceImpl implements NarrativeService {
         }
 
         // Process the choice
-        String choice = choices.get(choiceIndex);
-        Map<String, Object> choiceData;
-
-        try {
-            // If the choice is a JSON string, parse it
-            if (choice.startsWith("{")) {
-                choiceData = objectMapper.readValue(choice, Map.class);
-            } else {
-                // If it's a simple string, create a simple map
-                choiceData = new HashMap<>();
-                choiceData.put("text", choice);
-                choiceData.put("next_dialogue", currentDialogueIndex + 1);
-            }
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing choice JSON: {}", e.getMessage(), e);
+        ChoiceEdge choice = choices.get(choiceIndex);
+        if (!choice.isValid()) {
             return createErrorResponse("Error parsing choice data");
         }
 
@@ -301,7 +311,7 @@ public class NarrativeServiceImpl implements NarrativeService {
         storyChoices.put(choiceKey, String.valueOf(choiceIndex));
 
         // Register the choice and its consequences
-        String choiceText = choiceData.containsKey("text") ? (String) choiceData.get("text") : choice;
+        String choiceText = choice.getText();
         String decisionContext = "Chapter " + currentChapterId + ", Dialogue " + currentDialogueIndex;
         String consequenceName = "Choice in " + chapter.getTitle();
         String consequenceDescription = "You chose: " + choiceText;
@@ -309,32 +319,20 @@ public class NarrativeServiceImpl implements NarrativeService {
         List<String> effectsList = new ArrayList<>();
 
         // Apply choice effects if they exist
-        if (choiceData.containsKey("effects")) {
-            Map<String, Object> effects = (Map<String, Object>) choiceData.get("effects");
+        ChoiceEffects effects = choice.getEffects();
+        if (effects != null) {
             applyChoiceEffects(player, progress, effects);
-
-            // Convert effects to a list of strings for the consequence
-            for (Map.Entry<String, Object> entry : effects.entrySet()) {
-                effectsList.add(entry.getKey() + ":" + entry.getValue());
-            }
+            effectsList.addAll(effects.getDescriptions());
 
             // Update reputation if applicable
-            if (effects.containsKey("faction_reputation")) {
-                Map<String, Object> factionChanges = (Map<String, Object>) effects.get("faction_reputation");
-                for (Map.Entry<String, Object> entry : factionChanges.entrySet()) {
-                    String factionId = entry.getKey();
-                    int change = ((Number) entry.getValue()).intValue();
-                    reputationService.updateFactionReputation(playerId, factionId, change);
-                }
+            for (Map.Entry<String, Integer> entry : effects.getFactionReputation().entrySet()) {
+                reputationService.applyFactionReputation(player, entry.getKey(), entry.getValue());
             }
         }
 
-        // Always update player attributes
-        playerService.updatePlayerAttributes(player);
-
         // Use ConsequenceService to track the decision - always track even if no effects
         consequenceService.trackPlayerDecision(
-            playerId,
+            player,
             currentChapterId,
             "scene_" + currentDialogueIndex,
             choiceText,
@@ -347,47 +345,25 @@ public class NarrativeServiceImpl implements NarrativeService {
             new ArrayList<>()
         );
 
-        // Update dialogue index
-        if (choiceData.containsKey("next_dialogue")) {
-            progress.setCurrentDialogueIndex(((Number) choiceData.get("next_dialogue")).intValue());
-        } else {
-            // Default to next dialogue
-            progress.setCurrentDialogueIndex(currentDialogueIndex + 1);
-        }
+        // Update dialogue index, defaulting to the next dialogue
+        progress.setCurrentDialogueIndex(choice.getNextDialogue() != null
+                ? choice.getNextDialogue() : currentDialogueIndex + 1);
 
         // Check if this choice completes the chapter
-        if (choiceData.containsKey("complete_chapter") && (Boolean) choiceData.get("complete_chapter")) {
-            completeChapter(chapter.getId(), playerId);
+        if (choice.isCompleteChapter()) {
+            applyChapterCompletion(chapter.getChapterId(), chapter.getCompletionExp(), chapter.getCompletionReward(),
+                    player, progress);
+            log.info("Completed chapter {} for player {}", chapter.getChapterId(), playerId);
         }
 
         // Check if this choice moves to a scene
-        if (choiceData.containsKey("next_scene")) {
-            String nextSceneId = (String) choiceData.get("next_scene");
-
-            // Find the scene in the chapter's scenes
-            List<String> scenes = chapter.getScenes();
-            if (scenes != null && !scenes.isEmpty()) {
-                for (int i = 0; i < scenes.size(); i++) {
-                    try {
-                        Map<String, Object> sceneData = objectMapper.readValue(scenes.get(i), Map.class);
-                        String sceneId = (String) sceneData.get("scene_id");
-
-                        if (nextSceneId.equals(sceneId)) {
-                            // Found the scene, update progress
-                            progress.setCurrentDialogueIndex(i);
-                            break;
-                        }
-                    } catch (Exception e) {
-                        log.error("Error parsing scene JSON: {}", e.getMessage(), e);
-                    }
-                }
+        if (choice.getNextScene() != null) {
+            Integer sceneIndex = chapter.getSceneIndex(choice.getNextScene());
+            if (sceneIndex != null) {
+                progress.setCurrentDialogueIndex(sceneIndex);
             }
         }
 
-        // Save changes
-        playerRepository.save(player);
-        progressRepository.save(progress);
-
         // Prepare response
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -396,8 +372,8 @@ public class NarrativeServiceImpl implements NarrativeService {
         response.put("next_dialogue_index", progress.getCurrentDialogueIndex());
 
         // Check if we need to move to the next chapter
-        if (choiceData.containsKey("next_chapter")) {
-            String nextChapterId = (String) choiceData.get("next_chapter");
+        if (choice.getNextChapter() != null) {
+            String nextChapterId = choice.getNextChapter();
             Optional<Chapter> nextChapterOpt = chapterRepository.findByChapterId(nextChapterId);
             if (nextChapterOpt.isPresent()) {
                 response.put("next_chapter", nextChapterOpt.get());
@@ -405,9 +381,8 @@ public class NarrativeServiceImpl implements NarrativeService {
                 // Update progress to point to the next chapter
                 progress.setCurrentChapterId(nextChapterId);
                 progress.setCurrentDialogueIndex(0);
-                progressRepository.save(progress);
             }
-        } else if (progress.getCurrentDialogueIndex() >= dialogues.size()) {
+        } else if (progress.getCurrentDialogueIndex() >= chapter.getDialogueCount()) {
             // We've reached the end of dialogues, check if there's a next chapter
             String nextChapterId = chapter.getNextChapterId();
             if (nextChapterId != null && !nextChapterId.isEmpty()) {
@@ -418,16 +393,84 @@ public class NarrativeServiceImpl implements NarrativeService {
                     // Update progress to point to the next chapter
                     progress.setCurrentChapterId(nextChapterId);
                     progress.setCurrentDialogueIndex(0);
-                    progressRepository.save(progress);
                 }
             }
         }
 
+        // Save changes once, after every change to the player and progress
+        playerRepository.save(player);
+        progressRepository.save(progress);
+        response.put("current_chapter_id", progress.getCurrentChapterId());
+
         log.info("Processed choice {} for player {} in chapter {}", 
                 choiceIndex, playerId, currentChapterId);
         return response;
     }
 
+    /**
+     * Processes a plain choice in the player's reading session.
+     * Only choices without effects that lead to another dialogue of the same chapter are handled
+     * here; the choice is recorded with the session and saved when the session is written back.
+     *
+     * @param playerId the player ID
+     * @param choiceIndex the index of the chosen option
+     * @return the response, or null if the choice needs to be processed against the database
+     */
+    private Map<String, Object> advanceReadingSession(Long playerId, int choiceIndex) {
+        ReadingSessionManager.ReadingSession session = readingSessionManager.getOrOpen(playerId);
+        if (session == null) {
+            return null;
+        }
+
+        Optional<CompiledChapter> chapterOpt = chapterGraphCache.getCompiledChapter(session.getChapterId());
+        if (chapterOpt.isEmpty()) {
+            return null;
+        }
+        CompiledChapter chapter = chapterOpt.get();
+        int currentDialogueIndex = session.getDialogueIndex();
+        List<ChoiceEdge> choices = chapter.getChoices(currentDialogueIndex);
+        if (choiceIndex < 0 || choiceIndex >= choices.size()) {
+            return null;
+        }
+
+        ChoiceEdge choice = choices.get(choiceIndex);
+        if (!choice.isValid() || choice.getEffects() != null || choice.isCompleteChapter()
+                || choice.getNextChapter() != null) {
+            return null;
+        }
+
+        int nextDialogueIndex = choice.getNextDialogue() != null ? choice.getNextDialogue() : currentDialogueIndex + 1;
+        if (choice.getNextScene() != null) {
+            Integer sceneIndex = chapter.getSceneIndex(choice.getNextScene());
+            if (sceneIndex != null) {
+                nextDialogueIndex = sceneIndex;
+            }
+        }
+        if (nextDialogueIndex >= chapter.getDialogueCount()) {
+            // The end of the chapter moves on to the next one
+            return null;
+        }
+
+        ReadingSessionManager.PendingDecision decision = new ReadingSessionManager.PendingDecision(
+                chapter.getChapterId(),
+                "scene_" + currentDialogueIndex,
+                chapter.getChapterId() + "_dialogue_" + currentDialogueIndex,
+                choiceIndex,
+                choice.getText(),
+                "Chapter " + chapter.getChapterId() + ", Dialogue " + currentDialogueIndex,
+                "Choice in " + chapter.getTitle(),
+                "You chose: " + choice.getText());
+        if (!readingSessionManager.advance(session, currentDialogueIndex, nextDialogueIndex, decision)) {
+            return null;
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("current_chapter_id", chapter.getChapterId());
+        response.put("next_dialogue_index", nextDialogueIndex);
+        return response;
+    }
+
     /**
      * Apply effects from a choice to player data.
      *
@@ -435,79 +478,57 @@ public class NarrativeServiceImpl implements NarrativeService {
      * @param progress the player's progress
      * @param effects the effects to apply
      */
-    private void applyChoiceEffects(Player player, Progress progress, Map<String, Object> effects) {
+    private void applyChoiceEffects(Player player, Progress progress, ChoiceEffects effects) {
         // Apply attribute changes
-        if (effects.containsKey("attributes")) {
-            Map<String, Object> attributes = (Map<String, Object>) effects.get("attributes");
-            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                String attribute = entry.getKey();
-                int change = ((Number) entry.getValue()).intValue();
-
-                switch (attribute) {
-                    case "strength":
-                        player.setStrength(player.getStrength() + change);
-                        break;
-                    case "intelligence":
-                        player.setIntelligence(player.getIntelligence() + change);
-                        break;
-                    case "charisma":
-                        player.setCharisma(player.getCharisma() + change);
-                        break;
-                    case "agility":
-                        player.setAgility(player.getAgility() + change);
-                        break;
-                    default:
-                        log.warn("Unknown attribute: {}", attribute);
-                }
-            }
+        if (effects.getStrength() != 0) {
+            player.setStrength(player.getStrength() + effects.getStrength());
+        }
+        if (effects.getIntelligence() != 0) {
+            player.setIntelligence(player.getIntelligence() + effects.getIntelligence());
+        }
+        if (effects.getCharisma() != 0) {
+            player.setCharisma(player.getCharisma() + effects.getCharisma());
+        }
+        if (effects.getAgility() != 0) {
+            player.setAgility(player.getAgility() + effects.getAgility());
         }
 
         // Apply relationship changes
-        if (effects.containsKey("relationships")) {
-            Map<String, Object> relationships = (Map<String, Object>) effects.get("relationships");
+        if (!effects.getRelationships().isEmpty()) {
             Map<String, Integer> playerRelationships = progress.getRelationships();
             if (playerRelationships == null) {
                 playerRelationships = new HashMap<>();
                 progress.setRelationships(playerRelationships);
             }
 
-            for (Map.Entry<String, Object> entry : relationships.entrySet()) {
-                String npcId = entry.getKey();
-                int change = ((Number) entry.getValue()).intValue();
-
-                int currentValue = playerRelationships.getOrDefault(npcId, 0);
-                playerRelationships.put(npcId, Math.max(-100, Math.min(100, currentValue + change)));
+            for (Map.Entry<String, Integer> entry : effects.getRelationships().entrySet()) {
+                int currentValue = playerRelationships.getOrDefault(entry.getKey(), 0);
+                playerRelationships.put(entry.getKey(), Math.max(-100, Math.min(100, currentValue + entry.getValue())));
             }
         }
 
         // Apply faction reputation changes
-        if (effects.containsKey("faction_reputation")) {
-            Map<String, Object> factionChanges = (Map<String, Object>) effects.get("faction_reputation");
+        if (!effects.getFactionReputation().isEmpty()) {
             Map<String, Integer> factionReputations = progress.getFactionReputations();
             if (factionReputations == null) {
                 factionReputations = new HashMap<>();
                 progress.setFactionReputations(factionReputations);
             }
 
-            for (Map.Entry<String, Object> entry : factionChanges.entrySet()) {
-                String factionId = entry.getKey();
-                int change = ((Number) entry.getValue()).intValue();
-
-                int currentValue = factionReputations.getOrDefault(factionId, 0);
-                factionReputations.put(factionId, Math.max(-100, Math.min(100, currentValue + change)));
+            for (Map.Entry<String, Integer> entry : effects.getFactionReputation().entrySet()) {
+                int currentValue = factionReputations.getOrDefault(entry.getKey(), 0);
+                factionReputations.put(entry.getKey(), Math.max(-100, Math.min(100, currentValue + entry.getValue())));
             }
         }
 
         // Apply currency changes
-        if (effects.containsKey("currency")) {
-            int change = ((Number) effects.get("currency")).intValue();
-            player.setCurrency(player.getCurrency() + change);
+        if (effects.getCurrency() != 0) {
+            player.setCurrency(player.getCurrency() + effects.getCurrency());
         }
 
         // Apply experience changes
-        if (effects.containsKey("experience")) {
-            int change = ((Number) effects.get("experience")).intValue();
-            player.setExp(player.getExp() + change);
+        if (effects.getExperience() != 0) {
+            player.setExp(player.getExp() + effects.getExperience());
         }
     }
 
@@ -617,4 +638,46 @@ public class NarrativeServiceImpl implements NarrativeService {
             return false;
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChapterDefinition getTemplateChapter(String templateId, Long playerId, Long npcId) {
+        Player player = playerRepository.findById(playerId).orElse(null);
+        if (player == null) {
+            log.warn("Player not found: {}", playerId);
+            return null;
+        }
+
+        String npcName = null;
+        if (npcId != null) {
+            NPC npc = npcRepository.findById(npcId).orElse(null);
+            if (npc == null) {
+                log.warn("NPC not found: {}", npcId);
+                return null;
+            }
+            npcName = npc.getName();
+        }
+
+        // The player stores the database ID of their club
+        String clubName = player.getClubId() != null
+                ? clubRepository.findById(Long.valueOf(player.getClubId())).map(Club::getName).orElse(null)
+                : null;
+
+        return narrativeTemplateEngine.instantiateChapter(templateId,
+                NarrativeTemplateEngine.playerParameters(player, clubName, findRomanceTarget(player), npcName));
+    }
+
+    /**
+     * Finds the NPC a player is romancing: the one with the highest affinity among those they
+     * have a crush on, are dating or are committed to.
+     *
+     * @return the NPC's name, or null if the player is not romancing anyone
+     */
+    private String findRomanceTarget(Player player) {
+        return relationshipRepository.findByPlayer(player).stream()
+                .filter(relationship -> ROMANCE_STATUSES.contains(relationship.getStatus()))
+                .max(Comparator.comparing(Relationship::getAffinity))
+                .map(relationship -> relationship.getNpc().getName())
+                .orElse(null);
+    }
 }
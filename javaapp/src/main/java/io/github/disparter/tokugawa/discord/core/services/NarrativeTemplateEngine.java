@@ -0,0 +1,433 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Instantiates the story mode narrative templates.
+ * Each top-level entry of a template file, such as {@code chapters.story_chapter}, is compiled
+ * once into a tree of node factories: text containing {@code {parameter}} placeholders becomes a
+ * factory that fills them in, and everything else is a constant shared by every instance.
+ * <p>
+ * Instances are created on first use and cached by template and by the values of the parameters
+ * the template actually uses, so players with the same name, club or romance target share one
+ * instance, and a template without placeholders has a single instance. Instances are shared and
+ * must not be modified. Placeholders without a value are left as they are.
+ */
+@Component
+@Slf4j
+public class NarrativeTemplateEngine {
+
+    public static final String PLAYER_NAME = "player_name";
+    public static final String CLUB = "club";
+    public static final String ROMANCE_TARGET = "romance_target";
+    public static final String NPC_NAME = "npc_name";
+    public static final String SECOND_NPC_NAME = "second_npc_name";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([a-z_]+)}");
+
+    private final ObjectMapper objectMapper;
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+    private final String templateLocation;
+    private final int cacheSize;
+    private volatile Map<String, CompiledTemplate> templates;
+    private final Map<List<String>, TemplateInstance> instances;
+
+    @Autowired
+    public NarrativeTemplateEngine(
+            ObjectMapper objectMapper,
+            @Value("${tokugawa.narrative.templates.location:classpath:data/story_mode/narrative_templates}") String templateLocation,
+            @Value("${tokugawa.narrative.templates.cache-size:10000}") int cacheSize) {
+        this.objectMapper = objectMapper;
+        this.templateLocation = templateLocation;
+        this.cacheSize = cacheSize;
+        this.instances = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, TemplateInstance> eldest) {
+                return size() > NarrativeTemplateEngine.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Builds the template parameters of a player.
+     *
+     * @param player the player
+     * @param clubName the name of the player's club, or null
+     * @param romanceTarget the name of the NPC the player is romancing, or null
+     * @param npcName the name of the NPC the template is about, or null
+     * @return the player's name, club, romance target and NPC, for the ones that are known
+     */
+    public static Map<String, String> playerParameters(Player player, String clubName, String romanceTarget,
+                                                       String npcName) {
+        Map<String, String> parameters = new HashMap<>();
+        if (player.getName() != null) {
+            parameters.put(PLAYER_NAME, player.getName());
+        }
+        if (clubName != null) {
+            parameters.put(CLUB, clubName);
+        }
+        if (romanceTarget != null) {
+            parameters.put(ROMANCE_TARGET, romanceTarget);
+        }
+        if (npcName != null) {
+            parameters.put(NPC_NAME, npcName);
+        }
+        return parameters;
+    }
+
+    /**
+     * Gets the IDs of the available templates.
+     *
+     * @return the template IDs, as {@code <file>.<entry>}
+     */
+    public Set<String> getTemplateIds() {
+        return getTemplates().keySet();
+    }
+
+    /**
+     * Gets the parameters a template uses.
+     *
+     * @param templateId the template ID
+     * @return the parameter names, sorted
+     * @throws IllegalArgumentException if the template does not exist
+     */
+    public Set<String> getParameters(String templateId) {
+        return getTemplate(templateId).parameters;
+    }
+
+    /**
+     * Gets the instance of a template for the given parameters, creating it on first use.
+     *
+     * @param templateId the template ID
+     * @param parameters the parameter values; parameters the template does not use are ignored
+     * @return the shared instance
+     * @throws IllegalArgumentException if the template does not exist
+     */
+    public JsonNode instantiate(String templateId, Map<String, String> parameters) {
+        return getInstance(templateId, parameters).node;
+    }
+
+    /**
+     * Gets the instance of a chapter template for the given parameters, creating it on first use.
+     *
+     * @param templateId the template ID, such as {@code chapters.story_chapter}
+     * @param parameters the parameter values
+     * @return the shared chapter definition
+     * @throws IllegalArgumentException if the template does not exist or is not a chapter
+     */
+    public ChapterDefinition instantiateChapter(String templateId, Map<String, String> parameters) {
+        TemplateInstance instance = getInstance(templateId, parameters);
+        ChapterDefinition chapter = instance.chapter;
+        if (chapter == null) {
+            try {
+                chapter = objectMapper.treeToValue(instance.node, ChapterDefinition.class);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Template is not a chapter: " + templateId, e);
+            }
+            instance.chapter = chapter;
+        }
+        return chapter;
+    }
+
+    /**
+     * Gets the number of cached instances.
+     *
+     * @return the instance count
+     */
+    public int getInstanceCount() {
+        synchronized (instances) {
+            return instances.size();
+        }
+    }
+
+    private TemplateInstance getInstance(String templateId, Map<String, String> parameters) {
+        CompiledTemplate template = getTemplate(templateId);
+
+        // Only the parameters the template uses identify the instance
+        List<String> key = new ArrayList<>(template.parameters.size() + 1);
+        key.add(templateId);
+        for (String parameter : template.parameters) {
+            key.add(parameters.get(parameter));
+        }
+
+        synchronized (instances) {
+            TemplateInstance instance = instances.get(key);
+            if (instance != null) {
+                return instance;
+            }
+        }
+
+        TemplateInstance created = new TemplateInstance(template.root.create(parameters));
+        synchronized (instances) {
+            TemplateInstance instance = instances.putIfAbsent(key, created);
+            return instance != null ? instance : created;
+        }
+    }
+
+    private CompiledTemplate getTemplate(String templateId) {
+        CompiledTemplate template = getTemplates().get(templateId);
+        if (template == null) {
+            throw new IllegalArgumentException("Narrative template not found: " + templateId);
+        }
+        return template;
+    }
+
+    private Map<String, CompiledTemplate> getTemplates() {
+        Map<String, CompiledTemplate> compiled = templates;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = templates;
+                if (compiled == null) {
+                    compiled = compileTemplates();
+                    templates = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles every template under the template location.
+     */
+    private Map<String, CompiledTemplate> compileTemplates() {
+        Map<String, CompiledTemplate> compiled = new LinkedHashMap<>();
+        try {
+            for (Resource resource : resourceResolver.getResources(templateLocation + "/*.json")) {
+                String fileName = resource.getFilename();
+                String prefix = fileName.substring(0, fileName.length() - ".json".length());
+                JsonNode root;
+                try (InputStream input = resource.getInputStream()) {
+                    root = objectMapper.readTree(input);
+                } catch (IOException e) {
+                    log.error("Error reading narrative template file {}: {}", fileName, e.getMessage(), e);
+                    continue;
+                }
+                Iterator<Map.Entry<String, JsonNode>> entries = root.fields();
+                while (entries.hasNext()) {
+                    Map.Entry<String, JsonNode> entry = entries.next();
+                    Set<String> parameters = new TreeSet<>();
+                    NodeFactory factory = compile(entry.getValue(), parameters);
+                    compiled.put(prefix + "." + entry.getKey(),
+                            new CompiledTemplate(factory, Collections.unmodifiableSet(parameters)));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error loading narrative templates from {}: {}", templateLocation, e.getMessage(), e);
+        }
+        log.info("Compiled {} narrative templates", compiled.size());
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * Compiles a template node, collecting the parameters it uses.
+     * A subtree without placeholders, in its text or in its field names, compiles to a constant.
+     */
+    private static NodeFactory compile(JsonNode node, Set<String> parameters) {
+        if (node.isTextual()) {
+            TextFactory text = compileText(node.asText(), parameters);
+            return text != null ? text : new ConstantFactory(node);
+        }
+
+        if (node.isArray()) {
+            List<NodeFactory> elements = new ArrayList<>();
+            boolean constant = true;
+            for (JsonNode element : node) {
+                NodeFactory factory = compile(element, parameters);
+                constant &= factory instanceof ConstantFactory;
+                elements.add(factory);
+            }
+            return constant ? new ConstantFactory(node) : new ArrayFactory(elements);
+        }
+
+        if (node.isObject()) {
+            List<FieldFactory> fields = new ArrayList<>();
+            boolean constant = true;
+            Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                TextFactory name = compileText(entry.getKey(), parameters);
+                NodeFactory value = compile(entry.getValue(), parameters);
+                constant &= name == null && value instanceof ConstantFactory;
+                fields.add(new FieldFactory(entry.getKey(), name, value));
+            }
+            return constant ? new ConstantFactory(node) : new ObjectFactory(fields);
+        }
+
+        return new ConstantFactory(node);
+    }
+
+    /**
+     * Splits text into literal parts and placeholders.
+     *
+     * @return the text factory, or null if the text has no placeholders
+     */
+    private static TextFactory compileText(String text, Set<String> parameters) {
+        List<String> parts = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        int end = 0;
+        while (matcher.find()) {
+            parts.add(text.substring(end, matcher.start()));
+            parts.add(matcher.group(1));
+            parameters.add(matcher.group(1));
+            end = matcher.end();
+        }
+        if (parts.isEmpty()) {
+            return null;
+        }
+        parts.add(text.substring(end));
+        return new TextFactory(parts.toArray(new String[0]));
+    }
+
+    /**
+     * Creates a node of a template instance.
+     */
+    private interface NodeFactory {
+        JsonNode create(Map<String, String> parameters);
+    }
+
+    /**
+     * A subtree without placeholders, shared by every instance.
+     */
+    private static final class ConstantFactory implements NodeFactory {
+        private final JsonNode node;
+
+        private ConstantFactory(JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public JsonNode create(Map<String, String> parameters) {
+            return node;
+        }
+    }
+
+    /**
+     * Text with placeholders, as alternating literal parts and parameter names.
+     */
+    private static final class TextFactory implements NodeFactory {
+        private final String[] parts;
+
+        private TextFactory(String[] parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public JsonNode create(Map<String, String> parameters) {
+            return JsonNodeFactory.instance.textNode(fill(parameters));
+        }
+
+        private String fill(Map<String, String> parameters) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < parts.length; i++) {
+                if (i % 2 == 0) {
+                    text.append(parts[i]);
+                } else {
+                    String value = parameters.get(parts[i]);
+                    text.append(value != null ? value : "{" + parts[i] + "}");
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    private static final class ArrayFactory implements NodeFactory {
+        private final List<NodeFactory> elements;
+
+        private ArrayFactory(List<NodeFactory> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public JsonNode create(Map<String, String> parameters) {
+            ArrayNode array = JsonNodeFactory.instance.arrayNode(elements.size());
+            for (NodeFactory element : elements) {
+                array.add(element.create(parameters));
+            }
+            return array;
+        }
+    }
+
+    private static final class ObjectFactory implements NodeFactory {
+        private final List<FieldFactory> fields;
+
+        private ObjectFactory(List<FieldFactory> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public JsonNode create(Map<String, String> parameters) {
+            ObjectNode object = JsonNodeFactory.instance.objectNode();
+            for (FieldFactory field : fields) {
+                String name = field.templatedName != null ? field.templatedName.fill(parameters) : field.name;
+                object.set(name, field.value.create(parameters));
+            }
+            return object;
+        }
+    }
+
+    /**
+     * A field of an object, whose name may contain placeholders too.
+     */
+    private static final class FieldFactory {
+        private final String name;
+        private final TextFactory templatedName;
+        private final NodeFactory value;
+
+        private FieldFactory(String name, TextFactory templatedName, NodeFactory value) {
+            this.name = name;
+            this.templatedName = templatedName;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A compiled template and the parameters it uses.
+     */
+    private static final class CompiledTemplate {
+        private final NodeFactory root;
+        private final Set<String> parameters;
+
+        private CompiledTemplate(NodeFactory root, Set<String> parameters) {
+            this.root = root;
+            this.parameters = parameters;
+        }
+    }
+
+    /**
+     * An instance of a template, with its chapter form once it has been asked for.
+     */
+    private static final class TemplateInstance {
+        private final JsonNode node;
+        private volatile ChapterDefinition chapter;
+
+        private TemplateInstance(JsonNode node) {
+            this.node = node;
+        }
+    }
+}
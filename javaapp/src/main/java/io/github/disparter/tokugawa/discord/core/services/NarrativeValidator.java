@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,8 +38,18 @@ public class NarrativeValidator {
      * @return a list of validation errors, or an empty list if no errors were found
      */
     public List<String> validateNarrative() {
+        return validateNarrative(chapterLoader.getAllChapters());
+    }
+
+    /**
+     * Validate the narrative flow of a given set of chapters.
+     * Used to validate content before it is loaded, for example when compiling the narrative.
+     *
+     * @param allChapters the chapters to validate, by ID
+     * @return a list of validation errors, or an empty list if no errors were found
+     */
+    public List<String> validateNarrative(Map<String, Chapter> allChapters) {
         List<String> errors = new ArrayList<>();
-        Map<String, Chapter> allChapters = chapterLoader.getAllChapters();
 
         if (allChapters.isEmpty()) {
             errors.add("No chapters found. Make sure chapters are loaded before validation.");
@@ -289,4 +300,23 @@ public class NarrativeValidator {
         validateChapter(chapter, allChapters, errors);
         return errors;
     }
+
+    /**
+     * Validate a set of chapters against a given version of the content.
+     * Used to check only the part of the narrative affected by a reload.
+     *
+     * @param chapterIds the IDs of the chapters to validate
+     * @param allChapters the chapters to validate against
+     * @return a list of validation errors, or an empty list if no errors were found
+     */
+    public List<String> validateChapters(Collection<String> chapterIds, Map<String, Chapter> allChapters) {
+        List<String> errors = new ArrayList<>();
+        for (String chapterId : chapterIds) {
+            Chapter chapter = allChapters.get(chapterId);
+            if (chapter != null) {
+                validateChapter(chapter, allChapters, errors);
+            }
+        }
+        return errors;
+    }
 }
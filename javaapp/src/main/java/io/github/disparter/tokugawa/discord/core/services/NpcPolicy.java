@@ -0,0 +1,205 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Precomputed duel policy of an NPC loadout: the action the NPC takes in every state of a duel.
+ * The state is the NPC's health and the player's health, in buckets of
+ * {@value #HEALTH_BUCKET_WIDTH}, and the NPC's exact mana, so choosing an action during a duel
+ * is one array lookup.
+ * <p>
+ * The table is solved once per loadout by backward induction over {@value #HORIZON} rounds on
+ * a model of the duel built from the expected outcome of each action:
+ * <ul>
+ *     <li>a technique deals its average hit, estimated by playing it {@value #SAMPLES} times,
+ *     plus its whole damage over time, and its shield absorbs the player's next strike</li>
+ *     <li>a basic attack deals its average damage and costs no mana</li>
+ *     <li>the player strikes back every round for a fixed damage</li>
+ *     <li>the NPC regains {@value DuelRules#MANA_REGENERATION} mana every round</li>
+ * </ul>
+ * A win is worth more the sooner it comes and always more than an undecided duel, which is
+ * worth more than any loss; among losses, those that come later and took more of the player's
+ * health are worth more. So the NPC saves mana for a finishing blow, and otherwise deals as much
+ * damage as it can.
+ */
+public final class NpcPolicy {
+
+    /**
+     * Assumed damage of the player's strike each round, when no better estimate is known.
+     */
+    public static final int DEFAULT_OPPONENT_DAMAGE = 12;
+
+    /**
+     * Action of a state in which the NPC makes a basic attack.
+     */
+    static final byte BASIC_ATTACK = -1;
+
+    static final int HEALTH_BUCKET_WIDTH = 5;
+    static final int MAX_HEALTH = 100;
+    static final int HORIZON = 30;
+    static final int SAMPLES = 256;
+
+    private static final int HEALTH_BUCKETS = MAX_HEALTH / HEALTH_BUCKET_WIDTH + 1;
+    private static final int MANA_STATES = DuelRules.MAX_MANA + 1;
+    private static final double DISCOUNT = 0.95;
+    private static final long SEED = 0x5EEDL;
+
+    private final CompiledTechnique[] techniques;
+    private final byte[] actions;
+
+    private NpcPolicy(CompiledTechnique[] techniques, byte[] actions) {
+        this.techniques = techniques;
+        this.actions = actions;
+    }
+
+    /**
+     * Solves the policy an NPC plays with a loadout in duels, where NPCs fight without combat
+     * stats. The duel service and the duel simulator both build their policies here, so a
+     * simulated NPC plays exactly as it does in a duel.
+     *
+     * @param techniques the NPC's techniques
+     * @param opponentDamage the damage the player is assumed to deal each round
+     * @return the policy
+     */
+    public static NpcPolicy forNpc(CompiledTechnique[] techniques, int opponentDamage) {
+        return solve(techniques, CombatStats.NONE, opponentDamage);
+    }
+
+    /**
+     * Solves the policy of a loadout. Only the first {@value Byte#MAX_VALUE} techniques are
+     * considered.
+     *
+     * @param techniques the NPC's techniques
+     * @param stats the NPC's combat stats, {@link CombatStats#NONE} for an NPC
+     * @param opponentDamage the damage the player is assumed to deal each round
+     * @return the policy
+     */
+    public static NpcPolicy solve(CompiledTechnique[] techniques, CombatStats stats, int opponentDamage) {
+        int count = Math.min(techniques.length, Byte.MAX_VALUE);
+
+        // Expected outcome of each action; the basic attack is the last one
+        double[] damage = new double[count + 1];
+        int[] shield = new int[count + 1];
+        int[] manaCost = new int[count + 1];
+        estimate(techniques, count, stats, damage, shield, manaCost);
+        damage[count] = DuelRules.BASIC_ATTACK_DAMAGE + (DuelRules.BASIC_ATTACK_VARIANCE - 1) / 2.0;
+
+        // Actions are tried from the most to the least damaging, so ties go to the stronger one
+        Integer[] order = new Integer[count + 1];
+        for (int i = 0; i <= count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(damage[b], damage[a]));
+
+        int states = HEALTH_BUCKETS * MANA_STATES * HEALTH_BUCKETS;
+        double[] value = new double[states]; // Undecided after the horizon
+        double[] next = new double[states];
+        byte[] actions = new byte[states];
+        for (int round = 0; round < HORIZON; round++) {
+            for (int npcBucket = 0; npcBucket < HEALTH_BUCKETS; npcBucket++) {
+                int npcHealth = healthOf(npcBucket);
+                for (int mana = 0; mana < MANA_STATES; mana++) {
+                    for (int playerBucket = 0; playerBucket < HEALTH_BUCKETS; playerBucket++) {
+                        int playerHealth = healthOf(playerBucket);
+                        double best = Double.NEGATIVE_INFINITY;
+                        int bestAction = count;
+                        for (int action : order) {
+                            if (manaCost[action] > mana) {
+                                continue;
+                            }
+                            double outcome = outcome(value, npcHealth, mana, playerHealth, damage[action],
+                                    shield[action], manaCost[action], opponentDamage);
+                            if (outcome > best) {
+                                best = outcome;
+                                bestAction = action;
+                            }
+                        }
+                        int state = index(npcBucket, mana, playerBucket);
+                        next[state] = best;
+                        actions[state] = bestAction == count ? BASIC_ATTACK : (byte) bestAction;
+                    }
+                }
+            }
+            double[] swap = value;
+            value = next;
+            next = swap;
+        }
+        return new NpcPolicy(techniques, actions);
+    }
+
+    /**
+     * Chooses the NPC's action in a duel.
+     *
+     * @param duel the duel state
+     * @return the technique to use, or null for a basic attack
+     */
+    public CompiledTechnique choose(DuelState duel) {
+        int mana = Math.max(0, Math.min(DuelRules.MAX_MANA, duel.getNpcMana()));
+        byte action = actions[index(bucketOf(duel.getNpcHealth()), mana, bucketOf(duel.getPlayerHealth()))];
+        return action == BASIC_ATTACK ? null : techniques[action];
+    }
+
+    /**
+     * Values an action: the player falls, or the NPC takes the player's strike and the duel
+     * goes on from the next state.
+     */
+    private static double outcome(double[] value, int npcHealth, int mana, int playerHealth, double damage,
+                                  int shield, int manaCost, int opponentDamage) {
+        double playerLeft = playerHealth - damage;
+        if (playerLeft <= 0) {
+            return 1.0;
+        }
+
+        int npcLeft = npcHealth - Math.max(0, opponentDamage - shield);
+        if (npcLeft <= 0) {
+            return -1.0 + 0.5 * (1.0 - playerLeft / MAX_HEALTH);
+        }
+
+        int nextMana = Math.min(DuelRules.MAX_MANA, mana - manaCost + DuelRules.MANA_REGENERATION);
+        return DISCOUNT * value[index(bucketOf(npcLeft), nextMana, bucketOf((int) Math.ceil(playerLeft)))];
+    }
+
+    /**
+     * Estimates the damage, with damage over time, the shield and the mana cost of each technique
+     * by playing it on a scratch duel.
+     */
+    private static void estimate(CompiledTechnique[] techniques, int count, CombatStats stats, double[] damage,
+                                 int[] shield, int[] manaCost) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        DuelState scratch = new DuelState();
+        scratch.setCombatLog(null);
+        scratch.setNpcStats(stats);
+        for (int i = 0; i < count; i++) {
+            CompiledTechnique technique = techniques[i];
+            long total = 0;
+            for (int sample = 0; sample < SAMPLES; sample++) {
+                scratch.setPlayerHealth(Integer.MAX_VALUE);
+                scratch.setPlayerShield(0);
+                scratch.setPlayerDotDamage(0);
+                scratch.setPlayerDotTurns(0);
+                scratch.setNpcShield(0);
+                total += CompiledTechnique.damageOf(technique.apply(scratch, false, random))
+                        + (long) scratch.getPlayerDotDamage() * scratch.getPlayerDotTurns();
+            }
+            damage[i] = (double) total / SAMPLES;
+            shield[i] = scratch.getNpcShield();
+            manaCost[i] = technique.getManaCost();
+        }
+    }
+
+    private static int index(int npcBucket, int mana, int playerBucket) {
+        return (npcBucket * MANA_STATES + mana) * HEALTH_BUCKETS + playerBucket;
+    }
+
+    private static int bucketOf(int health) {
+        return Math.max(0, Math.min(HEALTH_BUCKETS - 1, health / HEALTH_BUCKET_WIDTH));
+    }
+
+    /**
+     * Gets the health a bucket stands for in the model: the middle of the bucket.
+     */
+    private static int healthOf(int bucket) {
+        return Math.min(MAX_HEALTH, bucket * HEALTH_BUCKET_WIDTH + HEALTH_BUCKET_WIDTH / 2);
+    }
+}
@@ -89,6 +89,15 @@ public interface PlayerService {
      */
     Player updateReputationFromDuel(Long playerId, boolean won);
 
+    /**
+     * Update the Elo ratings of two players after a duel between them.
+     *
+     * @param winnerId the ID of the player who won
+     * @param loserId the ID of the player who lost
+     * @return the rating points the winner gained and the loser lost
+     */
+    int updateRatingsFromDuel(Long winnerId, Long loserId);
+
     /**
      * Update a player's reputation based on a social interaction.
      *
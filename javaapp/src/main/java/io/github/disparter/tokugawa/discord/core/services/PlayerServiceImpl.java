@@ -27,6 +27,8 @@ public class PlayerServiceImpl implements PlayerService {
     private final int duelLossReputationChange = -5;
     private final int socialPositiveReputationChange = 5;
     private final int socialNegativeReputationChange = -3;
+    // Maximum Elo rating change of a duel
+    private final int duelRatingKFactor = 32;
 
     @Autowired
     public PlayerServiceImpl(PlayerRepository playerRepository) {
@@ -162,6 +164,23 @@ public class PlayerServiceImpl implements PlayerService {
         }
     }
 
+    @Override
+    @Transactional
+    public int updateRatingsFromDuel(Long winnerId, Long loserId) {
+        Player winner = findById(winnerId);
+        Player loser = findById(loserId);
+
+        // The less likely the win, the more rating points change hands
+        double expectedWin = 1.0 / (1.0 + Math.pow(10, (loser.getRating() - winner.getRating()) / 400.0));
+        int ratingChange = (int) Math.round(duelRatingKFactor * (1.0 - expectedWin));
+
+        winner.setRating(winner.getRating() + ratingChange);
+        loser.setRating(loser.getRating() - ratingChange);
+        playerRepository.save(winner);
+        playerRepository.save(loser);
+        return ratingChange;
+    }
+
     @Override
     @Transactional
     public Player updateReputationFromSocialInteraction(Long playerId, Long npcId, boolean positive) {
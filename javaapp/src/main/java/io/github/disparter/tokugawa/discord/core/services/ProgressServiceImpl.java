@@ -8,6 +8,7 @@ import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,16 +25,19 @@ public class ProgressServiceImpl implements ProgressService {
     private final PlayerRepository playerRepository;
     private final ChapterRepository chapterRepository;
     private final EventRepository eventRepository;
+    private final ReadingSessionManager readingSessionManager;
 
     @Autowired
     public ProgressServiceImpl(ProgressRepository progressRepository,
                               PlayerRepository playerRepository,
                               ChapterRepository chapterRepository,
-                              EventRepository eventRepository) {
+                              EventRepository eventRepository,
+                              ReadingSessionManager readingSessionManager) {
         this.progressRepository = progressRepository;
         this.playerRepository = playerRepository;
         this.chapterRepository = chapterRepository;
         this.eventRepository = eventRepository;
+        this.readingSessionManager = readingSessionManager;
     }
 
     @Override
@@ -73,6 +77,7 @@ public class ProgressServiceImpl implements ProgressService {
     }
 
     @Override
+    @Transactional
     public Progress updateProgress(Long playerId, Long contentId, String contentType, String status) {
         // Get existing progress or create a new one
         Progress progress = getSpecificProgress(playerId, contentId, contentType);
@@ -103,6 +108,8 @@ public class ProgressServiceImpl implements ProgressService {
         // Update progress based on content type and status
         if ("CHAPTER".equals(contentType)) {
             if ("STARTED".equals(status)) {
+                // Close the reading session first, so it cannot write its old position over this one
+                readingSessionManager.close(playerId, progress);
                 progress.setCurrentChapterId(contentId.toString());
                 progress.setCurrentDialogueIndex(0); // Reset dialogue index for new chapter
             } else if ("COMPLETED".equals(status)) {
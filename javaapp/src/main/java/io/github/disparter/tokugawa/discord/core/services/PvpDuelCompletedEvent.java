@@ -0,0 +1,44 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+/**
+ * Application event published when a player-versus-player duel has been resolved, after the
+ * players' reputation and ratings were updated. Tournaments listen to it to score the duel.
+ */
+public final class PvpDuelCompletedEvent {
+
+    private final String duelId;
+    private final Long winnerId;
+    private final Long loserId;
+    private final int ratingChange;
+
+    /**
+     * Creates the event.
+     *
+     * @param duelId the duel ID
+     * @param winnerId the ID of the player who won
+     * @param loserId the ID of the player who lost
+     * @param ratingChange the rating points the winner gained and the loser lost
+     */
+    public PvpDuelCompletedEvent(String duelId, Long winnerId, Long loserId, int ratingChange) {
+        this.duelId = duelId;
+        this.winnerId = winnerId;
+        this.loserId = loserId;
+        this.ratingChange = ratingChange;
+    }
+
+    public String getDuelId() {
+        return duelId;
+    }
+
+    public Long getWinnerId() {
+        return winnerId;
+    }
+
+    public Long getLoserId() {
+        return loserId;
+    }
+
+    public int getRatingChange() {
+        return ratingChange;
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+/**
+ * Techniques submitted in the current round of a player-versus-player duel.
+ * Both players submit concurrently; a turn is immutable and replaced by compare-and-set on the
+ * duel's {@link DuelState}. The submission that completes a round moves it to
+ * {@link Phase#RESOLVING}, so exactly one thread plays the round, and every round gets a new
+ * instance, so a submission checked against one round can never land in the next.
+ */
+public final class PvpTurn {
+
+    /**
+     * Phase of a round.
+     */
+    public enum Phase {
+        OPEN,
+        RESOLVING,
+        FINISHED
+    }
+
+    /**
+     * Turn of a duel that ended or was canceled.
+     */
+    public static final PvpTurn FINISHED = new PvpTurn(0, null, null, Phase.FINISHED);
+
+    private final int round;
+    private final CompiledTechnique challengerTechnique;
+    private final CompiledTechnique opponentTechnique;
+    private final Phase phase;
+
+    private PvpTurn(int round, CompiledTechnique challengerTechnique, CompiledTechnique opponentTechnique,
+                    Phase phase) {
+        this.round = round;
+        this.challengerTechnique = challengerTechnique;
+        this.opponentTechnique = opponentTechnique;
+        this.phase = phase;
+    }
+
+    /**
+     * Creates the turn of a round with no submission yet.
+     *
+     * @param round the round
+     * @return the turn
+     */
+    public static PvpTurn open(int round) {
+        return new PvpTurn(round, null, null, Phase.OPEN);
+    }
+
+    /**
+     * Adds a player's technique to an open turn.
+     *
+     * @param challenger true for the player who started the duel, false for the opponent
+     * @param technique the technique
+     * @return the new turn, resolving if both players have submitted
+     */
+    public PvpTurn submit(boolean challenger, CompiledTechnique technique) {
+        CompiledTechnique challengerSubmission = challenger ? technique : challengerTechnique;
+        CompiledTechnique opponentSubmission = challenger ? opponentTechnique : technique;
+        return new PvpTurn(round, challengerSubmission, opponentSubmission,
+                challengerSubmission != null && opponentSubmission != null ? Phase.RESOLVING : Phase.OPEN);
+    }
+
+    /**
+     * Checks whether a player has submitted a technique this round.
+     *
+     * @param challenger true for the player who started the duel, false for the opponent
+     * @return true if the player has submitted
+     */
+    public boolean hasSubmitted(boolean challenger) {
+        return (challenger ? challengerTechnique : opponentTechnique) != null;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public CompiledTechnique getChallengerTechnique() {
+        return challengerTechnique;
+    }
+
+    public CompiledTechnique getOpponentTechnique() {
+        return opponentTechnique;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Raid on a boss, attacked by many players at once and played in memory.
+ * The boss's health is taken by compare-and-set, so the hit that takes it to zero is the only
+ * killing blow, and the damage each player deals is summed in their own {@link LongAdder}, so
+ * attackers only contend on the health itself. The villain's row is only written by checkpoints
+ * and once the boss is defeated.
+ */
+public final class RaidBattle {
+
+    /**
+     * Result of a hit.
+     */
+    public static final class Hit {
+        private final int damage;
+        private final int remainingHealth;
+        private final boolean killingBlow;
+
+        Hit(int damage, int remainingHealth, boolean killingBlow) {
+            this.damage = damage;
+            this.remainingHealth = remainingHealth;
+            this.killingBlow = killingBlow;
+        }
+
+        /**
+         * Gets the damage dealt, less than the damage of the attack if it finished the boss, and
+         * zero if the boss was already defeated.
+         *
+         * @return the damage dealt
+         */
+        public int getDamage() {
+            return damage;
+        }
+
+        public int getRemainingHealth() {
+            return remainingHealth;
+        }
+
+        public boolean isKillingBlow() {
+            return killingBlow;
+        }
+    }
+
+    private final Long villainId;
+    private final String villainName;
+    private final int maxHealth;
+    private final int defense;
+    private final AtomicInteger health;
+    private final AtomicInteger attacksInFlight = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final Map<Long, LongAdder> damageByPlayer = new ConcurrentHashMap<>();
+    private final Map<Long, CombatStats> attackerStats = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a raid.
+     *
+     * @param villainId the boss's database ID
+     * @param villainName the boss's name
+     * @param maxHealth the boss's maximum health
+     * @param health the boss's health when the raid starts
+     * @param defense the boss's defense, taken from the damage of every attack
+     */
+    public RaidBattle(Long villainId, String villainName, int maxHealth, int health, int defense) {
+        this.villainId = villainId;
+        this.villainName = villainName;
+        this.maxHealth = maxHealth;
+        this.defense = defense;
+        this.health = new AtomicInteger(health);
+    }
+
+    /**
+     * Gets the combat stats of an attacker, loading them on their first attack.
+     * The stats are loaded outside the map, so a slow load does not block other attackers; if two
+     * first attacks race, the stats stored first are kept.
+     *
+     * @param playerId the player's database ID
+     * @param loader loads the stats of the player
+     * @return the stats
+     */
+    public CombatStats getAttackerStats(Long playerId, Function<Long, CombatStats> loader) {
+        CombatStats stats = attackerStats.get(playerId);
+        if (stats != null) {
+            return stats;
+        }
+        CombatStats loaded = loader.apply(playerId);
+        CombatStats existing = attackerStats.putIfAbsent(playerId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Deals damage to the boss.
+     *
+     * @param playerId the attacker's database ID
+     * @param damage the damage of the attack, after the boss's defense
+     * @return the hit
+     */
+    public Hit hit(Long playerId, int damage) {
+        LongAdder dealtByPlayer = damageByPlayer.computeIfAbsent(playerId, id -> new LongAdder());
+        attacksInFlight.incrementAndGet();
+        try {
+            int current;
+            int remaining;
+            do {
+                current = health.get();
+                if (current <= 0) {
+                    return new Hit(0, 0, false);
+                }
+                remaining = Math.max(0, current - damage);
+            } while (!health.compareAndSet(current, remaining));
+
+            dealtByPlayer.add(current - remaining);
+            hits.increment();
+            return new Hit(current - remaining, remaining, remaining == 0);
+        } finally {
+            attacksInFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for the attacks being made to be recorded. Called after the killing blow, when no
+     * attack can deal damage anymore, so the damage of every player is final.
+     */
+    public void awaitAttacks() {
+        while (attacksInFlight.get() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets the damage dealt by each player who hit the boss.
+     *
+     * @return the damage, by player ID
+     */
+    public Map<Long, Long> getDamageByPlayer() {
+        Map<Long, Long> damage = new HashMap<>();
+        damageByPlayer.forEach((playerId, dealt) -> {
+            long sum = dealt.sum();
+            if (sum > 0) {
+                damage.put(playerId, sum);
+            }
+        });
+        return damage;
+    }
+
+    public Long getVillainId() {
+        return villainId;
+    }
+
+    public String getVillainName() {
+        return villainName;
+    }
+
+    public int getMaxHealth() {
+        return maxHealth;
+    }
+
+    public int getDefense() {
+        return defense;
+    }
+
+    public int getHealth() {
+        return Math.max(0, health.get());
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public int getAttackerCount() {
+        return damageByPlayer.size();
+    }
+}
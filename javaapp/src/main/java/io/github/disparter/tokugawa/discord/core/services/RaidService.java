@@ -0,0 +1,32 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import java.util.Map;
+
+/**
+ * Service interface for raids, where many players attack the same active boss at once.
+ */
+public interface RaidService {
+
+    /**
+     * Attacks an active boss, starting a raid on it with its first attack. The attack that takes
+     * the boss's health to zero defeats it and shares its rewards among every attacker.
+     *
+     * @param villainId the boss's villain ID
+     * @param playerId the attacking player's ID
+     * @return a map containing the damage dealt and the boss's health, with {@code killingBlow} and
+     *         the player's {@code rewards} set if the attack defeated the boss
+     * @throws IllegalArgumentException if the villain or the player does not exist
+     * @throws IllegalStateException if the villain is not an active boss
+     */
+    Map<String, Object> attack(Long villainId, Long playerId);
+
+    /**
+     * Gets the state of the raid on a boss.
+     *
+     * @param villainId the boss's villain ID
+     * @return a map containing the boss's health, the number of attackers and hits, and the
+     *         damage dealt by each player
+     * @throws IllegalArgumentException if there is no raid on the boss
+     */
+    Map<String, Object> getRaidStatus(Long villainId);
+}
@@ -0,0 +1,146 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Villain;
+import io.github.disparter.tokugawa.discord.core.models.Villain.VillainType;
+import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.VillainRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementation of the RaidService interface.
+ * Raids are played in memory in a {@link RaidBattle} per boss. The boss's health is checkpointed
+ * to its row periodically, so a restart resumes a raid from the last checkpoint, and the row is
+ * otherwise only written when the boss is defeated.
+ */
+@Service
+@Slf4j
+public class RaidServiceImpl implements RaidService {
+
+    private static final int BASE_DAMAGE = 10;
+    private static final int DAMAGE_VARIANCE = 10;
+
+    private final VillainRepository villainRepository;
+    private final PlayerRepository playerRepository;
+    private final VillainService villainService;
+    private final Map<Long, RaidBattle> raids = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RaidServiceImpl(VillainRepository villainRepository, PlayerRepository playerRepository,
+                           VillainService villainService) {
+        this.villainRepository = villainRepository;
+        this.playerRepository = playerRepository;
+        this.villainService = villainService;
+    }
+
+    @Override
+    public Map<String, Object> attack(Long villainId, Long playerId) {
+        RaidBattle raid = raids.get(villainId);
+        if (raid == null) {
+            // The boss is loaded outside the map, which would block other raids while it loads
+            RaidBattle opened = openRaid(villainId);
+            raid = raids.putIfAbsent(villainId, opened);
+            if (raid == null) {
+                raid = opened;
+                log.info("Raid started on {} with {} health", raid.getVillainName(), raid.getHealth());
+            }
+        }
+
+        // Stats are read on the player's first attack, so later attacks do not touch the database
+        CombatStats stats = raid.getAttackerStats(playerId, id -> playerRepository.findById(id)
+                .map(CombatStats::of)
+                .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + id)));
+        int damage = Math.max(1, BASE_DAMAGE + stats.get(CombatStats.POWER)
+                + ThreadLocalRandom.current().nextInt(DAMAGE_VARIANCE) - raid.getDefense());
+
+        RaidBattle.Hit hit = raid.hit(playerId, damage);
+        if (hit.getDamage() == 0) {
+            throw new IllegalStateException(raid.getVillainName() + " has already been defeated");
+        }
+
+        Map<String, Object> result = getRaidState(raid);
+        result.put("health", hit.getRemainingHealth());
+        result.put("damage", hit.getDamage());
+        result.put("killingBlow", hit.isKillingBlow());
+
+        if (hit.isKillingBlow()) {
+            // Only this attack took the boss's health to zero, so the rewards are shared exactly once
+            raid.awaitAttacks();
+            Map<Long, Long> damageByPlayer = raid.getDamageByPlayer();
+            try {
+                Map<Long, Map<String, Integer>> rewards =
+                        villainService.defeatVillainInRaid(villainId, playerId, damageByPlayer);
+                result.put("rewards", rewards.getOrDefault(playerId, Map.of()));
+                result.put("attackers", damageByPlayer.size());
+            } catch (RuntimeException e) {
+                // The raid is dropped either way, so keep its ledger in the log
+                log.error("Could not share the rewards of the raid on {}, damage by player: {}",
+                        raid.getVillainName(), damageByPlayer, e);
+                throw e;
+            } finally {
+                raids.remove(villainId, raid);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getRaidStatus(Long villainId) {
+        RaidBattle raid = raids.get(villainId);
+        if (raid == null) {
+            throw new IllegalArgumentException("No raid in progress on villain with ID: " + villainId);
+        }
+
+        Map<String, Object> result = getRaidState(raid);
+        result.put("hits", raid.getHits());
+        result.put("damageByPlayer", raid.getDamageByPlayer());
+        return result;
+    }
+
+    /**
+     * Writes the health of every boss being raided to its row. A raid on a villain that was
+     * deactivated in the meantime, such as by the villain cleanup, is dropped.
+     */
+    @Scheduled(fixedDelayString = "${tokugawa.raids.checkpoint-millis:30000}")
+    public void checkpointRaids() {
+        for (RaidBattle raid : raids.values()) {
+            if (raid.getHealth() == 0) {
+                continue; // Being defeated
+            }
+            if (villainRepository.updateHealth(raid.getVillainId(), raid.getHealth()) == 0) {
+                log.info("Dropped the raid on {}, which is no longer active", raid.getVillainName());
+                raids.remove(raid.getVillainId(), raid);
+            }
+        }
+    }
+
+    private RaidBattle openRaid(Long villainId) {
+        Villain villain = villainRepository.findById(villainId)
+                .orElseThrow(() -> new IllegalArgumentException("Villain not found with ID: " + villainId));
+
+        if (!Boolean.TRUE.equals(villain.getActive()) || villain.getType() != VillainType.BOSS) {
+            throw new IllegalStateException(villain.getName() + " is not an active boss");
+        }
+
+        int health = villain.getHealth() > 0 ? villain.getHealth() : villain.getMaxHealth();
+        return new RaidBattle(villain.getId(), villain.getName(), villain.getMaxHealth(), health, villain.getDefense());
+    }
+
+    private Map<String, Object> getRaidState(RaidBattle raid) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("villainId", raid.getVillainId());
+        result.put("villainName", raid.getVillainName());
+        result.put("health", raid.getHealth());
+        result.put("maxHealth", raid.getMaxHealth());
+        result.put("attackers", raid.getAttackerCount());
+        return result;
+    }
+}
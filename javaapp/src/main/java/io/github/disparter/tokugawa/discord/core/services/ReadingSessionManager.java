@@ -0,0 +1,553 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.disparter.tokugawa.discord.core.models.Consequence;
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import io.github.disparter.tokugawa.discord.utils.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory reading sessions of the story mode.
+ * While a player clicks through the dialogues of a chapter, their position and the plain choices
+ * they make are kept in memory and written behind to their {@link Progress}: periodically for
+ * every session with unsaved changes, and by the caller's transaction when the session is closed.
+ * Each change is first appended to a journal file, which is replayed at startup, so a crash loses
+ * no progress. The journal is cleared whenever every session has been saved. Changes are numbered
+ * from the reading version saved with the progress, which records the last change applied, so a
+ * change saved before a crash is skipped when the journal is replayed.
+ * <p>
+ * Sessions are bounded: opening a session when the limit is reached evicts the least recently
+ * used one, whose unsaved changes are saved at once. A player's session is only reopened from
+ * their progress once every change of their previous session is saved.
+ */
+@Component
+@Slf4j
+public class ReadingSessionManager implements CommandLineRunner {
+
+    private final ProgressRepository progressRepository;
+    private final ConsequenceService consequenceService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate writeTemplate;
+    private final boolean enabled;
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+    private final Clock clock;
+
+    /**
+     * Guards the sessions, the journal and the sequence; held only for in-memory work and one
+     * journal append, never while the database is accessed.
+     */
+    private final Object lock = new Object();
+    private final LinkedHashMap<Long, ReadingSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<ReadingSession> unsavedClosedSessions = new ArrayList<>();
+    private final JsonLinesJournal journal;
+    private long sequence;
+
+    @Autowired
+    public ReadingSessionManager(
+            ProgressRepository progressRepository,
+            ConsequenceService consequenceService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            Clock clock,
+            @Value("${tokugawa.narrative.sessions.enabled:true}") boolean enabled,
+            @Value("${tokugawa.narrative.sessions.max-sessions:10000}") int maxSessions,
+            @Value("${tokugawa.narrative.sessions.idle-timeout-seconds:300}") long idleTimeoutSeconds,
+            @Value("${tokugawa.narrative.sessions.journal:data/reading-sessions.journal}") String journalFile) {
+        this.progressRepository = progressRepository;
+        this.consequenceService = consequenceService;
+        this.objectMapper = objectMapper;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutSeconds * 1000;
+        this.clock = clock;
+        this.journal = new JsonLinesJournal(Paths.get(journalFile), objectMapper, "reading session");
+    }
+
+    /**
+     * Replays the journal left by a previous run and saves what it contains.
+     */
+    @Override
+    public void run(String... args) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        replayJournal();
+    }
+
+    /**
+     * Gets a player's reading session, opening it from their saved progress if needed.
+     * The progress is read in the caller's transaction, if any, and is not changed.
+     *
+     * @param playerId the player ID
+     * @return the session, or null if sessions are disabled or the player is not reading a chapter
+     */
+    public ReadingSession getOrOpen(Long playerId) {
+        if (!enabled) {
+            return null;
+        }
+        List<ReadingSession> unsaved;
+        synchronized (lock) {
+            ReadingSession session = sessions.get(playerId);
+            if (session != null) {
+                session.lastAccess = clock.millis();
+                return session;
+            }
+            unsaved = unsavedClosedSessionsOf(playerId);
+        }
+
+        // The progress is behind a closed session until it is saved
+        unsaved.forEach(this::flush);
+        synchronized (lock) {
+            if (!unsavedClosedSessionsOf(playerId).isEmpty()) {
+                return null;
+            }
+        }
+
+        Progress progress = progressRepository.findByPlayerId(playerId).orElse(null);
+        if (progress == null || progress.getCurrentChapterId() == null) {
+            return null;
+        }
+
+        ReadingSession session;
+        ReadingSession evicted = null;
+        synchronized (lock) {
+            session = sessions.get(playerId);
+            if (session == null) {
+                session = new ReadingSession(playerId, progress.getCurrentChapterId(),
+                        progress.getCurrentDialogueIndex(), readingVersion(progress));
+                sessions.put(playerId, session);
+                if (sessions.size() > maxSessions) {
+                    Iterator<ReadingSession> eldest = sessions.values().iterator();
+                    evicted = eldest.next();
+                    eldest.remove();
+                    closeLocked(evicted);
+                }
+            }
+            session.lastAccess = clock.millis();
+        }
+        if (evicted != null) {
+            flush(evicted);
+        }
+        return session;
+    }
+
+    /**
+     * Moves a session to another dialogue of its chapter, recording the plain choice that led
+     * there. The change is journaled and kept in memory; nothing is written to the database.
+     *
+     * @param session the session
+     * @param fromIndex the dialogue index the choice was made at
+     * @param toIndex the new dialogue index
+     * @param decision the choice, saved with the position
+     * @return true if the session moved, false if it was no longer at the expected dialogue
+     */
+    public boolean advance(ReadingSession session, int fromIndex, int toIndex, PendingDecision decision) {
+        synchronized (lock) {
+            if (session.closed || session.dialogueIndex != fromIndex) {
+                return false;
+            }
+            long seq = ++sequence;
+            long version = session.version + 1;
+            ObjectNode entry = objectMapper.createObjectNode();
+            entry.put("seq", seq);
+            entry.put("player", session.playerId);
+            entry.put("version", version);
+            entry.put("chapter", session.chapterId);
+            entry.put("dialogue", toIndex);
+            entry.set("decision", objectMapper.valueToTree(decision));
+            journal.append(entry);
+
+            session.dialogueIndex = toIndex;
+            session.version = version;
+            session.pendingDecisions.add(decision);
+            session.dirtySequence = seq;
+            session.lastAccess = clock.millis();
+            return true;
+        }
+    }
+
+    /**
+     * Closes a player's session and applies its unsaved changes to their progress, loaded in the
+     * caller's transaction, which saves them with its own changes to the progress.
+     * Called before the progress is changed, so the change starts from the latest position.
+     * The session counts as saved once the transaction commits; if it is rolled back, the
+     * changes are saved by the next periodic flush.
+     *
+     * @param playerId the player ID
+     * @param progress the player's progress
+     */
+    public void close(Long playerId, Progress progress) {
+        // Closed sessions not saved yet come first, as their changes are older
+        List<ReadingSession> playerSessions;
+        synchronized (lock) {
+            playerSessions = unsavedClosedSessionsOf(playerId);
+            ReadingSession session = sessions.get(playerId);
+            if (session != null) {
+                playerSessions.add(session);
+            }
+        }
+        for (ReadingSession session : playerSessions) {
+            handOff(session, progress);
+        }
+    }
+
+    /**
+     * Closes a session, if still open, and applies its unsaved changes to the caller's progress.
+     */
+    private void handOff(ReadingSession session, Progress progress) {
+        List<PendingDecision> decisions;
+        int dialogueIndex;
+        long version;
+        long handedOffSequence;
+        // Waits for a flush of the session that is under way, so no decision is saved twice
+        synchronized (session) {
+            synchronized (lock) {
+                if (!session.closed) {
+                    if (!sessions.remove(session.playerId, session)) {
+                        return;
+                    }
+                    closeLocked(session);
+                }
+                if (session.dirtySequence == 0 || session.handedOff) {
+                    return;
+                }
+                session.handedOff = true;
+                decisions = new ArrayList<>(session.pendingDecisions);
+                dialogueIndex = session.dialogueIndex;
+                version = session.version;
+                handedOffSequence = session.dirtySequence;
+            }
+        }
+
+        apply(progress, session.chapterId, dialogueIndex, decisions, version);
+        AfterCommit.run(() -> markSaved(session, decisions.size(), handedOffSequence), () -> {
+            synchronized (lock) {
+                session.handedOff = false;
+            }
+        });
+    }
+
+    /**
+     * Gets the closed sessions of a player with unsaved changes. Called with the lock held.
+     */
+    private List<ReadingSession> unsavedClosedSessionsOf(Long playerId) {
+        List<ReadingSession> unsaved = new ArrayList<>();
+        for (ReadingSession session : unsavedClosedSessions) {
+            if (session.playerId.equals(playerId)) {
+                unsaved.add(session);
+            }
+        }
+        return unsaved;
+    }
+
+    /**
+     * Closes a session removed from the open sessions, keeping it for the next flush if it has
+     * unsaved changes. Called with the lock held, so a flush always finds a dirty session.
+     */
+    private void closeLocked(ReadingSession session) {
+        session.closed = true;
+        if (session.dirtySequence != 0) {
+            unsavedClosedSessions.add(session);
+        }
+    }
+
+    /**
+     * Saves every session with unsaved changes, evicts idle sessions and clears the journal once
+     * everything in it has been saved.
+     */
+    @Scheduled(fixedDelayString = "${tokugawa.narrative.sessions.flush-interval-millis:30000}")
+    public void flushSessions() {
+        if (!enabled) {
+            return;
+        }
+        List<ReadingSession> snapshot;
+        List<ReadingSession> closedSessions;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(sessions.values());
+            closedSessions = new ArrayList<>(unsavedClosedSessions);
+        }
+
+        for (ReadingSession session : closedSessions) {
+            flush(session);
+        }
+
+        long idleSince = clock.millis() - idleTimeoutMillis;
+        for (ReadingSession session : snapshot) {
+            flush(session);
+            synchronized (lock) {
+                if (session.lastAccess < idleSince && session.dirtySequence == 0) {
+                    sessions.remove(session.playerId, session);
+                    session.closed = true;
+                }
+            }
+        }
+
+        synchronized (lock) {
+            boolean allSaved = unsavedClosedSessions.isEmpty()
+                    && sessions.values().stream().allMatch(session -> session.dirtySequence == 0);
+            if (allSaved) {
+                journal.truncate();
+            }
+        }
+    }
+
+    /**
+     * Saves every session on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushSessions();
+        synchronized (lock) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Gets the number of open sessions.
+     *
+     * @return the session count
+     */
+    public int getSessionCount() {
+        synchronized (lock) {
+            return sessions.size();
+        }
+    }
+
+    /**
+     * Writes the unsaved changes of a session to the player's progress.
+     * A failed write leaves the session dirty, to be retried by the next flush. Flushes of one
+     * session are serialized, and a session handed off to a closing transaction is skipped, so a
+     * decision is never saved twice.
+     *
+     * @param session the session
+     */
+    private void flush(ReadingSession session) {
+        synchronized (session) {
+            flushLocked(session);
+        }
+    }
+
+    private void flushLocked(ReadingSession session) {
+        String chapterId;
+        int dialogueIndex;
+        List<PendingDecision> decisions;
+        long version;
+        long flushedSequence;
+        synchronized (lock) {
+            if (session.dirtySequence == 0 || session.handedOff) {
+                return;
+            }
+            chapterId = session.chapterId;
+            dialogueIndex = session.dialogueIndex;
+            decisions = new ArrayList<>(session.pendingDecisions);
+            version = session.version;
+            flushedSequence = session.dirtySequence;
+        }
+
+        try {
+            save(session.playerId, chapterId, dialogueIndex, decisions, version);
+        } catch (Exception e) {
+            log.error("Error saving reading session of player {}: {}", session.playerId, e.getMessage(), e);
+            return;
+        }
+
+        markSaved(session, decisions.size(), flushedSequence);
+    }
+
+    /**
+     * Records that the changes of a session up to a sequence were saved.
+     */
+    private void markSaved(ReadingSession session, int savedDecisions, long savedSequence) {
+        synchronized (lock) {
+            session.pendingDecisions.subList(0, savedDecisions).clear();
+            if (session.dirtySequence == savedSequence) {
+                session.dirtySequence = 0;
+                if (session.closed) {
+                    unsavedClosedSessions.remove(session);
+                }
+            }
+            ObjectNode entry = objectMapper.createObjectNode();
+            entry.put("seq", savedSequence);
+            entry.put("player", session.playerId);
+            entry.put("saved", true);
+            journal.append(entry);
+        }
+    }
+
+    /**
+     * Saves a reading position and the choices made to reach it.
+     * The position is only saved if the progress is still in the same chapter.
+     */
+    private void save(Long playerId, String chapterId, int dialogueIndex, List<PendingDecision> decisions,
+                      long version) {
+        writeTemplate.executeWithoutResult(status -> {
+            Progress progress = progressRepository.findByPlayerId(playerId).orElse(null);
+            if (progress == null) {
+                log.warn("No progress found for player {}, dropping reading session", playerId);
+                return;
+            }
+            apply(progress, chapterId, dialogueIndex, decisions, version);
+            progressRepository.save(progress);
+        });
+    }
+
+    /**
+     * Applies a reading position and the choices made to reach it to a loaded progress.
+     * The decisions are the changes up to the given version, one each; the ones the progress
+     * already has are skipped. The position is only applied if the progress is still in the same
+     * chapter.
+     */
+    private void apply(Progress progress, String chapterId, int dialogueIndex, List<PendingDecision> decisions,
+                       long version) {
+        long appliedVersion = readingVersion(progress);
+        if (version <= appliedVersion) {
+            return;
+        }
+        if (chapterId.equals(progress.getCurrentChapterId())) {
+            progress.setCurrentDialogueIndex(dialogueIndex);
+        }
+        if (progress.getChoices() == null) {
+            progress.setChoices(new HashMap<>());
+        }
+        long firstVersion = version - decisions.size() + 1;
+        for (int i = 0; i < decisions.size(); i++) {
+            if (firstVersion + i <= appliedVersion) {
+                continue;
+            }
+            PendingDecision decision = decisions.get(i);
+            progress.getChoices().put(decision.getChoiceKey(), String.valueOf(decision.getChoiceIndex()));
+            consequenceService.trackPlayerDecision(progress.getPlayer(), decision.getChapterId(),
+                    decision.getSceneId(), decision.getChoiceText(), decision.getDecisionContext(),
+                    decision.getName(), decision.getDescription(), Consequence.ConsequenceType.IMMEDIATE,
+                    new ArrayList<>(), List.of(decision.getChoiceKey()), new ArrayList<>());
+        }
+        progress.setReadingVersion(version);
+    }
+
+    private static long readingVersion(Progress progress) {
+        return progress.getReadingVersion() != null ? progress.getReadingVersion() : 0;
+    }
+
+    /**
+     * Saves the journaled changes that were not saved before the previous run stopped.
+     * Changes the progress already has, saved before the journal could record it, are skipped.
+     */
+    void replayJournal() throws IOException {
+        // Changes by player, in journal order, without the ones a later "saved" entry covers
+        Map<Long, List<JsonNode>> unsaved = new LinkedHashMap<>();
+        long maxSequence = 0;
+        for (JsonNode entry : journal.read()) {
+            long seq = entry.path("seq").asLong();
+            maxSequence = Math.max(maxSequence, seq);
+            List<JsonNode> changes = unsaved.computeIfAbsent(entry.path("player").asLong(), id -> new ArrayList<>());
+            if (entry.path("saved").asBoolean(false)) {
+                changes.removeIf(change -> change.path("seq").asLong() <= seq);
+            } else {
+                changes.add(entry);
+            }
+        }
+
+        int replayed = 0;
+        for (Map.Entry<Long, List<JsonNode>> player : unsaved.entrySet()) {
+            List<JsonNode> changes = player.getValue();
+            if (changes.isEmpty()) {
+                continue;
+            }
+            JsonNode last = changes.get(changes.size() - 1);
+            List<PendingDecision> decisions = new ArrayList<>();
+            for (JsonNode change : changes) {
+                decisions.add(objectMapper.treeToValue(change.path("decision"), PendingDecision.class));
+            }
+            save(player.getKey(), last.path("chapter").asText(), last.path("dialogue").asInt(), decisions,
+                    last.path("version").asLong());
+            replayed++;
+        }
+
+        synchronized (lock) {
+            sequence = Math.max(sequence, maxSequence);
+        }
+        journal.delete();
+        if (replayed > 0) {
+            log.info("Restored the unsaved reading sessions of {} players from the journal", replayed);
+        }
+    }
+
+    /**
+     * A player's position in the chapter they are reading.
+     */
+    public static final class ReadingSession {
+        private final Long playerId;
+        private final String chapterId;
+        private volatile int dialogueIndex;
+        private long version;
+        private final List<PendingDecision> pendingDecisions = new ArrayList<>();
+        private long dirtySequence;
+        private long lastAccess;
+        private boolean closed;
+        private boolean handedOff;
+
+        private ReadingSession(Long playerId, String chapterId, int dialogueIndex, long version) {
+            this.playerId = playerId;
+            this.chapterId = chapterId;
+            this.dialogueIndex = dialogueIndex;
+            this.version = version;
+        }
+
+        public Long getPlayerId() {
+            return playerId;
+        }
+
+        public String getChapterId() {
+            return chapterId;
+        }
+
+        public int getDialogueIndex() {
+            return dialogueIndex;
+        }
+    }
+
+    /**
+     * A plain choice made in a reading session, saved as a decision with the session.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PendingDecision {
+        private String chapterId;
+        private String sceneId;
+        private String choiceKey;
+        private int choiceIndex;
+        private String choiceText;
+        private String decisionContext;
+        private String name;
+        private String description;
+    }
+}
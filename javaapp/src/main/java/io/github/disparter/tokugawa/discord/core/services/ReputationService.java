@@ -95,4 +95,14 @@ public interface ReputationService {
      * @return the updated player
      */
     Player updateFactionReputation(Long playerId, String factionId, int change);
+
+    /**
+     * Apply a faction reputation change to a loaded player, without saving it.
+     * Used when the caller saves the player as part of a larger change.
+     *
+     * @param player the player
+     * @param factionId the faction ID
+     * @param change the amount to change
+     */
+    void applyFactionReputation(Player player, String factionId, int change);
 }
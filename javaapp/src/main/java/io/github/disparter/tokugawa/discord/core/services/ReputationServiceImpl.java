@@ -195,6 +195,12 @@ public class ReputationServiceImpl implements ReputationService {
         Player player = playerRepository.findById(playerId)
                 .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
 
+        applyFactionReputation(player, factionId, change);
+        return playerRepository.save(player);
+    }
+
+    @Override
+    public void applyFactionReputation(Player player, String factionId, int change) {
         // Update faction-specific reputation
         if (player.getFactionReputations() == null) {
             player.setFactionReputations(new HashMap<>());
@@ -214,7 +220,5 @@ public class ReputationServiceImpl implements ReputationService {
         } else if (generalChange < 0) {
             player.setReputation(Math.max(0, player.getReputation() + generalChange));
         }
-
-        return playerRepository.save(player);
     }
 }
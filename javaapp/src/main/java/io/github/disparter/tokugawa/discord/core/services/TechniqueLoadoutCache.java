@@ -0,0 +1,263 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.NPC;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.Technique;
+import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the techniques known by NPCs and players, keyed by their IDs.
+ * A loadout is loaded the first time it is used and reused until its owner learns a technique or
+ * one of its techniques changes, so a duel turn reads the techniques from memory. An NPC's loadout
+ * is loaded with its solved {@link NpcPolicy}, so the policy is solved once per loadout; every
+ * NPC's loadout is loaded at startup, and loaded again in the background as soon as it is
+ * invalidated, so duel turns rarely wait for a policy to be solved.
+ * <p>
+ * Players' loadouts are bounded: the least recently used one is evicted when the limit is reached.
+ */
+@Component
+@Slf4j
+public class TechniqueLoadoutCache {
+
+    /**
+     * Immutable techniques known by an NPC or a player, with their compiled forms and, for an
+     * NPC, its duel policy.
+     */
+    public static final class Loadout {
+        private final List<Technique> techniques;
+        private final CompiledTechnique[] compiledTechniques;
+        private final NpcPolicy policy;
+
+        Loadout(List<Technique> techniques, CompiledTechnique[] compiledTechniques, NpcPolicy policy) {
+            this.techniques = Collections.unmodifiableList(techniques);
+            this.compiledTechniques = compiledTechniques;
+            this.policy = policy;
+        }
+
+        /**
+         * Gets the techniques. They are shared by every caller and must not be modified.
+         *
+         * @return the techniques
+         */
+        public List<Technique> getTechniques() {
+            return techniques;
+        }
+
+        /**
+         * Gets the compiled techniques, in the same order, without copying them.
+         *
+         * @return the compiled techniques
+         */
+        CompiledTechnique[] compiledTechniques() {
+            return compiledTechniques;
+        }
+
+        /**
+         * Gets the duel policy of an NPC's loadout.
+         *
+         * @return the policy, or null for a player's loadout
+         */
+        NpcPolicy policy() {
+            return policy;
+        }
+
+        /**
+         * Checks whether the loadout has a technique.
+         *
+         * @param techniqueId the technique's database ID
+         * @return true if the technique is in the loadout
+         */
+        public boolean contains(Long techniqueId) {
+            for (CompiledTechnique technique : compiledTechniques) {
+                if (technique.getId().equals(techniqueId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final PlayerRepository playerRepository;
+    private final NPCRepository npcRepository;
+    private final TechniqueRepository techniqueRepository;
+    private final CompiledTechniqueCache compiledTechniqueCache;
+    private final TaskExecutor taskExecutor;
+    private final Map<Long, Loadout> npcLoadouts = new ConcurrentHashMap<>();
+    private final Map<Long, Loadout> playerLoadouts;
+    private final CacheGeneration generation = new CacheGeneration();
+    private final int npcPolicyOpponentDamage;
+
+    @Autowired
+    public TechniqueLoadoutCache(
+            PlayerRepository playerRepository,
+            NPCRepository npcRepository,
+            TechniqueRepository techniqueRepository,
+            CompiledTechniqueCache compiledTechniqueCache,
+            TaskExecutor taskExecutor,
+            @Value("${tokugawa.duels.npc-policy.opponent-damage:12}") int npcPolicyOpponentDamage,
+            @Value("${tokugawa.duels.player-loadout-cache-size:10000}") int playerLoadoutCacheSize) {
+        this.playerRepository = playerRepository;
+        this.npcRepository = npcRepository;
+        this.techniqueRepository = techniqueRepository;
+        this.compiledTechniqueCache = compiledTechniqueCache;
+        this.taskExecutor = taskExecutor;
+        this.npcPolicyOpponentDamage = npcPolicyOpponentDamage;
+        this.playerLoadouts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Loadout> eldest) {
+                return size() > playerLoadoutCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Gets the techniques of an NPC, loading them on first use.
+     *
+     * @param npcId the NPC's database ID
+     * @return the loadout
+     * @throws IllegalArgumentException if the NPC does not exist
+     */
+    public Loadout getNpcLoadout(Long npcId) {
+        return get(npcLoadouts, npcId, true, () -> {
+            NPC npc = npcRepository.findById(npcId)
+                    .orElseThrow(() -> new IllegalArgumentException("NPC not found with ID: " + npcId));
+            return techniqueRepository.findByNpcsContaining(npc);
+        });
+    }
+
+    /**
+     * Loads the techniques of every NPC and solves their policies once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadNpcLoadouts() {
+        long start = System.nanoTime();
+        List<NPC> npcs = npcRepository.findAll();
+        for (NPC npc : npcs) {
+            get(npcLoadouts, npc.getId(), true, () -> techniqueRepository.findByNpcsContaining(npc));
+        }
+        log.info("Solved the duel policies of {} NPCs in {} ms", npcs.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Gets the techniques of a player, loading them on first use.
+     *
+     * @param playerId the player's database ID
+     * @return the loadout
+     * @throws IllegalArgumentException if the player does not exist
+     */
+    public Loadout getPlayerLoadout(Long playerId) {
+        return get(playerLoadouts, playerId, false, () -> {
+            Player player = playerRepository.findById(playerId)
+                    .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
+            return techniqueRepository.findByPlayersContaining(player);
+        });
+    }
+
+    private Loadout get(Map<Long, Loadout> loadouts, Long ownerId, boolean npc, Supplier<List<Technique>> loader) {
+        Loadout loadout = loadouts.get(ownerId);
+        if (loadout != null) {
+            return loadout;
+        }
+
+        long loadedGeneration = generation.current();
+        List<Technique> techniques = loader.get();
+        CompiledTechnique[] compiled = new CompiledTechnique[techniques.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compiledTechniqueCache.get(techniques.get(i));
+        }
+        NpcPolicy policy = npc ? NpcPolicy.forNpc(compiled, npcPolicyOpponentDamage) : null;
+        Loadout loaded = new Loadout(techniques, compiled, policy);
+        loadouts.put(ownerId, loaded);
+        generation.discardIfStale(loadouts, ownerId, loaded, loadedGeneration);
+        log.debug("Loaded {} techniques of {}", compiled.length, ownerId);
+        return loaded;
+    }
+
+    /**
+     * Loads NPCs' loadouts again and solves their policies in the background, after they were
+     * invalidated. An NPC that no longer exists is skipped.
+     */
+    private void reloadNpcLoadouts(List<Long> npcIds) {
+        if (npcIds.isEmpty()) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            for (Long npcId : npcIds) {
+                try {
+                    getNpcLoadout(npcId);
+                } catch (IllegalArgumentException e) {
+                    log.debug("Not reloading the techniques of NPC {}: {}", npcId, e.getMessage());
+                } catch (Exception e) {
+                    log.error("Error reloading the techniques of NPC {}: {}", npcId, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes an NPC's loadout after it learned a technique, and loads it again in the background.
+     *
+     * @param npcId the NPC's database ID
+     */
+    public void invalidateNpc(Long npcId) {
+        generation.invalidate();
+        npcLoadouts.remove(npcId);
+        reloadNpcLoadouts(List.of(npcId));
+    }
+
+    /**
+     * Removes a player's loadout so it is reloaded on next use, after they learned a technique.
+     *
+     * @param playerId the player's database ID
+     */
+    public void invalidatePlayer(Long playerId) {
+        generation.invalidate();
+        playerLoadouts.remove(playerId);
+    }
+
+    /**
+     * Removes every loadout with a technique that changed or was deleted. The NPCs' loadouts are
+     * loaded again in the background.
+     *
+     * @param techniqueId the technique's database ID
+     */
+    public void invalidateTechnique(Long techniqueId) {
+        generation.invalidate();
+        List<Long> npcIds = npcLoadouts.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(techniqueId))
+                .map(Map.Entry::getKey)
+                .toList();
+        npcIds.forEach(npcLoadouts::remove);
+        synchronized (playerLoadouts) {
+            playerLoadouts.values().removeIf(loadout -> loadout.contains(techniqueId));
+        }
+        reloadNpcLoadouts(npcIds);
+    }
+
+    /**
+     * Removes every loadout. The NPCs' loadouts are loaded again in the background.
+     */
+    public void invalidateAll() {
+        generation.invalidate();
+        List<Long> npcIds = List.copyOf(npcLoadouts.keySet());
+        npcLoadouts.clear();
+        playerLoadouts.clear();
+        reloadNpcLoadouts(npcIds);
+    }
+}
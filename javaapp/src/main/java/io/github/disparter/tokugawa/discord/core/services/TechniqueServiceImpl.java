@@ -7,6 +7,7 @@ import io.github.disparter.tokugawa.discord.core.models.Technique;
 import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
+import io.github.disparter.tokugawa.discord.utils.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,15 +30,21 @@ public class TechniqueServiceImpl implements TechniqueService {
     private final TechniqueRepository techniqueRepository;
     private final PlayerRepository playerRepository;
     private final NPCRepository npcRepository;
+    private final CompiledTechniqueCache compiledTechniqueCache;
+    private final TechniqueLoadoutCache techniqueLoadoutCache;
 
     @Autowired
     public TechniqueServiceImpl(
             TechniqueRepository techniqueRepository,
             PlayerRepository playerRepository,
-            NPCRepository npcRepository) {
+            NPCRepository npcRepository,
+            CompiledTechniqueCache compiledTechniqueCache,
+            TechniqueLoadoutCache techniqueLoadoutCache) {
         this.techniqueRepository = techniqueRepository;
         this.playerRepository = playerRepository;
         this.npcRepository = npcRepository;
+        this.compiledTechniqueCache = compiledTechniqueCache;
+        this.techniqueLoadoutCache = techniqueLoadoutCache;
     }
 
     @Override
@@ -103,7 +110,9 @@ public class TechniqueServiceImpl implements TechniqueService {
 
         log.info("Taught technique {} to player {}", technique.getName(), player.getUsername());
 
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        AfterCommit.run(() -> techniqueLoadoutCache.invalidatePlayer(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -129,7 +138,9 @@ public class TechniqueServiceImpl implements TechniqueService {
 
         log.info("Taught technique {} to NPC {}", technique.getName(), npc.getName());
 
-        return npcRepository.save(npc);
+        NPC saved = npcRepository.save(npc);
+        AfterCommit.run(() -> techniqueLoadoutCache.invalidateNpc(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -192,7 +203,9 @@ public class TechniqueServiceImpl implements TechniqueService {
                 technique.getName(), player.getUsername(), powerPoints);
 
         // Save and return the evolved technique
-        return techniqueRepository.save(technique);
+        Technique evolved = techniqueRepository.save(technique);
+        invalidateAfterCommit(evolved.getId());
+        return evolved;
     }
 
     @Override
@@ -247,17 +260,43 @@ public class TechniqueServiceImpl implements TechniqueService {
         effectDescriptions.put("bleedChance", "Increases the chance to cause bleeding");
         effectDescriptions.put("burnChance", "Increases the chance to cause burning");
         effectDescriptions.put("poisonChance", "Increases the chance to poison the opponent");
+        effectDescriptions.put("damage_boost", "Adds flat damage to every hit in duels");
+        effectDescriptions.put("critical_chance", "Percent chance to deal double damage in duels");
+        effectDescriptions.put("power_stat_scaling", "Adds a percentage of the user's power to the damage in duels");
+        effectDescriptions.put("dexterity_scaling", "Adds a percentage of the user's dexterity to the damage in duels");
+        effectDescriptions.put("intellect_scaling", "Adds a percentage of the user's intellect to the damage in duels");
+        effectDescriptions.put("charisma_scaling", "Adds a percentage of the user's charisma to the damage in duels");
+        effectDescriptions.put("dot_damage", "Damage dealt to the opponent at the end of each round, for dot_turns rounds");
+        effectDescriptions.put("shield", "Damage absorbed before the user's health in duels");
 
         return effectDescriptions;
     }
 
     @Override
     public Technique save(Technique technique) {
-        return techniqueRepository.save(technique);
+        Technique saved = techniqueRepository.save(technique);
+        AfterCommit.run(() -> {
+            compiledTechniqueCache.invalidate(saved.getId());
+            // The saved technique may also have new players or NPCs
+            techniqueLoadoutCache.invalidateAll();
+        });
+        return saved;
     }
 
     @Override
     public void delete(Technique technique) {
         techniqueRepository.delete(technique);
+        invalidateAfterCommit(technique.getId());
+    }
+
+    /**
+     * Removes a changed or deleted technique from the caches once the change is committed, so
+     * no duel reloads it before the change is visible.
+     */
+    private void invalidateAfterCommit(Long techniqueId) {
+        AfterCommit.run(() -> {
+            compiledTechniqueCache.invalidate(techniqueId);
+            techniqueLoadoutCache.invalidateTechnique(techniqueId);
+        });
     }
 }
@@ -108,9 +108,23 @@ public interface VillainService {
      * @param villainId the villain ID
      * @param playerId the player ID who defeated the villain
      * @return a map containing the rewards for defeating the villain
+     * @throws IllegalStateException if the villain was already defeated
      */
     Map<String, Integer> defeatVillain(Long villainId, Long playerId);
 
+    /**
+     * Defeat a villain in a raid, sharing its rewards among the players who attacked it in
+     * proportion to the damage they dealt. The player who dealt the killing blow also gets what
+     * is left over after rounding the shares down.
+     *
+     * @param villainId the villain ID
+     * @param killerId the ID of the player who dealt the killing blow
+     * @param damageByPlayer the damage dealt by each player, by player ID
+     * @return the rewards of each player, by player ID
+     * @throws IllegalStateException if the villain was already defeated
+     */
+    Map<Long, Map<String, Integer>> defeatVillainInRaid(Long villainId, Long killerId, Map<Long, Long> damageByPlayer);
+
     /**
      * Check if a player can challenge a villain.
      *
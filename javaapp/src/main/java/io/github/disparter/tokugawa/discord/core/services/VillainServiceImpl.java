@@ -89,9 +89,10 @@ public class VillainServiceImpl implements VillainService {
         
         log.info("Spawning villain {} at location: {}", villain.getName(), location);
         
-        // Set the spawn location and activate the villain
+        // Set the spawn location and activate the villain, healed from any previous fight
         villain.setSpawnLocation(location);
         villain.setActive(true);
+        villain.setHealth(villain.getMaxHealth());
         
         return villainRepository.save(villain);
     }
@@ -99,25 +100,30 @@ public class VillainServiceImpl implements VillainService {
     @Override
     @Transactional
     public Optional<Villain> spawnRandomVillain(VillainType type, String location) {
-        // Get all villains of the specified type that are not active
-        List<Villain> availableVillains = villainRepository.findAll().stream()
-                .filter(v -> v.getType() == type && !v.getActive())
-                .collect(Collectors.toList());
+        // Pick among the IDs of the inactive villains of the requested type (indexed on type and active)
+        List<Long> availableVillainIds = villainRepository.findInactiveIdsByType(type);
         
-        if (availableVillains.isEmpty()) {
+        if (availableVillainIds.isEmpty()) {
             log.info("No available villains of type {} to spawn", type);
             return Optional.empty();
         }
         
         // Select a random villain
-        Villain selectedVillain = availableVillains.get(random.nextInt(availableVillains.size()));
+        Long selectedId = availableVillainIds.get(random.nextInt(availableVillainIds.size()));
+        Optional<Villain> selected = villainRepository.findById(selectedId);
+        if (selected.isEmpty()) {
+            log.info("Villain {} of type {} is no longer available to spawn", selectedId, type);
+            return Optional.empty();
+        }
+        Villain selectedVillain = selected.get();
         
         log.info("Spawning random villain {} of type {} at location: {}", 
                 selectedVillain.getName(), type, location);
         
-        // Set the spawn location and activate the villain
+        // Set the spawn location and activate the villain, healed from any previous fight
         selectedVillain.setSpawnLocation(location);
         selectedVillain.setActive(true);
+        selectedVillain.setHealth(selectedVillain.getMaxHealth());
         
         return Optional.of(villainRepository.save(selectedVillain));
     }
@@ -146,19 +152,11 @@ public class VillainServiceImpl implements VillainService {
             minion.setDefense(Math.max(2, villain.getDefense() - 3));
             minion.setSpawnLocation(villain.getSpawnLocation());
             minion.setActive(true);
-            
-            // Save the minion
-            Villain savedMinion = villainRepository.save(minion);
-            minions.add(savedMinion);
-            
-            // Add the minion to the villain's minion list
-            villain.getMinionIds().add(savedMinion.getId());
+            minions.add(minion);
         }
         
-        // Update the villain with the new minions
-        villainRepository.save(villain);
-        
-        return minions;
+        // Insert all minions and link them to the villain in bulk, without rewriting the villain's collections
+        return villainRepository.insertMinions(villain, minions);
     }
 
     @Override
@@ -170,24 +168,79 @@ public class VillainServiceImpl implements VillainService {
         Player player = playerRepository.findById(playerId)
                 .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
         
+        // Deactivate the villain and its minions, unless it was already defeated
+        deactivate(villain);
+        
         log.info("Player {} defeated villain: {}", player.getName(), villain.getName());
         
-        // Deactivate the villain
-        villain.setActive(false);
-        villainRepository.save(villain);
+        // Award rewards to the player
+        Map<String, Integer> rewards = villain.getRewards();
+        applyRewards(player, rewards);
+        
+        playerRepository.save(player);
+        
+        return rewards;
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Map<String, Integer>> defeatVillainInRaid(Long villainId, Long killerId,
+                                                               Map<Long, Long> damageByPlayer) {
+        Villain villain = villainRepository.findById(villainId)
+                .orElseThrow(() -> new IllegalArgumentException("Villain not found with ID: " + villainId));
+        
+        // Only pay the rewards if this raid is the one that defeated the villain
+        deactivate(villain);
+        
+        log.info("Player {} dealt the killing blow to villain {} in a raid of {} players",
+                killerId, villain.getName(), damageByPlayer.size());
+        
+        long totalDamage = damageByPlayer.values().stream().mapToLong(Long::longValue).sum();
+        
+        // Share each reward in proportion to the damage dealt
+        Map<Long, Map<String, Integer>> rewardsByPlayer = new HashMap<>();
+        for (Map.Entry<String, Integer> reward : villain.getRewards().entrySet()) {
+            int distributed = 0;
+            for (Map.Entry<Long, Long> damage : damageByPlayer.entrySet()) {
+                int share = (int) (reward.getValue() * damage.getValue() / totalDamage);
+                rewardsByPlayer.computeIfAbsent(damage.getKey(), id -> new HashMap<>()).put(reward.getKey(), share);
+                distributed += share;
+            }
+            
+            // The killing blow earns what rounding left over
+            rewardsByPlayer.computeIfAbsent(killerId, id -> new HashMap<>())
+                    .merge(reward.getKey(), reward.getValue() - distributed, Integer::sum);
+        }
+        
+        for (Map.Entry<Long, Map<String, Integer>> rewards : rewardsByPlayer.entrySet()) {
+            playerRepository.findById(rewards.getKey()).ifPresent(player -> {
+                applyRewards(player, rewards.getValue());
+                playerRepository.save(player);
+            });
+        }
+        
+        return rewardsByPlayer;
+    }
+
+    /**
+     * Deactivates a villain and its minions.
+     *
+     * @throws IllegalStateException if the villain was already defeated or deactivated
+     */
+    private void deactivate(Villain villain) {
+        if (villainRepository.deactivateIfActive(villain.getId()) != 1) {
+            throw new IllegalStateException(villain.getName() + " has already been defeated");
+        }
         
-        // Deactivate all minions
         for (Long minionId : villain.getMinionIds()) {
             villainRepository.findById(minionId).ifPresent(minion -> {
                 minion.setActive(false);
                 villainRepository.save(minion);
             });
         }
-        
-        // Award rewards to the player
-        Map<String, Integer> rewards = villain.getRewards();
-        
-        // Apply rewards to player
+    }
+
+    private void applyRewards(Player player, Map<String, Integer> rewards) {
         for (Map.Entry<String, Integer> reward : rewards.entrySet()) {
             switch (reward.getKey()) {
                 case "exp":
@@ -202,10 +255,6 @@ public class VillainServiceImpl implements VillainService {
                 // Add more reward types as needed
             }
         }
-        
-        playerRepository.save(player);
-        
-        return rewards;
     }
 
     @Override
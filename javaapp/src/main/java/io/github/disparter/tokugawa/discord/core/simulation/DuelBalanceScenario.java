@@ -0,0 +1,96 @@
+package io.github.disparter.tokugawa.discord.core.simulation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.github.disparter.tokugawa.discord.core.services.NpcPolicy;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Input of the duel balance simulator: the techniques, the NPCs and player loadouts using them,
+ * and the grid of technique parameters to sweep.
+ * Techniques are described with the same fields and effect keys as the {@code Technique} entity.
+ */
+@Data
+@NoArgsConstructor
+public class DuelBalanceScenario {
+
+    @JsonProperty("duels_per_pairing")
+    private long duelsPerPairing = 100_000;
+
+    @JsonProperty("max_rounds")
+    private int maxRounds = 100;
+
+    private long seed = 1;
+
+    /**
+     * The damage NPC policies assume the player deals each round, as configured for the bot.
+     */
+    @JsonProperty("npc_policy_opponent_damage")
+    private int npcPolicyOpponentDamage = NpcPolicy.DEFAULT_OPPONENT_DAMAGE;
+
+    private List<TechniqueSpec> techniques = new ArrayList<>();
+
+    private List<CombatantSpec> npcs = new ArrayList<>();
+
+    private List<CombatantSpec> loadouts = new ArrayList<>();
+
+    private Grid grid = new Grid();
+
+    /**
+     * A technique, as stored on the {@code Technique} entity.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class TechniqueSpec {
+        private String name;
+
+        @JsonProperty("base_damage")
+        private int baseDamage;
+
+        @JsonProperty("mana_cost")
+        private int manaCost;
+
+        private Map<String, Integer> effects = new HashMap<>();
+    }
+
+    /**
+     * An NPC or a player loadout: combat stats and the names of the techniques it knows.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class CombatantSpec {
+        private String name;
+
+        @JsonProperty("power_stat")
+        private int powerStat;
+
+        private int dexterity;
+
+        private int intellect;
+
+        private int charisma;
+
+        private List<String> techniques = new ArrayList<>();
+    }
+
+    /**
+     * Multipliers of the techniques' base damage and mana cost. Every combination is simulated.
+     * When {@code techniques} is not empty, the multipliers only apply to the named techniques.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Grid {
+        @JsonProperty("base_damage_scales")
+        private List<Double> baseDamageScales = new ArrayList<>(List.of(1.0));
+
+        @JsonProperty("mana_cost_scales")
+        private List<Double> manaCostScales = new ArrayList<>(List.of(1.0));
+
+        private List<String> techniques = new ArrayList<>();
+    }
+}
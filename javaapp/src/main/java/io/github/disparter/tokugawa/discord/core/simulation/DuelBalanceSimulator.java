@@ -0,0 +1,180 @@
+package io.github.disparter.tokugawa.discord.core.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.disparter.tokugawa.discord.core.models.Technique;
+import io.github.disparter.tokugawa.discord.core.services.CombatStats;
+import io.github.disparter.tokugawa.discord.core.services.CompiledTechnique;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless duel balance simulator, run by the {@code simulateDuels} Gradle task.
+ * For every point of the scenario's parameter grid, it simulates every player loadout against
+ * every NPC with the {@link DuelSimulator} and writes the win rates, average rounds and mana
+ * curves to {@code duel-balance.csv} and {@code duel-balance.json}.
+ */
+@Slf4j
+public final class DuelBalanceSimulator {
+
+    private DuelBalanceSimulator() {
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @param args the scenario file, the output directory and, optionally, the number of duels
+     *             per pairing, overriding the scenario's
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: DuelBalanceSimulator <scenario> <output directory> [duels per pairing]");
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        DuelBalanceScenario scenario = objectMapper.readValue(Paths.get(args[0]).toFile(), DuelBalanceScenario.class);
+        if (args.length == 3) {
+            scenario.setDuelsPerPairing(Long.parseLong(args[2]));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            long start = System.nanoTime();
+            List<Map<String, Object>> rows = simulate(scenario,
+                    new DuelSimulator(pool, scenario.getMaxRounds(), scenario.getNpcPolicyOpponentDamage()));
+            log.info("Simulated {} pairings of {} duels on {} threads in {} ms", rows.size(),
+                    scenario.getDuelsPerPairing(), pool.getParallelism(), (System.nanoTime() - start) / 1_000_000);
+
+            Path outputDirectory = Paths.get(args[1]);
+            Files.createDirectories(outputDirectory);
+            writeCsv(rows, outputDirectory.resolve("duel-balance.csv"));
+            objectMapper.enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(outputDirectory.resolve("duel-balance.json").toFile(), rows);
+            log.info("Wrote the results to {}", outputDirectory.toAbsolutePath());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Simulates every loadout against every NPC at every point of the scenario's grid.
+     *
+     * @param scenario the scenario
+     * @param simulator the simulator
+     * @return one row per grid point, loadout and NPC, by column name
+     */
+    public static List<Map<String, Object>> simulate(DuelBalanceScenario scenario, DuelSimulator simulator) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        DuelBalanceScenario.Grid grid = scenario.getGrid();
+        for (double baseDamageScale : grid.getBaseDamageScales()) {
+            for (double manaCostScale : grid.getManaCostScales()) {
+                Map<String, CompiledTechnique> techniques = compileTechniques(scenario, baseDamageScale, manaCostScale);
+                List<DuelSimulator.Combatant> loadouts = combatants(scenario.getLoadouts(), techniques);
+                List<DuelSimulator.Combatant> npcs = combatants(scenario.getNpcs(), techniques);
+
+                for (DuelSimulator.Result result : simulator.simulateAll(loadouts, npcs,
+                        scenario.getDuelsPerPairing(), scenario.getSeed())) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("base_damage_scale", baseDamageScale);
+                    row.put("mana_cost_scale", manaCostScale);
+                    row.put("loadout", result.getLoadout());
+                    row.put("npc", result.getNpc());
+                    row.put("duels", result.getDuels());
+                    row.put("player_win_rate", result.getPlayerWinRate());
+                    row.put("npc_win_rate", result.getNpcWinRate());
+                    row.put("draws", result.getDraws());
+                    row.put("average_rounds", result.getAverageRounds());
+                    row.put("player_mana_curve", result.getPlayerManaCurve());
+                    row.put("npc_mana_curve", result.getNpcManaCurve());
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static Map<String, CompiledTechnique> compileTechniques(DuelBalanceScenario scenario,
+                                                                    double baseDamageScale, double manaCostScale) {
+        List<String> scaled = scenario.getGrid().getTechniques();
+        Map<String, CompiledTechnique> techniques = new HashMap<>();
+        long id = 1;
+        for (DuelBalanceScenario.TechniqueSpec spec : scenario.getTechniques()) {
+            boolean scale = scaled.isEmpty() || scaled.contains(spec.getName());
+            Technique technique = new Technique();
+            technique.setId(id++);
+            technique.setName(spec.getName());
+            technique.setBaseDamage(scale ? (int) Math.round(spec.getBaseDamage() * baseDamageScale) : spec.getBaseDamage());
+            technique.setManaCost(scale ? (int) Math.round(spec.getManaCost() * manaCostScale) : spec.getManaCost());
+            technique.setEffects(spec.getEffects());
+            techniques.put(spec.getName(), CompiledTechnique.compile(technique));
+        }
+        return techniques;
+    }
+
+    private static List<DuelSimulator.Combatant> combatants(List<DuelBalanceScenario.CombatantSpec> specs,
+                                                            Map<String, CompiledTechnique> techniques) {
+        List<DuelSimulator.Combatant> combatants = new ArrayList<>();
+        for (DuelBalanceScenario.CombatantSpec spec : specs) {
+            List<CompiledTechnique> known = new ArrayList<>();
+            for (String name : spec.getTechniques()) {
+                CompiledTechnique technique = techniques.get(name);
+                if (technique == null) {
+                    throw new IllegalArgumentException("Unknown technique " + name + " in " + spec.getName());
+                }
+                known.add(technique);
+            }
+            combatants.add(new DuelSimulator.Combatant(spec.getName(), new CombatStats(spec.getPowerStat(),
+                    spec.getDexterity(), spec.getIntellect(), spec.getCharisma()), known));
+        }
+        return combatants;
+    }
+
+    private static void writeCsv(List<Map<String, Object>> rows, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("base_damage_scale,mana_cost_scale,loadout,npc,duels,player_win_rate,npc_win_rate,draws,"
+                    + "average_rounds,player_mana_curve,npc_mana_curve");
+            writer.newLine();
+            for (Map<String, Object> row : rows) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%s,%s,%d,%.4f,%.4f,%d,%.2f,%s,%s",
+                        row.get("base_damage_scale"), row.get("mana_cost_scale"), quote((String) row.get("loadout")),
+                        quote((String) row.get("npc")), (Long) row.get("duels"), (Double) row.get("player_win_rate"),
+                        (Double) row.get("npc_win_rate"), (Long) row.get("draws"), (Double) row.get("average_rounds"),
+                        curve((double[]) row.get("player_mana_curve")), curve((double[]) row.get("npc_mana_curve"))));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Formats a mana curve as a single CSV field, the average mana of each round separated by
+     * semicolons.
+     */
+    private static String curve(double[] values) {
+        StringBuilder text = new StringBuilder();
+        for (double value : values) {
+            if (text.length() > 0) {
+                text.append(';');
+            }
+            text.append(String.format(Locale.ROOT, "%.1f", value));
+        }
+        return text.toString();
+    }
+}
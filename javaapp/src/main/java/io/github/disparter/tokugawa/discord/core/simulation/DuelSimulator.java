@@ -0,0 +1,361 @@
+package io.github.disparter.tokugawa.discord.core.simulation;
+
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import io.github.disparter.tokugawa.discord.core.services.CombatStats;
+import io.github.disparter.tokugawa.discord.core.services.CompiledTechnique;
+import io.github.disparter.tokugawa.discord.core.services.DuelRules;
+import io.github.disparter.tokugawa.discord.core.services.DuelState;
+import io.github.disparter.tokugawa.discord.core.services.NpcPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulator of duels between a technique loadout and an NPC.
+ * Duels are played with the {@link DuelRules} used by the duel service, without a combat log,
+ * on a fork-join pool. The duels of a pairing are split in halves until a batch is small enough,
+ * and each batch reuses a single {@link DuelState} and tally, so the hot loop does not allocate.
+ * <p>
+ * Each half gets a {@link SplittableRandom} split from its parent's, so the results only depend
+ * on the seed and not on the number of threads.
+ * <p>
+ * The player uses a random technique of the loadout it can afford, or passes its turn when it
+ * cannot afford any. The NPC follows the {@link NpcPolicy} it plays in duels, solved the first
+ * time it is simulated.
+ */
+public class DuelSimulator {
+
+    /**
+     * Health and mana both participants start a duel with, as in {@link Duel}.
+     */
+    static final int START_HEALTH = 100;
+    static final int START_MANA = 100;
+
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * A participant of the simulated duels: its combat stats and techniques.
+     */
+    public static class Combatant {
+        private final String name;
+        private final CombatStats stats;
+        private final CompiledTechnique[] techniques;
+
+        public Combatant(String name, CombatStats stats, List<CompiledTechnique> techniques) {
+            this.name = name;
+            this.stats = stats;
+            this.techniques = techniques.toArray(new CompiledTechnique[0]);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public CombatStats getStats() {
+            return stats;
+        }
+    }
+
+    /**
+     * Aggregated outcome of the duels of a pairing.
+     */
+    public static class Result {
+        private final String loadout;
+        private final String npc;
+        private final Tally tally;
+
+        Result(String loadout, String npc, Tally tally) {
+            this.loadout = loadout;
+            this.npc = npc;
+            this.tally = tally;
+        }
+
+        public String getLoadout() {
+            return loadout;
+        }
+
+        public String getNpc() {
+            return npc;
+        }
+
+        public long getDuels() {
+            return tally.duels;
+        }
+
+        public long getPlayerWins() {
+            return tally.playerWins;
+        }
+
+        public long getNpcWins() {
+            return tally.npcWins;
+        }
+
+        /**
+         * Gets the number of duels still undecided after the maximum number of rounds.
+         *
+         * @return the number of draws
+         */
+        public long getDraws() {
+            return tally.duels - tally.playerWins - tally.npcWins;
+        }
+
+        public double getPlayerWinRate() {
+            return tally.duels > 0 ? (double) tally.playerWins / tally.duels : 0;
+        }
+
+        public double getNpcWinRate() {
+            return tally.duels > 0 ? (double) tally.npcWins / tally.duels : 0;
+        }
+
+        public double getAverageRounds() {
+            return tally.duels > 0 ? (double) tally.rounds / tally.duels : 0;
+        }
+
+        /**
+         * Gets the player's average mana at the start of each round, over the duels that reached it.
+         *
+         * @return the average mana, indexed by round minus one, up to the last round reached
+         */
+        public double[] getPlayerManaCurve() {
+            return manaCurve(tally.playerMana);
+        }
+
+        /**
+         * Gets the NPC's average mana at the start of each round, over the duels that reached it.
+         *
+         * @return the average mana, indexed by round minus one, up to the last round reached
+         */
+        public double[] getNpcManaCurve() {
+            return manaCurve(tally.npcMana);
+        }
+
+        private double[] manaCurve(long[] mana) {
+            int rounds = 0;
+            while (rounds < tally.reached.length && tally.reached[rounds] > 0) {
+                rounds++;
+            }
+            double[] curve = new double[rounds];
+            for (int i = 0; i < rounds; i++) {
+                curve[i] = (double) mana[i] / tally.reached[i];
+            }
+            return curve;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int maxRounds;
+    private final int npcPolicyOpponentDamage;
+    private final Map<Combatant, NpcPolicy> npcPolicies = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a simulator.
+     *
+     * @param pool the pool the duels run on
+     * @param maxRounds the rounds after which an undecided duel counts as a draw
+     * @param npcPolicyOpponentDamage the damage NPC policies assume the player deals each round,
+     *                                as {@code tokugawa.duels.npc-policy.opponent-damage}
+     */
+    public DuelSimulator(ForkJoinPool pool, int maxRounds, int npcPolicyOpponentDamage) {
+        this.pool = pool;
+        this.maxRounds = maxRounds;
+        this.npcPolicyOpponentDamage = npcPolicyOpponentDamage;
+    }
+
+    /**
+     * Simulates the duels of a pairing.
+     *
+     * @param player the player's loadout
+     * @param npc the NPC
+     * @param duels the number of duels
+     * @param seed the seed of the random generator
+     * @return the result
+     */
+    public Result simulate(Combatant player, Combatant npc, long duels, long seed) {
+        return new Result(player.getName(), npc.getName(),
+                pool.invoke(new Batch(player, npc, 0, duels, new SplittableRandom(seed))));
+    }
+
+    /**
+     * Simulates every pairing of the loadouts and NPCs, all at once on the pool.
+     *
+     * @param players the players' loadouts
+     * @param npcs the NPCs
+     * @param duels the number of duels per pairing
+     * @param seed the seed of the random generator; each pairing gets a split of it
+     * @return the results, by loadout then NPC
+     */
+    public List<Result> simulateAll(List<Combatant> players, List<Combatant> npcs, long duels, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Batch> batches = new ArrayList<>();
+        for (Combatant player : players) {
+            for (Combatant npc : npcs) {
+                batches.add(new Batch(player, npc, 0, duels, random.split()));
+            }
+        }
+
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(batches);
+                return null;
+            }
+        });
+
+        List<Result> results = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            results.add(new Result(batch.player.getName(), batch.npc.getName(), batch.join()));
+        }
+        return results;
+    }
+
+    /**
+     * Counters of a batch of duels.
+     */
+    static class Tally {
+        long duels;
+        long playerWins;
+        long npcWins;
+        long rounds;
+        final long[] reached;
+        final long[] playerMana;
+        final long[] npcMana;
+
+        Tally(int maxRounds) {
+            reached = new long[maxRounds];
+            playerMana = new long[maxRounds];
+            npcMana = new long[maxRounds];
+        }
+
+        void add(Tally other) {
+            duels += other.duels;
+            playerWins += other.playerWins;
+            npcWins += other.npcWins;
+            rounds += other.rounds;
+            for (int i = 0; i < reached.length; i++) {
+                reached[i] += other.reached[i];
+                playerMana[i] += other.playerMana[i];
+                npcMana[i] += other.npcMana[i];
+            }
+        }
+    }
+
+    /**
+     * Duels {@code from} to {@code to} of a pairing.
+     */
+    private class Batch extends RecursiveTask<Tally> {
+        private final Combatant player;
+        private final Combatant npc;
+        private final NpcPolicy npcPolicy;
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        Batch(Combatant player, Combatant npc, long from, long to, SplittableRandom random) {
+            this.player = player;
+            this.npc = npc;
+            this.npcPolicy = npcPolicies.computeIfAbsent(npc,
+                    combatant -> NpcPolicy.forNpc(combatant.techniques, npcPolicyOpponentDamage));
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > BATCH_SIZE) {
+                long middle = (from + to) >>> 1;
+                Batch left = new Batch(player, npc, from, middle, random.split());
+                Batch right = new Batch(player, npc, middle, to, random);
+                left.fork();
+                Tally tally = right.compute();
+                tally.add(left.join());
+                return tally;
+            }
+
+            Tally tally = new Tally(maxRounds);
+            DuelState duel = new DuelState();
+            duel.setCombatLog(null);
+            duel.setPlayerStats(player.getStats());
+            duel.setNpcStats(npc.getStats());
+            for (long i = from; i < to; i++) {
+                play(duel, tally);
+            }
+            return tally;
+        }
+
+        private void play(DuelState duel, Tally tally) {
+            reset(duel);
+            tally.duels++;
+            while (duel.getRound() <= maxRounds) {
+                int round = duel.getRound() - 1;
+                tally.reached[round]++;
+                tally.playerMana[round] += duel.getPlayerMana();
+                tally.npcMana[round] += duel.getNpcMana();
+
+                CompiledTechnique technique = chooseTechnique(duel.getPlayerMana());
+                if (technique != null) {
+                    if (DuelRules.playerTurn(duel, technique, random) == DuelRules.Outcome.PLAYER_WON) {
+                        tally.playerWins++;
+                        break;
+                    }
+                } else {
+                    duel.setStatus(Duel.DuelStatus.NPC_TURN);
+                }
+
+                DuelRules.Outcome outcome = DuelRules.npcTurn(duel, npcPolicy, random);
+                if (outcome == DuelRules.Outcome.PLAYER_WON) {
+                    tally.playerWins++;
+                    break;
+                } else if (outcome == DuelRules.Outcome.NPC_WON) {
+                    tally.npcWins++;
+                    break;
+                }
+            }
+            tally.rounds += Math.min(duel.getRound(), maxRounds);
+        }
+
+        private CompiledTechnique chooseTechnique(int mana) {
+            CompiledTechnique[] techniques = player.techniques;
+            int affordable = 0;
+            for (CompiledTechnique technique : techniques) {
+                if (technique.getManaCost() <= mana) {
+                    affordable++;
+                }
+            }
+            if (affordable == 0) {
+                return null;
+            }
+
+            int chosen = random.nextInt(affordable);
+            for (CompiledTechnique technique : techniques) {
+                if (technique.getManaCost() <= mana && chosen-- == 0) {
+                    return technique;
+                }
+            }
+            return null;
+        }
+
+        private void reset(DuelState duel) {
+            duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+            duel.setRound(1);
+            duel.setPlayerHealth(START_HEALTH);
+            duel.setNpcHealth(START_HEALTH);
+            duel.setPlayerMana(START_MANA);
+            duel.setNpcMana(START_MANA);
+            duel.setPlayerShield(0);
+            duel.setNpcShield(0);
+            duel.setPlayerDotDamage(0);
+            duel.setPlayerDotTurns(0);
+            duel.setNpcDotDamage(0);
+            duel.setNpcDotTurns(0);
+            duel.setPlayerLastTechniqueId(null);
+            duel.setNpcLastTechniqueId(null);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.disparter.tokugawa.discord.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Clock that drives every game timestamp and schedule.
+ * In real-time mode it follows the system clock. In accelerated mode game time starts at a chosen
+ * instant and advances {@code speed} times faster than wall-clock time, so a month of schedules
+ * can be replayed in minutes.
+ */
+public class GameClock extends Clock {
+
+    private final Clock source;
+    private final ZoneId zone;
+    private final Instant realOrigin;
+    private final Instant gameOrigin;
+    private final long speed;
+
+    private GameClock(Clock source, ZoneId zone, Instant realOrigin, Instant gameOrigin, long speed) {
+        this.source = source;
+        this.zone = zone;
+        this.realOrigin = realOrigin;
+        this.gameOrigin = gameOrigin;
+        this.speed = speed;
+    }
+
+    /**
+     * Creates a clock that follows the system clock.
+     *
+     * @param zone the time zone
+     * @return the game clock
+     */
+    public static GameClock system(ZoneId zone) {
+        Clock source = Clock.system(zone);
+        Instant now = source.instant();
+        return new GameClock(source, zone, now, now, 1);
+    }
+
+    /**
+     * Creates a clock that starts at the given instant and runs faster than the source clock.
+     *
+     * @param source the wall clock
+     * @param gameStart the game time at creation
+     * @param speed how many game milliseconds pass per wall-clock millisecond
+     * @return the game clock
+     */
+    public static GameClock accelerated(Clock source, Instant gameStart, long speed) {
+        if (speed < 1) {
+            throw new IllegalArgumentException("Clock speed must be at least 1");
+        }
+        return new GameClock(source, source.getZone(), source.instant(), gameStart, speed);
+    }
+
+    /**
+     * Checks whether game time runs faster than wall-clock time.
+     *
+     * @return true in accelerated mode
+     */
+    public boolean isAccelerated() {
+        return speed > 1 || !realOrigin.equals(gameOrigin);
+    }
+
+    public long getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Converts a game instant to the wall-clock instant at which it is reached.
+     * The result is rounded up, so converting it back never yields an instant before the original.
+     *
+     * @param gameInstant the game instant
+     * @return the wall-clock instant
+     */
+    public Instant toRealInstant(Instant gameInstant) {
+        Duration gameElapsed = Duration.between(gameOrigin, gameInstant);
+        Duration realElapsed = gameElapsed.dividedBy(speed);
+        if (realElapsed.multipliedBy(speed).compareTo(gameElapsed) < 0) {
+            realElapsed = realElapsed.plusNanos(1);
+        }
+        return realOrigin.plus(realElapsed);
+    }
+
+    /**
+     * Converts a wall-clock instant to the game instant it corresponds to.
+     *
+     * @param realInstant the wall-clock instant
+     * @return the game instant
+     */
+    public Instant toGameInstant(Instant realInstant) {
+        return gameOrigin.plus(Duration.between(realOrigin, realInstant).multipliedBy(speed));
+    }
+
+    /**
+     * Converts a span of game time to the wall-clock time it takes.
+     *
+     * @param gameDuration the game duration
+     * @return the wall-clock duration
+     */
+    public Duration toRealDuration(Duration gameDuration) {
+        return gameDuration.dividedBy(speed);
+    }
+
+    @Override
+    public Instant instant() {
+        return toGameInstant(source.instant());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (zone.equals(this.zone)) {
+            return this;
+        }
+        return new GameClock(source.withZone(zone), zone, realOrigin, gameOrigin, speed);
+    }
+
+    @Override
+    public String toString() {
+        return "GameClock[" + zone + ", speed=" + speed + "]";
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.disparter.tokugawa.discord.utils;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Task scheduler that interprets every trigger, start time and period in game time.
+ * Cron expressions are evaluated against the {@link GameClock}, and the resulting game instants
+ * are converted to wall-clock instants before being handed to the delegate scheduler, so an
+ * accelerated clock also accelerates every scheduled job.
+ */
+public class GameTimeTaskScheduler implements TaskScheduler, DisposableBean {
+
+    /**
+     * Shortest wall-clock period used for fixed-rate and fixed-delay tasks.
+     */
+    private static final Duration MIN_REAL_PERIOD = Duration.ofMillis(10);
+
+    private final TaskScheduler delegate;
+    private final GameClock clock;
+
+    /**
+     * Constructor for GameTimeTaskScheduler.
+     *
+     * @param delegate the scheduler that runs the tasks on wall-clock time
+     * @param clock the game clock
+     */
+    public GameTimeTaskScheduler(TaskScheduler delegate, GameClock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Clock getClock() {
+        return clock;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+        return delegate.schedule(task, new GameTimeTrigger(trigger));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Instant startTime) {
+        return delegate.schedule(task, clock.toRealInstant(startTime));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Instant startTime, Duration period) {
+        return delegate.scheduleAtFixedRate(task, clock.toRealInstant(startTime), toRealPeriod(period));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Duration period) {
+        return delegate.scheduleAtFixedRate(task, toRealPeriod(period));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Instant startTime, Duration delay) {
+        return delegate.scheduleWithFixedDelay(task, clock.toRealInstant(startTime), toRealPeriod(delay));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+        return delegate.scheduleWithFixedDelay(task, toRealPeriod(delay));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+    private Duration toRealPeriod(Duration gamePeriod) {
+        Duration realPeriod = clock.toRealDuration(gamePeriod);
+        return realPeriod.compareTo(MIN_REAL_PERIOD) < 0 ? MIN_REAL_PERIOD : realPeriod;
+    }
+
+    private Instant toGameInstant(Instant realInstant) {
+        return realInstant != null ? clock.toGameInstant(realInstant) : null;
+    }
+
+    /**
+     * Trigger that evaluates the wrapped trigger in game time and returns wall-clock instants.
+     */
+    private final class GameTimeTrigger implements Trigger {
+
+        private final Trigger trigger;
+
+        private GameTimeTrigger(Trigger trigger) {
+            this.trigger = trigger;
+        }
+
+        @Override
+        public Instant nextExecution(TriggerContext triggerContext) {
+            SimpleTriggerContext gameContext = new SimpleTriggerContext(clock);
+            gameContext.update(
+                    toGameInstant(triggerContext.lastScheduledExecution()),
+                    toGameInstant(triggerContext.lastActualExecution()),
+                    toGameInstant(triggerContext.lastCompletion()));
+
+            Instant next = trigger.nextExecution(gameContext);
+            return next != null ? clock.toRealInstant(next) : null;
+        }
+    }
+}
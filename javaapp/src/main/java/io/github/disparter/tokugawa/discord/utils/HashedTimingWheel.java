@@ -0,0 +1,211 @@
+package io.github.disparter.tokugawa.discord.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel for keyed deadlines.
+ * Deadlines are hashed into a fixed ring of buckets by their tick; each entry keeps the number of
+ * full wheel rotations left before it expires. Scheduling and cancelling are O(1) and advancing the
+ * wheel only visits the buckets for the ticks that elapsed.
+ *
+ * @param <K> the key type identifying a deadline
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Bucket<K>[] wheel;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+
+    /**
+     * Last tick processed by {@link #advance(long)}.
+     */
+    private long currentTick;
+
+    /**
+     * Constructor for HashedTimingWheel.
+     *
+     * @param tickMillis the duration of one tick in milliseconds
+     * @param wheelSize the number of buckets (rounded up to a power of two)
+     * @param startMillis the epoch millis that corresponds to tick zero
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^30");
+        }
+
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = size - 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket<>();
+        }
+    }
+
+    /**
+     * Schedules a deadline, replacing any deadline already registered for the key.
+     * Deadlines in the past expire on the next tick.
+     *
+     * @param key the deadline key
+     * @param deadlineMillis the epoch millis at which the deadline expires
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Timeout<K> existing = timeouts.remove(key);
+        if (existing != null) {
+            existing.bucket.remove(existing);
+        }
+
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadlineMillis - startMillis, tickMillis));
+
+        Timeout<K> timeout = new Timeout<>(key, deadlineMillis);
+        timeout.remainingRounds = (deadlineTick - currentTick - 1) / wheel.length;
+        wheel[(int) (deadlineTick & mask)].add(timeout);
+        timeouts.put(key, timeout);
+    }
+
+    /**
+     * Cancels the deadline registered for a key.
+     *
+     * @param key the deadline key
+     * @return true if a deadline was pending and is now cancelled
+     */
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        return true;
+    }
+
+    /**
+     * Advances the wheel up to the given time and removes every expired deadline.
+     *
+     * @param nowMillis the current epoch millis
+     * @return the keys whose deadlines expired, in expiry order
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            Bucket<K> bucket = wheel[(int) (currentTick & mask)];
+
+            Timeout<K> timeout = bucket.head;
+            while (timeout != null) {
+                Timeout<K> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    bucket.remove(timeout);
+                    timeouts.remove(timeout.key);
+                    expired.add(timeout.key);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        return expired;
+    }
+
+    /**
+     * Checks whether a deadline is pending for a key.
+     *
+     * @param key the deadline key
+     * @return true if a deadline is pending
+     */
+    public synchronized boolean contains(K key) {
+        return timeouts.containsKey(key);
+    }
+
+    /**
+     * Gets the deadline registered for a key.
+     *
+     * @param key the deadline key
+     * @return the deadline in epoch millis, or null if none is pending
+     */
+    public synchronized Long getDeadline(K key) {
+        Timeout<K> timeout = timeouts.get(key);
+        return timeout != null ? timeout.deadlineMillis : null;
+    }
+
+    /**
+     * Gets the number of pending deadlines.
+     *
+     * @return the pending deadline count
+     */
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    /**
+     * A pending deadline, linked into the bucket it was hashed to.
+     */
+    private static final class Timeout<K> {
+        private final K key;
+        private final long deadlineMillis;
+        private long remainingRounds;
+        private Bucket<K> bucket;
+        private Timeout<K> prev;
+        private Timeout<K> next;
+
+        private Timeout(K key, long deadlineMillis) {
+            this.key = key;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts sharing a wheel slot.
+     */
+    private static final class Bucket<K> {
+        private Timeout<K> head;
+        private Timeout<K> tail;
+
+        private void add(Timeout<K> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout<K> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.disparter.tokugawa.discord.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.util.ClassUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instruments scheduled jobs.
+ * Every run is timed per job and outcome, the last success is tracked, and a short run history is
+ * kept for each job. A job that is still running when it is triggered again is skipped instead of
+ * running twice.
+ */
+@Slf4j
+public class ScheduledJobMonitor {
+
+    /**
+     * Outcome of a job run.
+     */
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        SKIPPED
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final int historySize;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger runningJobs = new AtomicInteger();
+
+    /**
+     * Constructor for ScheduledJobMonitor.
+     *
+     * @param meterRegistry the registry for the job metrics
+     * @param clock the clock used to timestamp runs
+     * @param historySize the number of runs kept per job
+     */
+    public ScheduledJobMonitor(MeterRegistry meterRegistry, Clock clock, int historySize) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.historySize = historySize;
+        Gauge.builder("tokugawa.scheduled.jobs.running", runningJobs, AtomicInteger::get)
+                .description("Scheduled jobs currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gives a task an explicit job name, for tasks that are not {@code @Scheduled} methods.
+     *
+     * @param name the job name
+     * @param task the task
+     * @return the named task
+     */
+    public static Runnable named(String name, Runnable task) {
+        return new NamedTask(name, task);
+    }
+
+    /**
+     * Wraps a task so that its runs are instrumented and never overlap.
+     *
+     * @param task the task
+     * @return the instrumented task
+     */
+    public Runnable monitor(Runnable task) {
+        Job job = jobs.computeIfAbsent(jobName(task), Job::new);
+        Runnable target = task instanceof NamedTask named ? named.task : task;
+        return () -> run(job, target);
+    }
+
+    /**
+     * Gets a summary of every known job.
+     *
+     * @return the job summaries, sorted by name
+     */
+    public List<JobSummary> getJobs() {
+        List<JobSummary> summaries = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            summaries.add(job.summary());
+        }
+        summaries.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return summaries;
+    }
+
+    /**
+     * Gets the recent runs of a job, most recent first.
+     *
+     * @param name the job name
+     * @return the runs, or an empty list if the job is unknown
+     */
+    public List<JobRun> getHistory(String name) {
+        Job job = jobs.get(name);
+        return job != null ? job.history() : List.of();
+    }
+
+    private void run(Job job, Runnable task) {
+        Instant startedAt = clock.instant();
+        if (!job.running.compareAndSet(false, true)) {
+            job.skipped.increment();
+            job.record(new JobRun(startedAt, Duration.ZERO, Outcome.SKIPPED, runningJobs.get(), null));
+            log.warn("Skipping scheduled job {}: previous run still in progress", job.name);
+            return;
+        }
+
+        int concurrentJobs = runningJobs.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            task.run();
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            job.success.record(duration);
+            job.lastSuccess = startedAt;
+            job.record(new JobRun(startedAt, duration, Outcome.SUCCESS, concurrentJobs, null));
+        } catch (RuntimeException | Error e) {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            job.failure.record(duration);
+            job.record(new JobRun(startedAt, duration, Outcome.FAILURE, concurrentJobs, e.toString()));
+            throw e;
+        } finally {
+            runningJobs.decrementAndGet();
+            job.running.set(false);
+        }
+    }
+
+    private static String jobName(Runnable task) {
+        if (task instanceof NamedTask named) {
+            return named.name;
+        }
+        if (task instanceof ScheduledMethodRunnable method) {
+            return ClassUtils.getUserClass(method.getTarget()).getSimpleName() + "." + method.getMethod().getName();
+        }
+        return task.getClass().getName();
+    }
+
+    /**
+     * Summary of a job.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class JobSummary {
+        private final String name;
+        private final boolean running;
+        private final Instant lastSuccess;
+        private final long successCount;
+        private final long failureCount;
+        private final long skippedCount;
+        private final double meanMillis;
+        private final double maxMillis;
+    }
+
+    /**
+     * A single run of a job.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class JobRun {
+        private final Instant startedAt;
+        private final Duration duration;
+        private final Outcome outcome;
+        private final int concurrentJobs;
+        private final String error;
+    }
+
+    /**
+     * Metrics and history of a single job.
+     */
+    private final class Job {
+        private final String name;
+        private final Timer success;
+        private final Timer failure;
+        private final Counter skipped;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final Deque<JobRun> runs = new ArrayDeque<>();
+        private volatile Instant lastSuccess;
+
+        private Job(String name) {
+            this.name = name;
+            this.success = timer(name, Outcome.SUCCESS);
+            this.failure = timer(name, Outcome.FAILURE);
+            this.skipped = Counter.builder("tokugawa.scheduled.jobs.skipped")
+                    .description("Scheduled job runs skipped because the previous run was still in progress")
+                    .tag("job", name)
+                    .register(meterRegistry);
+            Gauge.builder("tokugawa.scheduled.jobs.last.success", this,
+                            job -> job.lastSuccess != null ? job.lastSuccess.getEpochSecond() : Double.NaN)
+                    .description("Epoch seconds of the last successful run")
+                    .tag("job", name)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String name, Outcome outcome) {
+            return Timer.builder("tokugawa.scheduled.jobs")
+                    .description("Scheduled job run duration")
+                    .tag("job", name)
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+
+        private synchronized void record(JobRun run) {
+            if (historySize <= 0) {
+                return;
+            }
+            if (runs.size() == historySize) {
+                runs.removeLast();
+            }
+            runs.addFirst(run);
+        }
+
+        private synchronized List<JobRun> history() {
+            return new ArrayList<>(runs);
+        }
+
+        private JobSummary summary() {
+            return new JobSummary(name, running.get(), lastSuccess,
+                    success.count(), failure.count(), (long) skipped.count(),
+                    success.mean(TimeUnit.MILLISECONDS), success.max(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * A task with an explicit job name.
+     */
+    private static final class NamedTask implements Runnable {
+        private final String name;
+        private final Runnable task;
+
+        private NamedTask(String name, Runnable task) {
+            this.name = name;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
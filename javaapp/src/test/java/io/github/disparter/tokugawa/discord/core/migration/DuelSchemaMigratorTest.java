@@ -0,0 +1,51 @@
+package io.github.disparter.tokugawa.discord.core.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DuelSchemaMigratorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private DuelSchemaMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        migrator = new DuelSchemaMigrator(jdbcTemplate, true);
+    }
+
+    @Test
+    void run_ShouldDropNotNull_WhenNpcColumnIsRequired() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("NO"));
+
+        // Act
+        migrator.run();
+
+        // Assert
+        verify(jdbcTemplate).execute("ALTER TABLE duel ALTER COLUMN npc_id DROP NOT NULL");
+    }
+
+    @Test
+    void run_ShouldDoNothing_WhenNpcColumnIsNullable() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("YES"));
+
+        // Act
+        migrator.run();
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
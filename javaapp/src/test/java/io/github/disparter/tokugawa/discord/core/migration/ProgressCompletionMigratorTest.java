@@ -0,0 +1,72 @@
+package io.github.disparter.tokugawa.discord.core.migration;
+
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProgressCompletionMigratorTest {
+
+    @Mock
+    private ProgressRepository progressRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProgressCompletionMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        migrator = new ProgressCompletionMigrator(progressRepository, transactionManager, true);
+    }
+
+    @Test
+    void run_ShouldMoveLegacyCompletionsToBitsets() {
+        // Arrange
+        Progress progress = new Progress();
+        progress.setId(1L);
+        progress.setLegacyCompletedChapters(new ArrayList<>(List.of("1_1_arrival", "1_2_power_awakening")));
+        progress.setLegacyCompletedArcs(new ArrayList<>(List.of("year_1_intro")));
+        when(progressRepository.findIdsWithLegacyCompletedChapters()).thenReturn(List.of(1L));
+        when(progressRepository.findIdsWithLegacyCompletedArcs()).thenReturn(List.of(1L));
+        when(progressRepository.findById(1L)).thenReturn(Optional.of(progress));
+
+        // Act
+        migrator.run();
+
+        // Assert
+        assertTrue(progress.getCompletedChapters().contains("1_1_arrival"));
+        assertTrue(progress.getCompletedChapters().contains("1_2_power_awakening"));
+        assertTrue(progress.getCompletedArcs().contains("year_1_intro"));
+        assertTrue(progress.getLegacyCompletedChapters().isEmpty());
+        assertTrue(progress.getLegacyCompletedArcs().isEmpty());
+        verify(progressRepository, times(1)).save(progress);
+    }
+
+    @Test
+    void run_ShouldDoNothing_WhenNoLegacyRowsRemain() {
+        // Arrange
+        when(progressRepository.findIdsWithLegacyCompletedChapters()).thenReturn(List.of());
+        when(progressRepository.findIdsWithLegacyCompletedArcs()).thenReturn(List.of());
+
+        // Act
+        migrator.run();
+
+        // Assert
+        verify(progressRepository, never()).findById(any());
+        verify(progressRepository, never()).save(any());
+    }
+}
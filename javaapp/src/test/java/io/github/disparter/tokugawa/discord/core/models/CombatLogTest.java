@@ -0,0 +1,89 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CombatLogTest {
+
+    @Test
+    void append_ShouldEncodeEntriesCompactly() {
+        // Arrange
+        CombatLog log = new CombatLog();
+
+        // Act
+        log.append(1, CombatLog.EntryType.START, CombatLog.Actor.PLAYER, null, 0, false, 0);
+        log.append(1, CombatLog.EntryType.TECHNIQUE, CombatLog.Actor.PLAYER, 3L, 24, true, 15);
+        log.append(1, CombatLog.EntryType.BASIC_ATTACK, CombatLog.Actor.NPC, null, 7, false, 0);
+
+        // Assert
+        assertEquals(15, log.length());
+        List<CombatLog.Entry> entries = log.entries();
+        assertEquals(3, entries.size());
+        assertEquals(new CombatLog.Entry(1, CombatLog.EntryType.TECHNIQUE, CombatLog.Actor.PLAYER, 3L, 24, true, 15),
+                entries.get(1));
+        assertNull(entries.get(2).getTechniqueId());
+        assertEquals(CombatLog.Actor.NPC, entries.get(2).getActor());
+    }
+
+    @Test
+    void lastRound_ShouldReturnOnlyLatestRoundEntries_WhenLogIsLong() {
+        // Arrange
+        CombatLog log = new CombatLog();
+        for (int round = 1; round <= 1000; round++) {
+            log.append(round, CombatLog.EntryType.TECHNIQUE, CombatLog.Actor.PLAYER, 200L, 300, false, 20);
+            log.append(round, CombatLog.EntryType.BASIC_ATTACK, CombatLog.Actor.NPC, null, 5, false, 0);
+        }
+        log.append(1000, CombatLog.EntryType.VICTORY, CombatLog.Actor.PLAYER, null, 0, false, 0);
+
+        // Act
+        List<CombatLog.Entry> lastRound = log.lastRound();
+
+        // Assert
+        assertEquals(3, lastRound.size());
+        assertEquals(1000, lastRound.get(0).getRound());
+        assertEquals(CombatLog.EntryType.VICTORY, lastRound.get(2).getType());
+        assertEquals(2001, log.entries().size());
+    }
+
+    @Test
+    void appendEncoded_ShouldRebuildLog_WhenReplayedFromChunks() {
+        // Arrange
+        CombatLog log = new CombatLog();
+        log.append(1, CombatLog.EntryType.START, CombatLog.Actor.PLAYER, null, 0, false, 0);
+        int firstChunk = log.length();
+        log.append(1, CombatLog.EntryType.TECHNIQUE, CombatLog.Actor.PLAYER, 3L, 12, false, 10);
+        log.append(2, CombatLog.EntryType.TECHNIQUE, CombatLog.Actor.NPC, 4L, 9, false, 5);
+
+        // Act
+        CombatLog replayed = CombatLog.fromByteArray(log.toByteArray(0, firstChunk));
+        replayed.append(1, CombatLog.EntryType.BASIC_ATTACK, CombatLog.Actor.NPC, null, 6, false, 0);
+        replayed.truncate(firstChunk);
+        replayed.appendEncoded(log.toByteArray(firstChunk, log.length()));
+
+        // Assert
+        assertArrayEquals(log.toByteArray(), replayed.toByteArray());
+        assertEquals(log.lastRound(), replayed.lastRound());
+        assertThrows(IllegalArgumentException.class, () -> replayed.appendEncoded(new byte[]{1, (byte) 0x81}));
+    }
+
+    @Test
+    void equals_ShouldCompareEntries_WhenLogsHaveDifferentCapacity() {
+        // Arrange
+        CombatLog log = new CombatLog();
+        for (int round = 1; round <= 20; round++) {
+            log.append(round, CombatLog.EntryType.TECHNIQUE, CombatLog.Actor.PLAYER, 3L, 12, false, 10);
+        }
+
+        // Act
+        CombatLog loaded = CombatLog.fromByteArray(log.toByteArray());
+
+        // Assert
+        assertEquals(log, loaded);
+        assertEquals(log.hashCode(), loaded.hashCode());
+        loaded.append(21, CombatLog.EntryType.VICTORY, CombatLog.Actor.PLAYER, null, 0, false, 0);
+        assertNotEquals(log, loaded);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.disparter.tokugawa.discord.core.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionSetTest {
+
+    private OrdinalDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new OrdinalDictionary("chapter");
+    }
+
+    @Test
+    void add_ShouldAssignOrdinalsAndTrackMembership() {
+        // Arrange
+        CompletionSet set = new CompletionSet(dictionary);
+
+        // Act
+        boolean added = set.add("1_1_arrival");
+        boolean addedAgain = set.add("1_1_arrival");
+        set.add("1_2_power_awakening");
+
+        // Assert
+        assertTrue(added);
+        assertFalse(addedAgain);
+        assertTrue(set.contains("1_2_power_awakening"));
+        assertFalse(set.contains("unknown"));
+        assertEquals(-1, dictionary.find("unknown"));
+        assertEquals(2, set.size());
+        assertEquals(List.of("1_1_arrival", "1_2_power_awakening"), new ArrayList<>(set));
+    }
+
+    @Test
+    void toByteArray_ShouldRoundTripCompactly() {
+        // Arrange
+        CompletionSet set = new CompletionSet(dictionary);
+        for (int i = 0; i < 500; i++) {
+            set.add("chapter_" + i);
+        }
+        set.remove("chapter_7");
+
+        // Act
+        byte[] bytes = set.toByteArray();
+        CompletionSet decoded = CompletionSet.fromByteArray(dictionary, bytes);
+
+        // Assert
+        assertEquals(63, bytes.length);
+        assertEquals(set, decoded);
+        assertFalse(decoded.contains("chapter_7"));
+        assertTrue(CompletionSet.contains(bytes, dictionary.find("chapter_499")));
+        assertFalse(CompletionSet.contains(bytes, dictionary.find("chapter_7")));
+        assertFalse(CompletionSet.contains(bytes, 4000));
+    }
+
+    @Test
+    void toByteArray_ShouldEncodeOverTargetOrdinals_WhenSetHasOrdinalsOfItsOwn() {
+        // Arrange
+        dictionary.ordinalOf("1_3_first_day");
+        CompletionSet set = CompletionSet.chapters();
+        set.add("1_1_arrival");
+
+        // Act
+        byte[] bytes = set.toByteArray(dictionary);
+
+        // Assert
+        assertEquals(1, dictionary.find("1_1_arrival"));
+        assertEquals(Set.of("1_1_arrival"), CompletionSet.fromByteArray(dictionary, bytes));
+        assertFalse(CompletionSet.contains(bytes, 0));
+    }
+
+    @Test
+    void ordinalOf_ShouldNotifyListenerBeforeUse_AndKeepRestoredOrdinals() {
+        // Arrange
+        List<String> persisted = new ArrayList<>();
+        dictionary.restore("1_1_arrival", 4);
+        dictionary.setListener((kind, key, ordinal) -> persisted.add(kind + ":" + key + ":" + ordinal));
+
+        // Act
+        int restored = dictionary.ordinalOf("1_1_arrival");
+        int assigned = dictionary.ordinalOf("1_2_power_awakening");
+
+        // Assert
+        assertEquals(4, restored);
+        assertEquals(5, assigned);
+        assertEquals(List.of("chapter:1_2_power_awakening:5"), persisted);
+        assertEquals("1_2_power_awakening", dictionary.keyOf(5));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.services.ContentOrdinals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ProgressRepositoryImplTest {
+
+    @Configuration
+    @Import(ContentOrdinals.class)
+    @EntityScan(basePackageClasses = Progress.class)
+    @EnableJpaRepositories(basePackageClasses = ProgressRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    private Progress progress(String... completedChapters) {
+        Progress progress = new Progress();
+        progress.getCompletedChapters().addAll(List.of(completedChapters));
+        return entityManager.persist(progress);
+    }
+
+    @Test
+    void findByCompletedChaptersContains_ShouldReturnOnlyMatchingProgress_WhenBitIsPastFirstByte() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            progress("repository_test_chapter_" + i);
+        }
+        Progress first = progress("repository_test_chapter_0", "repository_test_chapter_9");
+        Progress second = progress("repository_test_chapter_9");
+        progress("repository_test_chapter_8");
+        progress();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<Progress> found = progressRepository.findByCompletedChaptersContains("repository_test_chapter_9");
+
+        // Assert
+        assertEquals(3, found.size());
+        List<Long> ids = found.stream().map(Progress::getId).toList();
+        assertTrue(ids.contains(first.getId()));
+        assertTrue(ids.contains(second.getId()));
+        found.forEach(progress -> assertTrue(progress.getCompletedChapters().contains("repository_test_chapter_9")));
+    }
+
+    @Test
+    void findByCompletedChaptersContains_ShouldReturnEmpty_WhenChapterHasNoOrdinal() {
+        // Arrange
+        progress("repository_test_chapter_0");
+
+        // Act & Assert
+        assertTrue(progressRepository.findByCompletedChaptersContains("repository_test_never_completed").isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.disparter.tokugawa.discord.core.repositories;
+
+import io.github.disparter.tokugawa.discord.core.models.Villain;
+import io.github.disparter.tokugawa.discord.core.services.ContentOrdinals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class VillainRepositoryImplTest {
+
+    @Configuration
+    @Import(ContentOrdinals.class)
+    @EntityScan(basePackageClasses = Villain.class)
+    @EnableJpaRepositories(basePackageClasses = VillainRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VillainRepository villainRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Villain villain(String name, Villain.VillainType type) {
+        Villain villain = new Villain();
+        villain.setName(name);
+        villain.setDescription("Description of " + name);
+        villain.setType(type);
+        return villain;
+    }
+
+    @Test
+    void insertColumns_ShouldMatchEveryMappedColumnButId() {
+        // Act
+        Set<String> columns = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT LOWER(COLUMN_NAME) FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'VILLAIN'", String.class));
+
+        // Assert
+        assertTrue(columns.remove("id"));
+        assertEquals(Set.copyOf(VillainRepositoryImpl.INSERT_COLUMNS), columns);
+    }
+
+    @Test
+    void insertMinions_ShouldInsertAndLinkMinions_WhenMasterHasCollections() {
+        // Arrange
+        Villain master = villain("Oni", Villain.VillainType.BOSS);
+        master.setAbilities(new ArrayList<>(List.of("Fire Breath", "Summon")));
+        master.setRewards(new HashMap<>(Map.of("exp", 100, "currency", 50)));
+        entityManager.persistAndFlush(master);
+
+        List<Villain> minions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Villain minion = villain("Imp " + i, Villain.VillainType.MINION);
+            minion.setLevel(i + 1);
+            minion.setSpawnLocation("forest");
+            minions.add(minion);
+        }
+
+        // Act
+        List<Villain> inserted = villainRepository.insertMinions(master, minions);
+
+        // Assert
+        List<Long> minionIds = inserted.stream().map(Villain::getId).toList();
+        assertEquals(3, minionIds.size());
+        assertFalse(minionIds.contains(null));
+        assertEquals(3, Set.copyOf(minionIds).size());
+        assertEquals(Set.copyOf(minionIds), Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT minion_ids FROM villain_minions WHERE villain_id = ?", Long.class, master.getId())));
+
+        entityManager.clear();
+        Villain reloaded = villainRepository.findById(master.getId()).orElseThrow();
+        assertEquals(List.of("Fire Breath", "Summon"), reloaded.getAbilities());
+        assertEquals(Map.of("exp", 100, "currency", 50), reloaded.getRewards());
+        assertEquals(Set.copyOf(minionIds), Set.copyOf(reloaded.getMinionIds()));
+
+        Map<Long, Villain> reloadedMinions = villainRepository.findAllById(minionIds).stream()
+                .collect(Collectors.toMap(Villain::getId, minion -> minion));
+        for (int i = 0; i < 3; i++) {
+            Villain minion = reloadedMinions.get(minionIds.get(i));
+            assertEquals("Imp " + i, minion.getName());
+            assertEquals(Villain.VillainType.MINION, minion.getType());
+            assertEquals(i + 1, minion.getLevel());
+            assertEquals("forest", minion.getSpawnLocation());
+            assertTrue(minion.getActive());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.CombatLog;
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import io.github.disparter.tokugawa.discord.core.models.NPC;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.ScheduledDeadline.DeadlineType;
+import io.github.disparter.tokugawa.discord.core.repositories.DuelRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActiveDuelRegistryTest {
+
+    @Mock
+    private DuelRepository duelRepository;
+
+    @Mock
+    private TechniqueRepository techniqueRepository;
+
+    @Mock
+    private DeadlineService deadlineService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private Path journal;
+    private Duel duel;
+
+    @BeforeEach
+    void setUp() {
+        journal = tempDir.resolve("duels.journal");
+
+        Player player = new Player();
+        player.setId(1L);
+        player.setName("Hana");
+        NPC npc = new NPC();
+        npc.setId(2L);
+        npc.setName("Akira");
+        duel = new Duel();
+        duel.setDuelId("duel-1");
+        duel.setPlayer(player);
+        duel.setNpc(npc);
+        duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+        duel.getCombatLog().append(1, CombatLog.EntryType.START, CombatLog.Actor.PLAYER, null, 0, false, 0);
+    }
+
+    private ActiveDuelRegistry createRegistry() {
+        return new ActiveDuelRegistry(duelRepository, techniqueRepository, deadlineService, new ObjectMapper(),
+                transactionManager, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC), journal.toString());
+    }
+
+    private DuelState playRound(ActiveDuelRegistry registry, DuelState state) {
+        int round = state.getRound();
+        state.setNpcHealth(state.getNpcHealth() - 10);
+        state.setPlayerHealth(state.getPlayerHealth() - 7);
+        state.getCombatLog().append(round, CombatLog.EntryType.TECHNIQUE, CombatLog.Actor.PLAYER, 3L, 10, false, 0);
+        state.getCombatLog().append(round, CombatLog.EntryType.BASIC_ATTACK, CombatLog.Actor.NPC, null, 7, false, 0);
+        state.setRound(round + 1);
+        state.setTurnDeadline(60_000L * round);
+        registry.journal(state);
+        return state;
+    }
+
+    @Test
+    void journal_ShouldNotSaveDuel_WhenTurnIsPlayed() throws IOException {
+        // Arrange
+        ActiveDuelRegistry registry = createRegistry();
+        DuelState state = DuelState.of(duel);
+        registry.open(state);
+
+        // Act
+        playRound(registry, state);
+        playRound(registry, state);
+
+        // Assert
+        assertSame(state, registry.get("duel-1"));
+        assertEquals(3, Files.readAllLines(journal).size());
+        assertEquals(100, duel.getNpcHealth());
+        verify(duelRepository, never()).save(any());
+        verify(duelRepository, never()).findByDuelId(anyString());
+    }
+
+    @Test
+    void compactJournal_ShouldKeepWholeCombatLog_WhenRewritingJournal() throws IOException {
+        // Arrange
+        ActiveDuelRegistry crashed = createRegistry();
+        DuelState state = DuelState.of(duel);
+        crashed.open(state);
+        playRound(crashed, state);
+        crashed.compactJournal();
+        playRound(crashed, state);
+        crashed.shutdown();
+        when(duelRepository.findByDuelId("duel-1")).thenReturn(Optional.of(duel));
+
+        // Act
+        createRegistry().run();
+
+        // Assert
+        assertArrayEquals(state.getCombatLog().toByteArray(), duel.getCombatLog().toByteArray());
+    }
+
+    @Test
+    void close_ShouldClearJournal_WhenNoDuelIsActive() throws IOException {
+        // Arrange
+        ActiveDuelRegistry registry = createRegistry();
+        DuelState state = DuelState.of(duel);
+        registry.open(state);
+        playRound(registry, state);
+
+        // Act
+        registry.close("duel-1");
+
+        // Assert
+        assertEquals(0, registry.getActiveCount());
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    void run_ShouldSaveJournaledStateAndRestoreTimeout_WhenPreviousRunStoppedDuringDuel() throws IOException {
+        // Arrange
+        ActiveDuelRegistry crashed = createRegistry();
+        DuelState state = DuelState.of(duel);
+        crashed.open(state);
+        playRound(crashed, state);
+        playRound(crashed, state);
+        crashed.shutdown();
+        when(duelRepository.findByDuelId("duel-1")).thenReturn(Optional.of(duel));
+
+        // Act
+        createRegistry().run();
+
+        // Assert
+        assertEquals(80, duel.getNpcHealth());
+        assertEquals(86, duel.getPlayerHealth());
+        assertEquals(3, duel.getRound());
+        assertEquals(5, duel.getCombatLog().entries().size());
+        assertEquals(2, duel.getCombatLog().lastRound().get(0).getRound());
+        verify(duelRepository, times(1)).save(duel);
+        verify(deadlineService).schedule(DeadlineType.DUEL_TURN_TIMEOUT, "duel-1",
+                LocalDateTime.of(1970, 1, 1, 0, 2));
+        assertFalse(Files.exists(journal));
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChapterAvailabilityTrackerTest {
+
+    @Mock
+    private ChapterLoader chapterLoader;
+
+    private ChapterAvailabilityTracker tracker;
+    private ChapterDependencyGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Chapter> chapters = new LinkedHashMap<>();
+        chapters.put("intro", chapter("intro", "{\"is_new_player\": true}"));
+        chapters.put("arrival", chapter("arrival"));
+        chapters.put("awakening", chapter("awakening", "{\"previous_chapter\": \"arrival\"}"));
+        graph = ChapterDependencyGraph.build(1, chapters, null, new ObjectMapper());
+        tracker = new ChapterAvailabilityTracker(chapterLoader, 2);
+    }
+
+    private Chapter chapter(String chapterId, String... requirements) {
+        Chapter chapter = new Chapter();
+        chapter.setChapterId(chapterId);
+        chapter.setRequirements(List.of(requirements));
+        return chapter;
+    }
+
+    @Test
+    void chapterCompleted_ShouldUnlockDependents() {
+        // Arrange
+        when(chapterLoader.getDependencyGraph()).thenReturn(graph);
+        List<String> completed = new ArrayList<>();
+        assertEquals(List.of("intro", "arrival"), tracker.getAvailableChapters(1L, completed));
+
+        // Act
+        completed.add("arrival");
+        tracker.chapterCompleted(1L, "arrival");
+
+        // Assert
+        assertEquals(List.of("awakening"), tracker.getAvailableChapters(1L, completed));
+    }
+
+    @Test
+    void getAvailableChapters_ShouldRecompute_WhenGraphChanges() {
+        // Arrange
+        ChapterDependencyGraph reloaded = ChapterDependencyGraph.build(2,
+                Map.of("arrival", chapter("arrival")), graph, new ObjectMapper());
+        when(chapterLoader.getDependencyGraph()).thenReturn(graph, reloaded);
+        tracker.getAvailableChapters(1L, List.of());
+
+        // Act
+        List<String> available = tracker.getAvailableChapters(1L, List.of());
+
+        // Assert
+        assertEquals(List.of("arrival"), available);
+    }
+
+    @Test
+    void getAvailableChapters_ShouldDropLeastRecentlyUsedPlayer_WhenLimitIsReached() {
+        // Arrange
+        when(chapterLoader.getDependencyGraph()).thenReturn(graph);
+        List<String> completed = new ArrayList<>();
+        tracker.getAvailableChapters(1L, completed);
+        tracker.getAvailableChapters(2L, completed);
+        tracker.getAvailableChapters(1L, completed);
+
+        // Act
+        tracker.getAvailableChapters(3L, completed);
+        tracker.chapterCompleted(1L, "arrival");
+        tracker.chapterCompleted(2L, "arrival");
+
+        // Assert
+        // A tracked player's set follows their tracked completions; a dropped player's is computed
+        // afresh from the completed chapters given
+        assertEquals(List.of("awakening"), tracker.getAvailableChapters(1L, List.of("intro")));
+        assertEquals(List.of("arrival"), tracker.getAvailableChapters(2L, List.of("intro")));
+    }
+}
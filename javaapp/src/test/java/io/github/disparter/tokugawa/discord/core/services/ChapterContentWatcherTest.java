@@ -0,0 +1,122 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.repositories.ChapterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChapterContentWatcherTest {
+
+    @Mock
+    private ChapterRepository chapterRepository;
+
+    @Mock
+    private ChapterGraphCache chapterGraphCache;
+
+    private ChapterLoader chapterLoader;
+    private ChapterContentWatcher watcher;
+    private Path chaptersDir;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        chapterLoader = new ChapterLoader(chapterRepository, objectMapper, tempDir.toString(),
+                "file:" + tempDir.resolve("story_mode/narrative"), "file:" + tempDir.resolve("narrative.zip"),
+                "file:" + tempDir.resolve("narrative.bundle"));
+        NarrativeValidator narrativeValidator = new NarrativeValidator(chapterLoader, objectMapper);
+        watcher = new ChapterContentWatcher(chapterLoader, narrativeValidator, chapterGraphCache, false, 250);
+
+        chaptersDir = Files.createDirectories(tempDir.resolve("narrative/chapters"));
+        Files.writeString(chaptersDir.resolve("chapter1.json"),
+                "{\"title\": \"One\", \"description\": \"First\", \"next_chapter\": \"chapter2\"}");
+        Files.writeString(chaptersDir.resolve("chapter2.json"), "{\"title\": \"Two\", \"description\": \"Second\"}");
+        chapterLoader.loadChapters();
+    }
+
+    @Test
+    void reload_ShouldPublishAndInvalidate_WhenChangeIsValid() throws IOException {
+        // Arrange
+        long version = chapterLoader.getVersion();
+        Path changed = chaptersDir.resolve("chapter2.json");
+        Files.writeString(changed, "{\"title\": \"Two v2\", \"description\": \"Second\"}");
+
+        // Act
+        boolean published = watcher.reload(List.of(changed));
+
+        // Assert
+        assertTrue(published);
+        assertEquals(version + 1, chapterLoader.getVersion());
+        assertEquals("Two v2", chapterLoader.getChapter("chapter2").getTitle());
+        verify(chapterGraphCache).invalidate("chapter2");
+    }
+
+    @Test
+    void reload_ShouldKeepCurrentContent_WhenChangeBreaksLinks() throws IOException {
+        // Arrange
+        long version = chapterLoader.getVersion();
+        Path deleted = chaptersDir.resolve("chapter2.json");
+        Files.delete(deleted);
+
+        // Act
+        boolean published = watcher.reload(List.of(deleted));
+
+        // Assert
+        assertFalse(published);
+        assertEquals(version, chapterLoader.getVersion());
+        assertNotNull(chapterLoader.getChapter("chapter2"));
+        verify(chapterGraphCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    void reloadAll_ShouldPublishEveryChapter_WhenContentIsValid() throws IOException {
+        // Arrange
+        long version = chapterLoader.getVersion();
+        Files.writeString(chaptersDir.resolve("chapter2.json"), "{\"title\": \"Two v2\", \"description\": \"Second\"}");
+        Files.writeString(chaptersDir.resolve("chapter3.json"), "{\"title\": \"Three\", \"description\": \"Third\"}");
+
+        // Act
+        boolean published = watcher.reloadAll();
+
+        // Assert
+        assertTrue(published);
+        assertEquals(version + 1, chapterLoader.getVersion());
+        assertEquals("Two v2", chapterLoader.getChapter("chapter2").getTitle());
+        assertNotNull(chapterLoader.getChapter("chapter3"));
+        verify(chapterGraphCache).invalidate("chapter2");
+        verify(chapterGraphCache).invalidate("chapter3");
+    }
+
+    @Test
+    void reloadAll_ShouldKeepCurrentContent_WhenContentBreaksLinks() throws IOException {
+        // Arrange
+        long version = chapterLoader.getVersion();
+        Files.delete(chaptersDir.resolve("chapter2.json"));
+
+        // Act
+        boolean published = watcher.reloadAll();
+
+        // Assert
+        assertFalse(published);
+        assertEquals(version, chapterLoader.getVersion());
+        assertNotNull(chapterLoader.getChapter("chapter2"));
+        verify(chapterGraphCache, never()).invalidate(anyString());
+        verify(chapterGraphCache, never()).invalidateAll();
+    }
+}
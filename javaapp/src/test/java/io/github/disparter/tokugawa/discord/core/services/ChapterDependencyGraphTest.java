@@ -0,0 +1,92 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChapterDependencyGraphTest {
+
+    private ObjectMapper objectMapper;
+    private Map<String, Chapter> chapters;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        chapters = new LinkedHashMap<>();
+        chapters.put("intro", chapter("intro", "{\"is_new_player\": true}"));
+        chapters.put("arrival", chapter("arrival"));
+        chapters.put("awakening", chapter("awakening", "{\"previous_chapter\": \"arrival\"}"));
+        chapters.put("trial", chapter("trial", "{\"chapters\": [\"arrival\", \"awakening\"], \"stats\": {\"strength\": 12}}"));
+    }
+
+    private Chapter chapter(String chapterId, String... requirements) {
+        Chapter chapter = new Chapter();
+        chapter.setChapterId(chapterId);
+        chapter.setRequirements(List.of(requirements));
+        return chapter;
+    }
+
+    @Test
+    void computeAvailable_ShouldApplyCompiledRequirements() {
+        // Arrange
+        ChapterDependencyGraph graph = ChapterDependencyGraph.build(1, chapters, null, objectMapper);
+
+        // Act
+        Set<String> newPlayer = graph.computeAvailable(Set.of(), Map.of());
+        Set<String> progressed = graph.computeAvailable(Set.of("arrival", "awakening"), Map.of("strength", 12));
+        Set<String> weak = graph.computeAvailable(Set.of("arrival", "awakening"), Map.of("strength", 11));
+
+        // Assert
+        assertEquals(Set.of("intro", "arrival"), newPlayer);
+        assertEquals(Set.of("trial"), progressed);
+        assertEquals(Set.of(), weak);
+    }
+
+    @Test
+    void getDependents_ShouldListChaptersRequiringChapter() {
+        // Arrange
+        ChapterDependencyGraph graph = ChapterDependencyGraph.build(1, chapters, null, objectMapper);
+
+        // Act & Assert
+        assertEquals(List.of("awakening", "trial"), graph.getDependents("arrival"));
+        assertEquals(List.of("trial"), graph.getDependents("awakening"));
+        assertEquals(List.of("intro"), graph.getNewPlayerChapters());
+    }
+
+    @Test
+    void build_ShouldReuseRequirementsOfUnchangedChapters() {
+        // Arrange
+        ChapterDependencyGraph previous = ChapterDependencyGraph.build(1, chapters, null, objectMapper);
+        Map<String, Chapter> reloaded = new LinkedHashMap<>(chapters);
+        reloaded.put("trial", chapter("trial"));
+
+        // Act
+        ChapterDependencyGraph graph = ChapterDependencyGraph.build(2, reloaded, previous, objectMapper);
+
+        // Assert
+        assertSame(previous.getRequirements("awakening"), graph.getRequirements("awakening"));
+        assertEquals(List.of(), graph.getRequirements("trial").getRequiredChapters());
+        assertEquals(List.of("awakening"), graph.getDependents("arrival"));
+    }
+
+    @Test
+    void findCycles_ShouldReportCircularRequirements() {
+        // Arrange
+        chapters.put("loop_a", chapter("loop_a", "{\"previous_chapter\": \"loop_b\"}"));
+        chapters.put("loop_b", chapter("loop_b", "{\"previous_chapter\": \"loop_a\"}"));
+
+        // Act
+        ChapterDependencyGraph graph = ChapterDependencyGraph.build(1, chapters, null, objectMapper);
+
+        // Assert
+        assertEquals(Set.of("loop_a", "loop_b"), graph.findCycles());
+    }
+}
@@ -17,6 +17,10 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,7 +41,9 @@ public class ChapterLoaderTest {
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
-        chapterLoader = new ChapterLoader(chapterRepository, objectMapper, tempDir.toString());
+        chapterLoader = new ChapterLoader(chapterRepository, objectMapper, tempDir.toString(),
+                "file:" + tempDir.resolve("story_mode/narrative"), "file:" + tempDir.resolve("narrative.zip"),
+                "file:" + tempDir.resolve("narrative.bundle"));
     }
 
     @Test
@@ -128,4 +134,157 @@ public class ChapterLoaderTest {
         assertDoesNotThrow(() -> chapterLoader.loadChapters());
         verify(chapterRepository, times(1)).saveAll(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadChapters_ShouldLoadChaptersFromNarrativeLocation() throws IOException {
+        // Arrange
+        Path romanceDir = Files.createDirectories(tempDir.resolve("story_mode/narrative/romance"));
+        Files.writeString(romanceDir.resolve("date.json"), "{\"chapter_id\": \"romance_date\", "
+                + "\"title\": \"Date\", \"description\": \"A date\", \"phase\": \"year_1_intro\", "
+                + "\"rewards\": {\"experience\": 30}, \"requirements\": {\"level\": 2}}");
+
+        // Act
+        chapterLoader.loadChapters();
+
+        // Assert
+        Chapter chapter = chapterLoader.getChapter("romance_date");
+        assertNotNull(chapter);
+        assertEquals("year_1_intro", chapter.getArcId());
+        assertEquals(30, chapter.getCompletionExp());
+        assertEquals(List.of("{\"level\":2}"), chapter.getRequirements());
+    }
+
+    @Test
+    void loadChapters_ShouldLoadChaptersFromNarrativeArchive() throws IOException {
+        // Arrange
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(tempDir.resolve("narrative.zip")))) {
+            zip.putNextEntry(new ZipEntry("narrative/club/club_intro.json"));
+            zip.write(("{\"id\": \"club_intro\", \"title\": \"Clubs\", \"description\": \"Joining a club\", "
+                    + "\"dialogues\": [{\"npc\": \"Sensei\", \"text\": \"Welcome\"}]}").getBytes());
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("narrative/index.json"));
+            zip.write("{\"title\": \"Index\", \"description\": \"Not a chapter\"}".getBytes());
+            zip.closeEntry();
+        }
+
+        // Act
+        chapterLoader.loadChapters();
+
+        // Assert
+        Chapter chapter = chapterLoader.getChapter("club_intro");
+        assertNotNull(chapter);
+        assertEquals("Clubs", chapter.getTitle());
+        assertEquals(1, chapter.getDialogues().size());
+        assertTrue(chapter.getDialogues().get(0).contains("\"npc\":\"Sensei\""));
+        assertEquals(1, chapterLoader.getAllChapters().size());
+    }
+
+    @Test
+    void prepareReload_ShouldReparseOnlyChangedFiles() throws IOException {
+        // Arrange
+        Path chaptersDir = Files.createDirectories(tempDir.resolve("narrative/chapters"));
+        Files.writeString(chaptersDir.resolve("chapter1.json"),
+                "{\"title\": \"One\", \"description\": \"First\", \"next_chapter\": \"chapter2\"}");
+        Files.writeString(chaptersDir.resolve("chapter2.json"), "{\"title\": \"Two\", \"description\": \"Second\"}");
+        chapterLoader.loadChapters();
+        Chapter unchanged = chapterLoader.getChapter("chapter1");
+        Files.writeString(chaptersDir.resolve("chapter2.json"), "{\"title\": \"Two v2\", \"description\": \"Second\"}");
+
+        // Act
+        ChapterLoader.ChapterReload reload = chapterLoader.prepareReload(List.of(chaptersDir.resolve("chapter2.json")));
+
+        // Assert
+        assertEquals(Set.of("chapter2"), reload.getChangedChapterIds());
+        assertEquals(Set.of("chapter1", "chapter2"), reload.getAffectedChapterIds());
+        assertEquals("Two v2", reload.getChapters().get("chapter2").getTitle());
+        assertSame(unchanged, reload.getChapters().get("chapter1"));
+        assertEquals("Two", chapterLoader.getChapter("chapter2").getTitle());
+    }
+
+    @Test
+    void publish_ShouldSwapSnapshot_WhenPreparedOnCurrentVersion() throws IOException {
+        // Arrange
+        Path chaptersDir = Files.createDirectories(tempDir.resolve("narrative/chapters"));
+        Files.writeString(chaptersDir.resolve("chapter1.json"), "{\"title\": \"One\", \"description\": \"First\"}");
+        chapterLoader.loadChapters();
+        long version = chapterLoader.getVersion();
+        Files.delete(chaptersDir.resolve("chapter1.json"));
+        ChapterLoader.ChapterReload stale = chapterLoader.prepareReload(List.of(chaptersDir.resolve("chapter1.json")));
+        ChapterLoader.ChapterReload reload = chapterLoader.prepareReload(List.of(chaptersDir.resolve("chapter1.json")));
+
+        // Act
+        boolean published = chapterLoader.publish(reload);
+        boolean stalePublished = chapterLoader.publish(stale);
+
+        // Assert
+        assertTrue(published);
+        assertFalse(stalePublished);
+        assertEquals(version + 1, chapterLoader.getVersion());
+        assertEquals(Set.of("chapter1"), reload.getRemovedChapterIds());
+        assertNull(chapterLoader.getChapter("chapter1"));
+    }
+
+    @Test
+    void loadChapters_ShouldMergeExistingRowsAndDeleteRemovedChapters() throws IOException {
+        // Arrange
+        Path chaptersDir = Files.createDirectories(tempDir.resolve("narrative/chapters"));
+        Files.writeString(chaptersDir.resolve("chapter1.json"), "{\"title\": \"One\", \"description\": \"First\"}");
+        Chapter existing = new Chapter();
+        existing.setId(7L);
+        existing.setChapterId("chapter1");
+        Chapter removed = new Chapter();
+        removed.setId(9L);
+        removed.setChapterId("chapter_removed");
+        when(chapterRepository.findAll()).thenReturn(List.of(existing, removed));
+
+        // Act
+        chapterLoader.loadChapters();
+
+        // Assert
+        assertEquals(7L, chapterLoader.getChapter("chapter1").getId());
+        verify(chapterRepository, times(1)).deleteAll(List.of(removed));
+    }
+
+    @Test
+    void publish_ShouldDeleteRemovedChapters() throws IOException {
+        // Arrange
+        Path chaptersDir = Files.createDirectories(tempDir.resolve("narrative/chapters"));
+        Files.writeString(chaptersDir.resolve("chapter1.json"), "{\"title\": \"One\", \"description\": \"First\"}");
+        chapterLoader.loadChapters();
+        Chapter existing = new Chapter();
+        existing.setId(7L);
+        existing.setChapterId("chapter1");
+        when(chapterRepository.findByChapterId("chapter1")).thenReturn(Optional.of(existing));
+        Files.delete(chaptersDir.resolve("chapter1.json"));
+        ChapterLoader.ChapterReload reload = chapterLoader.prepareReload(List.of(chaptersDir.resolve("chapter1.json")));
+
+        // Act
+        boolean published = chapterLoader.publish(reload);
+
+        // Assert
+        assertTrue(published);
+        verify(chapterRepository, times(1)).deleteAll(List.of(existing));
+    }
+
+    @Test
+    void publish_ShouldKeepCurrentSnapshot_WhenSaveFails() throws IOException {
+        // Arrange
+        Path chaptersDir = Files.createDirectories(tempDir.resolve("narrative/chapters"));
+        Path chapterFile = chaptersDir.resolve("chapter1.json");
+        Files.writeString(chapterFile, "{\"title\": \"One\", \"description\": \"First\"}");
+        chapterLoader.loadChapters();
+        long version = chapterLoader.getVersion();
+        Files.writeString(chapterFile, "{\"title\": \"One v2\", \"description\": \"First\"}");
+        ChapterLoader.ChapterReload failing = chapterLoader.prepareReload(List.of(chapterFile));
+        when(chapterRepository.saveAll(any())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> chapterLoader.publish(failing));
+        assertEquals(version, chapterLoader.getVersion());
+        assertEquals("One", chapterLoader.getChapter("chapter1").getTitle());
+
+        reset(chapterRepository);
+        assertTrue(chapterLoader.publish(chapterLoader.prepareReload(List.of(chapterFile))));
+        assertEquals("One v2", chapterLoader.getChapter("chapter1").getTitle());
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.github.disparter.tokugawa.discord.core.services.CompiledChapter.ChoiceEdge;
+import io.github.disparter.tokugawa.discord.core.services.CompiledChapter.ChoiceEffects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledChapterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Chapter chapter;
+
+    @BeforeEach
+    void setUp() {
+        chapter = new Chapter();
+        chapter.setId(1L);
+        chapter.setChapterId("chapter_1");
+        chapter.setTitle("Test Chapter");
+        chapter.setNextChapterId("chapter_2");
+        chapter.setChoices(List.of("Leave"));
+        chapter.setDialogues(List.of(
+                "{\"text\":\"First\",\"choices\":[\"Option 1\",{\"text\":\"Fight\",\"next_scene\":\"dojo\","
+                        + "\"effects\":{\"attributes\":{\"strength\":2},\"faction_reputation\":{\"ninja\":5},\"currency\":-10}}]}",
+                "{\"text\":\"No choices here\"}",
+                "not json"));
+        chapter.setScenes(List.of(
+                "{\"scene_id\":\"garden\"}",
+                "{\"scene_id\":\"dojo\"}"));
+    }
+
+    @Test
+    void compile_ShouldBuildChoiceEdgesWithEffects() {
+        // Act
+        CompiledChapter compiled = CompiledChapter.compile(chapter, objectMapper);
+
+        // Assert
+        List<ChoiceEdge> choices = compiled.getChoices(0);
+        assertEquals(2, choices.size());
+        assertEquals("Option 1", choices.get(0).getText());
+        assertNull(choices.get(0).getNextDialogue());
+
+        ChoiceEdge fight = choices.get(1);
+        assertEquals("Fight", fight.getText());
+        assertEquals("dojo", fight.getNextScene());
+        ChoiceEffects effects = fight.getEffects();
+        assertEquals(2, effects.getStrength());
+        assertEquals(-10, effects.getCurrency());
+        assertEquals(5, effects.getFactionReputation().get("ninja"));
+        assertTrue(effects.getDescriptions().contains("currency:-10"));
+    }
+
+    @Test
+    void getChoices_ShouldFallBackToChapterChoices_WhenDialogueHasNone() {
+        // Act
+        CompiledChapter compiled = CompiledChapter.compile(chapter, objectMapper);
+
+        // Assert
+        assertEquals("Leave", compiled.getChoices(1).get(0).getText());
+        assertEquals("Leave", compiled.getChoices(2).get(0).getText());
+        assertEquals("Leave", compiled.getChoices(3).get(0).getText());
+        assertEquals(3, compiled.getDialogueCount());
+    }
+
+    @Test
+    void getSceneIndex_ShouldResolveSceneIds() {
+        // Act
+        CompiledChapter compiled = CompiledChapter.compile(chapter, objectMapper);
+
+        // Assert
+        assertEquals(1, compiled.getSceneIndex("dojo"));
+        assertEquals(0, compiled.getSceneIndex("garden"));
+        assertNull(compiled.getSceneIndex("missing"));
+    }
+
+    @Test
+    void compile_ShouldMarkMalformedChoiceAsInvalid() {
+        // Arrange
+        chapter.setDialogues(List.of());
+        chapter.setChoices(List.of("{not valid json"));
+
+        // Act
+        CompiledChapter compiled = CompiledChapter.compile(chapter, objectMapper);
+
+        // Assert
+        assertFalse(compiled.getChoices(0).get(0).isValid());
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledTechniqueTest {
+
+    /**
+     * Rolls the middle of every range: no damage variance, and a 50 on percent rolls.
+     */
+    private final Random random = new Random() {
+        @Override
+        public int nextInt(int bound) {
+            return bound / 2;
+        }
+    };
+
+    private DuelState duel;
+
+    @BeforeEach
+    void setUp() {
+        duel = new DuelState();
+        duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+        duel.setPlayerHealth(100);
+        duel.setNpcHealth(100);
+    }
+
+    @Test
+    void compile_ShouldOrderEffectsByStage_AndIgnoreUnknownKeys() {
+        // Act
+        CompiledTechnique compiled = TechniqueFixtures.compiled(7L, 10, 15, Map.of(
+                "shield", 5, "critical_chance", 20, "power_stat_scaling", 50, "damage_boost", 3,
+                "duel_boost", 30, "unknown_scaling", 10));
+
+        // Assert
+        assertEquals(4, compiled.getEffectCount());
+        assertEquals(CompiledTechnique.EffectType.DAMAGE_BOOST, compiled.getEffectType(0));
+        assertEquals(CompiledTechnique.EffectType.STAT_SCALING, compiled.getEffectType(1));
+        assertEquals(CompiledTechnique.EffectType.CRITICAL_CHANCE, compiled.getEffectType(2));
+        assertEquals(CompiledTechnique.EffectType.SHIELD, compiled.getEffectType(3));
+        assertEquals(15, compiled.getManaCost());
+    }
+
+    @Test
+    void apply_ShouldScaleWithAttackerStats_AndDoubleOnCriticalHit() {
+        // Arrange
+        duel.setPlayerStats(new CombatStats(40, 0, 0, 0));
+        duel.setNpcStats(new CombatStats(0, 30, 0, 0));
+        CompiledTechnique compiled = TechniqueFixtures.compiled(7L, 10, 15, Map.of(
+                "damage_boost", 2, "power_stat_scaling", 50, "critical_chance", 60));
+
+        // Act
+        long hit = compiled.apply(duel, true, random);
+
+        // Assert
+        // (10 + 2 + 40 * 50%) * 2 - 30 / 10
+        assertEquals(61, CompiledTechnique.damageOf(hit));
+        assertTrue(CompiledTechnique.isCritical(hit));
+        assertEquals(39, duel.getNpcHealth());
+    }
+
+    @Test
+    void apply_ShouldSetDamageOverTimeAndShield_AndAbsorbWithDefenderShield() {
+        // Arrange
+        duel.setPlayerShield(4);
+        CompiledTechnique compiled = TechniqueFixtures.compiled(7L, 10, 15, Map.of(
+                "dot_damage", 3, "dot_turns", 2, "shield", 6, "critical_chance", 10));
+
+        // Act
+        long hit = compiled.apply(duel, false, random);
+
+        // Assert
+        assertEquals(6, CompiledTechnique.damageOf(hit));
+        assertFalse(CompiledTechnique.isCritical(hit));
+        assertEquals(94, duel.getPlayerHealth());
+        assertEquals(0, duel.getPlayerShield());
+        assertEquals(3, duel.getPlayerDotDamage());
+        assertEquals(2, duel.getPlayerDotTurns());
+        assertEquals(6, duel.getNpcShield());
+    }
+}
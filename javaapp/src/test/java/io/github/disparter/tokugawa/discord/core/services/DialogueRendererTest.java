@@ -0,0 +1,110 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import discord4j.core.spec.EmbedCreateSpec;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DialogueRendererTest {
+
+    @Mock
+    private AssetService assetService;
+
+    @Mock
+    private ChapterLoader chapterLoader;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DialogueRenderer dialogueRenderer;
+    private Chapter chapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dialogueRenderer = new DialogueRenderer(assetService, new ObjectMapper(), chapterLoader, meterRegistry, 2);
+
+        chapter = new Chapter();
+        chapter.setChapterId("1_1_arrival");
+        chapter.setTitle("Chegada à Academia");
+        chapter.setChoices(new ArrayList<>(List.of("Continuar")));
+        chapter.setDialogues(new ArrayList<>(List.of(
+                "{\"speaker\":\"professor_elementus\",\"text\":\"Bem-vindo.\",\"background\":\"academy_gate.png\","
+                        + "\"choices\":[{\"text\":\"Agradecer\",\"next_dialogue\":1},\"Ficar em silêncio\"]}",
+                "O portão se fecha atrás de você.",
+                "Fim.")));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void render_ShouldRenderDialogueOnce_WhenRequestedAgain() throws Exception {
+        // Arrange
+        when(chapterLoader.getVersion()).thenReturn(1L);
+        when(assetService.getBackgroundImageUrl("academy_gate"))
+                .thenReturn(new URL("https://assets.example.com/backgrounds/academy_gate.png"));
+
+        // Act
+        EmbedCreateSpec first = dialogueRenderer.render(chapter, 0);
+        EmbedCreateSpec second = dialogueRenderer.render(chapter, 0);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("Chegada à Academia", first.title().get());
+        assertEquals("**professor_elementus:** Bem-vindo.", first.description().get());
+        assertEquals("https://assets.example.com/backgrounds/academy_gate.png", first.image().get());
+        assertTrue(first.fields().get(0).value().contains("**1.** Ficar em silêncio"));
+        verify(assetService, times(1)).getBackgroundImageUrl("academy_gate");
+        assertEquals(1, gets("miss"));
+        assertEquals(1, gets("hit"));
+    }
+
+    @Test
+    void render_ShouldRenderAgain_WhenNarrativeVersionChanges() {
+        // Arrange
+        when(chapterLoader.getVersion()).thenReturn(1L, 2L);
+
+        // Act
+        EmbedCreateSpec first = dialogueRenderer.render(chapter, 1);
+        EmbedCreateSpec second = dialogueRenderer.render(chapter, 1);
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("O portão se fecha atrás de você.", second.description().get());
+        assertTrue(second.fields().get(0).value().contains("**0.** Continuar"));
+        assertEquals(2, gets("miss"));
+    }
+
+    @Test
+    void render_ShouldEvictLeastRecentlyUsedDialogue_WhenCacheIsFull() {
+        // Arrange
+        when(chapterLoader.getVersion()).thenReturn(1L);
+        dialogueRenderer.render(chapter, 1);
+        dialogueRenderer.render(chapter, 2);
+        dialogueRenderer.render(chapter, 1);
+
+        // Act
+        dialogueRenderer.render(chapter, 3);
+        dialogueRenderer.render(chapter, 1);
+
+        // Assert
+        assertEquals(2, dialogueRenderer.getCacheSize());
+        assertEquals(1, meterRegistry.get("cache.evictions").functionCounter().count());
+        assertEquals(2, gets("hit"));
+        assertEquals("...", dialogueRenderer.render(chapter, 3).description().get());
+        verifyNoInteractions(assetService);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.CombatLog;
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DuelRulesTest {
+
+    /**
+     * Rolls the middle of every range: no damage variance, and a 50 on percent rolls.
+     */
+    private final Random random = new Random() {
+        @Override
+        public int nextInt(int bound) {
+            return bound / 2;
+        }
+    };
+
+    private DuelState duel;
+
+    @BeforeEach
+    void setUp() {
+        duel = new DuelState();
+        duel.setOpponentId(2L);
+        duel.setStatus(Duel.DuelStatus.IN_PROGRESS);
+        duel.setRound(1);
+        duel.setPlayerHealth(100);
+        duel.setNpcHealth(100);
+        duel.setPlayerMana(100);
+        duel.setNpcMana(100);
+    }
+
+    @Test
+    void simultaneousRound_ShouldPlayBothTechniques_AndOpenNextRound() {
+        // Act
+        DuelRules.Outcome outcome = DuelRules.simultaneousRound(duel, TechniqueFixtures.compiled(1, 20, 30), TechniqueFixtures.compiled(2, 15, 10), random);
+
+        // Assert
+        assertEquals(DuelRules.Outcome.CONTINUE, outcome);
+        assertEquals(80, duel.getPlayerMana());
+        assertEquals(100, duel.getNpcMana());
+        assertEquals(85, duel.getPlayerHealth());
+        assertEquals(80, duel.getNpcHealth());
+        assertEquals(2, duel.getRound());
+        assertEquals(Duel.DuelStatus.IN_PROGRESS, duel.getStatus());
+        assertEquals(2L, duel.getNpcLastTechniqueId());
+    }
+
+    @Test
+    void simultaneousRound_ShouldLetFasterSideStrikeFirst_AndSkipDefeatedSide() {
+        // Arrange
+        duel.setPlayerStats(new CombatStats(0, 10, 0, 0));
+        duel.setNpcStats(new CombatStats(0, 20, 0, 0));
+        duel.setPlayerHealth(10);
+
+        // Act
+        DuelRules.Outcome outcome = DuelRules.simultaneousRound(duel, TechniqueFixtures.compiled(1, 50, 30), TechniqueFixtures.compiled(2, 15, 10), random);
+
+        // Assert
+        assertEquals(DuelRules.Outcome.NPC_WON, outcome);
+        assertEquals(100, duel.getNpcHealth());
+        assertEquals(100, duel.getPlayerMana());
+        List<CombatLog.Entry> entries = duel.getCombatLog().entries();
+        assertEquals(1, entries.size());
+        assertEquals(CombatLog.Actor.NPC, entries.get(0).getActor());
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import io.github.disparter.tokugawa.discord.core.models.NPC;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.Technique;
+import io.github.disparter.tokugawa.discord.core.repositories.DuelRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DuelServiceImplTest {
+
+    @Mock
+    private DuelRepository duelRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private NPCRepository npcRepository;
+
+    @Mock
+    private TechniqueRepository techniqueRepository;
+
+    @Mock
+    private PlayerService playerService;
+
+    @Mock
+    private NarrativeService narrativeService;
+
+    @Mock
+    private RelationshipService relationshipService;
+
+    @Mock
+    private BettingService bettingService;
+
+    @Mock
+    private DeadlineService deadlineService;
+
+    @Mock
+    private ActiveDuelRegistry activeDuelRegistry;
+
+    @Mock
+    private CombatLogRenderer combatLogRenderer;
+
+    @Mock
+    private CompiledTechniqueCache compiledTechniqueCache;
+
+    @Mock
+    private TechniqueLoadoutCache techniqueLoadoutCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private DuelServiceImpl duelService;
+
+    @BeforeEach
+    void setUp() {
+        duelService = new DuelServiceImpl(duelRepository, playerRepository, npcRepository, techniqueRepository,
+                playerService, narrativeService, relationshipService, bettingService, deadlineService,
+                activeDuelRegistry, combatLogRenderer, compiledTechniqueCache, techniqueLoadoutCache,
+                eventPublisher, 10, clock);
+    }
+
+    private Player player(long id, String name) {
+        Player player = new Player();
+        player.setId(id);
+        player.setName(name);
+        return player;
+    }
+
+    private DuelState pvpDuel() {
+        Duel duel = new Duel();
+        duel.setDuelId("duel-1");
+        duel.setPlayer(player(1L, "Hana"));
+        duel.setOpponent(player(2L, "Ren"));
+        duel.setStatus(Duel.DuelStatus.IN_PROGRESS);
+        return DuelState.of(duel);
+    }
+
+    @Test
+    void processTechniqueSelection_ShouldRejectTechnique_WhenPlayerHasNotLearnedIt() {
+        // Arrange
+        DuelState state = pvpDuel();
+        PvpTurn openTurn = state.getPvpTurn().get();
+        Technique known = TechniqueFixtures.technique(3L, 10, 5);
+        when(activeDuelRegistry.get("duel-1")).thenReturn(state);
+        when(techniqueLoadoutCache.getPlayerLoadout(1L)).thenReturn(new TechniqueLoadoutCache.Loadout(
+                List.of(known), new CompiledTechnique[]{CompiledTechnique.compile(known)}, null));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> duelService.processTechniqueSelection("duel-1", 1L, 9L));
+        assertSame(openTurn, state.getPvpTurn().get());
+        verify(compiledTechniqueCache, never()).getCompiledTechnique(anyLong());
+    }
+
+    @Test
+    void cancelDuel_ShouldCloseDuelOnlyAfterCommit_AndStampClockTime() {
+        // Arrange
+        Duel duel = new Duel();
+        duel.setDuelId("duel-2");
+        duel.setPlayer(player(1L, "Hana"));
+        NPC npc = new NPC();
+        npc.setId(5L);
+        npc.setName("Akira");
+        duel.setNpc(npc);
+        duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+        DuelState state = DuelState.of(duel);
+        when(activeDuelRegistry.get("duel-2")).thenReturn(state);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            boolean canceled = duelService.cancelDuel("duel-2");
+
+            // Assert
+            assertTrue(canceled);
+            assertEquals(clock.millis(), state.getEndTime());
+            verify(activeDuelRegistry).save(state);
+            verify(activeDuelRegistry, never()).close(anyString());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(activeDuelRegistry).close("duel-2");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void forfeitDuel_ShouldProcessResultWithoutDuelLock_WhenDuelIsAgainstNpc() {
+        // Arrange
+        Duel duel = new Duel();
+        duel.setDuelId("duel-3");
+        duel.setPlayer(player(1L, "Hana"));
+        NPC npc = new NPC();
+        npc.setId(5L);
+        npc.setName("Akira");
+        duel.setNpc(npc);
+        duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+        DuelState state = DuelState.of(duel);
+        when(activeDuelRegistry.get("duel-3")).thenReturn(state);
+        when(duelRepository.findByDuelId("duel-3")).thenAnswer(invocation -> {
+            duel.setStatus(Duel.DuelStatus.COMPLETED);
+            duel.setPlayerWon(false);
+            return Optional.of(duel);
+        });
+        when(bettingService.resolveDuelBets("duel-3", null)).thenAnswer(invocation -> {
+            assertFalse(Thread.holdsLock(state));
+            return 0;
+        });
+
+        // Act
+        boolean forfeited = duelService.forfeitDuel("duel-3", 1L);
+
+        // Assert
+        assertTrue(forfeited);
+        assertTrue(state.isFinished());
+        verify(activeDuelRegistry).save(state);
+        verify(narrativeService).updateProgressFromDuel(1L, 5L, false);
+        verify(bettingService).resolveDuelBets("duel-3", null);
+    }
+
+    @Test
+    void teachTechniqueToPlayer_ShouldInvalidateLoadoutOnlyAfterCommit() {
+        // Arrange
+        Player player = player(1L, "Hana");
+        Technique technique = TechniqueFixtures.technique(3L, 10, 5);
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+        when(techniqueRepository.findById(3L)).thenReturn(Optional.of(technique));
+        when(playerRepository.save(player)).thenReturn(player);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            duelService.teachTechniqueToPlayer(1L, 3L);
+
+            // Assert
+            assertTrue(player.getKnownTechniques().contains(technique));
+            verify(techniqueLoadoutCache, never()).invalidatePlayer(anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(techniqueLoadoutCache).invalidatePlayer(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Duel;
+import io.github.disparter.tokugawa.discord.core.models.NPC;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DuelTurnReaperTest {
+
+    @Mock
+    private DuelService duelService;
+
+    @Mock
+    private ActiveDuelRegistry activeDuelRegistry;
+
+    @Mock
+    private DeadlineService deadlineService;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private DuelTurnReaper createReaper(boolean forfeitOnTimeout) {
+        return new DuelTurnReaper(duelService, activeDuelRegistry, deadlineService, meterRegistry, clock,
+                forfeitOnTimeout);
+    }
+
+    private Player player(long id, String name) {
+        Player player = new Player();
+        player.setId(id);
+        player.setName(name);
+        return player;
+    }
+
+    private double reaped(String outcome) {
+        return meterRegistry.get("tokugawa.duels.reaped").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void reap_ShouldForfeitIdlePlayer_WhenOpponentHasChosenThisRound() {
+        // Arrange
+        Duel duel = new Duel();
+        duel.setDuelId("duel-1");
+        duel.setPlayer(player(1L, "Hana"));
+        duel.setOpponent(player(2L, "Ren"));
+        duel.setStatus(Duel.DuelStatus.IN_PROGRESS);
+        DuelState state = DuelState.of(duel);
+        state.getPvpTurn().set(PvpTurn.open(1).submit(true, TechniqueFixtures.compiled(3L, 10, 5)));
+        when(activeDuelRegistry.get("duel-1")).thenReturn(state);
+        when(duelService.forfeitDuel("duel-1", 2L)).thenReturn(true);
+
+        // Act
+        createReaper(true).reap("duel-1");
+
+        // Assert
+        verify(duelService, never()).cancelDuel(anyString());
+        assertEquals(1.0, reaped("forfeited"));
+        assertEquals(0.0, reaped("canceled"));
+    }
+
+    @Test
+    void reap_ShouldCancelDuel_WhenForfeitingIsDisabled() {
+        // Arrange
+        Duel duel = new Duel();
+        duel.setDuelId("duel-1");
+        duel.setPlayer(player(1L, "Hana"));
+        NPC npc = new NPC();
+        npc.setId(2L);
+        npc.setName("Akira");
+        duel.setNpc(npc);
+        duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+        when(activeDuelRegistry.get("duel-1")).thenReturn(DuelState.of(duel));
+        when(duelService.cancelDuel("duel-1")).thenReturn(true);
+
+        // Act
+        createReaper(false).reap("duel-1");
+
+        // Assert
+        verify(duelService, never()).forfeitDuel(anyString(), anyLong());
+        assertEquals(1.0, reaped("canceled"));
+    }
+
+    @Test
+    void reap_ShouldSkipDuel_WhenTurnWasPlayedAfterDeadlineFired() {
+        // Arrange
+        Duel duel = new Duel();
+        duel.setDuelId("duel-1");
+        duel.setPlayer(player(1L, "Hana"));
+        NPC npc = new NPC();
+        npc.setId(2L);
+        npc.setName("Akira");
+        duel.setNpc(npc);
+        duel.setStatus(Duel.DuelStatus.PLAYER_TURN);
+        DuelState state = DuelState.of(duel);
+        state.setTurnDeadline(clock.millis() + 60_000);
+        when(activeDuelRegistry.get("duel-1")).thenReturn(state);
+
+        // Act
+        createReaper(true).reap("duel-1");
+
+        // Assert
+        verifyNoInteractions(duelService);
+        assertEquals(1.0, reaped("skipped"));
+    }
+
+    @Test
+    void reap_ShouldCountSkippedDuel_WhenDuelDoesNotExist() {
+        // Arrange
+        when(activeDuelRegistry.get("missing")).thenThrow(new IllegalArgumentException("Duel not found with ID: missing"));
+
+        // Act
+        createReaper(true).reap("missing");
+
+        // Assert
+        verifyNoInteractions(duelService);
+        assertEquals(1.0, reaped("skipped"));
+    }
+}
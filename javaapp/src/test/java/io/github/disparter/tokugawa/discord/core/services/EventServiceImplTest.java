@@ -7,13 +7,17 @@ import io.github.disparter.tokugawa.discord.core.models.Player;
 import io.github.disparter.tokugawa.discord.core.repositories.EventRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import io.github.disparter.tokugawa.discord.utils.GameClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +44,9 @@ public class EventServiceImplTest {
     @Mock
     private RelationshipService relationshipService;
 
+    @Spy
+    private Clock clock = GameClock.system(ZoneId.systemDefault());
+
     @InjectMocks
     private EventServiceImpl eventService;
 
@@ -0,0 +1,87 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Event;
+import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Holiday;
+import io.github.disparter.tokugawa.discord.core.models.GameCalendar.Season;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameDayTableTest {
+
+    private GameDayTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = GameDayTable.build(List.of(
+                seasonalEvent("spring_festival", 3, 20, 4, 10),
+                seasonalEvent("winter_festival", 12, 15, 1, 15),
+                seasonalEvent("incomplete", null, null, 5, 1),
+                seasonalEvent("invalid", 4, 31, 5, 1)));
+    }
+
+    @Test
+    void getSeason_ShouldFollowMonthBoundaries() {
+        assertEquals(Season.WINTER, table.getSeason(GameDayTable.dayIndex(2, 29)));
+        assertEquals(Season.SPRING, table.getSeason(GameDayTable.dayIndex(3, 1)));
+        assertEquals(Season.SUMMER, table.getSeason(GameDayTable.dayIndex(8, 31)));
+        assertEquals(Season.AUTUMN, table.getSeason(GameDayTable.dayIndex(9, 1)));
+        assertEquals(Season.WINTER, table.getSeason(GameDayTable.dayIndex(12, 1)));
+    }
+
+    @Test
+    void isHoliday_ShouldFlagFixedDateHolidays() {
+        assertTrue(table.isHoliday(GameDayTable.dayIndex(12, 25), Holiday.CHRISTMAS));
+        assertTrue(table.isHoliday(GameDayTable.dayIndex(1, 1), Holiday.NEW_YEAR));
+        assertFalse(table.isHoliday(GameDayTable.dayIndex(12, 24), Holiday.CHRISTMAS));
+        assertEquals(0, table.getHolidayFlags(GameDayTable.dayIndex(6, 15)));
+    }
+
+    @Test
+    void getActiveSeasonalEventIds_ShouldIncludeEventsWrappingTheNewYear() {
+        assertEquals(List.of("winter_festival"), table.getActiveSeasonalEventIds(GameDayTable.dayIndex(1, 10)));
+        assertEquals(List.of("winter_festival"), table.getActiveSeasonalEventIds(GameDayTable.dayIndex(12, 31)));
+        assertEquals(List.of("spring_festival"), table.getActiveSeasonalEventIds(GameDayTable.dayIndex(4, 10)));
+        assertTrue(table.getActiveSeasonalEventIds(GameDayTable.dayIndex(11, 20)).isEmpty());
+    }
+
+    @Test
+    void build_ShouldIgnoreEventsWithoutCompleteOrValidDates() {
+        assertEquals(List.of("spring_festival", "winter_festival"), table.getSeasonalEventIds());
+    }
+
+    @Test
+    void isValidDay_ShouldRejectDaysThatDoNotExist() {
+        assertTrue(GameDayTable.isValidDay(2, 29));
+        assertTrue(GameDayTable.isValidDay(12, 31));
+        assertFalse(GameDayTable.isValidDay(4, 31));
+        assertFalse(GameDayTable.isValidDay(2, 30));
+        assertFalse(GameDayTable.isValidDay(13, 1));
+        assertFalse(GameDayTable.isValidDay(1, 0));
+    }
+
+    @Test
+    void isInRange_ShouldHandleRangesWithinAndAcrossYears() {
+        int nov15 = GameDayTable.dayIndex(11, 15);
+        int feb10 = GameDayTable.dayIndex(2, 10);
+
+        assertTrue(GameDayTable.isInRange(GameDayTable.dayIndex(12, 3), nov15, feb10));
+        assertTrue(GameDayTable.isInRange(GameDayTable.dayIndex(2, 10), nov15, feb10));
+        assertFalse(GameDayTable.isInRange(GameDayTable.dayIndex(3, 1), nov15, feb10));
+        assertFalse(GameDayTable.isInRange(GameDayTable.dayIndex(12, 3), feb10, nov15));
+    }
+
+    private Event seasonalEvent(String eventId, Integer startMonth, Integer startDay, Integer endMonth, Integer endDay) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setType(Event.EventType.SEASONAL);
+        event.setStartMonth(startMonth);
+        event.setStartDay(startDay);
+        event.setEndMonth(endMonth);
+        event.setEndDay(endDay);
+        return event;
+    }
+}
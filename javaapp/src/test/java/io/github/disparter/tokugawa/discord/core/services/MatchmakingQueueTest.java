@@ -0,0 +1,62 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchmakingQueueTest {
+
+    private static final long MINUTE = 60_000;
+
+    private MatchmakingQueue queue(int capacity) {
+        return new MatchmakingQueue(50, 100, 50, 400, capacity, 10 * MINUTE);
+    }
+
+    @Test
+    void pairOrEnqueue_ShouldPairClosestRating_WhenWithinWindow() {
+        // Arrange
+        MatchmakingQueue queue = queue(10);
+        queue.pairOrEnqueue(1L, 1200, 0);
+        queue.pairOrEnqueue(2L, 1400, 0);
+
+        // Act
+        MatchmakingQueue.Ticket match = queue.pairOrEnqueue(3L, 1280, 0);
+
+        // Assert
+        assertEquals(1L, match.getPlayerId());
+        assertEquals(1, queue.size());
+        assertFalse(queue.remove(1L));
+        assertTrue(queue.remove(2L));
+    }
+
+    @Test
+    void pairOrEnqueue_ShouldAcceptWiderRatingDifference_WhenPlayerWaitedLonger() {
+        // Arrange
+        MatchmakingQueue queue = queue(10);
+        queue.pairOrEnqueue(1L, 1200, 0);
+
+        // Act
+        MatchmakingQueue.Ticket early = queue.pairOrEnqueue(2L, 1490, MINUTE);
+        queue.remove(2L);
+        MatchmakingQueue.Ticket late = queue.pairOrEnqueue(3L, 1490, 4 * MINUTE);
+
+        // Assert
+        assertNull(early);
+        assertEquals(1L, late.getPlayerId());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void pairOrEnqueue_ShouldDropExpiredTickets_WhenQueueIsFull() {
+        // Arrange
+        MatchmakingQueue queue = queue(2);
+        queue.pairOrEnqueue(1L, 1000, 0);
+        queue.pairOrEnqueue(2L, 2000, 0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> queue.pairOrEnqueue(3L, 3000, MINUTE));
+        assertThrows(IllegalStateException.class, () -> queue.pairOrEnqueue(1L, 1000, MINUTE));
+        assertNull(queue.pairOrEnqueue(3L, 3000, 11 * MINUTE));
+        assertEquals(1, queue.size());
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NarrativeBundleTest {
+
+    @Test
+    void read_ShouldReturnWrittenChapters_WhenBundleIsWritten() throws IOException {
+        // Arrange
+        Chapter first = new Chapter();
+        first.setChapterId("1_1_arrival");
+        first.setTitle("Arrival");
+        first.setDescription("The first day");
+        first.setType(Chapter.ChapterType.STORY);
+        first.setArcId("year_1_intro");
+        first.setCompletionExp(50);
+        first.setNextChapterId("1_2_first_class");
+        first.setChoices(new ArrayList<>(List.of("{\"text\":\"Go\",\"next_chapter\":\"1_2_first_class\"}")));
+        first.setDialogues(new ArrayList<>(List.of("Welcome", "Welcome")));
+
+        Chapter second = new Chapter();
+        second.setChapterId("1_2_first_class");
+        second.setTitle("First Class");
+        second.setDescription("Welcome");
+        second.setType(Chapter.ChapterType.BRANCHING);
+        second.setPhase(2);
+        second.setRequirements(new ArrayList<>(List.of("{\"chapters\":[\"1_1_arrival\"]}")));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        NarrativeBundle.write(List.of(first, second), output);
+        List<Chapter> chapters = NarrativeBundle.read(ByteBuffer.wrap(output.toByteArray()));
+
+        // Assert
+        assertEquals(2, chapters.size());
+        Chapter readFirst = chapters.get(0);
+        assertEquals("1_1_arrival", readFirst.getChapterId());
+        assertEquals("Arrival", readFirst.getTitle());
+        assertEquals(Chapter.ChapterType.STORY, readFirst.getType());
+        assertEquals("year_1_intro", readFirst.getArcId());
+        assertEquals(50, readFirst.getCompletionExp());
+        assertNull(readFirst.getPhase());
+        assertNull(readFirst.getCompletionReward());
+        assertEquals(first.getChoices(), readFirst.getChoices());
+        assertEquals(List.of("Welcome", "Welcome"), readFirst.getDialogues());
+        assertTrue(readFirst.getScenes().isEmpty());
+
+        Chapter readSecond = chapters.get(1);
+        assertEquals(Chapter.ChapterType.BRANCHING, readSecond.getType());
+        assertEquals(2, readSecond.getPhase());
+        assertNull(readSecond.getNextChapterId());
+        assertEquals(second.getRequirements(), readSecond.getRequirements());
+    }
+
+    @Test
+    void read_ShouldThrowException_WhenContentIsNotBundle() {
+        // Arrange
+        ByteBuffer content = ByteBuffer.wrap("{\"title\": \"Not a bundle\"}".getBytes());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> NarrativeBundle.read(content));
+    }
+}
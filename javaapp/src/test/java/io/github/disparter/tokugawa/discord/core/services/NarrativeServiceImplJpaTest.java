@@ -0,0 +1,156 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.repositories.ChapterRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.ClubRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.RelationshipRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts the statements {@link NarrativeServiceImpl#processChoice} sends to the database, which
+ * mocked repositories cannot show.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class NarrativeServiceImplJpaTest {
+
+    @Configuration
+    @Import(ContentOrdinals.class)
+    @EntityScan(basePackageClasses = Player.class)
+    @EnableJpaRepositories(basePackageClasses = PlayerRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private NPCRepository npcRepository;
+
+    @Autowired
+    private RelationshipRepository relationshipRepository;
+
+    private ChapterGraphCache chapterGraphCache;
+    private NarrativeServiceImpl narrativeService;
+    private Statistics statistics;
+    private Long playerId;
+
+    @BeforeEach
+    void setUp() {
+        chapterGraphCache = new ChapterGraphCache(chapterRepository, new ObjectMapper());
+        narrativeService = new NarrativeServiceImpl(chapterRepository, playerRepository, progressRepository,
+                mock(ChapterLoader.class), mock(NarrativeValidator.class), mock(ConsequenceService.class),
+                mock(ReputationService.class), chapterGraphCache, mock(ChapterAvailabilityTracker.class),
+                mock(ReadingSessionManager.class), mock(NarrativeTemplateEngine.class), clubRepository,
+                npcRepository, relationshipRepository);
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        entityManager.persist(chapter("chapter_1", "{\"text\":\"Last dialogue\",\"choices\":["
+                + "{\"text\":\"Join\",\"complete_chapter\":true,\"next_chapter\":\"chapter_2\"}]}"));
+        entityManager.persist(chapter("chapter_2", "{\"text\":\"First dialogue\",\"choices\":[\"Continue\"]}"));
+
+        Player player = new Player();
+        player.setUserId("123456789");
+        player.setName("Test Player");
+        entityManager.persist(player);
+        playerId = player.getId();
+
+        Progress progress = new Progress();
+        progress.setPlayer(player);
+        progress.setCurrentChapterId("chapter_1");
+        progress.setCurrentDialogueIndex(0);
+        entityManager.persist(progress);
+
+        entityManager.flush();
+        // Compile the chapter up front, as a running bot has it cached
+        assertTrue(chapterGraphCache.getCompiledChapter("chapter_1").isPresent());
+        entityManager.clear();
+    }
+
+    private Chapter chapter(String chapterId, String dialogue) {
+        Chapter chapter = new Chapter();
+        chapter.setChapterId(chapterId);
+        chapter.setTitle("Chapter " + chapterId);
+        chapter.setDescription("Description of " + chapterId);
+        chapter.setCompletionExp(50);
+        chapter.setCompletionReward(20);
+        chapter.setDialogues(new ArrayList<>(List.of(dialogue)));
+        return chapter;
+    }
+
+    /**
+     * Counts the statements that load the player, the progress and the next chapter once each.
+     */
+    private long countSingleLoads() {
+        statistics.clear();
+        playerRepository.findById(playerId).orElseThrow();
+        progressRepository.findByPlayerId(playerId).orElseThrow();
+        chapterRepository.findByChapterId("chapter_2").orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    @Test
+    void processChoice_ShouldLoadAndWriteOnce_WhenChoiceCompletesChapter() {
+        // Arrange
+        long loadStatements = countSingleLoads();
+        statistics.clear();
+
+        // Act
+        Map<String, Object> result = narrativeService.processChoice(playerId, 0);
+        long readStatements = statistics.getPrepareStatementCount();
+        entityManager.flush();
+
+        // Assert
+        assertTrue((Boolean) result.get("success"));
+        assertEquals("chapter_2", result.get("current_chapter_id"));
+        assertEquals(loadStatements, readStatements);
+        // One update of the player, one of the progress and one insert of the recorded choice
+        assertEquals(loadStatements + 3, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityUpdateCount());
+
+        entityManager.clear();
+        Player player = entityManager.find(Player.class, playerId);
+        Progress progress = progressRepository.findByPlayerId(playerId).orElseThrow();
+        assertEquals(50, player.getExp());
+        assertEquals(20, player.getCurrency());
+        assertTrue(progress.getCompletedChapters().contains("chapter_1"));
+        assertEquals("0", progress.getChoices().get("chapter_1_dialogue_0"));
+    }
+}
@@ -2,16 +2,21 @@ package io.github.disparter.tokugawa.discord.core.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.disparter.tokugawa.discord.core.models.Chapter;
+import io.github.disparter.tokugawa.discord.core.models.Club;
 import io.github.disparter.tokugawa.discord.core.models.Consequence;
+import io.github.disparter.tokugawa.discord.core.models.NPC;
 import io.github.disparter.tokugawa.discord.core.models.Player;
 import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.models.Relationship;
 import io.github.disparter.tokugawa.discord.core.repositories.ChapterRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.ClubRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
 import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.RelationshipRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -50,12 +55,26 @@ public class NarrativeServiceImplTest {
     private ConsequenceService consequenceService;
 
     @Mock
-    private PlayerService playerService;
+    private ReputationService reputationService;
 
     @Mock
-    private ReputationService reputationService;
+    private ChapterAvailabilityTracker chapterAvailabilityTracker;
+
+    @Mock
+    private ReadingSessionManager readingSessionManager;
+
+    @Mock
+    private NarrativeTemplateEngine narrativeTemplateEngine;
+
+    @Mock
+    private ClubRepository clubRepository;
+
+    @Mock
+    private NPCRepository npcRepository;
+
+    @Mock
+    private RelationshipRepository relationshipRepository;
 
-    @InjectMocks
     private NarrativeServiceImpl narrativeService;
 
     private Chapter testChapter;
@@ -64,6 +83,12 @@ public class NarrativeServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        narrativeService = new NarrativeServiceImpl(chapterRepository, playerRepository, progressRepository,
+                chapterLoader, narrativeValidator, consequenceService, reputationService,
+                new ChapterGraphCache(chapterRepository, objectMapper), chapterAvailabilityTracker,
+                readingSessionManager, narrativeTemplateEngine, clubRepository, npcRepository,
+                relationshipRepository);
+
         // Set up test chapter
         testChapter = new Chapter();
         testChapter.setId(1L);
@@ -259,7 +284,7 @@ public class NarrativeServiceImplTest {
         verify(playerRepository, times(1)).save(testPlayer);
         verify(progressRepository, times(1)).save(testProgress);
         verify(consequenceService, times(1)).trackPlayerDecision(
-            eq(1L),
+            eq(testPlayer),
             eq("chapter_1"),
             eq("scene_0"),
             eq("Option 1"),
@@ -271,6 +296,143 @@ public class NarrativeServiceImplTest {
             anyList(),
             anyList()
         );
-        verify(playerService, times(1)).updatePlayerAttributes(testPlayer);
+        verifyNoMoreInteractions(playerRepository, progressRepository);
+    }
+
+    @Test
+    void processChoice_ShouldLoadAndSaveOnce_WhenChoiceCompletesChapter() {
+        // Arrange
+        narrativeService = new NarrativeServiceImpl(chapterRepository, playerRepository, progressRepository,
+                chapterLoader, narrativeValidator, consequenceService, reputationService,
+                new ChapterGraphCache(chapterRepository, new ObjectMapper()), chapterAvailabilityTracker,
+                readingSessionManager, narrativeTemplateEngine, clubRepository, npcRepository,
+                relationshipRepository);
+
+        testChapter.setCompletionExp(50);
+        testChapter.setCompletionReward(20);
+        testChapter.setDialogues(new ArrayList<>(List.of("{\"text\":\"Last dialogue\",\"choices\":["
+                + "{\"text\":\"Join\",\"complete_chapter\":true,\"next_chapter\":\"chapter_2\","
+                + "\"effects\":{\"attributes\":{\"strength\":1},\"faction_reputation\":{\"dragons\":10}}}]}")));
+
+        Chapter nextChapter = new Chapter();
+        nextChapter.setId(2L);
+        nextChapter.setChapterId("chapter_2");
+
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(testPlayer));
+        when(progressRepository.findByPlayerId(1L)).thenReturn(Optional.of(testProgress));
+        when(chapterRepository.findByChapterId("chapter_1")).thenReturn(Optional.of(testChapter));
+        when(chapterRepository.findByChapterId("chapter_2")).thenReturn(Optional.of(nextChapter));
+
+        // Act
+        Map<String, Object> result = narrativeService.processChoice(1L, 0);
+
+        // Assert
+        assertTrue((Boolean) result.get("success"));
+        assertEquals(nextChapter, result.get("next_chapter"));
+        assertTrue(testProgress.getCompletedChapters().contains("chapter_1"));
+        assertEquals("chapter_2", testProgress.getCurrentChapterId());
+        assertEquals(250, testPlayer.getExp());
+        assertEquals(120, testPlayer.getCurrency());
+        assertEquals(11, testPlayer.getStrength());
+
+        // One load and one save of each entity, with every other change applied in memory
+        verify(playerRepository, times(1)).findById(1L);
+        verify(progressRepository, times(1)).findByPlayerId(1L);
+        verify(playerRepository, times(1)).save(testPlayer);
+        verify(progressRepository, times(1)).save(testProgress);
+        verifyNoMoreInteractions(playerRepository, progressRepository);
+        verify(chapterRepository, never()).findById(anyLong());
+        verify(reputationService, times(1)).applyFactionReputation(testPlayer, "dragons", 10);
+        verify(reputationService, never()).updateFactionReputation(anyLong(), anyString(), anyInt());
+        verify(consequenceService, never()).trackPlayerDecision(anyLong(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), anyString(), any(), anyList(), anyList(), anyList());
+        verify(chapterAvailabilityTracker, times(1)).chapterCompleted(1L, "chapter_1");
+    }
+
+    @Test
+    void processChoice_ShouldOnlyAdvanceReadingSession_WhenChoiceIsPlain() {
+        // Arrange
+        narrativeService = new NarrativeServiceImpl(chapterRepository, playerRepository, progressRepository,
+                chapterLoader, narrativeValidator, consequenceService, reputationService,
+                new ChapterGraphCache(chapterRepository, new ObjectMapper()), chapterAvailabilityTracker,
+                readingSessionManager, narrativeTemplateEngine, clubRepository, npcRepository,
+                relationshipRepository);
+
+        ReadingSessionManager.ReadingSession session = mock(ReadingSessionManager.ReadingSession.class);
+        when(session.getChapterId()).thenReturn("chapter_1");
+        when(session.getDialogueIndex()).thenReturn(0);
+        when(readingSessionManager.getOrOpen(1L)).thenReturn(session);
+        when(readingSessionManager.advance(eq(session), eq(0), eq(1), any())).thenReturn(true);
+        when(chapterRepository.findByChapterId("chapter_1")).thenReturn(Optional.of(testChapter));
+
+        // Act
+        Map<String, Object> result = narrativeService.processChoice(1L, 1);
+
+        // Assert
+        assertTrue((Boolean) result.get("success"));
+        assertEquals("chapter_1", result.get("current_chapter_id"));
+        assertEquals(1, result.get("next_dialogue_index"));
+        verify(readingSessionManager).advance(eq(session), eq(0), eq(1), argThat(decision ->
+                "Option 2".equals(decision.getChoiceText()) && decision.getChoiceIndex() == 1
+                        && "chapter_1_dialogue_0".equals(decision.getChoiceKey())));
+        verify(readingSessionManager, never()).close(anyLong(), any());
+        verifyNoInteractions(playerRepository, progressRepository, consequenceService, reputationService);
+    }
+
+    private Relationship relationship(String npcName, Relationship.RelationshipStatus status, int affinity) {
+        NPC npc = new NPC();
+        npc.setName(npcName);
+        Relationship relationship = new Relationship();
+        relationship.setPlayer(testPlayer);
+        relationship.setNpc(npc);
+        relationship.setStatus(status);
+        relationship.setAffinity(affinity);
+        return relationship;
+    }
+
+    @Test
+    void getTemplateChapter_ShouldFillClubNameRomanceTargetAndNpc_WhenPlayerIsKnown() {
+        // Arrange
+        testPlayer.setClubId("3");
+        Club club = new Club();
+        club.setId(3L);
+        club.setName("Kendo");
+        NPC npc = new NPC();
+        npc.setId(5L);
+        npc.setName("Sensei Mori");
+        ChapterDefinition chapter = new ChapterDefinition();
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(testPlayer));
+        when(npcRepository.findById(5L)).thenReturn(Optional.of(npc));
+        when(clubRepository.findById(3L)).thenReturn(Optional.of(club));
+        when(relationshipRepository.findByPlayer(testPlayer)).thenReturn(List.of(
+                relationship("Akira", Relationship.RelationshipStatus.DATING, 40),
+                relationship("Yui", Relationship.RelationshipStatus.FRIEND, 90),
+                relationship("Ren", Relationship.RelationshipStatus.CRUSH, 20)));
+        when(narrativeTemplateEngine.instantiateChapter(eq("chapters.club_chapter"), any())).thenReturn(chapter);
+
+        // Act
+        ChapterDefinition result = narrativeService.getTemplateChapter("chapters.club_chapter", 1L, 5L);
+
+        // Assert
+        assertSame(chapter, result);
+        verify(narrativeTemplateEngine).instantiateChapter("chapters.club_chapter", Map.of(
+                NarrativeTemplateEngine.PLAYER_NAME, "Test Player",
+                NarrativeTemplateEngine.CLUB, "Kendo",
+                NarrativeTemplateEngine.ROMANCE_TARGET, "Akira",
+                NarrativeTemplateEngine.NPC_NAME, "Sensei Mori"));
+    }
+
+    @Test
+    void getTemplateChapter_ShouldReturnNull_WhenNpcDoesNotExist() {
+        // Arrange
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(testPlayer));
+        when(npcRepository.findById(5L)).thenReturn(Optional.empty());
+
+        // Act
+        ChapterDefinition result = narrativeService.getTemplateChapter("chapters.club_chapter", 1L, 5L);
+
+        // Assert
+        assertNull(result);
+        verifyNoInteractions(narrativeTemplateEngine);
     }
 }
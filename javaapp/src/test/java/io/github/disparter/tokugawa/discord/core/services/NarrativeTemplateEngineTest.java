@@ -0,0 +1,129 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NarrativeTemplateEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private NarrativeTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("chapters.json"), "{"
+                + "\"romance_route\": {"
+                + "  \"type\": \"romance_route\","
+                + "  \"title\": \"Silêncio entre Livros\","
+                + "  \"dialogues\": ["
+                + "    {\"npc\": \"{romance_target}\", \"text\": \"Olá, {player_name}.\"},"
+                + "    {\"npc\": \"Narrador\", \"text\": \"A biblioteca fica em silêncio.\"}"
+                + "  ],"
+                + "  \"choices\": [{\"text\": \"Sorrir\", \"affinity_change\": {\"{romance_target}\": 3}}],"
+                + "  \"completion_exp\": 20"
+                + "},"
+                + "\"club_chapter\": {\"title\": \"Reunião do clube {club}\", \"dialogues\": [\"Bem-vindo.\"]}"
+                + "}");
+        Files.writeString(tempDir.resolve("choices.json"), "{\"default\": [{\"id\": \"careful\"}]}");
+
+        engine = new NarrativeTemplateEngine(new ObjectMapper(), "file:" + tempDir.toAbsolutePath(), 100);
+    }
+
+    @Test
+    void instantiate_ShouldFillPlaceholders_WhenParametersAreGiven() {
+        // Arrange
+        Map<String, String> parameters = Map.of("player_name", "Hana", "romance_target", "Akira");
+
+        // Act
+        JsonNode chapter = engine.instantiate("chapters.romance_route", parameters);
+
+        // Assert
+        assertEquals("Akira", chapter.path("dialogues").get(0).path("npc").asText());
+        assertEquals("Olá, Hana.", chapter.path("dialogues").get(0).path("text").asText());
+        assertEquals(3, chapter.path("choices").get(0).path("affinity_change").path("Akira").asInt());
+        assertEquals(Set.of("player_name", "romance_target"), engine.getParameters("chapters.romance_route"));
+        assertEquals(Set.of("chapters.romance_route", "chapters.club_chapter", "choices.default"),
+                engine.getTemplateIds());
+    }
+
+    @Test
+    void instantiate_ShouldShareInstance_WhenUsedParametersAreEqual() {
+        // Arrange
+        Player first = new Player();
+        first.setName("Hana");
+        first.setClubId("3");
+        Player second = new Player();
+        second.setName("Kenji");
+        second.setClubId("3");
+
+        // Act
+        JsonNode firstChapter = engine.instantiate("chapters.club_chapter",
+                NarrativeTemplateEngine.playerParameters(first, "Kendo", null, null));
+        JsonNode secondChapter = engine.instantiate("chapters.club_chapter",
+                NarrativeTemplateEngine.playerParameters(second, "Kendo", "Akira", null));
+        JsonNode firstRoute = engine.instantiate("chapters.romance_route",
+                NarrativeTemplateEngine.playerParameters(first, "Kendo", "Akira", null));
+        JsonNode secondRoute = engine.instantiate("chapters.romance_route",
+                NarrativeTemplateEngine.playerParameters(second, "Kendo", "Akira", null));
+
+        // Assert
+        assertSame(firstChapter, secondChapter);
+        assertEquals("Reunião do clube Kendo", firstChapter.path("title").asText());
+        assertNotSame(firstRoute, secondRoute);
+        assertSame(firstRoute.path("dialogues").get(1), secondRoute.path("dialogues").get(1));
+        assertEquals(3, engine.getInstanceCount());
+    }
+
+    @Test
+    void instantiateChapter_ShouldReturnChapterDefinition() {
+        // Act
+        ChapterDefinition chapter = engine.instantiateChapter("chapters.romance_route",
+                Map.of("player_name", "Hana", "romance_target", "Akira"));
+
+        // Assert
+        assertEquals("Silêncio entre Livros", chapter.getTitle());
+        assertEquals("romance_route", chapter.getType());
+        assertEquals(20, chapter.getCompletionExp());
+        assertEquals(2, chapter.getDialogues().size());
+        assertSame(chapter, engine.instantiateChapter("chapters.romance_route",
+                Map.of("player_name", "Hana", "romance_target", "Akira")));
+    }
+
+    @Test
+    void instantiate_ShouldThrowException_WhenTemplateDoesNotExist() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> engine.instantiate("chapters.missing", Map.of()));
+    }
+
+    @Test
+    void instantiate_ShouldFillSecondNpc_WhenQuestTemplateHasTwoNpcs() {
+        // Arrange
+        NarrativeTemplateEngine shipped = new NarrativeTemplateEngine(new ObjectMapper(),
+                "classpath:data/story_mode/narrative_templates", 100);
+        Map<String, String> parameters = Map.of(NarrativeTemplateEngine.NPC_NAME, "Sensei",
+                NarrativeTemplateEngine.SECOND_NPC_NAME, "Kenji");
+
+        // Act
+        JsonNode quest = shipped.instantiate("quests.main_quest", parameters);
+
+        // Assert
+        assertEquals(Set.of("npc_name", "second_npc_name"), shipped.getParameters("quests.main_quest"));
+        assertEquals("Sensei", quest.path("quest_giver").asText());
+        JsonNode objective = quest.path("stages").get(0).path("objectives").get(0);
+        assertEquals("Kenji", objective.path("target").asText());
+        assertEquals("Fale com Kenji para obter informações", objective.path("description").asText());
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NpcPolicyTest {
+
+    private DuelState duel(int npcHealth, int npcMana, int playerHealth) {
+        DuelState duel = new DuelState();
+        duel.setNpcHealth(npcHealth);
+        duel.setNpcMana(npcMana);
+        duel.setPlayerHealth(playerHealth);
+        return duel;
+    }
+
+    @Test
+    void choose_ShouldUseFinishingTechnique_WhenPlayerIsWithinReach() {
+        // Arrange
+        CompiledTechnique jab = TechniqueFixtures.compiled(1, 12, 0);
+        CompiledTechnique finisher = TechniqueFixtures.compiled(2, 40, 60);
+        NpcPolicy policy = NpcPolicy.solve(new CompiledTechnique[]{jab, finisher}, CombatStats.NONE,
+                NpcPolicy.DEFAULT_OPPONENT_DAMAGE);
+
+        // Act
+        CompiledTechnique chosen = policy.choose(duel(50, 80, 30));
+
+        // Assert
+        assertSame(finisher, chosen);
+    }
+
+    @Test
+    void choose_ShouldNeverPickUnaffordableTechnique_WhenManaIsLow() {
+        // Arrange
+        CompiledTechnique finisher = TechniqueFixtures.compiled(2, 40, 60);
+        NpcPolicy policy = NpcPolicy.solve(new CompiledTechnique[]{finisher}, CombatStats.NONE,
+                NpcPolicy.DEFAULT_OPPONENT_DAMAGE);
+
+        // Act & Assert
+        for (int mana = 0; mana < 60; mana++) {
+            for (int health = 1; health <= 100; health += 7) {
+                assertNull(policy.choose(duel(health, mana, health)));
+            }
+        }
+    }
+
+    @Test
+    void choose_ShouldMakeBasicAttack_WhenLoadoutIsEmpty() {
+        // Arrange
+        NpcPolicy policy = NpcPolicy.solve(new CompiledTechnique[0], CombatStats.NONE,
+                NpcPolicy.DEFAULT_OPPONENT_DAMAGE);
+
+        // Act
+        CompiledTechnique chosen = policy.choose(duel(100, 100, 100));
+
+        // Assert
+        assertNull(chosen);
+    }
+}
@@ -108,4 +108,24 @@ public class PlayerServiceImplTest {
         // Assert
         verify(playerRepository, times(1)).deleteById(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateRatingsFromDuel_ShouldMoveMorePoints_WhenLowerRatedPlayerWins() {
+        // Arrange
+        Player favorite = new Player();
+        favorite.setId(2L);
+        favorite.setRating(1400);
+        testPlayer.setRating(1200);
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(testPlayer));
+        when(playerRepository.findById(2L)).thenReturn(Optional.of(favorite));
+
+        // Act
+        int ratingChange = playerService.updateRatingsFromDuel(1L, 2L);
+
+        // Assert
+        assertEquals(24, ratingChange);
+        assertEquals(1224, testPlayer.getRating());
+        assertEquals(1376, favorite.getRating());
+        verify(playerRepository, times(2)).save(any(Player.class));
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PvpTurnTest {
+
+    @Test
+    void submit_ShouldResolve_OnlyWhenBothPlayersHaveSubmitted() {
+        // Arrange
+        PvpTurn turn = PvpTurn.open(3);
+
+        // Act
+        PvpTurn first = turn.submit(false, TechniqueFixtures.compiled(2, 0, 0));
+        PvpTurn second = first.submit(true, TechniqueFixtures.compiled(1, 0, 0));
+
+        // Assert
+        assertEquals(PvpTurn.Phase.OPEN, first.getPhase());
+        assertTrue(first.hasSubmitted(false));
+        assertFalse(first.hasSubmitted(true));
+        assertEquals(PvpTurn.Phase.RESOLVING, second.getPhase());
+        assertEquals(1L, second.getChallengerTechnique().getId());
+        assertEquals(2L, second.getOpponentTechnique().getId());
+        assertEquals(3, second.getRound());
+    }
+
+    @Test
+    void submit_ShouldLetExactlyOneThreadResolve_WhenPlayersSubmitConcurrently() throws InterruptedException {
+        for (int attempt = 0; attempt < 1_000; attempt++) {
+            // Arrange
+            AtomicReference<PvpTurn> turns = new AtomicReference<>(PvpTurn.open(1));
+            AtomicInteger resolvers = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] players = new Thread[2];
+            for (int i = 0; i < players.length; i++) {
+                boolean challenger = i == 0;
+                CompiledTechnique technique = TechniqueFixtures.compiled(i + 1, 0, 0);
+                players[i] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (true) {
+                        PvpTurn turn = turns.get();
+                        PvpTurn submitted = turn.submit(challenger, technique);
+                        if (turns.compareAndSet(turn, submitted)) {
+                            if (submitted.getPhase() == PvpTurn.Phase.RESOLVING) {
+                                resolvers.incrementAndGet();
+                            }
+                            return;
+                        }
+                    }
+                });
+                players[i].start();
+            }
+
+            // Act
+            start.countDown();
+            for (Thread player : players) {
+                player.join();
+            }
+
+            // Assert
+            assertEquals(1, resolvers.get());
+            assertEquals(PvpTurn.Phase.RESOLVING, turns.get().getPhase());
+        }
+    }
+}
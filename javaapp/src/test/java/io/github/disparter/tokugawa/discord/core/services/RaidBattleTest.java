@@ -0,0 +1,99 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RaidBattleTest {
+
+    @Test
+    void hit_ShouldDealOnlyRemainingHealth_WhenAttackFinishesBoss() {
+        // Arrange
+        RaidBattle raid = new RaidBattle(1L, "Oni", 100, 10, 5);
+
+        // Act
+        RaidBattle.Hit killingBlow = raid.hit(7L, 25);
+        RaidBattle.Hit late = raid.hit(8L, 25);
+
+        // Assert
+        assertEquals(10, killingBlow.getDamage());
+        assertTrue(killingBlow.isKillingBlow());
+        assertEquals(0, late.getDamage());
+        assertFalse(late.isKillingBlow());
+        assertEquals(Map.of(7L, 10L), raid.getDamageByPlayer());
+    }
+
+    @Test
+    void getAttackerStats_ShouldLoadStatsOnlyOnFirstAttack() {
+        // Arrange
+        RaidBattle raid = new RaidBattle(1L, "Oni", 100, 100, 5);
+        AtomicInteger loads = new AtomicInteger();
+        CombatStats stats = new CombatStats(4, 3, 2, 1);
+
+        // Act
+        CombatStats first = raid.getAttackerStats(7L, id -> {
+            loads.incrementAndGet();
+            return stats;
+        });
+        CombatStats second = raid.getAttackerStats(7L, id -> {
+            loads.incrementAndGet();
+            return CombatStats.NONE;
+        });
+
+        // Assert
+        assertSame(stats, first);
+        assertSame(stats, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void hit_ShouldLandExactlyOneKillingBlow_WhenPlayersAttackConcurrently() throws Exception {
+        // Arrange
+        RaidBattle raid = new RaidBattle(1L, "Oni", 100_000, 100_000, 5);
+        int players = 8;
+        AtomicInteger killingBlows = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(players);
+        try {
+            List<Future<?>> attacks = new ArrayList<>();
+            for (long playerId = 1; playerId <= players; playerId++) {
+                long attacker = playerId;
+                attacks.add(executor.submit(() -> {
+                    start.await();
+                    RaidBattle.Hit hit;
+                    do {
+                        hit = raid.hit(attacker, 7);
+                        if (hit.isKillingBlow()) {
+                            killingBlows.incrementAndGet();
+                        }
+                    } while (hit.getDamage() > 0);
+                    return null;
+                }));
+            }
+
+            // Act
+            start.countDown();
+            for (Future<?> attack : attacks) {
+                attack.get(30, TimeUnit.SECONDS);
+            }
+            raid.awaitAttacks();
+
+            // Assert
+            assertEquals(1, killingBlows.get());
+            assertEquals(0, raid.getHealth());
+            assertEquals(100_000L, raid.getDamageByPlayer().values().stream().mapToLong(Long::longValue).sum());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.Progress;
+import io.github.disparter.tokugawa.discord.core.repositories.ProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReadingSessionManagerTest {
+
+    @Mock
+    private ProgressRepository progressRepository;
+
+    @Mock
+    private ConsequenceService consequenceService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private Path journal;
+    private Progress progress;
+
+    @BeforeEach
+    void setUp() {
+        journal = tempDir.resolve("reading-sessions.journal");
+
+        Player player = new Player();
+        player.setId(1L);
+        progress = new Progress();
+        progress.setId(1L);
+        progress.setPlayer(player);
+        progress.setCurrentChapterId("chapter_1");
+        progress.setCurrentDialogueIndex(0);
+        progress.setChoices(new HashMap<>());
+        when(progressRepository.findByPlayerId(1L)).thenReturn(Optional.of(progress));
+    }
+
+    private ReadingSessionManager createManager() {
+        return createManager(100);
+    }
+
+    private ReadingSessionManager createManager(int maxSessions) {
+        return new ReadingSessionManager(progressRepository, consequenceService, new ObjectMapper(),
+                transactionManager, clock, true, maxSessions, 300, journal.toString());
+    }
+
+    private ReadingSessionManager.PendingDecision decision(int dialogueIndex) {
+        return new ReadingSessionManager.PendingDecision("chapter_1", "scene_" + dialogueIndex,
+                "chapter_1_dialogue_" + dialogueIndex, 0, "Continue", "Chapter chapter_1, Dialogue " + dialogueIndex,
+                "Choice in Chapter 1", "You chose: Continue");
+    }
+
+    @Test
+    void advance_ShouldJournalWithoutSaving_WhenSessionIsOpen() throws IOException {
+        // Arrange
+        ReadingSessionManager manager = createManager();
+        ReadingSessionManager.ReadingSession session = manager.getOrOpen(1L);
+
+        // Act
+        boolean first = manager.advance(session, 0, 1, decision(0));
+        boolean stale = manager.advance(session, 0, 1, decision(0));
+
+        // Assert
+        assertTrue(first);
+        assertFalse(stale);
+        assertEquals(1, session.getDialogueIndex());
+        assertEquals(1, Files.readAllLines(journal).size());
+        assertEquals(0, progress.getCurrentDialogueIndex());
+        verify(progressRepository, never()).save(any());
+        verifyNoInteractions(consequenceService);
+    }
+
+    @Test
+    void flushSessions_ShouldSaveSessionsAndClearJournal() throws IOException {
+        // Arrange
+        ReadingSessionManager manager = createManager();
+        ReadingSessionManager.ReadingSession session = manager.getOrOpen(1L);
+        manager.advance(session, 0, 1, decision(0));
+        manager.advance(session, 1, 2, decision(1));
+
+        // Act
+        manager.flushSessions();
+
+        // Assert
+        assertEquals(2, progress.getCurrentDialogueIndex());
+        assertEquals("0", progress.getChoices().get("chapter_1_dialogue_1"));
+        verify(progressRepository, times(1)).save(progress);
+        verify(consequenceService, times(2)).trackPlayerDecision(eq(progress.getPlayer()), eq("chapter_1"),
+                anyString(), eq("Continue"), anyString(), anyString(), anyString(), any(), anyList(), anyList(),
+                anyList());
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    void run_ShouldSaveJournaledChanges_WhenPreviousRunStoppedBeforeFlush() throws IOException {
+        // Arrange
+        ReadingSessionManager crashed = createManager();
+        ReadingSessionManager.ReadingSession session = crashed.getOrOpen(1L);
+        crashed.advance(session, 0, 1, decision(0));
+        crashed.advance(session, 1, 3, decision(1));
+
+        // Act
+        createManager().run();
+
+        // Assert
+        assertEquals(3, progress.getCurrentDialogueIndex());
+        verify(progressRepository, times(1)).save(progress);
+        verify(consequenceService, times(2)).trackPlayerDecision(eq(progress.getPlayer()), eq("chapter_1"),
+                anyString(), eq("Continue"), anyString(), anyString(), anyString(), any(), anyList(), anyList(),
+                anyList());
+        assertFalse(Files.exists(journal));
+    }
+
+    @Test
+    void run_ShouldSkipJournaledChanges_WhenProgressAlreadyHasThem() {
+        // Arrange
+        ReadingSessionManager crashed = createManager();
+        ReadingSessionManager.ReadingSession session = crashed.getOrOpen(1L);
+        crashed.advance(session, 0, 1, decision(0));
+        crashed.advance(session, 1, 3, decision(1));
+        // The first change was saved before the journal recorded it
+        progress.setCurrentDialogueIndex(1);
+        progress.getChoices().put("chapter_1_dialogue_0", "0");
+        progress.setReadingVersion(1L);
+
+        // Act
+        createManager().run();
+
+        // Assert
+        assertEquals(3, progress.getCurrentDialogueIndex());
+        assertEquals(2L, progress.getReadingVersion());
+        verify(consequenceService, times(1)).trackPlayerDecision(eq(progress.getPlayer()), eq("chapter_1"),
+                eq("scene_1"), eq("Continue"), anyString(), anyString(), anyString(), any(), anyList(), anyList(),
+                anyList());
+        verifyNoMoreInteractions(consequenceService);
+    }
+
+    @Test
+    void getOrOpen_ShouldSaveEvictedSession_WhenSessionLimitIsReached() {
+        // Arrange
+        Player otherPlayer = new Player();
+        otherPlayer.setId(2L);
+        Progress otherProgress = new Progress();
+        otherProgress.setPlayer(otherPlayer);
+        otherProgress.setCurrentChapterId("chapter_1");
+        otherProgress.setCurrentDialogueIndex(0);
+        when(progressRepository.findByPlayerId(2L)).thenReturn(Optional.of(otherProgress));
+        ReadingSessionManager manager = createManager(1);
+        ReadingSessionManager.ReadingSession session = manager.getOrOpen(1L);
+        manager.advance(session, 0, 1, decision(0));
+
+        // Act
+        manager.getOrOpen(2L);
+        ReadingSessionManager.ReadingSession reopened = manager.getOrOpen(1L);
+
+        // Assert
+        assertEquals(1, progress.getCurrentDialogueIndex());
+        assertEquals(1L, progress.getReadingVersion());
+        verify(progressRepository, times(1)).save(progress);
+        assertEquals(1, reopened.getDialogueIndex());
+        assertEquals(1, manager.getSessionCount());
+    }
+
+    @Test
+    void close_ShouldApplyChangesToCallersProgress_AndMarkThemSavedOnlyAfterCommit() throws IOException {
+        // Arrange
+        ReadingSessionManager manager = createManager();
+        ReadingSessionManager.ReadingSession session = manager.getOrOpen(1L);
+        manager.advance(session, 0, 1, decision(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            manager.close(1L, progress);
+            manager.flushSessions();
+
+            // Assert
+            assertEquals(1, progress.getCurrentDialogueIndex());
+            assertEquals("0", progress.getChoices().get("chapter_1_dialogue_0"));
+            assertEquals(0, manager.getSessionCount());
+            assertTrue(Files.size(journal) > 0);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            manager.flushSessions();
+            assertEquals(0, Files.size(journal));
+            verify(progressRepository, never()).save(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void close_ShouldLeaveChangesToNextFlush_WhenCallersTransactionRollsBack() {
+        // Arrange
+        ReadingSessionManager manager = createManager();
+        ReadingSessionManager.ReadingSession session = manager.getOrOpen(1L);
+        manager.advance(session, 0, 1, decision(0));
+        Progress rolledBack = new Progress();
+        rolledBack.setPlayer(progress.getPlayer());
+        rolledBack.setCurrentChapterId("chapter_1");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            manager.close(1L, rolledBack);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Act
+        manager.flushSessions();
+
+        // Assert
+        assertEquals(1, progress.getCurrentDialogueIndex());
+        verify(progressRepository, times(1)).save(progress);
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Technique;
+
+import java.util.Map;
+
+/**
+ * Techniques shared by the duel tests.
+ */
+public final class TechniqueFixtures {
+
+    private TechniqueFixtures() {
+    }
+
+    public static Technique technique(long id, int baseDamage, int manaCost, Map<String, Integer> effects) {
+        Technique technique = new Technique();
+        technique.setId(id);
+        technique.setName("Technique " + id);
+        technique.setBaseDamage(baseDamage);
+        technique.setManaCost(manaCost);
+        technique.setEffects(effects);
+        return technique;
+    }
+
+    public static Technique technique(long id, int baseDamage, int manaCost) {
+        return technique(id, baseDamage, manaCost, Map.of());
+    }
+
+    public static CompiledTechnique compiled(long id, int baseDamage, int manaCost, Map<String, Integer> effects) {
+        return CompiledTechnique.compile(technique(id, baseDamage, manaCost, effects));
+    }
+
+    public static CompiledTechnique compiled(long id, int baseDamage, int manaCost) {
+        return compiled(id, baseDamage, manaCost, Map.of());
+    }
+}
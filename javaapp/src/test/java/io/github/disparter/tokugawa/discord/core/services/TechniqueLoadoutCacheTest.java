@@ -0,0 +1,133 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.NPC;
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.repositories.NPCRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.TechniqueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TechniqueLoadoutCacheTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private NPCRepository npcRepository;
+
+    @Mock
+    private TechniqueRepository techniqueRepository;
+
+    private TechniqueLoadoutCache techniqueLoadoutCache;
+
+    @BeforeEach
+    void setUp() {
+        techniqueLoadoutCache = new TechniqueLoadoutCache(playerRepository, npcRepository, techniqueRepository,
+                new CompiledTechniqueCache(techniqueRepository), Runnable::run, NpcPolicy.DEFAULT_OPPONENT_DAMAGE, 2);
+    }
+
+    @Test
+    void getNpcLoadout_ShouldLoadOnce_AndCompileTechniques() {
+        // Arrange
+        NPC npc = new NPC();
+        npc.setId(2L);
+        when(npcRepository.findById(2L)).thenReturn(Optional.of(npc));
+        when(techniqueRepository.findByNpcsContaining(npc))
+                .thenReturn(List.of(TechniqueFixtures.technique(7L, 10, 5), TechniqueFixtures.technique(8L, 10, 5)));
+
+        // Act
+        TechniqueLoadoutCache.Loadout first = techniqueLoadoutCache.getNpcLoadout(2L);
+        TechniqueLoadoutCache.Loadout second = techniqueLoadoutCache.getNpcLoadout(2L);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(2, first.compiledTechniques().length);
+        assertEquals(8L, first.compiledTechniques()[1].getId());
+        assertNotNull(first.policy());
+        verify(npcRepository, times(1)).findById(2L);
+        verify(techniqueRepository, times(1)).findByNpcsContaining(npc);
+    }
+
+    @Test
+    void invalidateAll_ShouldReloadNpcLoadoutsRightAway() {
+        // Arrange
+        NPC npc = new NPC();
+        npc.setId(2L);
+        when(npcRepository.findById(2L)).thenReturn(Optional.of(npc));
+        when(techniqueRepository.findByNpcsContaining(npc))
+                .thenReturn(List.of(TechniqueFixtures.technique(7L, 10, 5)));
+        TechniqueLoadoutCache.Loadout stale = techniqueLoadoutCache.getNpcLoadout(2L);
+
+        // Act
+        techniqueLoadoutCache.invalidateAll();
+
+        // Assert
+        verify(techniqueRepository, times(2)).findByNpcsContaining(npc);
+        TechniqueLoadoutCache.Loadout reloaded = techniqueLoadoutCache.getNpcLoadout(2L);
+        assertNotSame(stale, reloaded);
+        assertNotNull(reloaded.policy());
+        verify(techniqueRepository, times(2)).findByNpcsContaining(npc);
+    }
+
+    @Test
+    void getPlayerLoadout_ShouldReload_AfterPlayerOrTechniqueIsInvalidated() {
+        // Arrange
+        Player player = new Player();
+        player.setId(1L);
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+        when(techniqueRepository.findByPlayersContaining(player))
+                .thenReturn(List.of(TechniqueFixtures.technique(7L, 10, 5)),
+                        List.of(TechniqueFixtures.technique(7L, 10, 5), TechniqueFixtures.technique(9L, 10, 5)),
+                        List.of(TechniqueFixtures.technique(7L, 10, 5)));
+        techniqueLoadoutCache.getPlayerLoadout(1L);
+
+        // Act
+        techniqueLoadoutCache.invalidatePlayer(1L);
+        TechniqueLoadoutCache.Loadout learned = techniqueLoadoutCache.getPlayerLoadout(1L);
+        techniqueLoadoutCache.invalidateTechnique(8L);
+        TechniqueLoadoutCache.Loadout unrelated = techniqueLoadoutCache.getPlayerLoadout(1L);
+        techniqueLoadoutCache.invalidateTechnique(9L);
+        TechniqueLoadoutCache.Loadout changed = techniqueLoadoutCache.getPlayerLoadout(1L);
+
+        // Assert
+        assertEquals(2, learned.getTechniques().size());
+        assertSame(learned, unrelated);
+        assertTrue(learned.contains(9L));
+        assertFalse(changed.contains(9L));
+        verify(techniqueRepository, times(3)).findByPlayersContaining(player);
+    }
+
+    @Test
+    void getPlayerLoadout_ShouldEvictLeastRecentlyUsed_WhenCacheIsFull() {
+        // Arrange
+        for (long id = 1; id <= 3; id++) {
+            Player player = new Player();
+            player.setId(id);
+            when(playerRepository.findById(id)).thenReturn(Optional.of(player));
+            when(techniqueRepository.findByPlayersContaining(player))
+                    .thenReturn(List.of(TechniqueFixtures.technique(id, 10, 5)));
+        }
+        TechniqueLoadoutCache.Loadout first = techniqueLoadoutCache.getPlayerLoadout(1L);
+        TechniqueLoadoutCache.Loadout second = techniqueLoadoutCache.getPlayerLoadout(2L);
+
+        // Act
+        techniqueLoadoutCache.getPlayerLoadout(1L);
+        techniqueLoadoutCache.getPlayerLoadout(3L);
+
+        // Assert
+        assertSame(first, techniqueLoadoutCache.getPlayerLoadout(1L));
+        assertNotSame(second, techniqueLoadoutCache.getPlayerLoadout(2L));
+        verify(playerRepository, times(2)).findById(2L);
+    }
+}
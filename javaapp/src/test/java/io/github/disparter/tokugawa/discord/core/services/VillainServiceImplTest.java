@@ -0,0 +1,84 @@
+package io.github.disparter.tokugawa.discord.core.services;
+
+import io.github.disparter.tokugawa.discord.core.models.Player;
+import io.github.disparter.tokugawa.discord.core.models.Villain;
+import io.github.disparter.tokugawa.discord.core.repositories.PlayerRepository;
+import io.github.disparter.tokugawa.discord.core.repositories.VillainRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VillainServiceImplTest {
+
+    @Mock
+    private VillainRepository villainRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @InjectMocks
+    private VillainServiceImpl villainService;
+
+    private Villain boss;
+
+    @BeforeEach
+    void setUp() {
+        boss = new Villain();
+        boss.setId(1L);
+        boss.setName("Oni");
+        boss.setType(Villain.VillainType.BOSS);
+        boss.setRewards(new HashMap<>(Map.of("exp", 100)));
+    }
+
+    private Player player(long id) {
+        Player player = new Player();
+        player.setId(id);
+        player.setName("Player " + id);
+        player.setExp(0);
+        return player;
+    }
+
+    @Test
+    void defeatVillainInRaid_ShouldShareRewardsByDamage_WhenRaidDefeatsVillain() {
+        // Arrange
+        Player killer = player(7L);
+        Player helper = player(8L);
+        when(villainRepository.findById(1L)).thenReturn(Optional.of(boss));
+        when(villainRepository.deactivateIfActive(1L)).thenReturn(1);
+        when(playerRepository.findById(7L)).thenReturn(Optional.of(killer));
+        when(playerRepository.findById(8L)).thenReturn(Optional.of(helper));
+
+        // Act
+        Map<Long, Map<String, Integer>> rewards = villainService.defeatVillainInRaid(1L, 7L, Map.of(7L, 20L, 8L, 10L));
+
+        // Assert
+        assertEquals(67, rewards.get(7L).get("exp"));
+        assertEquals(33, rewards.get(8L).get("exp"));
+        assertEquals(67, killer.getExp());
+        assertEquals(33, helper.getExp());
+    }
+
+    @Test
+    void defeatVillainInRaid_ShouldNotPayRewards_WhenVillainWasAlreadyDefeated() {
+        // Arrange
+        when(villainRepository.findById(1L)).thenReturn(Optional.of(boss));
+        when(villainRepository.deactivateIfActive(1L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> villainService.defeatVillainInRaid(1L, 7L, Map.of(7L, 20L)));
+        verify(playerRepository, never()).save(any());
+    }
+}
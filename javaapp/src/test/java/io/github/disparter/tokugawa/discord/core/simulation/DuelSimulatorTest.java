@@ -0,0 +1,84 @@
+package io.github.disparter.tokugawa.discord.core.simulation;
+
+import io.github.disparter.tokugawa.discord.core.services.CombatStats;
+import io.github.disparter.tokugawa.discord.core.services.CompiledTechnique;
+import io.github.disparter.tokugawa.discord.core.services.NpcPolicy;
+import io.github.disparter.tokugawa.discord.core.services.TechniqueFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DuelSimulatorTest {
+
+    private DuelSimulator.Combatant combatant(String name, CompiledTechnique... techniques) {
+        return new DuelSimulator.Combatant(name, new CombatStats(20, 10, 10, 10), List.of(techniques));
+    }
+
+    private DuelSimulator simulator(ForkJoinPool pool) {
+        return new DuelSimulator(pool, 100, NpcPolicy.DEFAULT_OPPONENT_DAMAGE);
+    }
+
+    @Test
+    void simulate_ShouldGiveSameResults_WhenRunOnAnyNumberOfThreads() {
+        // Arrange
+        DuelSimulator.Combatant player = combatant("Loadout",
+                TechniqueFixtures.compiled(1, 12, 10, Map.of("power_stat_scaling", 30, "critical_chance", 15)),
+                TechniqueFixtures.compiled(2, 6, 15, Map.of("shield", 8, "dot_damage", 3)));
+        DuelSimulator.Combatant npc = combatant("NPC", TechniqueFixtures.compiled(3, 14, 20, Map.of()));
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            // Act
+            DuelSimulator.Result sequential = simulator(single).simulate(player, npc, 20_000, 42);
+            DuelSimulator.Result concurrent = simulator(parallel).simulate(player, npc, 20_000, 42);
+
+            // Assert
+            assertEquals(20_000, sequential.getDuels());
+            assertEquals(sequential.getPlayerWins(), concurrent.getPlayerWins());
+            assertEquals(sequential.getNpcWins(), concurrent.getNpcWins());
+            assertEquals(sequential.getAverageRounds(), concurrent.getAverageRounds());
+            assertArrayEquals(sequential.getPlayerManaCurve(), concurrent.getPlayerManaCurve());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void simulateAll_ShouldWinEveryDuelInOneRound_WhenLoadoutOneShotsTheNpc() {
+        // Arrange
+        DuelSimulator.Combatant player = combatant("Loadout", TechniqueFixtures.compiled(1, 500, 10, Map.of()));
+        DuelSimulator.Combatant npc = combatant("NPC");
+
+        // Act
+        List<DuelSimulator.Result> results = simulator(ForkJoinPool.commonPool())
+                .simulateAll(List.of(player), List.of(npc), 10_000, 7);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(1.0, results.get(0).getPlayerWinRate());
+        assertEquals(1.0, results.get(0).getAverageRounds());
+        assertArrayEquals(new double[]{100.0}, results.get(0).getPlayerManaCurve());
+    }
+
+    @Test
+    void simulate_ShouldLoseEveryDuel_WhenLoadoutCannotAffordAnyTechnique() {
+        // Arrange
+        DuelSimulator.Combatant player = combatant("Loadout", TechniqueFixtures.compiled(1, 50, 150, Map.of()));
+        DuelSimulator.Combatant npc = combatant("NPC");
+
+        // Act
+        DuelSimulator.Result result = simulator(ForkJoinPool.commonPool()).simulate(player, npc, 1_000, 3);
+
+        // Assert
+        assertEquals(1.0, result.getNpcWinRate());
+        assertEquals(0, result.getDraws());
+        // Basic attacks deal 5 to 9 damage, so the player falls in 12 to 20 rounds
+        assertTrue(result.getAverageRounds() >= 12 && result.getAverageRounds() <= 20);
+    }
+}
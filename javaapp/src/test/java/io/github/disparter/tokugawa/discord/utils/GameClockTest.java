@@ -0,0 +1,69 @@
+package io.github.disparter.tokugawa.discord.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameClockTest {
+
+    private static final Instant REAL_START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant GAME_START = Instant.parse("2024-03-01T00:00:00Z");
+
+    @Test
+    void instant_ShouldAdvanceBySpeed_WhenAccelerated() {
+        // Arrange
+        GameClock clock = GameClock.accelerated(Clock.fixed(REAL_START, ZoneOffset.UTC), GAME_START, 1440);
+
+        // Act
+        Instant gameTime = clock.toGameInstant(REAL_START.plus(Duration.ofMinutes(1)));
+
+        // Assert
+        assertEquals(GAME_START, clock.instant());
+        assertEquals(GAME_START.plus(Duration.ofDays(1)), gameTime);
+        assertTrue(clock.isAccelerated());
+    }
+
+    @Test
+    void toRealInstant_ShouldNeverMapBackBeforeTheGameInstant() {
+        // Arrange
+        GameClock clock = GameClock.accelerated(Clock.fixed(REAL_START, ZoneOffset.UTC), GAME_START, 7);
+        Instant gameInstant = GAME_START.plusNanos(10);
+
+        // Act
+        Instant realInstant = clock.toRealInstant(gameInstant);
+
+        // Assert
+        assertEquals(REAL_START.plusNanos(2), realInstant);
+        assertFalse(clock.toGameInstant(realInstant).isBefore(gameInstant));
+    }
+
+    @Test
+    void toRealDuration_ShouldDivideBySpeed() {
+        // Arrange
+        GameClock clock = GameClock.accelerated(Clock.fixed(REAL_START, ZoneOffset.UTC), GAME_START, 60);
+
+        // Act & Assert
+        assertEquals(Duration.ofMinutes(1), clock.toRealDuration(Duration.ofHours(1)));
+    }
+
+    @Test
+    void system_ShouldNotBeAccelerated() {
+        // Arrange
+        GameClock clock = GameClock.system(ZoneOffset.UTC);
+
+        // Act & Assert
+        assertFalse(clock.isAccelerated());
+        assertEquals(1, clock.getSpeed());
+    }
+
+    @Test
+    void accelerated_ShouldThrowException_WhenSpeedIsNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GameClock.accelerated(Clock.systemUTC(), GAME_START, 0));
+    }
+}
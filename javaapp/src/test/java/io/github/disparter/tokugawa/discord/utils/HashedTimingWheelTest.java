@@ -0,0 +1,85 @@
+package io.github.disparter.tokugawa.discord.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>(1000, 8, START);
+    }
+
+    @Test
+    void advance_ShouldExpireDeadline_OnlyOnceItsTimeHasPassed() {
+        // Arrange
+        wheel.schedule("tournament", START + 2500);
+
+        // Act & Assert
+        assertTrue(wheel.advance(START + 2000).isEmpty());
+        assertEquals(List.of("tournament"), wheel.advance(START + 3000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldHandleDeadlinesBeyondOneRotation() {
+        // Arrange - 20 ticks on an 8 slot wheel
+        wheel.schedule("far", START + 20_000);
+        wheel.schedule("near", START + 4_000);
+
+        // Act & Assert
+        assertEquals(List.of("near"), wheel.advance(START + 10_000));
+        assertTrue(wheel.advance(START + 19_999).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(START + 20_000));
+    }
+
+    @Test
+    void schedule_ShouldExpirePastDeadlinesOnNextTick() {
+        // Arrange
+        wheel.advance(START + 5_000);
+        wheel.schedule("late", START);
+
+        // Act
+        List<String> expired = wheel.advance(START + 6_000);
+
+        // Assert
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void schedule_ShouldReplaceExistingDeadlineForSameKey() {
+        // Arrange
+        wheel.schedule("duel", START + 2_000);
+        wheel.schedule("duel", START + 9_000);
+
+        // Act & Assert
+        assertEquals(1, wheel.size());
+        assertEquals(START + 9_000, wheel.getDeadline("duel"));
+        assertTrue(wheel.advance(START + 8_000).isEmpty());
+        assertEquals(List.of("duel"), wheel.advance(START + 9_000));
+    }
+
+    @Test
+    void cancel_ShouldRemovePendingDeadline() {
+        // Arrange
+        wheel.schedule("a", START + 3_000);
+        wheel.schedule("b", START + 3_000);
+
+        // Act
+        boolean cancelled = wheel.cancel("a");
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(wheel.cancel("a"));
+        assertFalse(wheel.contains("a"));
+        assertEquals(List.of("b"), wheel.advance(START + 3_000));
+    }
+}
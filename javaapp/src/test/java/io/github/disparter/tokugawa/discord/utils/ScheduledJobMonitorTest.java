@@ -0,0 +1,100 @@
+package io.github.disparter.tokugawa.discord.utils;
+
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor.JobRun;
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor.JobSummary;
+import io.github.disparter.tokugawa.discord.utils.ScheduledJobMonitor.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduledJobMonitorTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduledJobMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ScheduledJobMonitor(meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC), 2);
+    }
+
+    @Test
+    void monitor_ShouldRecordSuccessfulRuns() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Runnable job = monitor.monitor(ScheduledJobMonitor.named("daily", calls::incrementAndGet));
+
+        // Act
+        job.run();
+        job.run();
+
+        // Assert
+        assertEquals(2, calls.get());
+        JobSummary summary = monitor.getJobs().get(0);
+        assertEquals("daily", summary.getName());
+        assertEquals(2, summary.getSuccessCount());
+        assertEquals(NOW, summary.getLastSuccess());
+        assertEquals(2, meterRegistry.get("tokugawa.scheduled.jobs").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void monitor_ShouldSkipRun_WhenPreviousRunIsStillInProgress() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Runnable[] job = new Runnable[1];
+        job[0] = monitor.monitor(ScheduledJobMonitor.named("hourly", () -> {
+            calls.incrementAndGet();
+            job[0].run();
+        }));
+
+        // Act
+        job[0].run();
+
+        // Assert
+        assertEquals(1, calls.get());
+        List<JobRun> history = monitor.getHistory("hourly");
+        assertEquals(Outcome.SUCCESS, history.get(0).getOutcome());
+        assertEquals(Outcome.SKIPPED, history.get(1).getOutcome());
+        assertEquals(1, monitor.getJobs().get(0).getSkippedCount());
+    }
+
+    @Test
+    void monitor_ShouldRecordFailureAndRethrow_WhenJobThrows() {
+        // Arrange
+        Runnable job = monitor.monitor(ScheduledJobMonitor.named("cleanup", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, job::run);
+        JobRun run = monitor.getHistory("cleanup").get(0);
+        assertEquals(Outcome.FAILURE, run.getOutcome());
+        assertNull(monitor.getJobs().get(0).getLastSuccess());
+        assertEquals(1, monitor.getJobs().get(0).getFailureCount());
+    }
+
+    @Test
+    void getHistory_ShouldKeepOnlyTheMostRecentRuns() {
+        // Arrange
+        Runnable job = monitor.monitor(ScheduledJobMonitor.named("tick", () -> { }));
+
+        // Act
+        job.run();
+        job.run();
+        job.run();
+
+        // Assert
+        assertEquals(2, monitor.getHistory("tick").size());
+        assertTrue(monitor.getHistory("unknown").isEmpty());
+    }
+}